@@ -105,6 +105,12 @@ public class Config {
     public static final String NUM_CONNECTIONS_FOR_BTC = "numConnectionsForBtc";
     public static final String API_PASSWORD = "apiPassword";
     public static final String API_PORT = "apiPort";
+    public static final String API_THREADS = "apiThreads";
+    public static final String API_MAX_CONCURRENT_CALLS_PER_CONNECTION = "apiMaxConcurrentCallsPerConnection";
+    public static final String API_MAX_INBOUND_MESSAGE_SIZE = "apiMaxInboundMessageSize";
+    public static final String API_KEEP_ALIVE_TIME = "apiKeepAliveTime";
+    public static final String API_KEEP_ALIVE_TIMEOUT = "apiKeepAliveTimeout";
+    public static final String API_PERMIT_KEEP_ALIVE_TIME = "apiPermitKeepAliveTime";
     public static final String PREVENT_PERIODIC_SHUTDOWN_AT_SEED_NODE = "preventPeriodicShutdownAtSeedNode";
     public static final String REPUBLISH_MAILBOX_ENTRIES = "republishMailboxEntries";
     public static final String LEGACY_FEE_DATAMAP = "dataMap";
@@ -119,6 +125,8 @@ public class Config {
     public static final int UNSPECIFIED_PORT = -1;
     public static final String DEFAULT_REGTEST_HOST = "none";
     public static final int DEFAULT_NUM_CONNECTIONS_FOR_BTC = 9; // down from BitcoinJ default of 12
+    public static final int DEFAULT_API_THREADS = Math.max(16, 2 * Runtime.getRuntime().availableProcessors());
+    public static final int DEFAULT_API_MAX_INBOUND_MESSAGE_SIZE = 4 * 1024 * 1024; // gRPC default
     static final String DEFAULT_CONFIG_FILE_NAME = "haveno.properties";
 
     // Static fields that provide access to Config properties in locations where injecting
@@ -188,6 +196,12 @@ public class Config {
     public final int numConnectionsForBtc;
     public final String apiPassword;
     public final int apiPort;
+    public final int apiThreads;
+    public final int apiMaxConcurrentCallsPerConnection;
+    public final int apiMaxInboundMessageSize;
+    public final int apiKeepAliveTime;
+    public final int apiKeepAliveTimeout;
+    public final int apiPermitKeepAliveTime;
     public final boolean preventPeriodicShutdownAtSeedNode;
     public final boolean republishMailboxEntries;
     public final boolean bypassMempoolValidation;
@@ -562,6 +576,46 @@ public class Config {
                         .ofType(Integer.class)
                         .defaultsTo(9998);
 
+        ArgumentAcceptingOptionSpec<Integer> apiThreadsOpt =
+                parser.accepts(API_THREADS, "Number of threads running gRPC API calls")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(DEFAULT_API_THREADS);
+
+        ArgumentAcceptingOptionSpec<Integer> apiMaxConcurrentCallsPerConnectionOpt =
+                parser.accepts(API_MAX_CONCURRENT_CALLS_PER_CONNECTION,
+                        "Max number of concurrent gRPC API calls per client connection")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(100);
+
+        ArgumentAcceptingOptionSpec<Integer> apiMaxInboundMessageSizeOpt =
+                parser.accepts(API_MAX_INBOUND_MESSAGE_SIZE, "Max size of a gRPC API request message in bytes")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(DEFAULT_API_MAX_INBOUND_MESSAGE_SIZE);
+
+        ArgumentAcceptingOptionSpec<Integer> apiKeepAliveTimeOpt =
+                parser.accepts(API_KEEP_ALIVE_TIME,
+                        "Seconds without reads after which the gRPC API server pings a client")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(7200);
+
+        ArgumentAcceptingOptionSpec<Integer> apiKeepAliveTimeoutOpt =
+                parser.accepts(API_KEEP_ALIVE_TIMEOUT,
+                        "Seconds the gRPC API server waits for a ping ack before closing the connection")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(20);
+
+        ArgumentAcceptingOptionSpec<Integer> apiPermitKeepAliveTimeOpt =
+                parser.accepts(API_PERMIT_KEEP_ALIVE_TIME,
+                        "Min seconds between keep alive pings the gRPC API server accepts from a client")
+                        .withRequiredArg()
+                        .ofType(int.class)
+                        .defaultsTo(300);
+
         ArgumentAcceptingOptionSpec<Boolean> preventPeriodicShutdownAtSeedNodeOpt =
                 parser.accepts(PREVENT_PERIODIC_SHUTDOWN_AT_SEED_NODE,
                         "Prevents periodic shutdown at seed nodes")
@@ -695,6 +749,12 @@ public class Config {
 
             this.apiPassword = options.valueOf(apiPasswordOpt);
             this.apiPort = options.valueOf(apiPortOpt);
+            this.apiThreads = options.valueOf(apiThreadsOpt);
+            this.apiMaxConcurrentCallsPerConnection = options.valueOf(apiMaxConcurrentCallsPerConnectionOpt);
+            this.apiMaxInboundMessageSize = options.valueOf(apiMaxInboundMessageSizeOpt);
+            this.apiKeepAliveTime = options.valueOf(apiKeepAliveTimeOpt);
+            this.apiKeepAliveTimeout = options.valueOf(apiKeepAliveTimeoutOpt);
+            this.apiPermitKeepAliveTime = options.valueOf(apiPermitKeepAliveTimeOpt);
             this.preventPeriodicShutdownAtSeedNode = options.valueOf(preventPeriodicShutdownAtSeedNodeOpt);
             this.republishMailboxEntries = options.valueOf(republishMailboxEntriesOpt);
             this.bypassMempoolValidation = options.valueOf(bypassMempoolValidationOpt);
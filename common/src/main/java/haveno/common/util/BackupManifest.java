@@ -0,0 +1,221 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import lombok.Getter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Lists the files of a backup with their SHA-256 hash.
+ *
+ * An incremental backup refers to the manifest of the backup it is based on and only contains the files which
+ * changed since then, but its manifest lists all files. Restoring a chain of backups applies the base backup
+ * and then each incremental backup in order, removing the files which are not listed anymore.
+ *
+ * The manifest is written as the first entry of a backup zip, one file per line.
+ */
+@Slf4j
+@Getter
+public class BackupManifest {
+    public static final String FILE_NAME = "haveno_backup_manifest";
+
+    @Value
+    public static class FileEntry {
+        String hash;
+        long size;
+        long lastModified;
+    }
+
+    private final String id;
+    @Nullable
+    private final String baseId;
+    // By path relative to the backed up directory
+    private final Map<String, FileEntry> files;
+
+    public BackupManifest(String id, @Nullable String baseId, Map<String, FileEntry> files) {
+        this.id = id;
+        this.baseId = baseId;
+        this.files = Collections.unmodifiableMap(new TreeMap<>(files));
+    }
+
+    /**
+     * Create the manifest of the files in the directory. Hashes of files whose size and modification time did
+     * not change since the base manifest are taken from it, the other files are hashed in parallel.
+     *
+     * @param id The id of the new backup.
+     * @param dir The directory to back up.
+     * @param excluded Relative paths which are not backed up.
+     * @param base The manifest of the backup to base the new backup on or null for a full backup.
+     * @param numThreads The number of files hashed at the same time.
+     */
+    public static BackupManifest create(String id,
+                                        File dir,
+                                        Predicate<String> excluded,
+                                        @Nullable BackupManifest base,
+                                        int numThreads) {
+        List<String> filePaths = new ArrayList<>();
+        ZipUtils.getFilesRecursive(dir, filePaths);
+
+        Map<String, FileEntry> files = new TreeMap<>();
+        Map<String, Future<String>> hashesToCompute = new TreeMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+        try {
+            for (String filePath : filePaths) {
+                String path = getRelativePath(dir, filePath);
+                if (excluded.test(path)) continue;
+                File file = new File(filePath);
+                long size = file.length();
+                long lastModified = file.lastModified();
+                FileEntry baseEntry = base != null ? base.files.get(path) : null;
+                if (baseEntry != null && baseEntry.size == size && baseEntry.lastModified == lastModified) {
+                    files.put(path, baseEntry);
+                } else {
+                    files.put(path, new FileEntry(null, size, lastModified));
+                    hashesToCompute.put(path, executor.submit(() -> hash(file)));
+                }
+            }
+
+            for (Map.Entry<String, Future<String>> entry : hashesToCompute.entrySet()) {
+                FileEntry fileEntry = files.get(entry.getKey());
+                try {
+                    files.put(entry.getKey(), new FileEntry(entry.getValue().get(), fileEntry.size, fileEntry.lastModified));
+                } catch (Exception e) {
+                    // File got removed while creating the backup
+                    log.warn("Could not hash {}: {}", entry.getKey(), e.getMessage());
+                    files.remove(entry.getKey());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new BackupManifest(id, base != null ? base.id : null, files);
+    }
+
+    /**
+     * @return the relative paths of the files which are not listed with the same hash in the given manifest
+     */
+    public List<String> getChangedFiles(@Nullable BackupManifest other) {
+        return files.entrySet().stream()
+                .filter(e -> other == null || other.files.get(e.getKey()) == null ||
+                        !other.files.get(e.getKey()).hash.equals(e.getValue().hash))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the relative paths of the files which are listed in the given manifest but not in this one
+     */
+    public List<String> getRemovedFiles(BackupManifest other) {
+        return other.files.keySet().stream()
+                .filter(path -> !files.containsKey(path))
+                .collect(Collectors.toList());
+    }
+
+    public boolean isIncremental() {
+        return baseId != null;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Serialization
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public void write(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("id " + id + "\n");
+        if (baseId != null) writer.write("base " + baseId + "\n");
+        for (Map.Entry<String, FileEntry> entry : files.entrySet()) {
+            FileEntry fileEntry = entry.getValue();
+            writer.write(fileEntry.hash + " " + fileEntry.size + " " + fileEntry.lastModified + " " + entry.getKey() + "\n");
+        }
+        writer.flush();
+    }
+
+    public static BackupManifest read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String id = null;
+        String baseId = null;
+        Map<String, FileEntry> files = new TreeMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) continue;
+            String[] tokens = line.split(" ", 4);
+            if (tokens[0].equals("id") && tokens.length == 2) {
+                id = tokens[1];
+            } else if (tokens[0].equals("base") && tokens.length == 2) {
+                baseId = tokens[1];
+            } else if (tokens.length == 4) {
+                try {
+                    files.put(tokens[3], new FileEntry(tokens[0], Long.parseLong(tokens[1]), Long.parseLong(tokens[2])));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid backup manifest line: " + line);
+                }
+            } else {
+                throw new IOException("Invalid backup manifest line: " + line);
+            }
+        }
+        if (id == null) throw new IOException("Backup manifest has no id");
+        return new BackupManifest(id, baseId, files);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static String getRelativePath(File dir, String filePath) {
+        return filePath.substring(dir.getAbsolutePath().length() + 1);
+    }
+
+    private static String hash(File file) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (FileInputStream fis = new FileInputStream(file)) {
+            byte[] buffer = new byte[64 * 1024];
+            int length;
+            while ((length = fis.read(buffer)) > 0) {
+                digest.update(buffer, 0, length);
+            }
+        }
+        return Utilities.bytesAsHexString(digest.digest());
+    }
+}
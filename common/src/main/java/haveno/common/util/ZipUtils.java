@@ -24,7 +24,9 @@ import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -45,28 +47,53 @@ public class ZipUtils {
         getFilesRecursive(dir, fileList);
         try (ZipOutputStream zos = new ZipOutputStream(out)) {
             for (String filePath : fileList) {
-                log.info("Compressing: " + filePath);
+                addFile(zos, filePath, filePath.substring(dir.getAbsolutePath().length() + 1), bufferSize);
+            }
+        }
+    }
 
-                // Creates a zip entry.
-                String name = filePath.substring(dir.getAbsolutePath().length() + 1);
+    /**
+     * Zips the backup manifest followed by the given files of the directory into the output stream.
+     *
+     * @param dir The directory the paths are relative to.
+     * @param manifest The manifest of the backup.
+     * @param paths The relative paths of the files to include.
+     * @param out The stream to write to.
+     */
+    public static void zipFilesToStream(File dir,
+                                        BackupManifest manifest,
+                                        Collection<String> paths,
+                                        OutputStream out,
+                                        int bufferSize) throws Exception {
+        try (ZipOutputStream zos = new ZipOutputStream(out)) {
+            zos.putNextEntry(new ZipEntry(BackupManifest.FILE_NAME));
+            manifest.write(zos);
+            zos.closeEntry();
+            for (String path : paths) {
+                addFile(zos, new File(dir, path).getAbsolutePath(), path, bufferSize);
+            }
+        }
+    }
 
-                ZipEntry zipEntry = new ZipEntry(name);
-                zos.putNextEntry(zipEntry);
+    private static void addFile(ZipOutputStream zos, String filePath, String name, int bufferSize) throws Exception {
+        log.info("Compressing: " + filePath);
 
-                // Read file content and write to zip output stream.
-                try (FileInputStream fis = new FileInputStream(filePath)) {
-                    byte[] buffer = new byte[bufferSize];
-                    int length;
-                    while ((length = fis.read(buffer)) > 0) {
-                        zos.write(buffer, 0, length);
-                    }
+        // Creates a zip entry.
+        ZipEntry zipEntry = new ZipEntry(name);
+        zos.putNextEntry(zipEntry);
 
-                    // Close the zip entry.
-                    zos.closeEntry();
-                } catch (Exception e) {
-                    log.warn(e.getMessage());
-                }
+        // Read file content and write to zip output stream.
+        try (FileInputStream fis = new FileInputStream(filePath)) {
+            byte[] buffer = new byte[bufferSize];
+            int length;
+            while ((length = fis.read(buffer)) > 0) {
+                zos.write(buffer, 0, length);
             }
+
+            // Close the zip entry.
+            zos.closeEntry();
+        } catch (Exception e) {
+            log.warn(e.getMessage());
         }
     }
 
@@ -95,13 +122,32 @@ public class ZipUtils {
      * @param bufferSize The buffer used to read from efficiently.
      */
     public static void unzipToDir(File dir, InputStream inputStream, int bufferSize) throws Exception {
+        unzipToDir(dir, inputStream, bufferSize, manifest -> {});
+    }
+
+    /**
+     * Unzips the zipStream into the specified directory, overwriting any files.
+     * The backup manifest is passed to the manifest handler instead of being written. As the manifest is the first
+     * entry, the handler can throw to reject the backup before any file is written.
+     *
+     * @param dir The directory to write to.
+     * @param inputStream The raw stream assumed to be in zip format.
+     * @param bufferSize The buffer used to read from efficiently.
+     * @param manifestHandler Called with the manifest of the backup if it has one.
+     */
+    public static void unzipToDir(File dir,
+                                  InputStream inputStream,
+                                  int bufferSize,
+                                  Consumer<BackupManifest> manifestHandler) throws Exception {
         try (ZipInputStream zipStream = new ZipInputStream(inputStream)) {
             ZipEntry entry;
             byte[] buffer = new byte[bufferSize];
             int count;
             while ((entry = zipStream.getNextEntry()) != null) {
                 File file = new File(dir, entry.getName());
-                if (entry.isDirectory()) {
+                if (entry.getName().equals(BackupManifest.FILE_NAME)) {
+                    manifestHandler.accept(BackupManifest.read(zipStream));
+                } else if (entry.isDirectory()) {
                     file.mkdirs();
                 } else {
 
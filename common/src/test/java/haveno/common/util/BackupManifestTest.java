@@ -0,0 +1,145 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.common.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static haveno.common.file.FileUtil.deleteDirectory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BackupManifestTest {
+    private File dir;
+    private File restoreDir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("backup").toFile();
+        restoreDir = Files.createTempDirectory("restore").toFile();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        deleteDirectory(dir);
+        deleteDirectory(restoreDir);
+    }
+
+    @Test
+    public void testIncrementalBackupContainsChangedFiles() throws IOException {
+        write("unchanged", "a");
+        write("changed", "b");
+        write("removed", "c");
+        write("excluded" + File.separator + "manifest", "d");
+        BackupManifest base = BackupManifest.create("1", dir, path -> path.startsWith("excluded"), null, 2);
+        assertNull(base.getBaseId());
+        assertEquals(List.of("changed", "removed", "unchanged"), base.getChangedFiles(null));
+
+        write("changed", "bb");
+        write("added", "e");
+        assertTrue(new File(dir, "removed").delete());
+        BackupManifest manifest = BackupManifest.create("2", dir, path -> path.startsWith("excluded"), base, 2);
+
+        assertEquals("1", manifest.getBaseId());
+        assertEquals(List.of("added", "changed"), manifest.getChangedFiles(base));
+        assertEquals(List.of("removed"), manifest.getRemovedFiles(base));
+        assertEquals(base.getFiles().get("unchanged"), manifest.getFiles().get("unchanged"));
+    }
+
+    @Test
+    public void testSerialization() throws IOException {
+        write("file with spaces", "a");
+        write("dir" + File.separator + "file", "b");
+        BackupManifest manifest = BackupManifest.create("2", dir, path -> false, new BackupManifest("1", null, Map.of()), 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        manifest.write(out);
+        BackupManifest read = BackupManifest.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(manifest.getId(), read.getId());
+        assertEquals(manifest.getBaseId(), read.getBaseId());
+        assertEquals(manifest.getFiles(), read.getFiles());
+    }
+
+    @Test
+    public void testRestoreChain() throws Exception {
+        write("unchanged", "a");
+        write("changed", "b");
+        BackupManifest base = BackupManifest.create("1", dir, path -> false, null, 2);
+        byte[] baseZip = zip(base, base.getChangedFiles(null));
+
+        write("changed", "bb");
+        BackupManifest manifest = BackupManifest.create("2", dir, path -> false, base, 2);
+        byte[] incrementalZip = zip(manifest, manifest.getChangedFiles(base));
+
+        List<BackupManifest> manifests = new ArrayList<>();
+        ZipUtils.unzipToDir(restoreDir, new ByteArrayInputStream(baseZip), 1024, manifests::add);
+        ZipUtils.unzipToDir(restoreDir, new ByteArrayInputStream(incrementalZip), 1024, manifests::add);
+
+        assertEquals(List.of("1", "2"), List.of(manifests.get(0).getId(), manifests.get(1).getId()));
+        assertEquals("a", read(new File(restoreDir, "unchanged")));
+        assertEquals("bb", read(new File(restoreDir, "changed")));
+        assertFalse(new File(restoreDir, BackupManifest.FILE_NAME).exists());
+    }
+
+    @Test
+    public void testRejectedManifestWritesNoFiles() throws Exception {
+        write("file", "a");
+        BackupManifest manifest = BackupManifest.create("2", dir, path -> false, new BackupManifest("1", null, Map.of()), 2);
+        byte[] zip = zip(manifest, manifest.getChangedFiles(null));
+
+        try {
+            ZipUtils.unzipToDir(restoreDir, new ByteArrayInputStream(zip), 1024, backupManifest -> {
+                throw new IllegalStateException("Unexpected base " + backupManifest.getBaseId());
+            });
+            fail();
+        } catch (IllegalStateException expected) {
+            assertFalse(new File(restoreDir, "file").exists());
+        }
+    }
+
+    private byte[] zip(BackupManifest manifest, List<String> paths) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipUtils.zipFilesToStream(dir, manifest, paths, out, 1024);
+        return out.toByteArray();
+    }
+
+    private void write(String path, String content) throws IOException {
+        File file = new File(dir, path);
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content);
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -63,7 +63,6 @@ import java.time.Clock;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -139,12 +138,9 @@ public class AccountAgeWitnessService {
     @Getter
     private final AccountAgeWitnessUtils accountAgeWitnessUtils;
 
-    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
-
-    // The accountAgeWitnessMap is very large (70k items) and access is a bit expensive. We usually only access less
-    // than 100 items, those who have offers online. So we use a cache for a fast lookup and only if
-    // not found there we use the accountAgeWitnessMap and put then the new item into our cache.
-    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessCache = new ConcurrentHashMap<>();
+    // The accountAgeWitnessMap is very large (70k items) and is read per offer from API and UI threads. Witnesses are
+    // append-only, so a concurrent map lets readers look up by hash without taking a lock.
+    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new ConcurrentHashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -236,9 +232,7 @@ public class AccountAgeWitnessService {
 
     @VisibleForTesting
     public void addToMap(AccountAgeWitness accountAgeWitness) {
-        synchronized (this) {
-            accountAgeWitnessMap.putIfAbsent(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
-        }
+        accountAgeWitnessMap.putIfAbsent(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
     }
 
 
@@ -247,19 +241,12 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void publishMyAccountAgeWitness(PaymentAccountPayload paymentAccountPayload) {
-        synchronized (this) {
-            AccountAgeWitness accountAgeWitness = getMyWitness(paymentAccountPayload);
-            P2PDataStorage.ByteArray hash = accountAgeWitness.getHashAsByteArray();
-
-            // We use first our fast lookup cache. If its in accountAgeWitnessCache it is also in accountAgeWitnessMap
-            // and we do not publish.
-            if (accountAgeWitnessCache.containsKey(hash)) {
-                return;
-            }
+        AccountAgeWitness accountAgeWitness = getMyWitness(paymentAccountPayload);
+        P2PDataStorage.ByteArray hash = accountAgeWitness.getHashAsByteArray();
 
-            if (!accountAgeWitnessMap.containsKey(hash)) {
-                p2PService.addPersistableNetworkPayload(accountAgeWitness, false);
-            }
+        // If its already in our map we do not publish. A concurrent duplicate publish is ignored by the P2P storage.
+        if (!accountAgeWitnessMap.containsKey(hash)) {
+            p2PService.addPersistableNetworkPayload(accountAgeWitness, false);
         }
     }
 
@@ -314,24 +301,7 @@ public class AccountAgeWitnessService {
 
     private Optional<AccountAgeWitness> getWitnessByHash(byte[] hash) {
         P2PDataStorage.ByteArray hashAsByteArray = new P2PDataStorage.ByteArray(hash);
-        synchronized (this) {
-
-            // First we look up in our fast lookup cache
-            if (accountAgeWitnessCache.containsKey(hashAsByteArray)) {
-                return Optional.of(accountAgeWitnessCache.get(hashAsByteArray));
-            }
-
-            if (accountAgeWitnessMap.containsKey(hashAsByteArray)) {
-                AccountAgeWitness accountAgeWitness = accountAgeWitnessMap.get(hashAsByteArray);
-
-                // We add it to our fast lookup cache
-                accountAgeWitnessCache.put(hashAsByteArray, accountAgeWitness);
-
-                return Optional.of(accountAgeWitness);
-            }
-
-            return Optional.empty();
-        }
+        return Optional.ofNullable(accountAgeWitnessMap.get(hashAsByteArray));
     }
 
     private Optional<AccountAgeWitness> getWitnessByHashAsHex(String hashAsHex) {
@@ -23,19 +23,29 @@ import haveno.common.crypto.KeyRing;
 import haveno.common.crypto.KeyStorage;
 import haveno.common.file.FileUtil;
 import haveno.common.persistence.PersistenceManager;
+import haveno.common.util.BackupManifest;
 import haveno.common.util.ZipUtils;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PipedInputStream;
 import java.io.PipedOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -48,11 +58,18 @@ import static com.google.common.base.Preconditions.checkState;
  *
  * Backup and restore flushes the persistence objects in the app folder and sends or
  * restores a zip stream.
+ *
+ * Incremental backups contain a {@link BackupManifest} and only the files which changed since
+ * the backup they are based on. We keep the manifests of the last backups to compare with.
+ * A chain of a base backup and incremental backups is restored by passing the backups in order.
  */
 @Singleton
 @Slf4j
 public class CoreAccountService {
 
+    private static final String BACKUP_MANIFESTS_DIR_NAME = "backup_manifests";
+    private static final int NUM_MAX_BACKUP_MANIFESTS = 10;
+
     private final Config config;
     private final KeyStorage keyStorage;
     private final KeyRing keyRing;
@@ -60,6 +77,8 @@ public class CoreAccountService {
     @Getter
     private String password;
     private List<AccountServiceListener> listeners = new ArrayList<AccountServiceListener>();
+    @Nullable
+    private BackupManifest restoredManifest; // manifest of the last backup applied while restoring a chain of backups
 
     @Inject
     public CoreAccountService(Config config,
@@ -165,10 +184,107 @@ public class CoreAccountService {
         });
     }
 
+    /**
+     * Backup the account, only including the files which changed since the given backup.
+     *
+     * @param baseBackupId The id of the backup to base the backup on. If null or if we don't have the manifest of the
+     *                     backup anymore, all files are included.
+     * @param bufferSize The buffer size of the stream.
+     * @param consume Consumer of the manifest of the backup and the zip stream.
+     * @param error Called if the backup failed.
+     */
+    public void backupAccount(@Nullable String baseBackupId,
+                              int bufferSize,
+                              BiConsumer<BackupManifest, InputStream> consume,
+                              Consumer<Exception> error) {
+        if (!accountExists()) throw new IllegalStateException("Cannot backup non existing account");
+
+        // flush all known persistence objects to disk
+        PersistenceManager.flushAllDataToDiskAtBackup(() -> new Thread(() -> {
+            try {
+                File dataDir = new File(config.appDataDir.getPath());
+                BackupManifest baseManifest = baseBackupId == null ? null : readBackupManifest(baseBackupId);
+                if (baseBackupId != null && baseManifest == null) log.warn("Manifest of backup {} not found, creating full backup", baseBackupId);
+                BackupManifest manifest = BackupManifest.create(UUID.randomUUID().toString(),
+                        dataDir,
+                        path -> path.startsWith(BACKUP_MANIFESTS_DIR_NAME + File.separator),
+                        baseManifest,
+                        Runtime.getRuntime().availableProcessors());
+                writeBackupManifest(manifest);
+
+                List<String> changedFiles = manifest.getChangedFiles(baseManifest);
+                log.info("Zipping {} of {} files of directory {}", changedFiles.size(), manifest.getFiles().size(), dataDir);
+                PipedInputStream in = new PipedInputStream(bufferSize); // pipe the serialized account object to stream which will be read by the consumer
+                PipedOutputStream out = new PipedOutputStream(in);
+                new Thread(() -> {
+                    try {
+                        ZipUtils.zipFilesToStream(dataDir, manifest, changedFiles, out, bufferSize);
+                    } catch (Exception ex) {
+                        error.accept(ex);
+                    }
+                }).start();
+                consume.accept(manifest, in);
+            } catch (Exception err) {
+                error.accept(err);
+            }
+        }).start());
+    }
+
+    /**
+     * @return whether we are restoring a chain of backups and expect the next incremental backup
+     */
+    public synchronized boolean isRestoringAccount() {
+        return restoredManifest != null;
+    }
+
     public void restoreAccount(InputStream inputStream, int bufferSize, Runnable onShutdown) throws Exception {
-        if (accountExists()) throw new IllegalStateException("Cannot restore account if there is an existing account");
+        restoreAccount(inputStream, bufferSize, false, onShutdown);
+    }
+
+    /**
+     * Restore the account from a backup.
+     *
+     * @param inputStream The zip stream of the backup.
+     * @param bufferSize The buffer size used to read the stream.
+     * @param hasMoreBackups Whether incremental backups based on this backup will be restored next.
+     * @param onShutdown Called after the account is restored and the application shut down.
+     */
+    public synchronized void restoreAccount(InputStream inputStream,
+                                            int bufferSize,
+                                            boolean hasMoreBackups,
+                                            Runnable onShutdown) throws Exception {
+        BackupManifest previousManifest = restoredManifest;
+        if (previousManifest == null && accountExists()) throw new IllegalStateException("Cannot restore account if there is an existing account");
         File dataDir = new File(config.appDataDir.getPath());
-        ZipUtils.unzipToDir(dataDir, inputStream, bufferSize);
+        AtomicReference<BackupManifest> manifest = new AtomicReference<>();
+        try {
+            ZipUtils.unzipToDir(dataDir, inputStream, bufferSize, backupManifest -> {
+                String expectedBaseId = previousManifest == null ? null : previousManifest.getId();
+                if (!StringUtils.equals(backupManifest.getBaseId(), expectedBaseId)) {
+                    throw new IllegalStateException("Backup " + backupManifest.getId() + " is based on " +
+                            backupManifest.getBaseId() + " but expected " + expectedBaseId);
+                }
+                manifest.set(backupManifest);
+            });
+            if (previousManifest != null) {
+                if (manifest.get() == null) throw new IllegalStateException("Incremental backup has no manifest");
+                for (String path : manifest.get().getRemovedFiles(previousManifest)) {
+                    File file = new File(dataDir, path);
+                    if (file.exists() && !file.delete()) log.warn("Could not delete {}", file);
+                }
+            }
+            if (manifest.get() != null) writeBackupManifest(manifest.get()); // continue the chain from the restored account
+        } catch (Exception e) {
+            restoredManifest = null;
+            throw e;
+        }
+
+        if (hasMoreBackups) {
+            if (manifest.get() == null) throw new IllegalStateException("Backup without manifest cannot be followed by incremental backups");
+            restoredManifest = manifest.get();
+            return;
+        }
+        restoredManifest = null;
         synchronized (listeners) {
             for (AccountServiceListener listener : new ArrayList<>(listeners)) listener.onAccountRestored(onShutdown);
         }
@@ -186,4 +302,34 @@ public class CoreAccountService {
             throw new RuntimeException(err);
         }
     }
+
+    @Nullable
+    private BackupManifest readBackupManifest(String backupId) throws IOException {
+        File file = new File(getBackupManifestsDir(), backupId);
+        if (!file.getParentFile().equals(getBackupManifestsDir()) || !file.exists()) return null;
+        try (FileInputStream in = new FileInputStream(file)) {
+            return BackupManifest.read(in);
+        }
+    }
+
+    private void writeBackupManifest(BackupManifest manifest) throws IOException {
+        File dir = getBackupManifestsDir();
+        if (!dir.exists() && !dir.mkdirs()) throw new IOException("Could not create directory " + dir);
+        try (FileOutputStream out = new FileOutputStream(new File(dir, manifest.getId()))) {
+            manifest.write(out);
+        }
+
+        // keep the manifests of the last backups
+        File[] files = dir.listFiles();
+        if (files != null && files.length > NUM_MAX_BACKUP_MANIFESTS) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified).reversed());
+            for (int i = NUM_MAX_BACKUP_MANIFESTS; i < files.length; i++) {
+                if (!files[i].delete()) log.warn("Could not delete backup manifest {}", files[i]);
+            }
+        }
+    }
+
+    private File getBackupManifestsDir() {
+        return new File(config.appDataDir, BACKUP_MANIFESTS_DIR_NAME);
+    }
 }
@@ -24,6 +24,7 @@ import haveno.common.crypto.IncorrectPasswordException;
 import haveno.common.handlers.ErrorMessageHandler;
 import haveno.common.handlers.FaultHandler;
 import haveno.common.handlers.ResultHandler;
+import haveno.common.util.BackupManifest;
 import haveno.core.api.model.AddressBalanceInfo;
 import haveno.core.api.model.BalancesInfo;
 import haveno.core.api.model.MarketDepthInfo;
@@ -33,6 +34,7 @@ import haveno.core.api.model.PaymentAccountFormField;
 import haveno.core.app.AppStartupState;
 import haveno.core.monetary.Price;
 import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService;
 import haveno.core.offer.OfferDirection;
 import haveno.core.offer.OpenOffer;
 import haveno.core.payment.PaymentAccount;
@@ -42,9 +44,12 @@ import haveno.core.support.dispute.Dispute;
 import haveno.core.support.dispute.DisputeResult;
 import haveno.core.support.messages.ChatMessage;
 import haveno.core.trade.Trade;
+import haveno.core.trade.statistics.Candle;
+import haveno.core.trade.statistics.TickUnit;
 import haveno.core.trade.statistics.TradeStatistics3;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.xmr.MoneroNodeSettings;
+import haveno.core.xmr.wallet.WalletPasswordChangeJob;
 import haveno.proto.grpc.NotificationMessage;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -53,6 +58,7 @@ import monero.wallet.model.MoneroDestination;
 import monero.wallet.model.MoneroTxWallet;
 import org.bitcoinj.core.Transaction;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
@@ -63,6 +69,7 @@ import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
 /**
@@ -164,6 +171,18 @@ public class CoreApi {
         coreAccountService.changePassword(oldPassword, newPassword);
     }
 
+    public WalletPasswordChangeJob.Progress getPasswordChangeProgress() {
+        return walletsService.getPasswordChangeProgress();
+    }
+
+    public void addPasswordChangeListener(Consumer<WalletPasswordChangeJob.Progress> listener) {
+        walletsService.addPasswordChangeListener(listener);
+    }
+
+    public void removePasswordChangeListener(Consumer<WalletPasswordChangeJob.Progress> listener) {
+        walletsService.removePasswordChangeListener(listener);
+    }
+
     public void closeAccount() {
         coreAccountService.closeAccount();
     }
@@ -176,10 +195,25 @@ public class CoreApi {
         coreAccountService.backupAccount(bufferSize, consume, error);
     }
 
+    public void backupAccount(@Nullable String baseBackupId,
+                              int bufferSize,
+                              BiConsumer<BackupManifest, InputStream> consume,
+                              Consumer<Exception> error) {
+        coreAccountService.backupAccount(baseBackupId, bufferSize, consume, error);
+    }
+
+    public boolean isRestoringAccount() {
+        return coreAccountService.isRestoringAccount();
+    }
+
     public void restoreAccount(InputStream zipStream, int bufferSize, Runnable onShutdown) throws Exception {
         coreAccountService.restoreAccount(zipStream, bufferSize, onShutdown);
     }
 
+    public void restoreAccount(InputStream zipStream, int bufferSize, boolean hasMoreBackups, Runnable onShutdown) throws Exception {
+        coreAccountService.restoreAccount(zipStream, bufferSize, hasMoreBackups, onShutdown);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Monero Connections
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -328,6 +362,19 @@ public class CoreApi {
         return new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsSet());
     }
 
+    public List<TradeStatistics3> getTradeStatistics(@Nullable String currencyCode,
+                                                     long fromDate,
+                                                     long toDate,
+                                                     long cursorDate,
+                                                     @Nullable byte[] cursorHash,
+                                                     int limit) {
+        return tradeStatisticsManager.getTradeStatisticsColumns().getTradeStatistics(currencyCode, fromDate, toDate, cursorDate, cursorHash, limit);
+    }
+
+    public List<Candle> getCandles(String currencyCode, TickUnit tickUnit, long fromDate, long toDate) {
+        return tradeStatisticsManager.getCandleStore().getCandles(currencyCode, tickUnit, fromDate, toDate);
+    }
+
     public int getNumConfirmationsForMostRecentTransaction(String addressString) {
         return walletsService.getNumConfirmationsForMostRecentTransaction(addressString);
     }
@@ -340,6 +387,10 @@ public class CoreApi {
         notificationService.addListener(listener);
     }
 
+    public void removeNotificationListener(NotificationListener listener) {
+        notificationService.removeListener(listener);
+    }
+
     public void sendNotification(NotificationMessage notification) {
         notificationService.sendNotification(notification);
     }
@@ -369,6 +420,10 @@ public class CoreApi {
         coreDisputeService.sendDisputeChatMessage(disputeId, message, attachments);
     }
 
+    public Attachment getDisputeAttachment(String disputeId, String hash) {
+        return coreDisputeService.getDisputeAttachment(disputeId, hash);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Dispute Agents
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -401,6 +456,22 @@ public class CoreApi {
         return coreOffersService.getMyOffers(direction, currencyCode);
     }
 
+    public boolean isAvailableOffer(Offer offer, String direction, String currencyCode) {
+        return coreOffersService.isAvailableOffer(offer, direction, currencyCode);
+    }
+
+    public boolean offerMatchesDirectionAndCurrency(Offer offer, String direction, String currencyCode) {
+        return coreOffersService.offerMatchesDirectionAndCurrency(offer, direction, currencyCode);
+    }
+
+    public void addOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        coreOffersService.addOfferBookChangedListener(listener);
+    }
+
+    public void removeOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        coreOffersService.removeOfferBookChangedListener(listener);
+    }
+
     public OpenOffer getMyOpenOffer(String id) {
         return coreOffersService.getMyOpenOffer(id);
     }
@@ -431,6 +502,32 @@ public class CoreApi {
                 errorMessageHandler);
     }
 
+    public Offer createOffer(String currencyCode,
+                             String directionAsString,
+                             String priceAsString,
+                             boolean useMarketBasedPrice,
+                             double marketPriceMargin,
+                             long amountAsLong,
+                             long minAmountAsLong,
+                             double buyerSecurityDeposit,
+                             String paymentAccountId) {
+        return coreOffersService.createOffer(currencyCode,
+                directionAsString,
+                priceAsString,
+                useMarketBasedPrice,
+                marketPriceMargin,
+                amountAsLong,
+                minAmountAsLong,
+                buyerSecurityDeposit,
+                paymentAccountId);
+    }
+
+    public void postOffers(List<Offer> offers,
+                           List<String> triggerPricesAsStrings,
+                           Consumer<List<String>> resultHandler) {
+        coreOffersService.postOffers(offers, triggerPricesAsStrings, resultHandler);
+    }
+
     public Offer editOffer(String offerId,
                            String currencyCode,
                            OfferDirection direction,
@@ -457,6 +554,10 @@ public class CoreApi {
         coreOffersService.cancelOffer(id);
     }
 
+    public List<String> cancelOffers(List<String> ids) {
+        return coreOffersService.cancelOffers(ids);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PaymentAccounts
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -515,6 +616,14 @@ public class CoreApi {
         return corePriceService.getMarketDepth(currencyCode);
     }
 
+    public void addMarketDepthListener(Consumer<String> listener) {
+        corePriceService.addMarketDepthListener(listener);
+    }
+
+    public void removeMarketDepthListener(Consumer<String> listener) {
+        corePriceService.removeMarketDepthListener(listener);
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Trades
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -551,6 +660,10 @@ public class CoreApi {
         return coreTradesService.getTrades();
     }
 
+    public List<Trade> getClosedTrades(long cursorDate, String cursorTradeId, int limit) {
+        return coreTradesService.getClosedTrades(cursorDate, cursorTradeId, limit);
+    }
+
     public String getTradeRole(String tradeId) {
         return coreTradesService.getTradeRole(tradeId);
     }
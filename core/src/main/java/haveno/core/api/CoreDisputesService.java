@@ -285,6 +285,10 @@ public class CoreDisputesService {
         Dispute dispute;
         if (disputeOptional.isPresent()) dispute = disputeOptional.get();
         else throw new IllegalStateException(format("dispute with id '%s' not found", disputeId));
+        long attachmentsSize = attachments.stream().mapToLong(Attachment::getSize).sum();
+        int maxAttachmentsSize = arbitrationManager.getMaxAttachmentSize(dispute.getTradeId(), dispute.getTraderId());
+        if (attachmentsSize > maxAttachmentsSize)
+            throw new IllegalArgumentException(format("attachments of %d bytes exceed the limit of %d bytes for this peer", attachmentsSize, maxAttachmentsSize));
         ChatMessage chatMessage = new ChatMessage(
                 arbitrationManager.getSupportType(),
                 dispute.getTradeId(),
@@ -296,4 +300,18 @@ public class CoreDisputesService {
         dispute.addAndPersistChatMessage(chatMessage);
         arbitrationManager.sendChatMessage(chatMessage);
     }
+
+    public Attachment getDisputeAttachment(String disputeId, String hash) {
+        Dispute dispute = arbitrationManager.findDisputeById(disputeId).orElseThrow(() ->
+                new IllegalStateException(format("dispute with id '%s' not found", disputeId)));
+        Attachment attachment = dispute.getChatMessages().stream()
+                .flatMap(chatMessage -> chatMessage.getAttachments().stream())
+                .filter(a -> hash.equals(a.getHashAsHex()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(format("attachment with hash '%s' not found", hash)));
+        byte[] bytes = arbitrationManager.getAttachmentBytes(attachment);
+        if (bytes == null)
+            throw new IllegalStateException(format("attachment with hash '%s' was not received yet", hash));
+        return new Attachment(attachment.getFileName(), bytes);
+    }
 }
@@ -9,32 +9,33 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Singleton;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 @Singleton
 @Slf4j
 public class CoreNotificationService {
 
     private final Object lock = new Object();
-    private final List<NotificationListener> listeners = new LinkedList<>();
+    // listeners may remove themselves while a notification is sent to them
+    private final List<NotificationListener> listeners = new CopyOnWriteArrayList<>();
 
     public void addListener(@NonNull NotificationListener listener) {
-        synchronized (lock) {
-            listeners.add(listener);
-        }
+        listeners.add(listener);
+    }
+
+    public void removeListener(@NonNull NotificationListener listener) {
+        listeners.remove(listener);
     }
 
     public void sendNotification(@NonNull NotificationMessage notification) {
         synchronized (lock) {
-            for (Iterator<NotificationListener> iter = listeners.iterator(); iter.hasNext(); ) {
-                NotificationListener listener = iter.next();
+            for (NotificationListener listener : listeners) {
                 try {
                     listener.onMessage(notification);
                 } catch (RuntimeException e) {
                     log.warn("Failed to send notification to listener {}: {}", listener, e.getMessage());
-                    iter.remove();
+                    listeners.remove(listener);
                 }
             }
         }
@@ -118,6 +118,23 @@ public class CoreOffersService {
                 .collect(Collectors.toList());
     }
 
+    // same checks as getOffers(direction, currencyCode) for a single offer, except for duplicate key images
+    boolean isAvailableOffer(Offer offer, String direction, String currencyCode) {
+        if (offer.isMyOffer(keyRing) || !offerMatchesDirectionAndCurrency(offer, direction, currencyCode)) {
+            return false;
+        }
+        Result result = offerFilter.canTakeOffer(offer, coreContext.isApiUser());
+        return result.isValid() || result == Result.HAS_NO_PAYMENT_ACCOUNT_VALID_FOR_OFFER;
+    }
+
+    void addOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        offerBookService.addOfferBookChangedListener(listener);
+    }
+
+    void removeOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+        offerBookService.removeOfferBookChangedListener(listener);
+    }
+
     Offer getOffer(String id) {
         return getOffers().stream()
                 .filter(o -> o.getId().equals(id))
@@ -168,6 +185,35 @@ public class CoreOffersService {
                              String paymentAccountId,
                              Consumer<Offer> resultHandler,
                              ErrorMessageHandler errorMessageHandler) {
+        Offer offer = createOffer(currencyCode,
+                directionAsString,
+                priceAsString,
+                useMarketBasedPrice,
+                marketPriceMargin,
+                amountAsLong,
+                minAmountAsLong,
+                buyerSecurityDeposit,
+                paymentAccountId);
+
+        // We don't support atm funding from external wallet to keep it simple.
+        boolean useSavingsWallet = true;
+        //noinspection ConstantConditions
+        placeOffer(offer,
+                triggerPriceAsString,
+                useSavingsWallet,
+                transaction -> resultHandler.accept(offer),
+                errorMessageHandler);
+    }
+
+    Offer createOffer(String currencyCode,
+                      String directionAsString,
+                      String priceAsString,
+                      boolean useMarketBasedPrice,
+                      double marketPriceMargin,
+                      long amountAsLong,
+                      long minAmountAsLong,
+                      double buyerSecurityDeposit,
+                      String paymentAccountId) {
         coreWalletsService.verifyWalletsAreAvailable();
         coreWalletsService.verifyEncryptedWalletIsUnlocked();
 
@@ -193,15 +239,20 @@ public class CoreOffersService {
                 paymentAccount);
 
         verifyPaymentAccountIsValidForNewOffer(offer, paymentAccount);
+        return offer;
+    }
 
-        // We don't support atm funding from external wallet to keep it simple.
-        boolean useSavingsWallet = true;
-        //noinspection ConstantConditions
-        placeOffer(offer,
-                triggerPriceAsString,
-                useSavingsWallet,
-                transaction -> resultHandler.accept(offer),
-                errorMessageHandler);
+    // Places offers created with createOffer together, see OpenOfferManager.placeOffers.
+    void postOffers(List<Offer> offers,
+                    List<String> triggerPricesAsStrings,
+                    Consumer<List<String>> resultHandler) {
+        coreWalletsService.verifyWalletsAreAvailable();
+        coreWalletsService.verifyEncryptedWalletIsUnlocked();
+        List<Long> triggerPrices = new ArrayList<>();
+        for (int i = 0; i < offers.size(); i++) {
+            triggerPrices.add(PriceUtil.getMarketPriceAsLong(triggerPricesAsStrings.get(i), offers.get(i).getCurrencyCode()));
+        }
+        openOfferManager.placeOffers(offers, triggerPrices, resultHandler);
     }
 
     Offer editOffer(String offerId,
@@ -236,6 +287,20 @@ public class CoreOffersService {
                 });
     }
 
+    // Returns the error message of each offer, or null if it was cancelled.
+    List<String> cancelOffers(List<String> ids) {
+        List<String> errorMessages = new ArrayList<>();
+        for (String id : ids) {
+            try {
+                cancelOffer(id);
+                errorMessages.add(null);
+            } catch (Exception e) {
+                errorMessages.add(e.getMessage());
+            }
+        }
+        return errorMessages;
+    }
+
     // -------------------------- PRIVATE HELPERS -----------------------------
 
     private Set<Offer> getOffersWithDuplicateKeyImages(List<Offer> offers) {
@@ -279,9 +344,9 @@ public class CoreOffersService {
                 errorMessageHandler);
     }
 
-    private boolean offerMatchesDirectionAndCurrency(Offer offer,
-                                                     String direction,
-                                                     String currencyCode) {
+    boolean offerMatchesDirectionAndCurrency(Offer offer,
+                                             String direction,
+                                             String currencyCode) {
         if ("".equals(direction)) direction = null;
         if ("".equals(currencyCode)) currencyCode = null;
         var offerOfWantedDirection = direction == null || offer.getDirection().name().equalsIgnoreCase(direction);
@@ -191,10 +191,17 @@ class CoreTradesService {
         coreWalletsService.verifyWalletsAreAvailable();
         coreWalletsService.verifyEncryptedWalletIsUnlocked();
         List<Trade> trades = new ArrayList<Trade>(tradeManager.getOpenTrades());
+        // archived closed trades are only returned paged by getClosedTrades
         trades.addAll(closedTradableManager.getClosedTrades());
         return trades;
     }
 
+    List<Trade> getClosedTrades(long cursorDate, String cursorTradeId, int limit) {
+        coreWalletsService.verifyWalletsAreAvailable();
+        coreWalletsService.verifyEncryptedWalletIsUnlocked();
+        return closedTradableManager.getClosedTrades(cursorDate, cursorTradeId, limit);
+    }
+
     List<ChatMessage> getChatMessages(String tradeId) {
         Trade trade;
         var tradeOptional = tradeManager.getOpenTrade(tradeId);
@@ -37,6 +37,7 @@ import haveno.core.xmr.exceptions.InsufficientFundsException;
 import haveno.core.xmr.model.AddressEntry;
 import haveno.core.xmr.setup.WalletsSetup;
 import haveno.core.xmr.wallet.BtcWalletService;
+import haveno.core.xmr.wallet.WalletPasswordChangeJob;
 import haveno.core.xmr.wallet.WalletsManager;
 import haveno.core.xmr.wallet.XmrWalletService;
 import lombok.extern.slf4j.Slf4j;
@@ -58,6 +59,7 @@ import javax.inject.Singleton;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -310,6 +312,18 @@ class CoreWalletsService {
         return confidence == null ? 0 : confidence.getDepthInBlocks();
     }
 
+    WalletPasswordChangeJob.Progress getPasswordChangeProgress() {
+        return xmrWalletService.getPasswordChangeProgress();
+    }
+
+    void addPasswordChangeListener(Consumer<WalletPasswordChangeJob.Progress> listener) {
+        xmrWalletService.addPasswordChangeListener(listener);
+    }
+
+    void removePasswordChangeListener(Consumer<WalletPasswordChangeJob.Progress> listener) {
+        xmrWalletService.removePasswordChangeListener(listener);
+    }
+
     void setWalletPassword(String password, String newPassword) {
         verifyWalletsAreAvailable();
 
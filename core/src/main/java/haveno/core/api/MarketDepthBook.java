@@ -0,0 +1,273 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.api;
+
+import com.google.common.math.LongMath;
+import haveno.core.api.model.MarketDepthInfo;
+import haveno.core.locale.CurrencyUtil;
+import haveno.core.monetary.Price;
+import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService;
+import haveno.core.offer.OfferDirection;
+import haveno.core.provider.price.MarketPrice;
+import haveno.core.provider.price.PriceFeedService;
+import haveno.core.trade.HavenoUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Offers of the offer book grouped by market, with the buy and sell offers of each market kept in sorted sets which
+ * are updated per added or removed offer. A market price update only re-inserts the offers with a market based price.
+ * The depth arrays of a market are cached until the market changes and are then rebuilt by a single walk over the
+ * sorted sets.
+ *
+ * The offers are taken from the offer book once and then maintained from the offer book listener, so a depth
+ * request neither scans the P2P data map nor sorts a market.
+ */
+@Slf4j
+class MarketDepthBook implements OfferBookService.OfferBookChangedListener {
+    private final OfferBookService offerBookService;
+    private final PriceFeedService priceFeedService;
+    private final List<Consumer<String>> listeners = new CopyOnWriteArrayList<>();
+    private final Consumer<MarketPrice> priceListener = marketPrice -> onMarketPriceUpdated(marketPrice.getCurrencyCode());
+
+    // currency code -> market
+    private final Map<String, Market> markets = new HashMap<>();
+    private boolean initialized;
+
+    // An offer with the price it is sorted by. The price of an offer with a market based price changes with the
+    // market price, so it is only read when the offer is (re-)inserted.
+    private static class Entry {
+        private final Offer offer;
+        private final Price price;
+        private final BigInteger amount;
+
+        Entry(Offer offer) {
+            this.offer = offer;
+            this.price = offer.getPrice();
+            this.amount = offer.getAmount();
+        }
+    }
+
+    private static class Market {
+        private final boolean isCrypto;
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final Set<String> marketBasedOfferIds = new HashSet<>();
+        private final NavigableSet<Entry> buyOffers;
+        private final NavigableSet<Entry> sellOffers;
+        private MarketDepthInfo marketDepth; // null if outdated
+
+        Market(String currencyCode) {
+            isCrypto = CurrencyUtil.isCryptoCurrency(currencyCode);
+            buyOffers = new TreeSet<>(getComparator(true, isCrypto));
+            sellOffers = new TreeSet<>(getComparator(false, isCrypto));
+        }
+
+        void add(Offer offer) {
+            remove(offer.getId());
+            Entry entry = new Entry(offer);
+            entries.put(offer.getId(), entry);
+            getSide(offer).add(entry);
+            if (offer.isUseMarketBasedPrice()) marketBasedOfferIds.add(offer.getId());
+            marketDepth = null;
+        }
+
+        boolean remove(String offerId) {
+            Entry removed = entries.remove(offerId);
+            if (removed == null) return false;
+            getSide(removed.offer).remove(removed);
+            marketBasedOfferIds.remove(offerId);
+            marketDepth = null;
+            return true;
+        }
+
+        boolean onMarketPriceUpdated() {
+            if (marketBasedOfferIds.isEmpty()) return false;
+            for (String offerId : new ArrayList<>(marketBasedOfferIds)) {
+                add(entries.get(offerId).offer);
+            }
+            return true;
+        }
+
+        boolean isEmpty() {
+            return entries.isEmpty();
+        }
+
+        private NavigableSet<Entry> getSide(Offer offer) {
+            return offer.getDirection() == OfferDirection.BUY ? buyOffers : sellOffers;
+        }
+    }
+
+    MarketDepthBook(OfferBookService offerBookService, PriceFeedService priceFeedService) {
+        this.offerBookService = offerBookService;
+        this.priceFeedService = priceFeedService;
+    }
+
+    /**
+     * @return the market depth of the given currency, recomputed only if the market changed
+     */
+    synchronized MarketDepthInfo getMarketDepth(String currencyCode) {
+        maybeInitialize();
+        Market market = markets.get(currencyCode);
+        if (market == null) {
+            return new MarketDepthInfo(currencyCode, new double[0], new double[0], new double[0], new double[0]);
+        }
+        if (market.marketDepth == null) {
+            double[][] buySide = toCumulativeDepth(market.buyOffers, market.isCrypto);
+            double[][] sellSide = toCumulativeDepth(market.sellOffers, market.isCrypto);
+            market.marketDepth = new MarketDepthInfo(currencyCode, buySide[0], buySide[1], sellSide[0], sellSide[1]);
+        }
+        return market.marketDepth;
+    }
+
+    /**
+     * Add a listener which is called with the currency code of a market whose depth might have changed.
+     */
+    void addListener(Consumer<String> listener) {
+        synchronized (this) {
+            maybeInitialize();
+        }
+        listeners.add(listener);
+    }
+
+    void removeListener(Consumer<String> listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void onAdded(Offer offer) {
+        String currencyCode = offer.getCurrencyCode();
+        synchronized (this) {
+            if (!initialized) return;
+            getOrCreateMarket(currencyCode).add(offer);
+        }
+        notifyListeners(currencyCode);
+    }
+
+    @Override
+    public void onRemoved(Offer offer) {
+        String currencyCode = offer.getCurrencyCode();
+        synchronized (this) {
+            if (!initialized) return;
+            Market market = markets.get(currencyCode);
+            if (market == null || !market.remove(offer.getId())) return;
+            if (market.isEmpty()) {
+                markets.remove(currencyCode);
+                priceFeedService.removePriceListener(currencyCode, priceListener);
+            }
+        }
+        notifyListeners(currencyCode);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void maybeInitialize() {
+        if (initialized) return;
+        initialized = true;
+        offerBookService.addOfferBookChangedListener(this);
+        for (Offer offer : offerBookService.getOffers()) {
+            getOrCreateMarket(offer.getCurrencyCode()).add(offer);
+        }
+    }
+
+    // Each market listens to the price of its own currency only
+    private Market getOrCreateMarket(String currencyCode) {
+        return markets.computeIfAbsent(currencyCode, c -> {
+            priceFeedService.addPriceListener(c, priceListener);
+            return new Market(c);
+        });
+    }
+
+    private void onMarketPriceUpdated(String currencyCode) {
+        synchronized (this) {
+            Market market = markets.get(currencyCode);
+            if (market == null || !market.onMarketPriceUpdated()) return;
+        }
+        notifyListeners(currencyCode);
+    }
+
+    private void notifyListeners(String currencyCode) {
+        for (Consumer<String> listener : listeners) {
+            try {
+                listener.accept(currencyCode);
+            } catch (Throwable t) {
+                log.warn("Error notifying market depth listener: {}", t.getMessage());
+            }
+        }
+    }
+
+    private static Comparator<Entry> getComparator(boolean isBuySide, boolean isCrypto) {
+        // Offer price can be null (if price feed unavailable), thus a null-tolerant comparator is used.
+        Comparator<Entry> offerPriceComparator = Comparator.comparing(e -> e.price, Comparator.nullsLast(Comparator.naturalOrder()));
+
+        // Trading btc-fiat is considered as buying/selling BTC, but trading btc-altcoin is
+        // considered as buying/selling Altcoin. Because of this, when viewing a btc-altcoin pair,
+        // the buy column is actually the sell column and vice versa. To maintain the expected
+        // ordering, we have to reverse the price comparator.
+        if (isCrypto) offerPriceComparator = offerPriceComparator.reversed();
+
+        // Buy offers, as opposed to sell offers, are primarily sorted from high price to low.
+        if (isBuySide) offerPriceComparator = offerPriceComparator.reversed();
+
+        // Offer amounts are used for the secondary sort. They are sorted from high to low. The offer id makes offers
+        // with the same price and amount distinct entries of the set.
+        Comparator<Entry> offerAmountComparator = Comparator.comparing((Entry e) -> e.amount).reversed();
+        return offerPriceComparator.thenComparing(offerAmountComparator).thenComparing(e -> e.offer.getId());
+    }
+
+    // Returns the distinct prices in order and the accumulated amount at the last offer of each price
+    private static double[][] toCumulativeDepth(Collection<Entry> sortedOffers, boolean isCrypto) {
+        double[] prices = new double[sortedOffers.size()];
+        double[] depth = new double[sortedOffers.size()];
+        int size = 0;
+        double accumulatedAmount = 0;
+        for (Entry entry : sortedOffers) {
+            Price price = entry.price;
+            if (price == null) continue;
+            accumulatedAmount += (double) entry.amount.longValueExact() / LongMath.pow(10, HavenoUtils.XMR_SMALLEST_UNIT_EXPONENT);
+            double priceAsDouble = (double) price.getValue() / LongMath.pow(10, price.smallestUnitExponent());
+            double mappedPrice = isCrypto ? (priceAsDouble == 0 ? 0 : 1 / priceAsDouble) : priceAsDouble;
+            if (size > 0 && prices[size - 1] == mappedPrice) {
+                depth[size - 1] = accumulatedAmount;
+            } else {
+                prices[size] = mappedPrice;
+                depth[size] = accumulatedAmount;
+                size++;
+            }
+        }
+        return new double[][]{Arrays.copyOf(prices, size), Arrays.copyOf(depth, size)};
+    }
+}
@@ -20,16 +20,14 @@ package haveno.core.api.model;
 import lombok.AllArgsConstructor;
 import lombok.ToString;
 
-import java.util.Arrays;
-
 @ToString
 @AllArgsConstructor
 public class MarketDepthInfo {
     public final String currencyCode;
-    public final Double[] buyPrices;
-    public final Double[] buyDepth;
-    public final Double[] sellPrices;
-    public final Double[] sellDepth;
+    public final double[] buyPrices;
+    public final double[] buyDepth;
+    public final double[] sellPrices;
+    public final double[] sellDepth;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -37,12 +35,12 @@ public class MarketDepthInfo {
 
     // @Override
     public haveno.proto.grpc.MarketDepthInfo toProtoMessage() {
-        return haveno.proto.grpc.MarketDepthInfo.newBuilder()
-        .setCurrencyCode(currencyCode)
-        .addAllBuyPrices(Arrays.asList(buyPrices))
-        .addAllBuyDepth(Arrays.asList((buyDepth)))
-        .addAllSellPrices(Arrays.asList(sellPrices))
-        .addAllSellDepth(Arrays.asList(sellDepth))
-        .build();
+        haveno.proto.grpc.MarketDepthInfo.Builder builder = haveno.proto.grpc.MarketDepthInfo.newBuilder()
+                .setCurrencyCode(currencyCode);
+        for (double buyPrice : buyPrices) builder.addBuyPrices(buyPrice);
+        for (double depth : buyDepth) builder.addBuyDepth(depth);
+        for (double sellPrice : sellPrices) builder.addSellPrices(sellPrice);
+        for (double depth : sellDepth) builder.addSellDepth(depth);
+        return builder.build();
     }
 }
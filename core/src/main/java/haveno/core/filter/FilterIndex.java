@@ -0,0 +1,214 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.filter;
+
+import haveno.core.payment.payload.PaymentAccountPayload;
+import haveno.network.p2p.NodeAddress;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable lookup structures compiled from a {@link Filter}. The lists of the filter are converted once into hash
+ * sets so that ban checks which run per offer, per message and per witness verification hop do not need to stream
+ * over the filter lists.
+ */
+@Slf4j
+final class FilterIndex {
+    static final FilterIndex EMPTY = new FilterIndex(null);
+
+    @Nullable
+    @Getter
+    private final Filter filter;
+    private final Set<String> bannedOfferIds;
+    private final Map<String, int[]> nodeAddressesBannedFromTrading;
+    private final Map<String, int[]> nodeAddressesBannedFromNetwork;
+    private final Set<String> bannedCurrencies;
+    private final Set<String> bannedPaymentMethods;
+    private final Set<String> bannedAutoConfExplorers;
+    private final Set<String> bannedAccountWitnessSignerPubKeys;
+    private final Set<String> bannedPrivilegedDevPubKeys;
+
+    // paymentMethodId -> getter method name -> banned values in lower case
+    private final Map<String, Map<String, Set<String>>> bannedPaymentAccounts;
+
+    // Getter methods are resolved once per payload class
+    private final Map<Class<?>, Map<String, Method>> getterCache = new ConcurrentHashMap<>();
+
+    FilterIndex(@Nullable Filter filter) {
+        this.filter = filter;
+        if (filter == null) {
+            bannedOfferIds = Collections.emptySet();
+            nodeAddressesBannedFromTrading = Collections.emptyMap();
+            nodeAddressesBannedFromNetwork = Collections.emptyMap();
+            bannedCurrencies = Collections.emptySet();
+            bannedPaymentMethods = Collections.emptySet();
+            bannedAutoConfExplorers = Collections.emptySet();
+            bannedAccountWitnessSignerPubKeys = Collections.emptySet();
+            bannedPrivilegedDevPubKeys = Collections.emptySet();
+            bannedPaymentAccounts = Collections.emptyMap();
+            return;
+        }
+
+        bannedOfferIds = toSet(filter.getBannedOfferIds());
+        nodeAddressesBannedFromTrading = toNodeAddressMap(filter.getNodeAddressesBannedFromTrading());
+        nodeAddressesBannedFromNetwork = toNodeAddressMap(filter.getNodeAddressesBannedFromNetwork());
+        bannedCurrencies = toSet(filter.getBannedCurrencies());
+        bannedPaymentMethods = toSet(filter.getBannedPaymentMethods());
+        bannedAutoConfExplorers = toSet(filter.getBannedAutoConfExplorers());
+        bannedAccountWitnessSignerPubKeys = toSet(filter.getBannedAccountWitnessSignerPubKeys());
+        bannedPrivilegedDevPubKeys = toSet(filter.getBannedPrivilegedDevPubKeys());
+
+        Map<String, Map<String, Set<String>>> paymentAccounts = new HashMap<>();
+        if (filter.getBannedPaymentAccounts() != null) {
+            filter.getBannedPaymentAccounts().forEach(paymentAccountFilter -> paymentAccounts
+                    .computeIfAbsent(paymentAccountFilter.getPaymentMethodId(), k -> new HashMap<>())
+                    .computeIfAbsent(paymentAccountFilter.getGetMethodName(), k -> new HashSet<>())
+                    .add(paymentAccountFilter.getValue().toLowerCase(Locale.ROOT)));
+        }
+        bannedPaymentAccounts = paymentAccounts;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean isOfferIdBanned(String offerId) {
+        return bannedOfferIds.contains(offerId);
+    }
+
+    boolean isNodeAddressBanned(NodeAddress nodeAddress) {
+        return contains(nodeAddressesBannedFromTrading, nodeAddress);
+    }
+
+    boolean isNodeAddressBannedFromNetwork(NodeAddress nodeAddress) {
+        return contains(nodeAddressesBannedFromNetwork, nodeAddress);
+    }
+
+    boolean isCurrencyBanned(String currencyCode) {
+        return bannedCurrencies.contains(currencyCode);
+    }
+
+    boolean isPaymentMethodBanned(String paymentMethodId) {
+        return bannedPaymentMethods.contains(paymentMethodId);
+    }
+
+    boolean isAutoConfExplorerBanned(String address) {
+        return bannedAutoConfExplorers.contains(address);
+    }
+
+    boolean isWitnessSignerPubKeyBanned(String witnessSignerPubKeyAsHex) {
+        return bannedAccountWitnessSignerPubKeys.contains(witnessSignerPubKeyAsHex);
+    }
+
+    boolean isPrivilegedDevPubKeyBanned(String pubKeyAsHex) {
+        return bannedPrivilegedDevPubKeys.contains(pubKeyAsHex);
+    }
+
+    boolean arePaymentAccountDataBanned(PaymentAccountPayload paymentAccountPayload) {
+        Map<String, Set<String>> valuesByGetter = bannedPaymentAccounts.get(paymentAccountPayload.getPaymentMethodId());
+        if (valuesByGetter == null) {
+            return false;
+        }
+
+        for (Map.Entry<String, Set<String>> entry : valuesByGetter.entrySet()) {
+            try {
+                Method method = getGetter(paymentAccountPayload.getClass(), entry.getKey());
+                // We invoke getter methods (no args), e.g. getHolderName
+                String valueFromInvoke = (String) method.invoke(paymentAccountPayload);
+                if (valueFromInvoke != null && entry.getValue().contains(valueFromInvoke.toLowerCase(Locale.ROOT))) {
+                    return true;
+                }
+            } catch (Throwable e) {
+                log.error(e.getMessage());
+            }
+        }
+        return false;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Method getGetter(Class<?> payloadClass, String methodName) throws NoSuchMethodException {
+        Map<String, Method> methods = getterCache.computeIfAbsent(payloadClass, k -> new ConcurrentHashMap<>());
+        Method method = methods.get(methodName);
+        if (method == null) {
+            method = payloadClass.getMethod(methodName);
+            methods.put(methodName, method);
+        }
+        return method;
+    }
+
+    private static boolean contains(Map<String, int[]> portsByHostName, NodeAddress nodeAddress) {
+        int[] ports = portsByHostName.get(nodeAddress.getHostName());
+        return ports != null && Arrays.binarySearch(ports, nodeAddress.getPort()) >= 0;
+    }
+
+    private static Set<String> toSet(@Nullable Collection<String> values) {
+        return values == null || values.isEmpty() ? Collections.emptySet() : new HashSet<>(values);
+    }
+
+    // Node addresses are stored as "hostName:port" strings. We index them by host name so a lookup does not need to
+    // build the full address string of the node address to check.
+    private static Map<String, int[]> toNodeAddressMap(@Nullable Collection<String> fullAddresses) {
+        if (fullAddresses == null || fullAddresses.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Set<Integer>> portSetsByHostName = new HashMap<>();
+        for (String fullAddress : fullAddresses) {
+            int index = fullAddress.lastIndexOf(':');
+            if (index <= 0) {
+                continue;
+            }
+            String portAsString = fullAddress.substring(index + 1);
+            int port;
+            try {
+                port = Integer.parseInt(portAsString);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            // Only canonical entries can match NodeAddress.getFullAddress()
+            if (!String.valueOf(port).equals(portAsString)) {
+                continue;
+            }
+            portSetsByHostName.computeIfAbsent(fullAddress.substring(0, index), k -> new HashSet<>()).add(port);
+        }
+
+        Map<String, int[]> portsByHostName = new HashMap<>();
+        portSetsByHostName.forEach((hostName, portSet) -> {
+            int[] ports = portSet.stream().mapToInt(Integer::intValue).sorted().toArray();
+            portsByHostName.put(hostName, ports);
+        });
+        return portsByHostName;
+    }
+}
@@ -45,7 +45,6 @@ import org.bouncycastle.util.encoders.Base64;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
-import java.lang.reflect.Method;
 import java.math.BigInteger;
 import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
@@ -87,6 +86,8 @@ public class FilterManager {
     private final ProvidersRepository providersRepository;
     private final boolean ignoreDevMsg;
     private final ObjectProperty<Filter> filterProperty = new SimpleObjectProperty<>();
+    // Compiled from the current filter and swapped whenever the filter changes, so ban checks are lock-free lookups
+    private volatile FilterIndex filterIndex = FilterIndex.EMPTY;
     private final List<Listener> listeners = new CopyOnWriteArrayList<>();
     private final List<String> publicKeys;
     private ECKey filterSigningKey;
@@ -235,12 +236,7 @@ public class FilterManager {
     }
 
     public boolean isPrivilegedDevPubKeyBanned(String pubKeyAsHex) {
-        Filter filter = getFilter();
-        if (filter == null) {
-            return false;
-        }
-
-        return filter.getBannedPrivilegedDevPubKeys().contains(pubKeyAsHex);
+        return filterIndex.isPrivilegedDevPubKeyBanned(pubKeyAsHex);
     }
 
     public boolean canAddDevFilter(String privKeyString) {
@@ -366,41 +362,27 @@ public class FilterManager {
     }
 
     public boolean isCurrencyBanned(String currencyCode) {
-        return getFilter() != null &&
-                getFilter().getBannedCurrencies() != null &&
-                getFilter().getBannedCurrencies().stream()
-                        .anyMatch(e -> e.equals(currencyCode));
+        return filterIndex.isCurrencyBanned(currencyCode);
     }
 
     public boolean isPaymentMethodBanned(PaymentMethod paymentMethod) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentMethods() != null &&
-                getFilter().getBannedPaymentMethods().stream()
-                        .anyMatch(e -> e.equals(paymentMethod.getId()));
+        return filterIndex.isPaymentMethodBanned(paymentMethod.getId());
     }
 
     public boolean isOfferIdBanned(String offerId) {
-        return getFilter() != null &&
-                getFilter().getBannedOfferIds().stream()
-                        .anyMatch(e -> e.equals(offerId));
+        return filterIndex.isOfferIdBanned(offerId);
     }
 
     public boolean isNodeAddressBanned(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getNodeAddressesBannedFromTrading().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        return filterIndex.isNodeAddressBanned(nodeAddress);
     }
 
     public boolean isNodeAddressBannedFromNetwork(NodeAddress nodeAddress) {
-        return getFilter() != null &&
-                getFilter().getNodeAddressesBannedFromNetwork().stream()
-                        .anyMatch(e -> e.equals(nodeAddress.getFullAddress()));
+        return filterIndex.isNodeAddressBannedFromNetwork(nodeAddress);
     }
 
     public boolean isAutoConfExplorerBanned(String address) {
-        return getFilter() != null &&
-                getFilter().getBannedAutoConfExplorers().stream()
-                        .anyMatch(e -> e.equals(address));
+        return filterIndex.isAutoConfExplorerBanned(address);
     }
 
     public boolean requireUpdateToNewVersionForTrading() {
@@ -418,28 +400,11 @@ public class FilterManager {
     }
 
     public boolean arePeersPaymentAccountDataBanned(PaymentAccountPayload paymentAccountPayload) {
-        return getFilter() != null &&
-                getFilter().getBannedPaymentAccounts().stream()
-                        .filter(paymentAccountFilter -> paymentAccountFilter.getPaymentMethodId().equals(
-                                paymentAccountPayload.getPaymentMethodId()))
-                        .anyMatch(paymentAccountFilter -> {
-                            try {
-                                Method method = paymentAccountPayload.getClass().getMethod(paymentAccountFilter.getGetMethodName());
-                                // We invoke getter methods (no args), e.g. getHolderName
-                                String valueFromInvoke = (String) method.invoke(paymentAccountPayload);
-                                return valueFromInvoke.equalsIgnoreCase(paymentAccountFilter.getValue());
-                            } catch (Throwable e) {
-                                log.error(e.getMessage());
-                                return false;
-                            }
-                        });
+        return filterIndex.arePaymentAccountDataBanned(paymentAccountPayload);
     }
 
     public boolean isWitnessSignerPubKeyBanned(String witnessSignerPubKeyAsHex) {
-        return getFilter() != null &&
-                getFilter().getBannedAccountWitnessSignerPubKeys() != null &&
-                getFilter().getBannedAccountWitnessSignerPubKeys().stream()
-                        .anyMatch(e -> e.equals(witnessSignerPubKeyAsHex));
+        return filterIndex.isWitnessSignerPubKeyBanned(witnessSignerPubKeyAsHex);
     }
 
 
@@ -486,6 +451,8 @@ public class FilterManager {
         // We do not require strict guarantees here (e.g. clocks not synced) as only trusted developers have the key
         // for deploying filters and this is only in place to avoid unintended situations of multiple filters
         // from multiple devs or if same dev publishes new filter from different app without the persisted devFilter.
+        // The index is compiled before the property is set so listeners already see the new ban lists.
+        filterIndex = new FilterIndex(newFilter);
         filterProperty.set(newFilter);
 
         // Seed nodes are requested at startup before we get the filter so we only apply the banned
@@ -531,6 +498,7 @@ public class FilterManager {
         if (filter.equals(user.getDevelopersFilter())) {
             user.setDevelopersFilter(null);
         }
+        filterIndex = FilterIndex.EMPTY;
         filterProperty.set(null);
     }
 
@@ -31,6 +31,7 @@ import haveno.core.offer.OfferBookService;
 import haveno.core.offer.OfferDirection;
 import haveno.core.provider.price.MarketPrice;
 import haveno.core.provider.price.PriceFeedService;
+import haveno.core.provider.price.PriceTriggerIndex;
 import haveno.core.user.User;
 import haveno.core.util.FormattingUtils;
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +51,9 @@ public class MarketAlerts {
     private final PriceFeedService priceFeedService;
     private final KeyRing keyRing;
 
+    // Market alert filters by payment method and offer direction, sorted by trigger value
+    private final PriceTriggerIndex<MarketAlertFilter> marketAlertIndex = new PriceTriggerIndex<>();
+
     @Inject
     private MarketAlerts(OfferBookService offerBookService, MobileNotificationService mobileNotificationService,
                          User user, PriceFeedService priceFeedService, KeyRing keyRing) {
@@ -76,16 +80,19 @@ public class MarketAlerts {
             public void onRemoved(Offer offer) {
             }
         });
+        indexMarketAlertFilters();
         applyFilterOnAllOffers();
     }
 
     public void addMarketAlertFilter(MarketAlertFilter filter) {
         user.addMarketAlertFilter(filter);
+        indexMarketAlertFilters();
         applyFilterOnAllOffers();
     }
 
     public void removeMarketAlertFilter(MarketAlertFilter filter) {
         user.removeMarketAlertFilter(filter);
+        indexMarketAlertFilters();
     }
 
     public List<MarketAlertFilter> getMarketAlertFilters() {
@@ -110,91 +117,101 @@ public class MarketAlerts {
         return offer.getId() + "|" + priceString;
     }
 
+    private void indexMarketAlertFilters() {
+        marketAlertIndex.clear();
+        user.getMarketAlertFilters().forEach(marketAlertFilter -> marketAlertIndex.addBelow(
+                getIndexKey(marketAlertFilter.getPaymentAccount().getPaymentMethod().getId(), marketAlertFilter.isBuyOffer()),
+                marketAlertFilter.getTriggerValue(),
+                marketAlertFilter));
+    }
+
+    private static String getIndexKey(String paymentMethodId, boolean isBuyOffer) {
+        return paymentMethodId + "|" + (isBuyOffer ? OfferDirection.BUY : OfferDirection.SELL);
+    }
+
     private void onOfferAdded(Offer offer) {
         String currencyCode = offer.getCurrencyCode();
         MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
         Price offerPrice = offer.getPrice();
-        if (marketPrice != null && offerPrice != null) {
+        if (marketPrice != null && offerPrice != null && marketAlertIndex.size() > 0 && !offer.isMyOffer(keyRing)) {
             boolean isSellOffer = offer.getDirection() == OfferDirection.SELL;
             String shortOfferId = offer.getShortId();
             boolean isFiatCurrency = CurrencyUtil.isFiatCurrency(currencyCode);
             String alertId = getAlertId(offer);
-            user.getMarketAlertFilters().stream()
-                    .filter(marketAlertFilter -> !offer.isMyOffer(keyRing))
-                    .filter(marketAlertFilter -> offer.getPaymentMethod().equals(marketAlertFilter.getPaymentAccount().getPaymentMethod()))
+            double marketPriceAsDouble1 = marketPrice.getPrice();
+            int precision = CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                    Altcoin.SMALLEST_UNIT_EXPONENT :
+                    Fiat.SMALLEST_UNIT_EXPONENT;
+            double marketPriceAsDouble = MathUtils.scaleUpByPowerOf10(marketPriceAsDouble1, precision);
+            double offerPriceValue = offerPrice.getValue();
+            double ratio = offerPriceValue / marketPriceAsDouble;
+            ratio = 1 - ratio;
+            if (isFiatCurrency && isSellOffer)
+                ratio *= -1;
+            else if (!isFiatCurrency && !isSellOffer)
+                ratio *= -1;
+
+            ratio = ratio * 10000;
+            if (!Double.isFinite(ratio))
+                return;
+
+            // A filter is triggered if ratio <= triggerValue. As the trigger value is an integer that is the same
+            // as triggerValue > ceil(ratio) - 1, so we look up the filters with a threshold above that value.
+            String indexKey = getIndexKey(offer.getPaymentMethod().getId(), !isSellOffer);
+            List<MarketAlertFilter> triggeredFilters = marketAlertIndex.getTriggered(indexKey, (long) Math.ceil(ratio) - 1);
+            if (triggeredFilters.isEmpty())
+                return;
+
+            String direction = isSellOffer ? Res.get("shared.sell") : Res.get("shared.buy");
+            String marketDir;
+            if (isFiatCurrency) {
+                if (isSellOffer) {
+                    marketDir = ratio > 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                } else {
+                    marketDir = ratio < 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                }
+            } else {
+                if (isSellOffer) {
+                    marketDir = ratio < 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                } else {
+                    marketDir = ratio > 0 ?
+                            Res.get("account.notifications.marketAlert.message.msg.above") :
+                            Res.get("account.notifications.marketAlert.message.msg.below");
+                }
+            }
+
+            double absRatio = Math.abs(ratio);
+            triggeredFilters.stream()
                     .filter(marketAlertFilter -> marketAlertFilter.notContainsAlertId(alertId))
                     .forEach(marketAlertFilter -> {
-                        int triggerValue = marketAlertFilter.getTriggerValue();
-                        boolean isTriggerForBuyOffer = marketAlertFilter.isBuyOffer();
-                        double marketPriceAsDouble1 = marketPrice.getPrice();
-                        int precision = CurrencyUtil.isCryptoCurrency(currencyCode) ?
-                                Altcoin.SMALLEST_UNIT_EXPONENT :
-                                Fiat.SMALLEST_UNIT_EXPONENT;
-                        double marketPriceAsDouble = MathUtils.scaleUpByPowerOf10(marketPriceAsDouble1, precision);
-                        double offerPriceValue = offerPrice.getValue();
-                        double ratio = offerPriceValue / marketPriceAsDouble;
-                        ratio = 1 - ratio;
-                        if (isFiatCurrency && isSellOffer)
-                            ratio *= -1;
-                        else if (!isFiatCurrency && !isSellOffer)
-                            ratio *= -1;
-
-                        ratio = ratio * 10000;
-                        boolean triggered = ratio <= triggerValue;
-                        if (!triggered)
-                            return;
-
-                        boolean isTriggerForBuyOfferAndTriggered = !isSellOffer && isTriggerForBuyOffer;
-                        boolean isTriggerForSellOfferAndTriggered = isSellOffer && !isTriggerForBuyOffer;
-                        if (isTriggerForBuyOfferAndTriggered || isTriggerForSellOfferAndTriggered) {
-                            String direction = isSellOffer ? Res.get("shared.sell") : Res.get("shared.buy");
-                            String marketDir;
-                            if (isFiatCurrency) {
-                                if (isSellOffer) {
-                                    marketDir = ratio > 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                } else {
-                                    marketDir = ratio < 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                }
-                            } else {
-                                if (isSellOffer) {
-                                    marketDir = ratio < 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                } else {
-                                    marketDir = ratio > 0 ?
-                                            Res.get("account.notifications.marketAlert.message.msg.above") :
-                                            Res.get("account.notifications.marketAlert.message.msg.below");
-                                }
-                            }
-
-                            ratio = Math.abs(ratio);
-                            String msg = Res.get("account.notifications.marketAlert.message.msg",
-                                    direction,
-                                    CurrencyUtil.getCurrencyPair(currencyCode),
-                                    FormattingUtils.formatPrice(offerPrice),
-                                    FormattingUtils.formatToPercentWithSymbol(ratio / 10000d),
-                                    marketDir,
-                                    Res.get(offer.getPaymentMethod().getId()),
-                                    shortOfferId);
-                            MobileMessage message = new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
-                                    msg,
-                                    shortOfferId,
-                                    MobileMessageType.MARKET);
-                            try {
-                                boolean wasSent = mobileNotificationService.sendMessage(message);
-                                if (wasSent) {
-                                    // In case we have disabled alerts wasSent is false and we do not
-                                    // persist the offer
-                                    marketAlertFilter.addAlertId(alertId);
-                                    user.requestPersistence();
-                                }
-                            } catch (Exception e) {
-                                e.printStackTrace();
+                        String msg = Res.get("account.notifications.marketAlert.message.msg",
+                                direction,
+                                CurrencyUtil.getCurrencyPair(currencyCode),
+                                FormattingUtils.formatPrice(offerPrice),
+                                FormattingUtils.formatToPercentWithSymbol(absRatio / 10000d),
+                                marketDir,
+                                Res.get(offer.getPaymentMethod().getId()),
+                                shortOfferId);
+                        MobileMessage message = new MobileMessage(Res.get("account.notifications.marketAlert.message.title"),
+                                msg,
+                                shortOfferId,
+                                MobileMessageType.MARKET);
+                        try {
+                            boolean wasSent = mobileNotificationService.sendMessage(message);
+                            if (wasSent) {
+                                // In case we have disabled alerts wasSent is false and we do not
+                                // persist the offer
+                                marketAlertFilter.addAlertId(alertId);
+                                user.requestPersistence();
                             }
+                        } catch (Exception e) {
+                            e.printStackTrace();
                         }
                     });
         }
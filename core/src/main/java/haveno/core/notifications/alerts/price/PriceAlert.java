@@ -26,13 +26,16 @@ import haveno.core.notifications.MobileMessageType;
 import haveno.core.notifications.MobileNotificationService;
 import haveno.core.provider.price.MarketPrice;
 import haveno.core.provider.price.PriceFeedService;
+import haveno.core.provider.price.PriceTriggerIndex;
 import haveno.core.user.User;
 import haveno.core.util.FormattingUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.bitcoinj.utils.Fiat;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
 
 @Slf4j
 @Singleton
@@ -41,6 +44,11 @@ public class PriceAlert {
     private final MobileNotificationService mobileNotificationService;
     private final User user;
 
+    // The thresholds of the price alert filter, replaced when the user sets a new filter
+    private final PriceTriggerIndex<PriceAlertFilter> priceAlertIndex = new PriceTriggerIndex<>();
+    @Nullable
+    private PriceAlertFilter indexedFilter;
+
     @Inject
     public PriceAlert(PriceFeedService priceFeedService, MobileNotificationService mobileNotificationService, User user) {
         this.priceFeedService = priceFeedService;
@@ -53,35 +61,48 @@ public class PriceAlert {
     }
 
     private void update() {
-        if (user.getPriceAlertFilter() != null) {
-            PriceAlertFilter filter = user.getPriceAlertFilter();
-            String currencyCode = filter.getCurrencyCode();
+        PriceAlertFilter filter = user.getPriceAlertFilter();
+        if (filter != indexedFilter) {
+            priceAlertIndex.clear();
+            if (filter != null) {
+                priceAlertIndex.addAbove(filter.getCurrencyCode(), filter.getHigh(), filter);
+                priceAlertIndex.addBelow(filter.getCurrencyCode(), filter.getLow(), filter);
+            }
+            indexedFilter = filter;
+        }
+
+        new ArrayList<>(priceAlertIndex.getKeys()).forEach(currencyCode -> {
             MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
             if (marketPrice != null) {
                 int exp = CurrencyUtil.isCryptoCurrency(currencyCode) ? Altcoin.SMALLEST_UNIT_EXPONENT : Fiat.SMALLEST_UNIT_EXPONENT;
-                double priceAsDouble = marketPrice.getPrice();
-                long priceAsLong = MathUtils.roundDoubleToLong(MathUtils.scaleUpByPowerOf10(priceAsDouble, exp));
-                String currencyName = CurrencyUtil.getNameByCode(currencyCode);
-                if (priceAsLong > filter.getHigh() || priceAsLong < filter.getLow()) {
-                    String msg = Res.get("account.notifications.priceAlert.message.msg",
-                            currencyName,
-                            FormattingUtils.formatMarketPrice(priceAsDouble, currencyCode),
-                            CurrencyUtil.getCurrencyPair(currencyCode));
-                    MobileMessage message = new MobileMessage(Res.get("account.notifications.priceAlert.message.title", currencyName),
-                            msg,
-                            MobileMessageType.PRICE);
-                    log.error(msg);
-                    try {
-                        mobileNotificationService.sendMessage(message);
-
-                        // If an alert got triggered we remove the filter.
-                        user.removePriceAlertFilter();
-                    } catch (Exception e) {
-                        log.error(e.toString());
-                        e.printStackTrace();
-                    }
+                long priceAsLong = MathUtils.roundDoubleToLong(MathUtils.scaleUpByPowerOf10(marketPrice.getPrice(), exp));
+                if (!priceAlertIndex.getTriggered(currencyCode, priceAsLong).isEmpty()) {
+                    onPriceAlertTriggered(marketPrice);
                 }
             }
+        });
+    }
+
+    private void onPriceAlertTriggered(MarketPrice marketPrice) {
+        String currencyCode = marketPrice.getCurrencyCode();
+        double priceAsDouble = marketPrice.getPrice();
+        String currencyName = CurrencyUtil.getNameByCode(currencyCode);
+        String msg = Res.get("account.notifications.priceAlert.message.msg",
+                currencyName,
+                FormattingUtils.formatMarketPrice(priceAsDouble, currencyCode),
+                CurrencyUtil.getCurrencyPair(currencyCode));
+        MobileMessage message = new MobileMessage(Res.get("account.notifications.priceAlert.message.title", currencyName),
+                msg,
+                MobileMessageType.PRICE);
+        log.error(msg);
+        try {
+            mobileNotificationService.sendMessage(message);
+
+            // If an alert got triggered we remove the filter.
+            user.removePriceAlertFilter();
+        } catch (Exception e) {
+            log.error(e.toString());
+            e.printStackTrace();
         }
     }
 
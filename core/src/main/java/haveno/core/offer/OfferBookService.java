@@ -257,6 +257,12 @@ public class OfferBookService {
         }
     }
 
+    public void removeOfferBookChangedListener(OfferBookChangedListener offerBookChangedListener) {
+        synchronized (offerBookChangedListeners) {
+            offerBookChangedListeners.remove(offerBookChangedListener);
+        }
+    }
+
     public void shutDown() {
         if (keyImagePoller != null) keyImagePoller.clearKeyImages();
     }
@@ -19,6 +19,7 @@ package haveno.core.offer;
 
 import haveno.common.app.Version;
 import haveno.core.account.witness.AccountAgeWitnessService;
+import haveno.core.filter.Filter;
 import haveno.core.filter.FilterManager;
 import haveno.core.payment.PaymentAccount;
 import haveno.core.payment.PaymentAccountUtil;
@@ -31,11 +32,13 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.bitcoinj.core.Coin;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Singleton
@@ -44,14 +47,20 @@ public class OfferFilterService {
     private final Preferences preferences;
     private final FilterManager filterManager;
     private final AccountAgeWitnessService accountAgeWitnessService;
-    private final Map<String, Boolean> insufficientCounterpartyTradeLimitCache = new HashMap<>();
-    private final Map<String, Boolean> myInsufficientTradeLimitCache = new HashMap<>();
+    private final Map<String, Boolean> insufficientCounterpartyTradeLimitCache = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> myInsufficientTradeLimitCache = new ConcurrentHashMap<>();
+
+    // Memoized canTakeOffer results by offer id. An entry is only used if none of its inputs have changed since it
+    // was computed, so offer book refreshes do not re-run signature and payment account checks for unchanged offers.
+    // Changes of the payment accounts, also in place edits, are detected by the version of the user data.
+    private final Map<String, CanTakeOfferResult> canTakeOfferCache = new ConcurrentHashMap<>();
 
     @Inject
     public OfferFilterService(User user,
                        Preferences preferences,
                        FilterManager filterManager,
-                       AccountAgeWitnessService accountAgeWitnessService) {
+                       AccountAgeWitnessService accountAgeWitnessService,
+                       OfferBookService offerBookService) {
         this.user = user;
         this.preferences = preferences;
         this.filterManager = filterManager;
@@ -62,6 +71,18 @@ public class OfferFilterService {
             user.getPaymentAccountsAsObservable().addListener((SetChangeListener<PaymentAccount>) c ->
                     myInsufficientTradeLimitCache.clear());
         }
+
+        // Removed offers are dropped from the caches so they do not grow with every offer ever seen
+        offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
+            @Override
+            public void onAdded(Offer offer) {
+            }
+
+            @Override
+            public void onRemoved(Offer offer) {
+                removeFromCache(offer);
+            }
+        });
     }
 
     public enum Result {
@@ -94,6 +115,33 @@ public class OfferFilterService {
     }
 
     public Result canTakeOffer(Offer offer, boolean isTakerApiUser) {
+        // The version of the payment accounts is read before the result is computed, so a concurrent account change
+        // results in a stale version and the entry is recomputed on the next call.
+        long paymentAccountsVersion = user.getVersion();
+        Filter filter = filterManager.getFilter();
+        List<String> ignoreTradersList = preferences.getIgnoreTradersList();
+        Arbitrator arbitrator = user.getAcceptedArbitratorByAddress(offer.getOfferPayload().getArbitratorSigner());
+        boolean reservedFundsSpent = offer.isReservedFundsSpent();
+
+        CanTakeOfferResult cached = canTakeOfferCache.get(offer.getId());
+        if (cached != null && cached.isUpToDate(offer, isTakerApiUser, paymentAccountsVersion, filter,
+                ignoreTradersList, arbitrator, reservedFundsSpent)) {
+            return cached.result;
+        }
+
+        Result result = computeCanTakeOffer(offer, isTakerApiUser);
+        canTakeOfferCache.put(offer.getId(), new CanTakeOfferResult(offer.getOfferPayload(), isTakerApiUser,
+                paymentAccountsVersion, filter, ignoreTradersList, arbitrator, reservedFundsSpent, result));
+        return result;
+    }
+
+    private void removeFromCache(Offer offer) {
+        canTakeOfferCache.remove(offer.getId());
+        insufficientCounterpartyTradeLimitCache.remove(offer.getId());
+        myInsufficientTradeLimitCache.remove(offer.getId());
+    }
+
+    private Result computeCanTakeOffer(Offer offer, boolean isTakerApiUser) {
         if (isTakerApiUser && filterManager.getFilter() != null && filterManager.getFilter().isDisableApi()) {
             return Result.API_DISABLED;
         }
@@ -229,4 +277,57 @@ public class OfferFilterService {
     public boolean isReservedFundsSpent(Offer offer) {
         return offer.isReservedFundsSpent();
     }
+
+
+    private static class CanTakeOfferResult {
+        private final OfferPayload offerPayload;
+        private final boolean isTakerApiUser;
+        private final long paymentAccountsVersion;
+        @Nullable
+        private final Filter filter;
+        private final List<String> ignoreTradersList;
+        private final int numIgnoredTraders;
+        @Nullable
+        private final Arbitrator arbitrator;
+        private final boolean reservedFundsSpent;
+        private final Result result;
+
+        CanTakeOfferResult(OfferPayload offerPayload,
+                           boolean isTakerApiUser,
+                           long paymentAccountsVersion,
+                           @Nullable Filter filter,
+                           List<String> ignoreTradersList,
+                           @Nullable Arbitrator arbitrator,
+                           boolean reservedFundsSpent,
+                           Result result) {
+            this.offerPayload = offerPayload;
+            this.isTakerApiUser = isTakerApiUser;
+            this.paymentAccountsVersion = paymentAccountsVersion;
+            this.filter = filter;
+            this.ignoreTradersList = ignoreTradersList;
+            this.numIgnoredTraders = ignoreTradersList == null ? 0 : ignoreTradersList.size();
+            this.arbitrator = arbitrator;
+            this.reservedFundsSpent = reservedFundsSpent;
+            this.result = result;
+        }
+
+        // Filters, ignore lists and arbitrators are replaced rather than mutated, so comparing by reference is
+        // sufficient to detect a change.
+        boolean isUpToDate(Offer offer,
+                           boolean isTakerApiUser,
+                           long paymentAccountsVersion,
+                           @Nullable Filter filter,
+                           List<String> ignoreTradersList,
+                           @Nullable Arbitrator arbitrator,
+                           boolean reservedFundsSpent) {
+            return offerPayload == offer.getOfferPayload() &&
+                    this.isTakerApiUser == isTakerApiUser &&
+                    this.paymentAccountsVersion == paymentAccountsVersion &&
+                    this.filter == filter &&
+                    this.ignoreTradersList == ignoreTradersList &&
+                    numIgnoredTraders == (ignoreTradersList == null ? 0 : ignoreTradersList.size()) &&
+                    this.arbitrator == arbitrator &&
+                    this.reservedFundsSpent == reservedFundsSpent;
+        }
+    }
 }
@@ -31,6 +31,7 @@ import haveno.common.persistence.PersistenceManager;
 import haveno.common.proto.network.NetworkEnvelope;
 import haveno.common.proto.persistable.PersistedDataHost;
 import haveno.common.util.Tuple2;
+import haveno.common.util.Utilities;
 import haveno.core.account.witness.AccountAgeWitnessService;
 import haveno.core.api.CoreContext;
 import haveno.core.api.CoreMoneroConnectionsService;
@@ -90,6 +91,7 @@ import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -98,9 +100,13 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMessageListener, PersistedDataHost {
@@ -110,6 +116,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private static final long REPUBLISH_AGAIN_AT_STARTUP_DELAY_SEC = 30;
     private static final long REPUBLISH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(40);
     private static final long REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(6);
+    private static final int NUM_SIGN_OFFER_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
 
     private final CoreContext coreContext;
     private final KeyRing keyRing;
@@ -134,6 +141,10 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private final SignedOfferList signedOffers = new SignedOfferList();
     private final PersistenceManager<SignedOfferList> signedOfferPersistenceManager;
     private final Map<String, PlaceOfferProtocol> placeOfferProtocols = new HashMap<String, PlaceOfferProtocol>();
+
+    // arbitrator verifies reserve txs of sign offer requests concurrently, off the user thread
+    private final ExecutorService signOfferRequestExecutor = Utilities.getListeningExecutorService("SignOfferRequest-%d",
+            NUM_SIGN_OFFER_THREADS, NUM_SIGN_OFFER_THREADS, 60, new LinkedBlockingQueue<>());
     private BigInteger lastUnlockedBalance;
     private boolean stopped;
     private Timer periodicRepublishOffersTimer, periodicRefreshOffersTimer, retryRepublishOffersTimer;
@@ -333,6 +344,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         stopped = true;
         p2PService.getPeerManager().removeListener(this);
         p2PService.removeDecryptedDirectMessageListener(this);
+        signOfferRequestExecutor.shutdownNow();
         if (signedOfferKeyImagePoller != null) signedOfferKeyImagePoller.clearKeyImages();
 
         stopPeriodicRefreshOffersTimer();
@@ -396,7 +408,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         // A basic sig check is in done also at decryption time
         NetworkEnvelope networkEnvelope = decryptedMessageWithPubKey.getNetworkEnvelope();
         if (networkEnvelope instanceof SignOfferRequest) {
-            handleSignOfferRequest((SignOfferRequest) networkEnvelope, peerNodeAddress);
+            signOfferRequestExecutor.execute(() -> handleSignOfferRequest((SignOfferRequest) networkEnvelope, peerNodeAddress));
         } if (networkEnvelope instanceof SignOfferResponse) {
             handleSignOfferResponse((SignOfferResponse) networkEnvelope, peerNodeAddress);
         } else if (networkEnvelope instanceof OfferAvailabilityRequest) {
@@ -496,7 +508,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         OpenOffer openOffer = new OpenOffer(offer, triggerPrice, autoSplit);
 
         // process open offer to schedule or post
-        processUnpostedOffer(getOpenOffers(), openOffer, (transaction) -> {
+        processUnpostedOffer(getOpenOffers(), openOffer, () -> {}, (transaction) -> {
             addOpenOffer(openOffer);
             requestPersistence();
             resultHandler.handleResult(transaction);
@@ -508,6 +520,38 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         });
     }
 
+    /**
+     * Places the given offers.  Their reserve txs are created one after another, so each
+     * offer sees the balance left by the previous ones, but the arbitrators sign them
+     * concurrently.
+     *
+     * @param offers the offers to place
+     * @param triggerPrices the trigger price of each offer
+     * @param resultHandler called with the error message of each offer, or null if it was
+     *                      posted or scheduled
+     */
+    public void placeOffers(List<Offer> offers,
+                            List<Long> triggerPrices,
+                            Consumer<List<String>> resultHandler) {
+        checkArgument(offers.size() == triggerPrices.size(), "Number of offers and trigger prices must match");
+        List<OpenOffer> newOpenOffers = new ArrayList<>();
+        for (int i = 0; i < offers.size(); i++) {
+            checkNotNull(offers.get(i).getMakerFee(), "makerFee must not be null");
+            newOpenOffers.add(new OpenOffer(offers.get(i), triggerPrices.get(i), false));
+        }
+        new Thread(() -> {
+
+            // new offers count towards the scheduled amount once they are scheduled
+            List<OpenOffer> openOffers = new ArrayList<>(getOpenOffers());
+            openOffers.addAll(newOpenOffers);
+            List<String> errorMessages = processUnpostedOffers(openOffers, newOpenOffers, openOffer -> {
+                addOpenOffer(openOffer);
+                requestPersistence();
+            });
+            resultHandler.accept(errorMessages);
+        }).start();
+    }
+
     // Remove from offerbook
     public void removeOffer(Offer offer, ResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         Optional<OpenOffer> openOfferOptional = getOpenOfferById(offer.getId());
@@ -761,28 +805,49 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private void processUnpostedOffers(TransactionResultHandler resultHandler, // TODO (woodser): transaction not needed with result handler
                                        ErrorMessageHandler errorMessageHandler) {
         new Thread(() -> {
-            List<String> errorMessages = new ArrayList<String>();
             List<OpenOffer> openOffers = getOpenOffers();
-            for (OpenOffer scheduledOffer : openOffers) {
-                if (scheduledOffer.getState() != OpenOffer.State.SCHEDULED) continue;
-                CountDownLatch latch = new CountDownLatch(1);
-                processUnpostedOffer(openOffers, scheduledOffer, (transaction) -> {
-                    latch.countDown();
-                }, errorMessage -> {
-                    log.warn("Error processing unposted offer {}: {}", scheduledOffer.getId(), errorMessage);
-                    onRemoved(scheduledOffer);
-                    errorMessages.add(errorMessage);
-                    latch.countDown();
-                });
-                HavenoUtils.awaitLatch(latch);
-            }
+            List<OpenOffer> scheduledOffers = openOffers.stream()
+                    .filter(openOffer -> openOffer.getState() == OpenOffer.State.SCHEDULED)
+                    .collect(Collectors.toList());
+            List<String> errorMessages = processUnpostedOffers(openOffers, scheduledOffers, openOffer -> {}).stream()
+                    .filter(errorMessage -> errorMessage != null)
+                    .collect(Collectors.toList());
             requestPersistence();
             if (errorMessages.size() > 0) errorMessageHandler.handleErrorMessage(errorMessages.toString());
             else resultHandler.handleResult(null);
         }).start();
     }
 
-    private void processUnpostedOffer(List<OpenOffer> openOffers, OpenOffer openOffer, TransactionResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
+    // Processes the offers one at a time until their funds are reserved or they are scheduled,
+    // then continues with the next offer while the arbitrator signs the previous ones.
+    // Blocks until all offers are processed and returns the error message of each offer or null.
+    private List<String> processUnpostedOffers(List<OpenOffer> openOffers,
+                                               List<OpenOffer> unpostedOffers,
+                                               Consumer<OpenOffer> resultHandler) {
+        String[] errorMessages = new String[unpostedOffers.size()];
+        CountDownLatch processedLatch = new CountDownLatch(unpostedOffers.size());
+        for (int i = 0; i < unpostedOffers.size(); i++) {
+            int index = i;
+            OpenOffer unpostedOffer = unpostedOffers.get(i);
+            CountDownLatch fundsReservedLatch = new CountDownLatch(1);
+            processUnpostedOffer(openOffers, unpostedOffer, fundsReservedLatch::countDown, (transaction) -> {
+                resultHandler.accept(unpostedOffer);
+                fundsReservedLatch.countDown();
+                processedLatch.countDown();
+            }, errorMessage -> {
+                log.warn("Error processing unposted offer {}: {}", unpostedOffer.getId(), errorMessage);
+                onRemoved(unpostedOffer);
+                errorMessages[index] = errorMessage;
+                fundsReservedLatch.countDown();
+                processedLatch.countDown();
+            });
+            HavenoUtils.awaitLatch(fundsReservedLatch);
+        }
+        HavenoUtils.awaitLatch(processedLatch);
+        return Arrays.asList(errorMessages);
+    }
+
+    private void processUnpostedOffer(List<OpenOffer> openOffers, OpenOffer openOffer, Runnable fundsReservedHandler, TransactionResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         new Thread(() -> {
             try {
 
@@ -806,7 +871,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
 
                     // otherwise sign and post offer
                     else {
-                        signAndPostOffer(openOffer, offerReserveAmount, true, resultHandler, errorMessageHandler);
+                        signAndPostOffer(openOffer, offerReserveAmount, true, fundsReservedHandler, resultHandler, errorMessageHandler);
                     }
                     return;
                 }
@@ -881,6 +946,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
     private void signAndPostOffer(OpenOffer openOffer,
                                   BigInteger offerReserveAmount,
                                   boolean useSavingsWallet, // TODO: remove this
+                                  Runnable fundsReservedHandler,
                                   TransactionResultHandler resultHandler, ErrorMessageHandler errorMessageHandler) {
         log.info("Signing and posting offer " + openOffer.getId());
 
@@ -928,7 +994,7 @@ public class OpenOfferManager implements PeerManager.Listener, DecryptedDirectMe
         synchronized (placeOfferProtocols) {
             placeOfferProtocols.put(openOffer.getOffer().getId(), placeOfferProtocol);
         }
-        placeOfferProtocol.placeOffer(); // TODO (woodser): if error placing offer (e.g. bad signature), remove protocol and unfreeze trade funds
+        placeOfferProtocol.placeOffer(fundsReservedHandler); // TODO (woodser): if error placing offer (e.g. bad signature), remove protocol and unfreeze trade funds
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
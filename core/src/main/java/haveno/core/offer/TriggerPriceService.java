@@ -24,6 +24,7 @@ import haveno.core.monetary.Price;
 import haveno.core.provider.mempool.MempoolService;
 import haveno.core.provider.price.MarketPrice;
 import haveno.core.provider.price.PriceFeedService;
+import haveno.core.provider.price.PriceTriggerIndex;
 import haveno.network.p2p.BootstrapListener;
 import haveno.network.p2p.P2PService;
 import javafx.collections.ListChangeListener;
@@ -32,11 +33,11 @@ import org.bitcoinj.utils.Fiat;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 
 import static haveno.common.util.MathUtils.roundDoubleToLong;
@@ -49,7 +50,14 @@ public class TriggerPriceService {
     private final OpenOfferManager openOfferManager;
     private final MempoolService mempoolService;
     private final PriceFeedService priceFeedService;
-    private final Map<String, Set<OpenOffer>> openOffersByCurrency = new HashMap<>();
+
+    // Active open offers by trigger price, so a price update only visits the offers it triggers
+    private final PriceTriggerIndex<OpenOffer> triggerPriceIndex = new PriceTriggerIndex<>();
+    // Deactivated open offers with a trigger price, indexed again once they get activated.
+    // OpenOffer's hashCode changes with its state, so we use identity sets.
+    private final Set<OpenOffer> deactivatedOpenOffers = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Open offers whose maker tx was not yet successfully validated against the mempool
+    private final Set<OpenOffer> openOffersToCheckMempool = Collections.newSetFromMap(new IdentityHashMap<>());
 
     @Inject
     public TriggerPriceService(P2PService p2PService,
@@ -92,15 +100,18 @@ public class TriggerPriceService {
     }
 
     private void onPriceFeedChanged() {
-        openOffersByCurrency.keySet().stream()
-                .map(priceFeedService::getMarketPrice)
-                .filter(Objects::nonNull)
-                .filter(marketPrice -> openOffersByCurrency.containsKey(marketPrice.getCurrencyCode()))
-                .forEach(marketPrice -> {
-                    openOffersByCurrency.get(marketPrice.getCurrencyCode()).stream()
-                            .filter(openOffer -> !openOffer.isDeactivated())
-                            .forEach(openOffer -> checkPriceThreshold(marketPrice, openOffer));
-                });
+        indexActivatedOpenOffers();
+
+        new ArrayList<>(triggerPriceIndex.getKeys()).forEach(currencyCode -> {
+            MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
+            if (marketPrice == null) {
+                return;
+            }
+            triggerPriceIndex.getTriggered(currencyCode, toMarketPriceAsLong(marketPrice, currencyCode))
+                    .forEach(openOffer -> checkPriceThreshold(marketPrice, openOffer));
+        });
+
+        new ArrayList<>(openOffersToCheckMempool).forEach(this::checkMempoolStatus);
     }
 
     public static boolean wasTriggered(MarketPrice marketPrice, OpenOffer openOffer) {
@@ -109,87 +120,149 @@ public class TriggerPriceService {
             return false;
         }
 
-        String currencyCode = openOffer.getOffer().getCurrencyCode();
-        boolean cryptoCurrency = CurrencyUtil.isCryptoCurrency(currencyCode);
-        int smallestUnitExponent = cryptoCurrency ?
-                Altcoin.SMALLEST_UNIT_EXPONENT :
-                Fiat.SMALLEST_UNIT_EXPONENT;
-        long marketPriceAsLong = roundDoubleToLong(
-                scaleUpByPowerOf10(marketPrice.getPrice(), smallestUnitExponent));
         long triggerPrice = openOffer.getTriggerPrice();
         if (triggerPrice <= 0) {
             return false;
         }
 
-        OfferDirection direction = openOffer.getOffer().getDirection();
-        boolean isSellOffer = direction == OfferDirection.SELL;
-        boolean condition = isSellOffer && !cryptoCurrency || !isSellOffer && cryptoCurrency;
-        return condition ?
+        long marketPriceAsLong = toMarketPriceAsLong(marketPrice, openOffer.getOffer().getCurrencyCode());
+        return isTriggeredBelowTriggerPrice(openOffer) ?
                 marketPriceAsLong < triggerPrice :
                 marketPriceAsLong > triggerPrice;
     }
 
+    private static long toMarketPriceAsLong(MarketPrice marketPrice, String currencyCode) {
+        int smallestUnitExponent = CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                Altcoin.SMALLEST_UNIT_EXPONENT :
+                Fiat.SMALLEST_UNIT_EXPONENT;
+        return roundDoubleToLong(scaleUpByPowerOf10(marketPrice.getPrice(), smallestUnitExponent));
+    }
+
+    private static boolean isTriggeredBelowTriggerPrice(OpenOffer openOffer) {
+        boolean cryptoCurrency = CurrencyUtil.isCryptoCurrency(openOffer.getOffer().getCurrencyCode());
+        boolean isSellOffer = openOffer.getOffer().getDirection() == OfferDirection.SELL;
+        return isSellOffer && !cryptoCurrency || !isSellOffer && cryptoCurrency;
+    }
+
     private void checkPriceThreshold(MarketPrice marketPrice, OpenOffer openOffer) {
-        if (wasTriggered(marketPrice, openOffer)) {
-            String currencyCode = openOffer.getOffer().getCurrencyCode();
-            int smallestUnitExponent = CurrencyUtil.isCryptoCurrency(currencyCode) ?
-                    Altcoin.SMALLEST_UNIT_EXPONENT :
-                    Fiat.SMALLEST_UNIT_EXPONENT;
-            long triggerPrice = openOffer.getTriggerPrice();
-
-            log.info("Market price exceeded the trigger price of the open offer.\n" +
-                            "We deactivate the open offer with ID {}.\nCurrency: {};\nOffer direction: {};\n" +
-                            "Market price: {};\nTrigger price: {}",
-                    openOffer.getOffer().getShortId(),
-                    currencyCode,
-                    openOffer.getOffer().getDirection(),
-                    marketPrice.getPrice(),
-                    MathUtils.scaleDownByPowerOf10(triggerPrice, smallestUnitExponent)
-            );
+        if (openOffer.isDeactivated()) {
+            // deactivated by the user, we check again once it gets activated
+            triggerPriceIndex.remove(openOffer);
+            deactivatedOpenOffers.add(openOffer);
+            return;
+        }
+        if (!wasTriggered(marketPrice, openOffer)) {
+            return;
+        }
 
+        String currencyCode = openOffer.getOffer().getCurrencyCode();
+        int smallestUnitExponent = CurrencyUtil.isCryptoCurrency(currencyCode) ?
+                Altcoin.SMALLEST_UNIT_EXPONENT :
+                Fiat.SMALLEST_UNIT_EXPONENT;
+        long triggerPrice = openOffer.getTriggerPrice();
+
+        log.info("Market price exceeded the trigger price of the open offer.\n" +
+                        "We deactivate the open offer with ID {}.\nCurrency: {};\nOffer direction: {};\n" +
+                        "Market price: {};\nTrigger price: {}",
+                openOffer.getOffer().getShortId(),
+                currencyCode,
+                openOffer.getOffer().getDirection(),
+                marketPrice.getPrice(),
+                MathUtils.scaleDownByPowerOf10(triggerPrice, smallestUnitExponent)
+        );
+
+        // We take the offer out of the index while the deactivation is pending and put it back if it failed,
+        // so it gets deactivated at the next price update.
+        triggerPriceIndex.remove(openOffer);
+        openOfferManager.deactivateOpenOffer(openOffer, () -> {
+            if (isOpenOffer(openOffer)) deactivatedOpenOffers.add(openOffer);
+        }, errorMessage -> {
+            if (isOpenOffer(openOffer)) indexTriggerPrice(openOffer);
+        });
+    }
+
+    private void checkMempoolStatus(OpenOffer openOffer) {
+        if (openOffer.getState() != OpenOffer.State.AVAILABLE) {
+            return;
+        }
+
+        // check the mempool if it has not been done before
+        if (openOffer.getMempoolStatus() < 0 && mempoolService.canRequestBeMade(openOffer.getOffer().getOfferPayload())) {
+            mempoolService.validateOfferMakerTx(openOffer.getOffer().getOfferPayload(), (txValidator -> {
+                openOffer.setMempoolStatus(txValidator.isFail() ? 0 : 1);
+            }));
+        }
+        if (openOffer.getMempoolStatus() == 1) {
+            openOffersToCheckMempool.remove(openOffer);
+        } else if (openOffer.getMempoolStatus() == 0) {
+            // if the mempool indicated failure then deactivate the open offer
+            log.info("Deactivating open offer {} due to mempool validation", openOffer.getOffer().getShortId());
             openOfferManager.deactivateOpenOffer(openOffer, () -> {
             }, errorMessage -> {
             });
-        } else if (openOffer.getState() == OpenOffer.State.AVAILABLE) {
-            // check the mempool if it has not been done before
-            if (openOffer.getMempoolStatus() < 0 && mempoolService.canRequestBeMade(openOffer.getOffer().getOfferPayload())) {
-                mempoolService.validateOfferMakerTx(openOffer.getOffer().getOfferPayload(), (txValidator -> {
-                    openOffer.setMempoolStatus(txValidator.isFail() ? 0 : 1);
-                }));
-            }
-            // if the mempool indicated failure then deactivate the open offer
-            if (openOffer.getMempoolStatus() == 0) {
-                log.info("Deactivating open offer {} due to mempool validation", openOffer.getOffer().getShortId());
-                openOfferManager.deactivateOpenOffer(openOffer, () -> {
-                }, errorMessage -> {
-                });
+        }
+    }
+
+    private void indexActivatedOpenOffers() {
+        Iterator<OpenOffer> iterator = deactivatedOpenOffers.iterator();
+        while (iterator.hasNext()) {
+            OpenOffer openOffer = iterator.next();
+            if (!openOffer.isDeactivated()) {
+                iterator.remove();
+                indexTriggerPrice(openOffer);
             }
         }
     }
 
+    private void indexTriggerPrice(OpenOffer openOffer) {
+        long triggerPrice = openOffer.getTriggerPrice();
+        if (triggerPrice <= 0) {
+            return;
+        }
+        String currencyCode = openOffer.getOffer().getCurrencyCode();
+        if (isTriggeredBelowTriggerPrice(openOffer)) {
+            triggerPriceIndex.addBelow(currencyCode, triggerPrice, openOffer);
+        } else {
+            triggerPriceIndex.addAbove(currencyCode, triggerPrice, openOffer);
+        }
+    }
+
+    private boolean isOpenOffer(OpenOffer openOffer) {
+        return openOfferManager.getObservableList().contains(openOffer);
+    }
+
     private void onAddedOpenOffers(List<? extends OpenOffer> openOffers) {
         openOffers.forEach(openOffer -> {
-            String currencyCode = openOffer.getOffer().getCurrencyCode();
-            openOffersByCurrency.putIfAbsent(currencyCode, new HashSet<>());
-            openOffersByCurrency.get(currencyCode).add(openOffer);
+            if (triggerPriceIndex.contains(openOffer) || deactivatedOpenOffers.contains(openOffer)) {
+                return;
+            }
+            if (openOffer.getTriggerPrice() > 0) {
+                if (openOffer.isDeactivated()) {
+                    deactivatedOpenOffers.add(openOffer);
+                } else {
+                    indexTriggerPrice(openOffer);
+                }
+            }
+            if (openOffer.getMempoolStatus() != 1) {
+                openOffersToCheckMempool.add(openOffer);
+            }
 
             MarketPrice marketPrice = priceFeedService.getMarketPrice(openOffer.getOffer().getCurrencyCode());
-            if (marketPrice != null) {
-                checkPriceThreshold(marketPrice, openOffer);
+            if (marketPrice != null && !openOffer.isDeactivated()) {
+                if (wasTriggered(marketPrice, openOffer)) {
+                    checkPriceThreshold(marketPrice, openOffer);
+                } else {
+                    checkMempoolStatus(openOffer);
+                }
             }
         });
     }
 
     private void onRemovedOpenOffers(List<? extends OpenOffer> openOffers) {
         openOffers.forEach(openOffer -> {
-            String currencyCode = openOffer.getOffer().getCurrencyCode();
-            if (openOffersByCurrency.containsKey(currencyCode)) {
-                Set<OpenOffer> set = openOffersByCurrency.get(currencyCode);
-                set.remove(openOffer);
-                if (set.isEmpty()) {
-                    openOffersByCurrency.remove(currencyCode);
-                }
-            }
+            triggerPriceIndex.remove(openOffer);
+            deactivatedOpenOffers.remove(openOffer);
+            openOffersToCheckMempool.remove(openOffer);
         });
     }
 }
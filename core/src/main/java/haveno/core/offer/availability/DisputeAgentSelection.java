@@ -21,16 +21,12 @@ import com.google.common.annotations.VisibleForTesting;
 import haveno.common.util.Tuple2;
 import haveno.core.support.dispute.agent.DisputeAgent;
 import haveno.core.support.dispute.agent.DisputeAgentManager;
-import haveno.core.trade.statistics.TradeStatistics3;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.network.p2p.NodeAddress;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -61,19 +57,8 @@ public class DisputeAgentSelection {
                                                                        DisputeAgentManager<T> disputeAgentManager,
                                                                        Set<NodeAddress> excludedDisputeAgents) {
         // We take last 100 entries from trade statistics
-        List<TradeStatistics3> list = new ArrayList<>(tradeStatisticsManager.getObservableTradeStatisticsSet());
-        list.sort(Comparator.comparing(TradeStatistics3::getDateAsLong));
-        Collections.reverse(list);
-        if (!list.isEmpty()) {
-            int max = Math.min(list.size(), LOOK_BACK_RANGE);
-            list = list.subList(0, max);
-        }
-
         // We stored only first 4 chars of disputeAgents onion address
-        List<String> lastAddressesUsedInTrades = list.stream()
-                .map(tradeStatistics3 -> tradeStatistics3.getArbitrator())
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        List<String> lastAddressesUsedInTrades = tradeStatisticsManager.getTradeStatisticsColumns().getLastArbitrators(LOOK_BACK_RANGE);
 
         Set<String> disputeAgents = disputeAgentManager.getObservableMap().values().stream()
                 .map(disputeAgent -> disputeAgent.getNodeAddress().getFullAddress())
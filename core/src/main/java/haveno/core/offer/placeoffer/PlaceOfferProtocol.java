@@ -61,6 +61,15 @@ public class PlaceOfferProtocol {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void placeOffer() {
+        placeOffer(() -> {});
+    }
+
+    /**
+     * Reserves the offer funds, then requests the arbitrator's signature.
+     *
+     * @param fundsReservedHandler called once the reserve tx is created, before waiting for the arbitrator
+     */
+    public void placeOffer(Runnable fundsReservedHandler) {
 
         timeoutTimer = UserThread.runAfter(() -> {
             handleError(Res.get("createOffer.timeoutAtPublishing"));
@@ -68,6 +77,8 @@ public class PlaceOfferProtocol {
 
         TaskRunner<PlaceOfferModel> taskRunner = new TaskRunner<>(model,
                 () -> {
+                    fundsReservedHandler.run();
+                    sendSignOfferRequest();
                 },
                 (errorMessage) -> {
                     handleError(errorMessage);
@@ -75,12 +86,23 @@ public class PlaceOfferProtocol {
         );
         taskRunner.addTasks(
                 ValidateOffer.class,
-                MakerReserveOfferFunds.class,
-                MakerSendSignOfferRequest.class
+                MakerReserveOfferFunds.class
         );
 
         taskRunner.run();
     }
+
+    private void sendSignOfferRequest() {
+        TaskRunner<PlaceOfferModel> taskRunner = new TaskRunner<>(model,
+                () -> {
+                },
+                (errorMessage) -> {
+                    handleError(errorMessage);
+                }
+        );
+        taskRunner.addTasks(MakerSendSignOfferRequest.class);
+        taskRunner.run();
+    }
     
     // TODO (woodser): switch to fluent
     public void handleSignOfferResponse(SignOfferResponse response, NodeAddress sender) {
@@ -35,6 +35,7 @@ import haveno.core.offer.messages.SignOfferResponse;
 import haveno.core.proto.CoreProtoResolver;
 import haveno.core.support.dispute.arbitration.arbitrator.Arbitrator;
 import haveno.core.support.dispute.mediation.mediator.Mediator;
+import haveno.core.support.dispute.messages.AttachmentChunkMessage;
 import haveno.core.support.dispute.messages.DisputeClosedMessage;
 import haveno.core.support.dispute.messages.DisputeOpenedMessage;
 import haveno.core.support.dispute.refund.refundagent.RefundAgent;
@@ -54,6 +55,8 @@ import haveno.network.p2p.AckMessage;
 import haveno.network.p2p.BundleOfEnvelopes;
 import haveno.network.p2p.CloseConnectionMessage;
 import haveno.network.p2p.PrefixedSealedAndSignedMessage;
+import haveno.network.p2p.mailbox.messages.MailboxDigestRequest;
+import haveno.network.p2p.mailbox.messages.MailboxDigestResponse;
 import haveno.network.p2p.peers.getdata.messages.GetDataResponse;
 import haveno.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import haveno.network.p2p.peers.getdata.messages.PreliminaryGetDataRequest;
@@ -128,6 +131,10 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
                     return CloseConnectionMessage.fromProto(proto.getCloseConnectionMessage(), messageVersion);
                 case PREFIXED_SEALED_AND_SIGNED_MESSAGE:
                     return PrefixedSealedAndSignedMessage.fromProto(proto.getPrefixedSealedAndSignedMessage(), messageVersion);
+                case MAILBOX_DIGEST_REQUEST:
+                    return MailboxDigestRequest.fromProto(proto.getMailboxDigestRequest(), messageVersion);
+                case MAILBOX_DIGEST_RESPONSE:
+                    return MailboxDigestResponse.fromProto(proto.getMailboxDigestResponse(), messageVersion);
 
                 case INIT_TRADE_REQUEST:
                   return InitTradeRequest.fromProto(proto.getInitTradeRequest(), this, messageVersion);
@@ -158,6 +165,8 @@ public class CoreNetworkProtoResolver extends CoreProtoResolver implements Netwo
                     return DisputeOpenedMessage.fromProto(proto.getDisputeOpenedMessage(), this, messageVersion);
                 case DISPUTE_CLOSED_MESSAGE:
                     return DisputeClosedMessage.fromProto(proto.getDisputeClosedMessage(), messageVersion);
+                case ATTACHMENT_CHUNK_MESSAGE:
+                    return AttachmentChunkMessage.fromProto(proto.getAttachmentChunkMessage(), messageVersion);
                 case CHAT_MESSAGE:
                     return ChatMessage.fromProto(proto.getChatMessage(), messageVersion);
 
@@ -31,6 +31,7 @@ import haveno.core.proto.CoreProtoResolver;
 import haveno.core.support.dispute.arbitration.ArbitrationDisputeList;
 import haveno.core.support.dispute.mediation.MediationDisputeList;
 import haveno.core.support.dispute.refund.RefundDisputeList;
+import haveno.core.trade.ClosedTradableSummaryList;
 import haveno.core.trade.TradableList;
 import haveno.core.trade.statistics.TradeStatistics3Store;
 import haveno.core.user.PreferencesPayload;
@@ -73,6 +74,8 @@ public class CorePersistenceProtoResolver extends CoreProtoResolver implements P
             switch (proto.getMessageCase()) {
                 case SIGNED_OFFER_LIST:
                     return SignedOfferList.fromProto(proto.getSignedOfferList());
+                case CLOSED_TRADABLE_SUMMARY_LIST:
+                    return ClosedTradableSummaryList.fromProto(proto.getClosedTradableSummaryList());
                 case SEQUENCE_NUMBER_MAP:
                     return SequenceNumberMap.fromProto(proto.getSequenceNumberMap());
                 case PEER_LIST:
@@ -28,11 +28,9 @@ import haveno.common.handlers.FaultHandler;
 import haveno.common.util.MathUtils;
 import haveno.core.locale.CurrencyUtil;
 import haveno.core.locale.TradeCurrency;
-import haveno.core.monetary.Price;
 import haveno.core.provider.PriceHttpClient;
 import haveno.core.provider.ProvidersRepository;
 import haveno.core.trade.HavenoUtils;
-import haveno.core.trade.statistics.TradeStatistics3;
 import haveno.core.user.Preferences;
 import haveno.network.http.HttpClient;
 import javafx.beans.property.IntegerProperty;
@@ -47,14 +45,16 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
@@ -70,7 +70,10 @@ public class PriceFeedService {
 
     private static final long PERIOD_SEC = 60;
 
-    private final Map<String, MarketPrice> cache = new HashMap<>();
+    // Immutable snapshot which is replaced on each update, so readers on any thread need no lock
+    private volatile Map<String, MarketPrice> cache = Collections.emptyMap();
+    private final Object cacheLock = new Object();
+    private final Map<String, List<Consumer<MarketPrice>>> priceListeners = new ConcurrentHashMap<>();
     private PriceProvider priceProvider;
     @Nullable
     private Consumer<Double> priceConsumer;
@@ -269,16 +272,56 @@ public class PriceFeedService {
         return cache.getOrDefault(currencyCode, null);
     }
 
-    private void setHavenoMarketPrice(String currencyCode, Price price) {
-        if (!cache.containsKey(currencyCode) || !cache.get(currencyCode).isExternallyProvidedPrice()) {
-            cache.put(currencyCode, new MarketPrice(currencyCode,
-                    MathUtils.scaleDownByPowerOf10(price.getValue(), CurrencyUtil.isCryptoCurrency(currencyCode) ? 8 : 4),
+    /**
+     * Add a listener which is called with the new market price of the given currency whenever
+     * that price changes, so consumers are not woken up by updates of other currencies.
+     */
+    public void addPriceListener(String currencyCode, Consumer<MarketPrice> listener) {
+        priceListeners.computeIfAbsent(currencyCode, c -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void removePriceListener(String currencyCode, Consumer<MarketPrice> listener) {
+        priceListeners.computeIfPresent(currencyCode, (c, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    private void setHavenoMarketPrice(String currencyCode, long price) {
+        MarketPrice marketPrice = cache.get(currencyCode);
+        if (marketPrice == null || !marketPrice.isExternallyProvidedPrice()) {
+            updateCache(Collections.singletonList(new MarketPrice(currencyCode,
+                    MathUtils.scaleDownByPowerOf10(price, CurrencyUtil.isCryptoCurrency(currencyCode) ? 8 : 4),
                     0,
-                    false));
+                    false)));
             updateCounter.set(updateCounter.get() + 1);
         }
     }
 
+    private void updateCache(Collection<MarketPrice> marketPrices) {
+        List<MarketPrice> changedPrices = new ArrayList<>();
+        synchronized (cacheLock) {
+            Map<String, MarketPrice> updatedCache = new HashMap<>(cache);
+            for (MarketPrice marketPrice : marketPrices) {
+                MarketPrice previous = updatedCache.put(marketPrice.getCurrencyCode(), marketPrice);
+                if (!marketPrice.equals(previous)) changedPrices.add(marketPrice);
+            }
+            if (changedPrices.isEmpty()) return;
+            cache = Collections.unmodifiableMap(updatedCache);
+        }
+        for (MarketPrice marketPrice : changedPrices) {
+            List<Consumer<MarketPrice>> listeners = priceListeners.get(marketPrice.getCurrencyCode());
+            if (listeners == null) continue;
+            for (Consumer<MarketPrice> listener : listeners) {
+                try {
+                    listener.accept(marketPrice);
+                } catch (Throwable t) {
+                    log.warn("Error notifying price listener for {}: {}", marketPrice.getCurrencyCode(), t.getMessage());
+                }
+            }
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Setter
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -313,28 +356,11 @@ public class PriceFeedService {
         return new Date(epochInMillisAtLastRequest);
     }
 
-    public void applyLatestHavenoMarketPrice(Set<TradeStatistics3> tradeStatisticsSet) {
-        // takes about 10 ms for 5000 items
-        Map<String, List<TradeStatistics3>> mapByCurrencyCode = new HashMap<>();
-        tradeStatisticsSet.forEach(e -> {
-            List<TradeStatistics3> list;
-            String currencyCode = e.getCurrency();
-            if (mapByCurrencyCode.containsKey(currencyCode)) {
-                list = mapByCurrencyCode.get(currencyCode);
-            } else {
-                list = new ArrayList<>();
-                mapByCurrencyCode.put(currencyCode, list);
-            }
-            list.add(e);
-        });
-
-        mapByCurrencyCode.values().stream()
-                .filter(list -> !list.isEmpty())
-                .forEach(list -> {
-                    list.sort(Comparator.comparing(TradeStatistics3::getDate));
-                    TradeStatistics3 tradeStatistics = list.get(list.size() - 1);
-                    setHavenoMarketPrice(tradeStatistics.getCurrency(), tradeStatistics.getTradePrice());
-                });
+    /**
+     * @param latestPrices - price of the most recent trade by currency code
+     */
+    public void applyLatestHavenoMarketPrices(Map<String, Long> latestPrices) {
+        latestPrices.forEach(this::setHavenoMarketPrice);
     }
 
     /**
@@ -371,9 +397,9 @@ public class PriceFeedService {
         if (currencyCode != null) {
             String baseUrl = priceProvider.getBaseUrl();
             httpClient.setBaseUrl(baseUrl);
-            if (cache.containsKey(currencyCode)) {
+            MarketPrice marketPrice = cache.get(currencyCode);
+            if (marketPrice != null) {
                 try {
-                    MarketPrice marketPrice = cache.get(currencyCode);
                     if (marketPrice.isExternallyProvidedPrice()) {
                         if (marketPrice.isRecentPriceAvailable()) {
                             if (priceConsumer != null)
@@ -437,9 +463,8 @@ public class PriceFeedService {
                     // However, the request timestamp is when the pricenode was queried
                     epochInMillisAtLastRequest = System.currentTimeMillis();
 
-                    Map<String, MarketPrice> priceMap = result;
-
-                    cache.putAll(priceMap);
+                    // The result only contains the prices which changed since the last request
+                    updateCache(result.values());
 
                     resultHandler.run();
                 });
@@ -23,19 +23,37 @@ import haveno.common.app.Version;
 import haveno.common.util.MathUtils;
 import haveno.core.provider.HttpClientProvider;
 import haveno.network.http.HttpClient;
+import haveno.network.http.HttpResponse;
 import haveno.network.p2p.P2PService;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Requests the market prices from a price node.
+ *
+ * <p>Requests are conditional: the ETag and Last-Modified validators of the last response are sent
+ * along, and an unchanged price list (304) results in an empty map. If the price node advertises
+ * {@code "supportsDelta": true}, subsequent requests add {@code ?since=<timestampSec>} and the node
+ * may answer with {@code "delta": true} and only the prices updated after that timestamp. In both
+ * cases the returned map only contains changed prices, which callers merge into what they have.</p>
+ */
 @Slf4j
 public class PriceProvider extends HttpClientProvider {
+    private static final String GET_ALL_MARKET_PRICES = "getAllMarketPrices";
 
     private boolean shutDownRequested;
+    @Nullable
+    private String eTag;
+    @Nullable
+    private String lastModified;
+    private boolean supportsDelta;
+    private long lastTimestampSec;
 
     // Do not use Guice here as we might create multiple instances
     public PriceProvider(HttpClient httpClient, String baseUrl) {
@@ -52,9 +70,26 @@ public class PriceProvider extends HttpClientProvider {
         if (P2PService.getMyNodeAddress() != null)
             hsVersion = P2PService.getMyNodeAddress().getHostName().length() > 22 ? ", HSv3" : ", HSv2";
 
-        String json = httpClient.get("getAllMarketPrices", "User-Agent", "haveno/"
-                + Version.VERSION + hsVersion);
-        LinkedTreeMap<?, ?> map = new Gson().fromJson(json, LinkedTreeMap.class);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("User-Agent", "haveno/" + Version.VERSION + hsVersion);
+        if (eTag != null)
+            headers.put("If-None-Match", eTag);
+        if (lastModified != null)
+            headers.put("If-Modified-Since", lastModified);
+        String param = supportsDelta && lastTimestampSec > 0 ?
+                GET_ALL_MARKET_PRICES + "?since=" + lastTimestampSec :
+                GET_ALL_MARKET_PRICES;
+
+        HttpResponse response = httpClient.getConditional(param, headers);
+        if (response.isNotModified()) {
+            log.debug("Market prices at {} are not modified since last request", getBaseUrl());
+            return marketPriceMap;
+        }
+        eTag = response.getETag();
+        lastModified = response.getLastModified();
+
+        LinkedTreeMap<?, ?> map = new Gson().fromJson(response.getBody(), LinkedTreeMap.class);
+        supportsDelta = Boolean.TRUE.equals(map.get("supportsDelta"));
 
         List<?> list = (ArrayList<?>) map.get("data");
         list.forEach(obj -> {
@@ -67,6 +102,7 @@ public class PriceProvider extends HttpClientProvider {
                 // json uses double for our timestampSec long value...
                 long timestampSec = MathUtils.doubleToLong((Double) treeMap.get("timestampSec"));
                 marketPriceMap.put(currencyCode, new MarketPrice(currencyCode, price, timestampSec, true));
+                lastTimestampSec = Math.max(lastTimestampSec, timestampSec);
             } catch (Throwable t) {
                 log.error(t.toString());
                 t.printStackTrace();
@@ -0,0 +1,140 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.provider.price;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Price thresholds of items per key (usually a currency code), sorted separately for thresholds which are
+ * triggered if the price rises above them and thresholds which are triggered if the price falls below them.
+ * Looking up the triggered items for a price only touches the thresholds the price has crossed, instead of
+ * evaluating every item on every price update.
+ *
+ * An item can have several thresholds and is compared by identity. Not thread safe.
+ */
+public class PriceTriggerIndex<T> {
+
+    private static class Thresholds<T> {
+        // triggered if the price is above the threshold
+        private final TreeMap<Long, List<T>> above = new TreeMap<>();
+        // triggered if the price is below the threshold
+        private final TreeMap<Long, List<T>> below = new TreeMap<>();
+
+        private TreeMap<Long, List<T>> get(boolean isAbove) {
+            return isAbove ? above : below;
+        }
+
+        private boolean isEmpty() {
+            return above.isEmpty() && below.isEmpty();
+        }
+    }
+
+    private static class Entry {
+        private final String key;
+        private final boolean isAbove;
+        private final long threshold;
+
+        private Entry(String key, boolean isAbove, long threshold) {
+            this.key = key;
+            this.isAbove = isAbove;
+            this.threshold = threshold;
+        }
+    }
+
+    private final Map<String, Thresholds<T>> thresholdsByKey = new HashMap<>();
+    private final Map<T, List<Entry>> entriesByItem = new IdentityHashMap<>();
+
+    /**
+     * Add a threshold which is triggered by a price above the given threshold.
+     */
+    public void addAbove(String key, long threshold, T item) {
+        add(key, true, threshold, item);
+    }
+
+    /**
+     * Add a threshold which is triggered by a price below the given threshold.
+     */
+    public void addBelow(String key, long threshold, T item) {
+        add(key, false, threshold, item);
+    }
+
+    /**
+     * Remove all thresholds of the given item.
+     *
+     * @return true if the item had thresholds
+     */
+    public boolean remove(T item) {
+        List<Entry> entries = entriesByItem.remove(item);
+        if (entries == null) return false;
+        for (Entry entry : entries) {
+            Thresholds<T> thresholds = thresholdsByKey.get(entry.key);
+            if (thresholds == null) continue; // already removed with an equal entry
+            TreeMap<Long, List<T>> side = thresholds.get(entry.isAbove);
+            List<T> items = side.get(entry.threshold);
+            if (items == null) continue;
+            items.removeIf(e -> e == item);
+            if (items.isEmpty()) side.remove(entry.threshold);
+            if (thresholds.isEmpty()) thresholdsByKey.remove(entry.key);
+        }
+        return true;
+    }
+
+    public boolean contains(T item) {
+        return entriesByItem.containsKey(item);
+    }
+
+    /**
+     * @return the items with a threshold of the given key which is triggered by the given price, in order of the
+     * distance of their threshold to the price, starting with the above and then the below thresholds
+     */
+    public List<T> getTriggered(String key, long price) {
+        Thresholds<T> thresholds = thresholdsByKey.get(key);
+        if (thresholds == null) return Collections.emptyList();
+        List<T> result = new ArrayList<>();
+        thresholds.above.headMap(price, false).descendingMap().values().forEach(result::addAll);
+        thresholds.below.tailMap(price, false).values().forEach(result::addAll);
+        return result;
+    }
+
+    public Set<String> getKeys() {
+        return Collections.unmodifiableSet(thresholdsByKey.keySet());
+    }
+
+    public int size() {
+        return entriesByItem.size();
+    }
+
+    public void clear() {
+        thresholdsByKey.clear();
+        entriesByItem.clear();
+    }
+
+    private void add(String key, boolean isAbove, long threshold, T item) {
+        thresholdsByKey.computeIfAbsent(key, k -> new Thresholds<>()).get(isAbove)
+                .computeIfAbsent(threshold, t -> new ArrayList<>(1))
+                .add(item);
+        entriesByItem.computeIfAbsent(item, i -> new ArrayList<>(1)).add(new Entry(key, isAbove, threshold));
+    }
+}
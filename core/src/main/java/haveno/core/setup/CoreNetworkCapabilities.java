@@ -39,7 +39,9 @@ public class CoreNetworkCapabilities {
                 Capability.REFUND_AGENT,
                 Capability.TRADE_STATISTICS_HASH_UPDATE,
                 Capability.NO_ADDRESS_PRE_FIX,
-                Capability.TRADE_STATISTICS_3
+                Capability.TRADE_STATISTICS_3,
+                Capability.MAILBOX_DIGEST,
+                Capability.ATTACHMENT_CHUNKS
         );
 
         log.info(Capabilities.app.prettyPrint());
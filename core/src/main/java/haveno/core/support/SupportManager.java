@@ -24,6 +24,7 @@ import haveno.common.proto.network.NetworkEnvelope;
 import haveno.core.api.CoreMoneroConnectionsService;
 import haveno.core.api.CoreNotificationService;
 import haveno.core.locale.Res;
+import haveno.core.support.dispute.Attachment;
 import haveno.core.support.dispute.Dispute;
 import haveno.core.support.messages.ChatMessage;
 import haveno.core.support.messages.SupportMessage;
@@ -39,6 +40,7 @@ import haveno.network.p2p.P2PService;
 import haveno.network.p2p.SendMailboxMessageListener;
 import haveno.network.p2p.mailbox.MailboxMessage;
 import haveno.network.p2p.mailbox.MailboxMessageService;
+import haveno.network.p2p.network.Connection;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.annotation.Nullable;
@@ -47,6 +49,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.stream.Collectors;
 
 @Slf4j
 public abstract class SupportManager {
@@ -116,8 +119,25 @@ public abstract class SupportManager {
 
     public abstract List<ChatMessage> getAllChatMessages();
 
+    protected List<ChatMessage> findChatMessages(String uid) {
+        return getAllChatMessages().stream()
+                .filter(msg -> msg.getUid().equals(uid))
+                .collect(Collectors.toList());
+    }
+
     public abstract void addAndPersistChatMessage(ChatMessage message);
 
+    // Returns null if the content of the attachment is not available (yet)
+    @Nullable
+    public byte[] getAttachmentBytes(Attachment attachment) {
+        return attachment.getBytes();
+    }
+
+    // Attachments are sent inline, so together they must fit into a single network message
+    public int getMaxAttachmentSize(String tradeId, int traderId) {
+        return Connection.getPermittedMessageSize();
+    }
+
     public abstract void requestPersistence();
 
 
@@ -203,8 +223,7 @@ public abstract class SupportManager {
                         ackMessage.getSourceMsgClassName(), ackMessage.getSourceId(), ackMessage.getErrorMessage());
             }
 
-            getAllChatMessages().stream()
-                    .filter(msg -> msg.getUid().equals(ackMessage.getSourceUid()))
+            findChatMessages(ackMessage.getSourceUid())
                     .forEach(msg -> {
                         if (ackMessage.isSuccess())
                             msg.setAcknowledged(true);
@@ -223,6 +242,12 @@ public abstract class SupportManager {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public ChatMessage sendChatMessage(ChatMessage message) {
+        sendChatMessage(message, message);
+        return message;
+    }
+
+    // Sends messageToSend and reports the delivery state on message. Both must have the same uid.
+    protected void sendChatMessage(ChatMessage message, ChatMessage messageToSend) {
         NodeAddress peersNodeAddress = getPeerNodeAddress(message);
         PubKeyRing receiverPubKeyRing = getPeerPubKeyRing(message);
         if (peersNodeAddress == null || receiverPubKeyRing == null) {
@@ -234,7 +259,7 @@ public abstract class SupportManager {
 
             mailboxMessageService.sendEncryptedMailboxMessage(peersNodeAddress,
                     receiverPubKeyRing,
-                    message,
+                    messageToSend,
                     new SendMailboxMessageListener() {
                         @Override
                         public void onArrived() {
@@ -262,8 +287,6 @@ public abstract class SupportManager {
                     }
             );
         }
-
-        return message;
     }
 
     protected void sendAckMessage(SupportMessage supportMessage, PubKeyRing peersPubKeyRing,
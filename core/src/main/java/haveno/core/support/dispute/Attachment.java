@@ -19,27 +19,66 @@ package haveno.core.support.dispute;
 
 import com.google.protobuf.ByteString;
 import haveno.common.proto.network.NetworkPayload;
+import haveno.common.util.Utilities;
 import lombok.Value;
 
+import javax.annotation.Nullable;
+
+/**
+ * A file attached to a chat message. The content is either carried inline or, once it
+ * was stored in the {@link AttachmentStore}, referenced by its SHA-256 hash so that the
+ * dispute list does not have to serialize it again on every persist.
+ */
 @Value
 public final class Attachment implements NetworkPayload {
     private final String fileName;
+    @Nullable
     private final byte[] bytes;
+    @Nullable
+    private final byte[] hash;
+    private final long size;
 
     public Attachment(String fileName, byte[] bytes) {
+        this(fileName, bytes, null, bytes.length);
+    }
+
+    private Attachment(String fileName, @Nullable byte[] bytes, @Nullable byte[] hash, long size) {
         this.fileName = fileName;
         this.bytes = bytes;
+        this.hash = hash;
+        this.size = size;
+    }
+
+    public static Attachment reference(String fileName, byte[] hash, long size) {
+        return new Attachment(fileName, null, hash, size);
+    }
+
+    public boolean isStoredOutOfBand() {
+        return hash != null;
+    }
+
+    @Nullable
+    public String getHashAsHex() {
+        return hash != null ? Utilities.bytesAsHexString(hash) : null;
     }
 
     @Override
     public protobuf.Attachment toProtoMessage() {
-        return protobuf.Attachment.newBuilder()
+        protobuf.Attachment.Builder builder = protobuf.Attachment.newBuilder()
                 .setFileName(fileName)
-                .setBytes(ByteString.copyFrom(bytes))
-                .build();
+                .setSize(size);
+        if (bytes != null)
+            builder.setBytes(ByteString.copyFrom(bytes));
+        if (hash != null)
+            builder.setHash(ByteString.copyFrom(hash));
+        return builder.build();
     }
 
     public static Attachment fromProto(protobuf.Attachment proto) {
-        return new Attachment(proto.getFileName(), proto.getBytes().toByteArray());
+        if (!proto.getHash().isEmpty()) {
+            return reference(proto.getFileName(), proto.getHash().toByteArray(), proto.getSize());
+        }
+        byte[] bytes = proto.getBytes().toByteArray();
+        return new Attachment(proto.getFileName(), bytes);
     }
 }
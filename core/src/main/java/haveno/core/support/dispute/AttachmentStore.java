@@ -0,0 +1,381 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.support.dispute;
+
+import haveno.common.config.Config;
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Encryption;
+import haveno.common.crypto.Hash;
+import haveno.common.crypto.KeyRing;
+import haveno.common.file.FileUtil;
+import haveno.common.util.Utilities;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Content addressed storage for chat attachments. Each attachment is kept encrypted in
+ * its own file named by the SHA-256 hash of its content, so chat messages only need to
+ * carry the hash and the content is read from disk when it is opened.
+ *
+ * Peers receive the content in chunks of at most {@link #CHUNK_SIZE} bytes which are
+ * collected as part files until the attachment is complete. The chunk size keeps a sealed
+ * chunk message below the permitted message size of a connection. Chunks which arrive
+ * before the chat message referencing them are kept per trade until the chat message
+ * arrives.
+ */
+@Slf4j
+@Singleton
+public class AttachmentStore {
+    public static final int CHUNK_SIZE = 100 * 1024;
+    public static final int MAX_NUM_CHUNKS = 100;
+    public static final int MAX_ATTACHMENT_SIZE = CHUNK_SIZE * MAX_NUM_CHUNKS;
+    // Limit for peers which are not connected, as each chunk is stored as a mailbox entry
+    public static final int MAX_MAILBOX_ATTACHMENT_SIZE = CHUNK_SIZE * 10;
+    // A chat message has at most 3 attachments
+    public static final int MAX_EARLY_CHUNKS_PER_TRADE = 3 * MAX_NUM_CHUNKS;
+
+    private static final String DIR_NAME = "attachments";
+    private static final String EARLY_DIR_NAME = "early";
+    private static final String PART_SUFFIX = ".part";
+    private static final int HASH_LENGTH = 32;
+
+    private final File dir;
+    private final KeyRing keyRing;
+
+    @Inject
+    public AttachmentStore(@Named(Config.STORAGE_DIR) File storageDir, KeyRing keyRing) {
+        this.dir = new File(storageDir, DIR_NAME);
+        this.keyRing = keyRing;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the content of an inline attachment to its own file and returns a reference
+     * to it. References are returned unchanged. If the content cannot be written the inline
+     * attachment is returned so nothing gets lost.
+     */
+    public Attachment store(Attachment attachment) {
+        if (attachment.isStoredOutOfBand())
+            return attachment;
+
+        byte[] bytes = checkNotNull(attachment.getBytes());
+        byte[] hash = Hash.getSha256Hash(bytes);
+        try {
+            synchronized (this) {
+                if (!contains(hash))
+                    write(getFile(hash), bytes);
+            }
+            return Attachment.reference(attachment.getFileName(), hash, bytes.length);
+        } catch (Throwable t) {
+            log.warn("Could not store attachment {}, keeping it inline. {}", attachment.getFileName(), t.toString());
+            return attachment;
+        }
+    }
+
+    /**
+     * @return the content of the attachment or null if it was not received yet or the
+     * stored file does not match its hash
+     */
+    @Nullable
+    public byte[] getBytes(Attachment attachment) {
+        if (!attachment.isStoredOutOfBand())
+            return attachment.getBytes();
+
+        byte[] hash = checkNotNull(attachment.getHash());
+        File file = getFile(hash);
+        if (!file.exists())
+            return null;
+
+        try {
+            byte[] bytes = read(file);
+            if (!Arrays.equals(hash, Hash.getSha256Hash(bytes))) {
+                log.warn("Attachment file {} does not match its hash", file.getName());
+                return null;
+            }
+            return bytes;
+        } catch (Throwable t) {
+            log.warn("Could not read attachment file {}. {}", file.getName(), t.toString());
+            return null;
+        }
+    }
+
+    public boolean contains(byte[] hash) {
+        return getFile(hash).exists();
+    }
+
+    /**
+     * @return the content of the attachment split into chunks of at most
+     * {@link #CHUNK_SIZE} bytes or an empty list if the content is not available
+     */
+    public List<byte[]> getChunks(Attachment attachment) {
+        byte[] bytes = getBytes(attachment);
+        if (bytes == null)
+            return new ArrayList<>();
+
+        int numChunks = getNumChunks(bytes.length);
+        List<byte[]> chunks = new ArrayList<>(numChunks);
+        for (int i = 0; i < numChunks; i++) {
+            chunks.add(Arrays.copyOfRange(bytes, i * CHUNK_SIZE, Math.min(bytes.length, (i + 1) * CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    public static int getNumChunks(long size) {
+        return (int) Math.max(1, (size + CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    /**
+     * Stores a chunk received from a peer. Once all chunks are present they are assembled,
+     * verified against the size and hash and stored like a local attachment.
+     *
+     * @param size the size of the attachment as referenced by its chat message
+     * @return true if the attachment is complete
+     */
+    public synchronized boolean addChunk(byte[] hash, long size, int index, int numChunks, byte[] chunk) {
+        checkArgument(hash.length == HASH_LENGTH, "Invalid attachment hash");
+        checkArgument(size >= 0 && size <= MAX_ATTACHMENT_SIZE, "Invalid attachment size: " + size);
+        checkArgument(numChunks == getNumChunks(size), "Invalid number of chunks: " + numChunks);
+        checkArgument(index >= 0 && index < numChunks, "Invalid chunk index: " + index);
+        checkArgument(chunk.length <= CHUNK_SIZE, "Chunk exceeds max size: " + chunk.length);
+
+        if (contains(hash))
+            return true;
+
+        String hashAsHex = Utilities.bytesAsHexString(hash);
+        try {
+            write(getPartFile(hash, index), chunk);
+            for (int i = 0; i < numChunks; i++) {
+                if (!getPartFile(hash, i).exists())
+                    return false;
+            }
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            for (int i = 0; i < numChunks; i++) {
+                outputStream.write(read(getPartFile(hash, i)));
+            }
+            byte[] bytes = outputStream.toByteArray();
+            boolean isValid = bytes.length == size && Arrays.equals(hash, Hash.getSha256Hash(bytes));
+            if (isValid)
+                write(getFile(hash), bytes);
+            else
+                log.warn("Assembled attachment {} does not match its hash. We drop the received chunks.", hashAsHex);
+
+            deletePartFiles(hash);
+            return isValid;
+        } catch (IOException | CryptoException e) {
+            log.warn("Could not store chunk {} of attachment {}. {}", index, hashAsHex, e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Keeps a chunk which arrived before the chat message referencing its attachment. The
+     * chunk is validated once the chat message arrives, see {@link #addEarlyChunks}.
+     *
+     * @return false if the chunk was not stored because the trade has too many early chunks
+     */
+    public synchronized boolean addEarlyChunk(String tradeId, byte[] hash, int index, int numChunks, byte[] chunk) {
+        checkArgument(hash.length == HASH_LENGTH, "Invalid attachment hash");
+        checkArgument(numChunks > 0 && numChunks <= MAX_NUM_CHUNKS, "Invalid number of chunks: " + numChunks);
+        checkArgument(index >= 0 && index < numChunks, "Invalid chunk index: " + index);
+        checkArgument(chunk.length <= CHUNK_SIZE, "Chunk exceeds max size: " + chunk.length);
+
+        if (contains(hash))
+            return true;
+
+        File tradeDir = getEarlyDir(tradeId);
+        File partFile = new File(tradeDir, getPartFileName(hash, index));
+        String[] fileNames = tradeDir.list();
+        if (!partFile.exists() && fileNames != null && fileNames.length >= MAX_EARLY_CHUNKS_PER_TRADE) {
+            log.warn("Too many chunks for trade {} arrived before their chat message. We drop the chunk.", tradeId);
+            return false;
+        }
+        try {
+            write(partFile, chunk);
+            return true;
+        } catch (IOException | CryptoException e) {
+            log.warn("Could not store early chunk {} of attachment {}. {}", index, Utilities.bytesAsHexString(hash), e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Adds the chunks of an attachment which arrived before the chat message referencing it
+     * and deletes them from the early chunks of the trade.
+     *
+     * @param size the size of the attachment as referenced by its chat message
+     * @return true if the attachment is complete
+     */
+    public synchronized boolean addEarlyChunks(String tradeId, byte[] hash, long size) {
+        boolean isComplete = contains(hash);
+        File tradeDir = getEarlyDir(tradeId);
+        String prefix = Utilities.bytesAsHexString(hash) + ".";
+        File[] partFiles = tradeDir.listFiles((file, name) -> name.startsWith(prefix) && name.endsWith(PART_SUFFIX));
+        if (partFiles == null)
+            return isComplete;
+
+        for (File partFile : partFiles) {
+            String name = partFile.getName();
+            try {
+                if (!isComplete) {
+                    int index = Integer.parseInt(name.substring(prefix.length(), name.length() - PART_SUFFIX.length()));
+                    isComplete = addChunk(hash, size, index, getNumChunks(size), read(partFile));
+                }
+            } catch (IllegalArgumentException | IOException | CryptoException e) {
+                log.warn("Early chunk {} does not match the referenced attachment. {}", name, e.toString());
+            }
+            if (!partFile.delete())
+                log.warn("Could not delete {}", name);
+        }
+        deleteIfEmpty(tradeDir);
+        return isComplete;
+    }
+
+    /**
+     * Deletes the chunks received so far for an attachment which will not be completed.
+     */
+    public synchronized void deletePartFiles(byte[] hash) {
+        for (int i = 0; i < MAX_NUM_CHUNKS; i++) {
+            File partFile = getPartFile(hash, i);
+            if (partFile.exists() && !partFile.delete())
+                log.warn("Could not delete {}", partFile.getName());
+        }
+    }
+
+    /**
+     * Deletes chunks which were received longer than maxAgeMillis ago.
+     *
+     * @return the number of deleted part files
+     */
+    public synchronized int deleteStalePartFiles(long maxAgeMillis) {
+        File[] partFiles = dir.listFiles((file, name) -> name.endsWith(PART_SUFFIX));
+        if (partFiles == null)
+            return 0;
+
+        return deleteOlderThan(partFiles, maxAgeMillis);
+    }
+
+    /**
+     * Deletes chunks which arrived before their chat message longer than maxAgeMillis ago.
+     *
+     * @return the number of deleted part files
+     */
+    public synchronized int deleteStaleEarlyChunks(long maxAgeMillis) {
+        File[] tradeDirs = new File(dir, EARLY_DIR_NAME).listFiles(File::isDirectory);
+        if (tradeDirs == null)
+            return 0;
+
+        int numDeleted = 0;
+        for (File tradeDir : tradeDirs) {
+            File[] partFiles = tradeDir.listFiles((file, name) -> name.endsWith(PART_SUFFIX));
+            if (partFiles != null)
+                numDeleted += deleteOlderThan(partFiles, maxAgeMillis);
+            deleteIfEmpty(tradeDir);
+        }
+        return numDeleted;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private File getFile(byte[] hash) {
+        return new File(dir, Utilities.bytesAsHexString(hash));
+    }
+
+    private File getPartFile(byte[] hash, int index) {
+        return new File(dir, getPartFileName(hash, index));
+    }
+
+    private static String getPartFileName(byte[] hash, int index) {
+        return Utilities.bytesAsHexString(hash) + "." + index + PART_SUFFIX;
+    }
+
+    // The trade id comes from the network, so it is hashed to get a safe directory name
+    private File getEarlyDir(String tradeId) {
+        return new File(new File(dir, EARLY_DIR_NAME), Utilities.bytesAsHexString(Hash.getSha256Hash(tradeId)));
+    }
+
+    private int deleteOlderThan(File[] files, long maxAgeMillis) {
+        long minLastModified = System.currentTimeMillis() - maxAgeMillis;
+        int numDeleted = 0;
+        for (File file : files) {
+            if (file.lastModified() >= minLastModified)
+                continue;
+            if (file.delete())
+                numDeleted++;
+            else
+                log.warn("Could not delete {}", file.getName());
+        }
+        return numDeleted;
+    }
+
+    private void deleteIfEmpty(File directory) {
+        String[] fileNames = directory.list();
+        if (fileNames != null && fileNames.length == 0 && !directory.delete())
+            log.warn("Could not delete {}", directory.getName());
+    }
+
+    private void write(File file, byte[] bytes) throws IOException, CryptoException {
+        if (!keyRing.isUnlocked())
+            throw new IOException("Account is not open");
+        File parentDir = file.getParentFile();
+        if (!parentDir.exists() && !parentDir.mkdirs())
+            throw new IOException("Could not create " + parentDir);
+
+        byte[] encryptedBytes = Encryption.encryptPayloadWithHmac(bytes, keyRing.getSymmetricKey());
+        File tempFile = File.createTempFile("temp_" + file.getName(), null, parentDir);
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                fileOutputStream.write(encryptedBytes);
+                fileOutputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, file);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete())
+                log.warn("Could not delete temp file {}", tempFile.getName());
+        }
+    }
+
+    private byte[] read(File file) throws IOException, CryptoException {
+        if (!keyRing.isUnlocked())
+            throw new IOException("Account is not open");
+        return Encryption.decryptPayloadWithHmac(Files.readAllBytes(file.toPath()), keyRing.getSymmetricKey());
+    }
+}
@@ -17,24 +17,31 @@
 
 package haveno.core.support.dispute;
 
+import com.google.common.collect.ImmutableList;
 import haveno.common.UserThread;
 import haveno.common.persistence.PersistenceManager;
 import haveno.common.proto.persistable.PersistedDataHost;
+import haveno.core.support.messages.ChatMessage;
 import haveno.core.trade.Contract;
 import haveno.network.p2p.NodeAddress;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
-import org.fxmisc.easybind.EasyBind;
 
 import javax.annotation.Nullable;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
 
 @Slf4j
 public abstract class DisputeListService<T extends DisputeList<Dispute>> implements PersistedDataHost {
@@ -46,6 +53,19 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     private final IntegerProperty numOpenDisputes = new SimpleIntegerProperty();
     @Getter
     private final Set<String> disputedTradeIds = new HashSet<>();
+    private final AtomicInteger numAlerts = new AtomicInteger();
+    private final ChangeListener<Number> badgeCountListener = (observable, oldValue, newValue) ->
+            updateNumAlerts(newValue.intValue() - oldValue.intValue());
+
+    // Indexes of the dispute list, updated by a listener on the list
+    private final Map<String, List<Dispute>> disputesByTradeId = new ConcurrentHashMap<>();
+    private final Map<String, Dispute> disputesById = new ConcurrentHashMap<>();
+    private final Map<NodeAddress, Integer> numDisputesByBuyerNodeAddress = new ConcurrentHashMap<>();
+    private final Map<NodeAddress, Integer> numDisputesBySellerNodeAddress = new ConcurrentHashMap<>();
+    // Chat messages by uid, and the uids of the chat messages of each dispute by the uid of the dispute
+    private final Map<String, List<ChatMessage>> chatMessagesByUid = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> chatMessageUidsByDisputeUid = new ConcurrentHashMap<>();
+    private final Map<String, ListChangeListener<ChatMessage>> chatMessagesListenersByDisputeUid = new ConcurrentHashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -55,6 +75,7 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     public DisputeListService(PersistenceManager<T> persistenceManager) {
         this.persistenceManager = persistenceManager;
         disputeList = getConcreteDisputeList();
+        disputeList.addListener(this::onDisputeListChanged);
 
         this.persistenceManager.initialize(disputeList, getFileName(), PersistenceManager.Source.PRIVATE);
     }
@@ -112,21 +133,35 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
     }
 
     String getNrOfDisputes(boolean isBuyer, Contract contract) {
-        return String.valueOf(getObservableList().stream()
-                .filter(e -> {
-                    Contract contract1 = e.getContract();
-                    if (contract1 == null)
-                        return false;
-
-                    if (isBuyer) {
-                        NodeAddress buyerNodeAddress = contract1.getBuyerNodeAddress();
-                        return buyerNodeAddress != null && buyerNodeAddress.equals(contract.getBuyerNodeAddress());
-                    } else {
-                        NodeAddress sellerNodeAddress = contract1.getSellerNodeAddress();
-                        return sellerNodeAddress != null && sellerNodeAddress.equals(contract.getSellerNodeAddress());
-                    }
-                })
-                .collect(Collectors.toSet()).size());
+        NodeAddress nodeAddress = isBuyer ? contract.getBuyerNodeAddress() : contract.getSellerNodeAddress();
+        if (nodeAddress == null) {
+            return "0";
+        }
+        Map<NodeAddress, Integer> numDisputes = isBuyer ? numDisputesByBuyerNodeAddress : numDisputesBySellerNodeAddress;
+        return String.valueOf(numDisputes.getOrDefault(nodeAddress, 0));
+    }
+
+    List<Dispute> findDisputes(String tradeId) {
+        return disputesByTradeId.getOrDefault(tradeId, Collections.emptyList());
+    }
+
+    Optional<Dispute> findDispute(String tradeId, int traderId) {
+        return findDisputes(tradeId).stream()
+                .filter(dispute -> dispute.getTraderId() == traderId)
+                .findAny();
+    }
+
+    Optional<Dispute> findDisputeById(String disputeId) {
+        return Optional.ofNullable(disputesById.get(disputeId));
+    }
+
+    boolean hasChatMessage(Dispute dispute, String chatMessageUid) {
+        Set<String> chatMessageUids = chatMessageUidsByDisputeUid.get(dispute.getUid());
+        return chatMessageUids != null && chatMessageUids.contains(chatMessageUid);
+    }
+
+    List<ChatMessage> findChatMessages(String chatMessageUid) {
+        return chatMessagesByUid.getOrDefault(chatMessageUid, Collections.emptyList());
     }
 
     ObservableList<Dispute> getObservableList() {
@@ -142,25 +177,101 @@ public abstract class DisputeListService<T extends DisputeList<Dispute>> impleme
                                           @Nullable List<? extends Dispute> removedList) {
         if (removedList != null) {
             removedList.forEach(dispute -> {
+                dispute.getBadgeCountProperty().removeListener(badgeCountListener);
+                updateNumAlerts(-dispute.getBadgeCountProperty().get());
                 disputedTradeIds.remove(dispute.getTradeId());
             });
         }
         addedList.forEach(dispute -> {
             // for each dispute added, keep track of its "BadgeCountProperty"
-            EasyBind.subscribe(dispute.getBadgeCountProperty(),
-                    isAlerting -> {
-                        // We get the event before the list gets updated, so we execute on next frame
-                        UserThread.execute(() -> {
-                            int numAlerts = (int) disputeList.getList().stream()
-                                    .mapToLong(x -> x.getBadgeCountProperty().getValue())
-                                    .sum();
-                            numOpenDisputes.set(numAlerts);
-                        });
-                    });
+            dispute.getBadgeCountProperty().addListener(badgeCountListener);
+            updateNumAlerts(dispute.getBadgeCountProperty().get());
             disputedTradeIds.add(dispute.getTradeId());
         });
     }
 
+    private void updateNumAlerts(int delta) {
+        int numAlerts = this.numAlerts.addAndGet(delta);
+        UserThread.execute(() -> numOpenDisputes.set(numAlerts));
+    }
+
+    private void onDisputeListChanged(ListChangeListener.Change<? extends Dispute> change) {
+        while (change.next()) {
+            change.getRemoved().forEach(this::removeFromIndexes);
+            change.getAddedSubList().forEach(this::addToIndexes);
+        }
+    }
+
+    private void addToIndexes(Dispute dispute) {
+        disputesByTradeId.compute(dispute.getTradeId(), (tradeId, disputes) -> disputes == null ?
+                ImmutableList.of(dispute) :
+                ImmutableList.<Dispute>builder().addAll(disputes).add(dispute).build());
+        disputesById.putIfAbsent(dispute.getId(), dispute);
+        Contract contract = dispute.getContract();
+        if (contract != null && contract.getBuyerNodeAddress() != null) {
+            numDisputesByBuyerNodeAddress.merge(contract.getBuyerNodeAddress(), 1, Integer::sum);
+        }
+        if (contract != null && contract.getSellerNodeAddress() != null) {
+            numDisputesBySellerNodeAddress.merge(contract.getSellerNodeAddress(), 1, Integer::sum);
+        }
+        chatMessageUidsByDisputeUid.put(dispute.getUid(), ConcurrentHashMap.newKeySet());
+        dispute.getChatMessages().forEach(chatMessage -> addChatMessage(dispute, chatMessage));
+        ListChangeListener<ChatMessage> chatMessagesListener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(chatMessage -> removeChatMessage(dispute, chatMessage));
+                change.getAddedSubList().forEach(chatMessage -> addChatMessage(dispute, chatMessage));
+            }
+        };
+        chatMessagesListenersByDisputeUid.put(dispute.getUid(), chatMessagesListener);
+        dispute.getChatMessages().addListener(chatMessagesListener);
+    }
+
+    private void removeFromIndexes(Dispute dispute) {
+        disputesByTradeId.computeIfPresent(dispute.getTradeId(), (tradeId, disputes) -> {
+            List<Dispute> remaining = disputes.stream()
+                    .filter(e -> e != dispute)
+                    .collect(ImmutableList.toImmutableList());
+            return remaining.isEmpty() ? null : remaining;
+        });
+        if (disputesById.remove(dispute.getId(), dispute)) {
+            // fall back to another dispute with the same id, if any
+            findDisputes(dispute.getTradeId()).stream()
+                    .filter(e -> e.getId().equals(dispute.getId()))
+                    .findFirst()
+                    .ifPresent(e -> disputesById.put(e.getId(), e));
+        }
+        Contract contract = dispute.getContract();
+        if (contract != null && contract.getBuyerNodeAddress() != null) {
+            numDisputesByBuyerNodeAddress.computeIfPresent(contract.getBuyerNodeAddress(), (address, count) -> count > 1 ? count - 1 : null);
+        }
+        if (contract != null && contract.getSellerNodeAddress() != null) {
+            numDisputesBySellerNodeAddress.computeIfPresent(contract.getSellerNodeAddress(), (address, count) -> count > 1 ? count - 1 : null);
+        }
+        ListChangeListener<ChatMessage> chatMessagesListener = chatMessagesListenersByDisputeUid.remove(dispute.getUid());
+        if (chatMessagesListener != null) dispute.getChatMessages().removeListener(chatMessagesListener);
+        dispute.getChatMessages().forEach(chatMessage -> removeChatMessage(dispute, chatMessage));
+        chatMessageUidsByDisputeUid.remove(dispute.getUid());
+    }
+
+    private void addChatMessage(Dispute dispute, ChatMessage chatMessage) {
+        Set<String> chatMessageUids = chatMessageUidsByDisputeUid.get(dispute.getUid());
+        if (chatMessageUids != null) chatMessageUids.add(chatMessage.getUid());
+        chatMessagesByUid.compute(chatMessage.getUid(), (uid, chatMessages) -> chatMessages == null ?
+                ImmutableList.of(chatMessage) :
+                ImmutableList.<ChatMessage>builder().addAll(chatMessages).add(chatMessage).build());
+    }
+
+    private void removeChatMessage(Dispute dispute, ChatMessage chatMessage) {
+        chatMessagesByUid.computeIfPresent(chatMessage.getUid(), (uid, chatMessages) -> {
+            List<ChatMessage> remaining = chatMessages.stream()
+                    .filter(e -> e != chatMessage)
+                    .collect(ImmutableList.toImmutableList());
+            return remaining.isEmpty() ? null : remaining;
+        });
+        Set<String> chatMessageUids = chatMessageUidsByDisputeUid.get(dispute.getUid());
+        if (chatMessageUids != null) chatMessageUids.remove(chatMessage.getUid());
+    }
+
     public void requestPersistence() {
         persistenceManager.requestPersistence();
     }
@@ -18,6 +18,7 @@
 package haveno.core.support.dispute;
 
 import haveno.common.UserThread;
+import haveno.common.app.Capability;
 import haveno.common.app.Version;
 import haveno.common.config.Config;
 import haveno.common.crypto.KeyRing;
@@ -26,6 +27,7 @@ import haveno.common.handlers.FaultHandler;
 import haveno.common.handlers.ResultHandler;
 import haveno.common.util.MathUtils;
 import haveno.common.util.Tuple2;
+import haveno.common.util.Utilities;
 import haveno.core.api.CoreMoneroConnectionsService;
 import haveno.core.api.CoreNotificationService;
 import haveno.core.locale.CurrencyUtil;
@@ -38,6 +40,7 @@ import haveno.core.provider.price.MarketPrice;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.support.SupportManager;
 import haveno.core.support.dispute.DisputeResult.Winner;
+import haveno.core.support.dispute.messages.AttachmentChunkMessage;
 import haveno.core.support.dispute.messages.DisputeClosedMessage;
 import haveno.core.support.dispute.messages.DisputeOpenedMessage;
 import haveno.core.support.messages.ChatMessage;
@@ -70,6 +73,7 @@ import java.math.BigInteger;
 import java.security.KeyPair;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -84,12 +88,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 @Slf4j
 public abstract class DisputeManager<T extends DisputeList<Dispute>> extends SupportManager {
+    private static final long MAX_ATTACHMENT_PART_AGE_MS = TimeUnit.DAYS.toMillis(7);
+    private static final long MAX_EARLY_CHUNK_AGE_MS = TimeUnit.DAYS.toMillis(1);
+
     protected final TradeWalletService tradeWalletService;
     protected final XmrWalletService xmrWalletService;
     protected final ClosedTradableManager closedTradableManager;
     protected final OpenOfferManager openOfferManager;
     protected final KeyRing keyRing;
     protected final DisputeListService<T> disputeListService;
+    protected final AttachmentStore attachmentStore;
     private final Config config;
     private final PriceFeedService priceFeedService;
 
@@ -111,6 +119,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                           OpenOfferManager openOfferManager,
                           KeyRing keyRing,
                           DisputeListService<T> disputeListService,
+                          AttachmentStore attachmentStore,
                           Config config,
                           PriceFeedService priceFeedService) {
         super(p2PService, connectionService, notificationService, tradeManager);
@@ -121,6 +130,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         this.openOfferManager = openOfferManager;
         this.keyRing = keyRing;
         this.disputeListService = disputeListService;
+        this.attachmentStore = attachmentStore;
         this.config = config;
         this.priceFeedService = priceFeedService;
     }
@@ -170,6 +180,11 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         }
     }
 
+    @Override
+    protected List<ChatMessage> findChatMessages(String uid) {
+        return disputeListService.findChatMessages(uid);
+    }
+
     @Override
     public boolean channelOpen(ChatMessage message) {
         return findDispute(message).isPresent();
@@ -178,8 +193,13 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
     @Override
     public void addAndPersistChatMessage(ChatMessage message) {
         findDispute(message).ifPresent(dispute -> {
-            if (dispute.getChatMessages().stream().noneMatch(m -> m.getUid().equals(message.getUid()))) {
-                dispute.addAndPersistChatMessage(message);
+            if (!disputeListService.hasChatMessage(dispute, message.getUid())) {
+                storeAttachments(message);
+                // synchronized with handleAttachmentChunkMessage so no chunk is kept as early chunk after this
+                synchronized (attachmentStore) {
+                    dispute.addAndPersistChatMessage(message);
+                    addEarlyAttachmentChunks(message);
+                }
                 requestPersistence();
             } else {
                 log.warn("We got a chatMessage what we have already stored. UId = {} TradeId = {}",
@@ -189,6 +209,42 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
     }
 
 
+    // Attachments are persisted and sent as references to the attachment store. The content
+    // follows in separate chunk messages so no single message exceeds the permitted size.
+    // Peers which do not support chunks receive the attachments inline.
+    @Override
+    public ChatMessage sendChatMessage(ChatMessage message) {
+        storeAttachments(message);
+        NodeAddress peersNodeAddress = getPeerNodeAddress(message);
+        if (peersNodeAddress == null || supportsAttachmentChunks(peersNodeAddress)) {
+            super.sendChatMessage(message);
+            sendAttachmentChunks(message);
+        } else {
+            super.sendChatMessage(message, getMessageWithInlineAttachments(message));
+        }
+        return message;
+    }
+
+    // Chunks for a peer which is not connected all wait in the mailbox, so we keep those attachments small
+    @Override
+    public int getMaxAttachmentSize(String tradeId, int traderId) {
+        NodeAddress peersNodeAddress = findDispute(tradeId, traderId)
+                .map(dispute -> getNodeAddressPubKeyRingTuple(dispute).first)
+                .orElse(null);
+        if (peersNodeAddress == null || !supportsAttachmentChunks(peersNodeAddress))
+            return super.getMaxAttachmentSize(tradeId, traderId);
+        return p2PService.findPeersCapabilities(peersNodeAddress).isPresent() ?
+                AttachmentStore.MAX_ATTACHMENT_SIZE :
+                AttachmentStore.MAX_MAILBOX_ATTACHMENT_SIZE;
+    }
+
+    @Nullable
+    @Override
+    public byte[] getAttachmentBytes(Attachment attachment) {
+        return attachmentStore.getBytes(attachment);
+    }
+
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Abstract methods
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -263,6 +319,9 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
 
         tryApplyMessages();
         cleanupDisputes();
+        storeInlineAttachments();
+        deleteStalePartFiles();
+        UserThread.runPeriodically(this::deleteStalePartFiles, 1, TimeUnit.HOURS);
 
         List<Dispute> disputes = getDisputeList().getList();
         disputes.forEach(dispute -> {
@@ -288,7 +347,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
                 log.warn("disputes is null");
                 return Optional.empty();
             }
-            return disputeList.stream().filter(e -> e.getTradeId().equals(tradeId)).findAny();
+            return disputeListService.findDisputes(tradeId).stream().findAny();
         }
     }
 
@@ -704,6 +763,55 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         requestPersistence();
     }
 
+    // peer receives the content of an attachment referenced by a chat message
+    protected void handleAttachmentChunkMessage(AttachmentChunkMessage message) {
+        List<Dispute> disputes = disputeListService.findDisputes(message.getTradeId());
+        boolean hasOpenDispute = disputes.stream().anyMatch(dispute -> !dispute.isClosed());
+        // the dispute might not be opened yet if the chunk arrives before the dispute
+        if (!hasOpenDispute && !(disputes.isEmpty() && tradeManager.getOpenTrade(message.getTradeId()).isPresent())) {
+            log.warn("We got an AttachmentChunkMessage for tradeId {} but have no open dispute or trade for it. We ignore the message.",
+                    message.getTradeId());
+            return;
+        }
+
+        try {
+            synchronized (attachmentStore) {
+                // only accept content which is referenced by a chat message of an open dispute
+                Optional<Attachment> attachment = disputes.stream()
+                        .filter(dispute -> !dispute.isClosed())
+                        .flatMap(dispute -> dispute.getChatMessages().stream())
+                        .flatMap(chatMessage -> chatMessage.getAttachments().stream())
+                        .filter(candidate -> candidate.isStoredOutOfBand() && Arrays.equals(candidate.getHash(), message.getHash()))
+                        .findAny();
+                if (!attachment.isPresent()) {
+                    // chunks and chat message are separate mailbox messages which arrive in any order
+                    log.info("We got an AttachmentChunkMessage for tradeId {} before the chat message referencing attachment {}. We keep the chunk until it arrives.",
+                            message.getTradeId(), Utilities.bytesAsHexString(message.getHash()));
+                    attachmentStore.addEarlyChunk(message.getTradeId(), message.getHash(), message.getIndex(), message.getNumChunks(), message.getChunk());
+                    return;
+                }
+
+                if (attachmentStore.addChunk(message.getHash(), attachment.get().getSize(), message.getIndex(), message.getNumChunks(), message.getChunk())) {
+                    log.info("Attachment {} for tradeId {} is complete",
+                            Utilities.bytesAsHexString(message.getHash()), message.getTradeId());
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("We got an invalid AttachmentChunkMessage for tradeId {}. {}", message.getTradeId(), e.getMessage());
+        }
+    }
+
+    private void addEarlyAttachmentChunks(ChatMessage message) {
+        message.getAttachments().stream()
+                .filter(attachment -> attachment.isStoredOutOfBand() && !attachmentStore.contains(attachment.getHash()))
+                .forEach(attachment -> {
+                    if (attachmentStore.addEarlyChunks(message.getTradeId(), attachment.getHash(), attachment.getSize())) {
+                        log.info("Attachment {} for tradeId {} is complete",
+                                attachment.getHashAsHex(), message.getTradeId());
+                    }
+                });
+    }
+
     // arbitrator sends result to trader when their dispute is closed
     public void closeDisputeTicket(DisputeResult disputeResult, Dispute dispute, String summaryText, ResultHandler resultHandler, FaultHandler faultHandler) {
         try {
@@ -940,9 +1048,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId)
-                .findAny();
+        return disputeListService.findDispute(tradeId, traderId);
     }
 
     public Optional<Dispute> findDispute(String tradeId) {
@@ -951,17 +1057,13 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId))
-                .findAny();
+        return disputeListService.findDisputes(tradeId).stream().findAny();
     }
 
     public List<Dispute> findDisputes(String tradeId) {
         T disputeList = getDisputeList();
         if (disputeList == null) return new ArrayList<Dispute>();
-        return disputeList.stream()
-                .filter(e -> e.getTradeId().equals(tradeId))
-                .collect(Collectors.toList());
+        return new ArrayList<>(disputeListService.findDisputes(tradeId));
     }
 
     public Optional<Dispute> findDisputeById(String disputeId) {
@@ -970,9 +1072,7 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
             log.warn("disputes is null");
             return Optional.empty();
         }
-        return disputeList.stream()
-                .filter(e -> e.getId().equals(disputeId))
-                .findAny();
+        return disputeListService.findDisputeById(disputeId);
     }
 
     public Optional<Trade> findTrade(Dispute dispute) {
@@ -1086,6 +1186,108 @@ public abstract class DisputeManager<T extends DisputeList<Dispute>> extends Sup
         requestPersistence();
     }
 
+    private boolean storeAttachments(ChatMessage message) {
+        return message.replaceAttachments(attachmentStore::store);
+    }
+
+    // Disputes persisted by older versions carry the attachments inline
+    private void storeInlineAttachments() {
+        boolean stored = false;
+        for (ChatMessage chatMessage : getAllChatMessages()) {
+            stored |= storeAttachments(chatMessage);
+        }
+        if (stored) {
+            log.info("Moved inline attachments of {} to the attachment store", getClass().getSimpleName());
+            requestPersistence();
+        }
+    }
+
+    // Chunks of attachments which were not completed are not needed once the dispute is closed
+    protected void deleteIncompleteAttachments(Dispute dispute) {
+        dispute.getChatMessages().stream()
+                .flatMap(chatMessage -> chatMessage.getAttachments().stream())
+                .filter(attachment -> attachment.isStoredOutOfBand() && !attachmentStore.contains(attachment.getHash()))
+                .forEach(attachment -> attachmentStore.deletePartFiles(attachment.getHash()));
+    }
+
+    private void deleteStalePartFiles() {
+        getDisputeList().getList().stream()
+                .filter(Dispute::isClosed)
+                .forEach(this::deleteIncompleteAttachments);
+        int numDeleted = attachmentStore.deleteStalePartFiles(MAX_ATTACHMENT_PART_AGE_MS) +
+                attachmentStore.deleteStaleEarlyChunks(MAX_EARLY_CHUNK_AGE_MS);
+        if (numDeleted > 0)
+            log.info("Deleted {} stale attachment chunks", numDeleted);
+    }
+
+    private boolean supportsAttachmentChunks(NodeAddress peersNodeAddress) {
+        return p2PService.getPeerManager().peerHasCapability(peersNodeAddress, Capability.ATTACHMENT_CHUNKS);
+    }
+
+    // Copy of the message with the content of the attachments for peers which do not support chunks
+    private ChatMessage getMessageWithInlineAttachments(ChatMessage message) {
+        ChatMessage copy = ChatMessage.fromProto(message.toProtoNetworkEnvelope().getChatMessage(), message.getMessageVersion());
+        copy.replaceAttachments(attachment -> {
+            byte[] bytes = attachmentStore.getBytes(attachment);
+            if (bytes == null) {
+                log.warn("Content of attachment {} is not available, cannot send it to peer. tradeId={}",
+                        attachment.getFileName(), message.getTradeId());
+                return attachment;
+            }
+            return attachment.isStoredOutOfBand() ? new Attachment(attachment.getFileName(), bytes) : attachment;
+        });
+        return copy;
+    }
+
+    private void sendAttachmentChunks(ChatMessage message) {
+        NodeAddress peersNodeAddress = getPeerNodeAddress(message);
+        PubKeyRing receiverPubKeyRing = getPeerPubKeyRing(message);
+        if (peersNodeAddress == null || receiverPubKeyRing == null)
+            return;
+
+        message.getAttachments().stream()
+                .filter(Attachment::isStoredOutOfBand)
+                .forEach(attachment -> {
+                    List<byte[]> chunks = attachmentStore.getChunks(attachment);
+                    if (chunks.isEmpty()) {
+                        log.warn("Content of attachment {} is not available, cannot send it to peer {}. tradeId={}",
+                                attachment.getFileName(), peersNodeAddress, message.getTradeId());
+                        return;
+                    }
+                    for (int i = 0; i < chunks.size(); i++) {
+                        AttachmentChunkMessage chunkMessage = new AttachmentChunkMessage(message.getTradeId(),
+                                p2PService.getAddress(),
+                                getSupportType(),
+                                attachment.getHash(),
+                                i,
+                                chunks.size(),
+                                chunks.get(i));
+                        mailboxMessageService.sendEncryptedMailboxMessage(peersNodeAddress,
+                                receiverPubKeyRing,
+                                chunkMessage,
+                                new SendMailboxMessageListener() {
+                                    @Override
+                                    public void onArrived() {
+                                        log.debug("AttachmentChunkMessage {} arrived at peer {}. tradeId={}",
+                                                chunkMessage.getIndex(), peersNodeAddress, chunkMessage.getTradeId());
+                                    }
+
+                                    @Override
+                                    public void onStoredInMailbox() {
+                                        log.debug("AttachmentChunkMessage {} stored in mailbox for peer {}. tradeId={}",
+                                                chunkMessage.getIndex(), peersNodeAddress, chunkMessage.getTradeId());
+                                    }
+
+                                    @Override
+                                    public void onFault(String errorMessage) {
+                                        log.error("AttachmentChunkMessage {} failed. Peer {}. tradeId={}, errorMessage={}",
+                                                chunkMessage.getIndex(), peersNodeAddress, chunkMessage.getTradeId(), errorMessage);
+                                    }
+                                });
+                    }
+                });
+    }
+
     @Nullable
     private Price getPrice(String currencyCode) {
         MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
@@ -31,12 +31,14 @@ import haveno.core.locale.Res;
 import haveno.core.offer.OpenOfferManager;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.support.SupportType;
+import haveno.core.support.dispute.AttachmentStore;
 import haveno.core.support.dispute.Dispute;
 import haveno.core.support.dispute.DisputeManager;
 import haveno.core.support.dispute.DisputeResult;
 import haveno.core.support.dispute.DisputeResult.Winner;
 import haveno.core.support.dispute.DisputeSummaryVerification;
 import haveno.core.support.dispute.arbitration.arbitrator.ArbitratorManager;
+import haveno.core.support.dispute.messages.AttachmentChunkMessage;
 import haveno.core.support.dispute.messages.DisputeClosedMessage;
 import haveno.core.support.dispute.messages.DisputeOpenedMessage;
 import haveno.core.support.messages.ChatMessage;
@@ -92,10 +94,11 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
                               OpenOfferManager openOfferManager,
                               KeyRing keyRing,
                               ArbitrationDisputeListService arbitrationDisputeListService,
+                              AttachmentStore attachmentStore,
                               Config config,
                               PriceFeedService priceFeedService) {
         super(p2PService, tradeWalletService, walletService, connectionService, notificationService, tradeManager, closedTradableManager,
-                openOfferManager, keyRing, arbitrationDisputeListService, config, priceFeedService);
+                openOfferManager, keyRing, arbitrationDisputeListService, attachmentStore, config, priceFeedService);
         this.arbitratorManager = arbitratorManager;
         HavenoUtils.arbitrationManager = this; // TODO: storing static reference, better way?
     }
@@ -123,6 +126,8 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
                     handleChatMessage((ChatMessage) message);
                 } else if (message instanceof DisputeClosedMessage) {
                     handleDisputeClosedMessage((DisputeClosedMessage) message);
+                } else if (message instanceof AttachmentChunkMessage) {
+                    handleAttachmentChunkMessage((AttachmentChunkMessage) message);
                 } else {
                     log.warn("Unsupported message at dispatchMessage. message={}", message);
                 }
@@ -240,6 +245,7 @@ public final class ArbitrationManager extends DisputeManager<ArbitrationDisputeL
                     log.warn("We got a dispute mail msg what we have already stored. TradeId = " + chatMessage.getTradeId());
                 }
                 dispute.setIsClosed();
+                deleteIncompleteAttachments(dispute);
                 if (dispute.disputeResultProperty().get() != null) {
                     log.info("We already got a dispute result, indicating the message was resent after updating multisig info. TradeId = " + tradeId);
                 }
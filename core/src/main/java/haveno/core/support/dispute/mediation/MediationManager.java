@@ -33,9 +33,11 @@ import haveno.core.offer.OpenOffer;
 import haveno.core.offer.OpenOfferManager;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.support.SupportType;
+import haveno.core.support.dispute.AttachmentStore;
 import haveno.core.support.dispute.Dispute;
 import haveno.core.support.dispute.DisputeManager;
 import haveno.core.support.dispute.DisputeResult;
+import haveno.core.support.dispute.messages.AttachmentChunkMessage;
 import haveno.core.support.dispute.messages.DisputeClosedMessage;
 import haveno.core.support.dispute.messages.DisputeOpenedMessage;
 import haveno.core.support.messages.ChatMessage;
@@ -78,10 +80,11 @@ public final class MediationManager extends DisputeManager<MediationDisputeList>
                             OpenOfferManager openOfferManager,
                             KeyRing keyRing,
                             MediationDisputeListService mediationDisputeListService,
+                            AttachmentStore attachmentStore,
                             Config config,
                             PriceFeedService priceFeedService) {
         super(p2PService, tradeWalletService, walletService, connectionService, notificationService, tradeManager, closedTradableManager,
-                openOfferManager, keyRing, mediationDisputeListService, config, priceFeedService);
+                openOfferManager, keyRing, mediationDisputeListService, attachmentStore, config, priceFeedService);
     }
 
 
@@ -106,6 +109,8 @@ public final class MediationManager extends DisputeManager<MediationDisputeList>
                 handleChatMessage((ChatMessage) message);
             } else if (message instanceof DisputeClosedMessage) {
                 handleDisputeClosedMessage((DisputeClosedMessage) message);
+            } else if (message instanceof AttachmentChunkMessage) {
+                handleAttachmentChunkMessage((AttachmentChunkMessage) message);
             } else {
                 log.warn("Unsupported message at dispatchMessage. message={}", message);
             }
@@ -180,6 +185,7 @@ public final class MediationManager extends DisputeManager<MediationDisputeList>
             log.warn("We got a dispute mail msg what we have already stored. TradeId = " + chatMessage.getTradeId());
         }
         dispute.setIsClosed();
+        deleteIncompleteAttachments(dispute);
 
         dispute.setDisputeResult(disputeResult);
 
@@ -0,0 +1,121 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.support.dispute.messages;
+
+import com.google.protobuf.ByteString;
+import haveno.common.app.Version;
+import haveno.common.util.Utilities;
+import haveno.core.support.SupportType;
+import haveno.network.p2p.NodeAddress;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Carries one chunk of an attachment which is referenced by hash from a chat message.
+ */
+@Value
+@EqualsAndHashCode(callSuper = true)
+public final class AttachmentChunkMessage extends DisputeMessage {
+    private final String tradeId;
+    private final NodeAddress senderNodeAddress;
+    private final byte[] hash;
+    private final int index;
+    private final int numChunks;
+    private final byte[] chunk;
+
+    public AttachmentChunkMessage(String tradeId,
+                                  NodeAddress senderNodeAddress,
+                                  SupportType supportType,
+                                  byte[] hash,
+                                  int index,
+                                  int numChunks,
+                                  byte[] chunk) {
+        this(tradeId,
+                senderNodeAddress,
+                UUID.randomUUID().toString(),
+                Version.getP2PMessageVersion(),
+                supportType,
+                hash,
+                index,
+                numChunks,
+                chunk);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private AttachmentChunkMessage(String tradeId,
+                                   NodeAddress senderNodeAddress,
+                                   String uid,
+                                   String messageVersion,
+                                   SupportType supportType,
+                                   byte[] hash,
+                                   int index,
+                                   int numChunks,
+                                   byte[] chunk) {
+        super(messageVersion, uid, supportType);
+        this.tradeId = tradeId;
+        this.senderNodeAddress = senderNodeAddress;
+        this.hash = hash;
+        this.index = index;
+        this.numChunks = numChunks;
+        this.chunk = chunk;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        protobuf.AttachmentChunkMessage.Builder builder = protobuf.AttachmentChunkMessage.newBuilder()
+                .setUid(uid)
+                .setTradeId(tradeId)
+                .setSenderNodeAddress(senderNodeAddress.toProtoMessage())
+                .setType(SupportType.toProtoMessage(supportType))
+                .setHash(ByteString.copyFrom(hash))
+                .setIndex(index)
+                .setNumChunks(numChunks)
+                .setChunk(ByteString.copyFrom(chunk));
+        return getNetworkEnvelopeBuilder().setAttachmentChunkMessage(builder).build();
+    }
+
+    public static AttachmentChunkMessage fromProto(protobuf.AttachmentChunkMessage proto, String messageVersion) {
+        return new AttachmentChunkMessage(proto.getTradeId(),
+                NodeAddress.fromProto(proto.getSenderNodeAddress()),
+                proto.getUid(),
+                messageVersion,
+                SupportType.fromProto(proto.getType()),
+                proto.getHash().toByteArray(),
+                proto.getIndex(),
+                proto.getNumChunks(),
+                proto.getChunk().toByteArray());
+    }
+
+    @Override
+    public String toString() {
+        return "AttachmentChunkMessage{" +
+                "\n     tradeId='" + tradeId + '\'' +
+                ",\n     senderNodeAddress=" + senderNodeAddress +
+                ",\n     hash=" + Utilities.bytesAsHexString(hash) +
+                ",\n     index=" + index +
+                ",\n     numChunks=" + numChunks +
+                ",\n     chunk.length=" + chunk.length +
+                "\n} " + super.toString();
+    }
+}
@@ -31,9 +31,11 @@ import haveno.core.offer.OpenOffer;
 import haveno.core.offer.OpenOfferManager;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.support.SupportType;
+import haveno.core.support.dispute.AttachmentStore;
 import haveno.core.support.dispute.Dispute;
 import haveno.core.support.dispute.DisputeManager;
 import haveno.core.support.dispute.DisputeResult;
+import haveno.core.support.dispute.messages.AttachmentChunkMessage;
 import haveno.core.support.dispute.messages.DisputeClosedMessage;
 import haveno.core.support.dispute.messages.DisputeOpenedMessage;
 import haveno.core.support.messages.ChatMessage;
@@ -74,10 +76,11 @@ public final class RefundManager extends DisputeManager<RefundDisputeList> {
                          // TODO (woodser): remove priceFeedService?
                          KeyRing keyRing,
                          RefundDisputeListService refundDisputeListService,
+                         AttachmentStore attachmentStore,
                          Config config,
                          PriceFeedService priceFeedService) {
         super(p2PService, tradeWalletService, walletService, connectionService, notificationService, tradeManager, closedTradableManager,
-                openOfferManager, keyRing, refundDisputeListService, config, priceFeedService);
+                openOfferManager, keyRing, refundDisputeListService, attachmentStore, config, priceFeedService);
     }
 
 
@@ -102,6 +105,8 @@ public final class RefundManager extends DisputeManager<RefundDisputeList> {
                 handleChatMessage((ChatMessage) message);
             } else if (message instanceof DisputeClosedMessage) {
                 handleDisputeClosedMessage((DisputeClosedMessage) message);
+            } else if (message instanceof AttachmentChunkMessage) {
+                handleAttachmentChunkMessage((AttachmentChunkMessage) message);
             } else {
                 log.warn("Unsupported message at dispatchMessage. message={}", message);
             }
@@ -179,6 +184,7 @@ public final class RefundManager extends DisputeManager<RefundDisputeList> {
             log.warn("We got a dispute mail msg what we have already stored. TradeId = " + chatMessage.getTradeId());
         }
         dispute.setIsClosed();
+        deleteIncompleteAttachments(dispute);
 
         if (dispute.disputeResultProperty().get() != null) {
             log.warn("We got already a dispute result. That should only happen if a dispute needs to be closed " +
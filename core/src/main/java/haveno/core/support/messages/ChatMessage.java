@@ -43,6 +43,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /* Message for direct communication between two nodes. Originally built for trader to
@@ -273,6 +274,25 @@ public final class ChatMessage extends SupportMessage {
         this.attachments.addAll(attachments);
     }
 
+    /**
+     * Replaces each attachment by the result of the mapper, e.g. inline content by a
+     * reference to the attachment store.
+     *
+     * @return true if any attachment was replaced
+     */
+    public boolean replaceAttachments(UnaryOperator<Attachment> mapper) {
+        boolean replaced = false;
+        for (int i = 0; i < attachments.size(); i++) {
+            Attachment attachment = attachments.get(i);
+            Attachment replacement = mapper.apply(attachment);
+            if (replacement != attachment) {
+                attachments.set(i, replacement);
+                replaced = true;
+            }
+        }
+        return replaced;
+    }
+
     public void setArrived(@SuppressWarnings("SameParameterValue") boolean arrived) {
         this.arrivedProperty.set(arrived);
         notifyChangeListener();
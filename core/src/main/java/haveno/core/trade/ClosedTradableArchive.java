@@ -0,0 +1,362 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import haveno.common.UserThread;
+import haveno.common.persistence.PersistenceManager;
+import haveno.core.provider.price.PriceFeedService;
+import haveno.network.p2p.NodeAddress;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+
+/**
+ * Cold tier of the closed tradables. Archived tradables are persisted in segment files of at most
+ * {@link #SEGMENT_SIZE} tradables which are only read when a tradable of the segment is requested. Only a compact
+ * {@link ClosedTradableSummary} per tradable is read at startup and kept in memory.
+ *
+ * Segments are written once when tradables get archived and only rewritten if an archived tradable gets removed.
+ * Recently loaded segments are cached, up to {@link #MAX_LOADED_SEGMENTS}.
+ */
+@Slf4j
+public class ClosedTradableArchive {
+    static final String SUMMARIES_FILE_NAME = "ClosedTradesArchive";
+    static final String SEGMENT_FILE_NAME_PREFIX = "ClosedTradesArchive_";
+    static final int SEGMENT_SIZE = 500;
+    private static final int MAX_LOADED_SEGMENTS = 2;
+
+    private final PriceFeedService priceFeedService;
+    private final PersistenceManager<ClosedTradableSummaryList> persistenceManager;
+    private final Provider<PersistenceManager<TradableList<Tradable>>> segmentPersistenceManagerProvider;
+
+    private final ClosedTradableSummaryList summaries = new ClosedTradableSummaryList();
+    private final Map<String, ClosedTradableSummary> summariesById = new HashMap<>();
+    private final NavigableMap<ClosedTradableManager.HistoryKey, ClosedTradableSummary> summariesByDate = new TreeMap<>();
+    private final Map<String, ClosedTradableSummary> summariesByTxId = new HashMap<>();
+    private final Map<NodeAddress, Integer> numTradesByPeer = new HashMap<>();
+    // Segments which are written to disk, they must not be read until the write has completed
+    private final Map<Integer, TradableList<Tradable>> writingSegments = new HashMap<>();
+    private final Set<Integer> segmentsToRewrite = new HashSet<>();
+    private final Map<Integer, TradableList<Tradable>> loadedSegments = new LinkedHashMap<>(MAX_LOADED_SEGMENTS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, TradableList<Tradable>> eldest) {
+            return size() > MAX_LOADED_SEGMENTS;
+        }
+    };
+    private int nextSegment;
+
+    @Inject
+    public ClosedTradableArchive(PriceFeedService priceFeedService,
+                                 PersistenceManager<ClosedTradableSummaryList> persistenceManager,
+                                 Provider<PersistenceManager<TradableList<Tradable>>> segmentPersistenceManagerProvider) {
+        this.priceFeedService = priceFeedService;
+        this.persistenceManager = persistenceManager;
+        this.segmentPersistenceManagerProvider = segmentPersistenceManagerProvider;
+
+        this.persistenceManager.initialize(summaries, SUMMARIES_FILE_NAME, PersistenceManager.Source.PRIVATE);
+    }
+
+    public void readPersisted(Runnable completeHandler) {
+        persistenceManager.readPersisted(persisted -> {
+                    synchronized (this) {
+                        summaries.setAll(persisted.getList());
+                        summaries.forEach(this::addToIndexes);
+                    }
+                    completeHandler.run();
+                },
+                completeHandler);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Writes the given tradables to new segments and adds their summaries. The complete handler is called on the
+     * user thread once the segments and summaries are written, the caller can then remove the tradables from the
+     * hot tier.
+     *
+     * @param safeDateForSensitiveDataClearing trades before this date must already have their sensitive data cleared
+     */
+    public synchronized void add(List<Tradable> tradables, Instant safeDateForSensitiveDataClearing, Runnable completeHandler) {
+        List<ClosedTradableSummary> newSummaries = new ArrayList<>();
+        Map<Integer, Integer> newSegmentSizes = new LinkedHashMap<>();
+        for (int i = 0; i < tradables.size(); i += SEGMENT_SIZE) {
+            int segment = nextSegment++;
+            TradableList<Tradable> segmentTradables = new TradableList<>(tradables.subList(i, Math.min(i + SEGMENT_SIZE, tradables.size())));
+            segmentTradables.forEach(tradable -> newSummaries.add(ClosedTradableSummary.from(tradable, segment,
+                    tradable.getDate().toInstant().isBefore(safeDateForSensitiveDataClearing))));
+            writingSegments.put(segment, segmentTradables);
+            newSegmentSizes.put(segment, segmentTradables.size());
+        }
+
+        AtomicInteger numPendingSegments = new AtomicInteger(newSegmentSizes.size());
+        AtomicBoolean failed = new AtomicBoolean();
+        newSegmentSizes.forEach((segment, size) -> writeSegment(segment, () -> {
+            // The persistence manager calls the complete handler also if the write failed, so we read the segment back
+            // before the tradables can be removed from the hot tier
+            if (!isSegmentPersisted(segment, size)) {
+                log.error("Archiving closed tradables failed, segment {} could not be read back", segment);
+                failed.set(true);
+            }
+            if (numPendingSegments.decrementAndGet() == 0 && !failed.get()) {
+                synchronized (this) {
+                    newSummaries.forEach(summary -> {
+                        ClosedTradableSummary previous = summariesById.get(summary.getId());
+                        if (previous != null) {
+                            summaries.remove(previous);
+                            removeFromIndexes(previous);
+                        }
+                        summaries.getList().add(summary);
+                        addToIndexes(summary);
+                    });
+                }
+                persistenceManager.persistNow(() -> UserThread.execute(completeHandler));
+            }
+        }));
+    }
+
+    /**
+     * Removes the archived tradable with the id of the given tradable and rewrites its segment.
+     *
+     * @return true if the tradable was archived
+     */
+    public synchronized boolean remove(Tradable tradable) {
+        ClosedTradableSummary summary = summariesById.get(tradable.getId());
+        if (summary == null) {
+            return false;
+        }
+        TradableList<Tradable> segmentTradables = getSegment(summary.getSegment());
+        List<Tradable> remaining = segmentTradables.stream()
+                .filter(e -> !e.getId().equals(tradable.getId()))
+                .collect(Collectors.toList());
+        segmentTradables.setAll(remaining);
+        rewriteSegment(summary.getSegment(), segmentTradables);
+
+        summaries.remove(summary);
+        removeFromIndexes(summary);
+        persistenceManager.requestPersistence();
+        return true;
+    }
+
+    /**
+     * Clears the sensitive data of the archived trades before the given date which were not cleared yet and
+     * rewrites their segments. Only the segments of those trades are read.
+     */
+    public synchronized void maybeClearSensitiveData(Instant safeDateForSensitiveDataClearing) {
+        Map<Integer, List<ClosedTradableSummary>> summariesBySegment = summaries.stream()
+                .filter(summary -> summary.isTrade() && !summary.isSensitiveDataCleared())
+                .filter(summary -> Instant.ofEpochMilli(summary.getDate()).isBefore(safeDateForSensitiveDataClearing))
+                .collect(Collectors.groupingBy(ClosedTradableSummary::getSegment));
+        if (summariesBySegment.isEmpty()) {
+            return;
+        }
+
+        summariesBySegment.forEach((segment, segmentSummaries) -> {
+            Set<String> ids = segmentSummaries.stream().map(ClosedTradableSummary::getId).collect(Collectors.toSet());
+            TradableList<Tradable> segmentTradables = getSegment(segment);
+            segmentTradables.stream()
+                    .filter(tradable -> tradable instanceof Trade && ids.contains(tradable.getId()))
+                    .forEach(tradable -> ((Trade) tradable).maybeClearSensitiveData());
+            rewriteSegment(segment, segmentTradables);
+
+            segmentSummaries.forEach(summary -> {
+                ClosedTradableSummary clearedSummary = summary.withSensitiveDataCleared();
+                summaries.remove(summary);
+                removeFromIndexes(summary);
+                summaries.getList().add(clearedSummary);
+                addToIndexes(clearedSummary);
+            });
+        });
+        persistenceManager.requestPersistence();
+    }
+
+    public synchronized boolean contains(String id) {
+        return summariesById.containsKey(id);
+    }
+
+    public synchronized Optional<ClosedTradableSummary> getSummary(String id) {
+        return Optional.ofNullable(summariesById.get(id));
+    }
+
+    /**
+     * Loads the segment of the archived tradable if it is not loaded yet.
+     */
+    public synchronized Optional<Tradable> getTradable(String id) {
+        ClosedTradableSummary summary = summariesById.get(id);
+        if (summary == null) {
+            return Optional.empty();
+        }
+        return getSegment(summary.getSegment()).stream()
+                .filter(tradable -> tradable.getId().equals(id))
+                .findFirst();
+    }
+
+    public synchronized Optional<ClosedTradableSummary> getSummaryByTxId(String txId) {
+        return Optional.ofNullable(summariesByTxId.get(txId));
+    }
+
+    /**
+     * @return summaries of the archived tradables sorted from newest to oldest, starting after the cursor
+     */
+    public synchronized List<ClosedTradableSummary> getSummaries(@Nullable ClosedTradableManager.HistoryKey cursor,
+                                                                 int limit,
+                                                                 Predicate<ClosedTradableSummary> filter) {
+        Collection<ClosedTradableSummary> sortedSummaries = cursor == null ?
+                summariesByDate.values() :
+                summariesByDate.tailMap(cursor, false).values();
+        return sortedSummaries.stream()
+                .filter(filter)
+                .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return summaries of the archived trades sorted from newest to oldest, starting after the cursor
+     */
+    public synchronized List<ClosedTradableSummary> getTradeSummaries(@Nullable ClosedTradableManager.HistoryKey cursor, int limit) {
+        return getSummaries(cursor, limit, ClosedTradableSummary::isTrade);
+    }
+
+    public synchronized int getNumTradesWithPeer(NodeAddress nodeAddress) {
+        return numTradesByPeer.getOrDefault(nodeAddress, 0);
+    }
+
+    public synchronized int size() {
+        return summariesById.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Segments
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private TradableList<Tradable> getSegment(int segment) {
+        TradableList<Tradable> segmentTradables = writingSegments.get(segment);
+        if (segmentTradables == null) segmentTradables = loadedSegments.get(segment);
+        if (segmentTradables == null) {
+            segmentTradables = new TradableList<>();
+            PersistenceManager<TradableList<Tradable>> segmentPersistenceManager = createSegmentPersistenceManager(segmentTradables, segment);
+            try {
+                TradableList<Tradable> persisted = segmentPersistenceManager.getPersisted();
+                if (persisted != null) {
+                    segmentTradables.setAll(persisted.getList());
+                    segmentTradables.stream()
+                            .filter(tradable -> tradable.getOffer() != null)
+                            .forEach(tradable -> tradable.getOffer().setPriceFeedService(priceFeedService));
+                } else {
+                    log.warn("Archived closed tradables of segment {} could not be read", segment);
+                }
+            } finally {
+                // We only read the segment, so we must not have it written at shutdown
+                segmentPersistenceManager.shutdown();
+            }
+            loadedSegments.put(segment, segmentTradables);
+        }
+        return segmentTradables;
+    }
+
+    private void rewriteSegment(int segment, TradableList<Tradable> segmentTradables) {
+        if (writingSegments.containsKey(segment)) {
+            segmentsToRewrite.add(segment);
+        } else {
+            writingSegments.put(segment, segmentTradables);
+            writeSegment(segment, () -> {});
+        }
+    }
+
+    private void writeSegment(int segment, Runnable completeHandler) {
+        TradableList<Tradable> segmentTradables = writingSegments.get(segment);
+        PersistenceManager<TradableList<Tradable>> segmentPersistenceManager = createSegmentPersistenceManager(segmentTradables, segment);
+        segmentPersistenceManager.persistNow(() -> UserThread.execute(() -> {
+            segmentPersistenceManager.shutdown();
+            synchronized (this) {
+                if (segmentsToRewrite.remove(segment)) {
+                    writeSegment(segment, () -> {});
+                } else {
+                    writingSegments.remove(segment);
+                }
+            }
+            completeHandler.run();
+        }));
+    }
+
+    private boolean isSegmentPersisted(int segment, int expectedSize) {
+        PersistenceManager<TradableList<Tradable>> segmentPersistenceManager = createSegmentPersistenceManager(new TradableList<>(), segment);
+        try {
+            TradableList<Tradable> persisted = segmentPersistenceManager.getPersisted();
+            return persisted != null && persisted.size() == expectedSize;
+        } finally {
+            segmentPersistenceManager.shutdown();
+        }
+    }
+
+    private PersistenceManager<TradableList<Tradable>> createSegmentPersistenceManager(TradableList<Tradable> segmentTradables, int segment) {
+        PersistenceManager<TradableList<Tradable>> segmentPersistenceManager = segmentPersistenceManagerProvider.get();
+        segmentPersistenceManager.initialize(segmentTradables, SEGMENT_FILE_NAME_PREFIX + segment, PersistenceManager.Source.PRIVATE);
+        return segmentPersistenceManager;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Indexes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addToIndexes(ClosedTradableSummary summary) {
+        summariesById.put(summary.getId(), summary);
+        nextSegment = Math.max(nextSegment, summary.getSegment() + 1);
+        summariesByDate.put(new ClosedTradableManager.HistoryKey(summary.getDate(), summary.getId()), summary);
+        summary.getTxIds().forEach(txId -> summariesByTxId.put(txId, summary));
+        if (summary.isTrade()) {
+            if (summary.getTradePeerNodeAddress() != null) {
+                numTradesByPeer.merge(summary.getTradePeerNodeAddress(), 1, Integer::sum);
+            }
+        }
+    }
+
+    private void removeFromIndexes(ClosedTradableSummary summary) {
+        summariesById.remove(summary.getId(), summary);
+        summariesByDate.remove(new ClosedTradableManager.HistoryKey(summary.getDate(), summary.getId()), summary);
+        summary.getTxIds().forEach(txId -> summariesByTxId.remove(txId, summary));
+        if (summary.isTrade()) {
+            if (summary.getTradePeerNodeAddress() != null) {
+                numTradesByPeer.computeIfPresent(summary.getTradePeerNodeAddress(), (address, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ package haveno.core.trade;
 
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
+import haveno.common.UserThread;
 import haveno.common.crypto.KeyRing;
 import haveno.common.persistence.PersistenceManager;
 import haveno.common.proto.persistable.PersistedDataHost;
@@ -38,14 +39,24 @@ import org.bitcoinj.utils.Fiat;
 
 import java.math.BigInteger;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.annotation.Nullable;
+
 import static haveno.core.offer.OpenOffer.State.CANCELED;
 import static haveno.core.trade.ClosedTradableUtil.castToTradeModel;
 import static haveno.core.trade.ClosedTradableUtil.isOpenOffer;
@@ -55,31 +66,74 @@ import static haveno.core.util.AveragePriceUtil.getAveragePriceTuple;
  * Manages closed trades or offers.
  * BsqSwap trades are once confirmed moved in the closed trades domain as well.
  * We do not manage the persistence of BsqSwap trades here but in BsqSwapTradeManager.
+ *
+ * Closed tradables older than {@link #ARCHIVE_AFTER_DAYS} days without locked funds are moved to the
+ * {@link ClosedTradableArchive} at startup. The observable list and {@link #getClosedTrades()} only hold the recent
+ * tradables. Archived tradables are listed by their {@link ClosedTradableSummary} and only loaded page by page or by
+ * id, so callers never read the whole archive. The lookups by id and tx id, the number of past trades and the paged
+ * trade history include the archived ones.
  */
 @Slf4j
 public class ClosedTradableManager implements PersistedDataHost {
+    static final int ARCHIVE_AFTER_DAYS = 90;
+    // We do not archive fewer tradables to not create a small segment at each startup
+    static final int MIN_TRADABLES_TO_ARCHIVE = 50;
+    // Trades are added when they are closed and become eligible for clearing days later, so a running node sweeps daily
+    private static final long CLEAR_SENSITIVE_DATA_INTERVAL_HOURS = 24;
+
     private final KeyRing keyRing;
     private final PriceFeedService priceFeedService;
     private final Preferences preferences;
     private final TradeStatisticsManager tradeStatisticsManager;
     private final PersistenceManager<TradableList<Tradable>> persistenceManager;
     private final CleanupMailboxMessagesService cleanupMailboxMessagesService;
+    private final ClosedTradableArchive archive;
 
     private final TradableList<Tradable> closedTradables = new TradableList<>();
 
+    // Indexes of closedTradables, updated with the list while holding its lock
+    private final Map<String, Tradable> tradablesById = new ConcurrentHashMap<>();
+    private final Map<String, Trade> tradesById = new ConcurrentHashMap<>();
+    private final Map<NodeAddress, Integer> numTradesByPeer = new ConcurrentHashMap<>();
+    private final NavigableMap<HistoryKey, Trade> tradesByDate = new TreeMap<>();
+    // Snapshots in list order, created on first use after a change
+    @Nullable
+    private volatile List<Trade> closedTrades;
+    @Nullable
+    private volatile List<OpenOffer> canceledOpenOffers;
+
+    // Sorts the trade history from newest to oldest, trades with the same date by id
+    static class HistoryKey implements Comparable<HistoryKey> {
+        private final long date;
+        private final String id;
+
+        HistoryKey(long date, String id) {
+            this.date = date;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(HistoryKey other) {
+            int result = Long.compare(other.date, date);
+            return result != 0 ? result : id.compareTo(other.id);
+        }
+    }
+
     @Inject
     public ClosedTradableManager(KeyRing keyRing,
                                  PriceFeedService priceFeedService,
                                  Preferences preferences,
                                  TradeStatisticsManager tradeStatisticsManager,
                                  PersistenceManager<TradableList<Tradable>> persistenceManager,
-                                 CleanupMailboxMessagesService cleanupMailboxMessagesService) {
+                                 CleanupMailboxMessagesService cleanupMailboxMessagesService,
+                                 ClosedTradableArchive archive) {
         this.keyRing = keyRing;
         this.priceFeedService = priceFeedService;
         this.preferences = preferences;
         this.tradeStatisticsManager = tradeStatisticsManager;
         this.cleanupMailboxMessagesService = cleanupMailboxMessagesService;
         this.persistenceManager = persistenceManager;
+        this.archive = archive;
 
         this.persistenceManager.initialize(closedTradables, "ClosedTrades", PersistenceManager.Source.PRIVATE);
     }
@@ -87,35 +141,48 @@ public class ClosedTradableManager implements PersistedDataHost {
     @Override
     public void readPersisted(Runnable completeHandler) {
         persistenceManager.readPersisted(persisted -> {
-                    closedTradables.setAll(persisted.getList());
+                    synchronized (closedTradables) {
+                        closedTradables.setAll(persisted.getList());
+                        clearIndexes();
+                        closedTradables.forEach(this::addToIndexes);
+                    }
                     closedTradables.stream()
                             .filter(tradable -> tradable.getOffer() != null)
                             .forEach(tradable -> tradable.getOffer().setPriceFeedService(priceFeedService));
-                    completeHandler.run();
+                    archive.readPersisted(completeHandler);
                 },
-                completeHandler);
+                () -> archive.readPersisted(completeHandler));
     }
 
     public void onAllServicesInitialized() {
         cleanupMailboxMessagesService.handleTrades(getClosedTrades());
         maybeClearSensitiveData();
+        maybeArchive();
+        UserThread.runPeriodically(this::maybeClearSensitiveData, CLEAR_SENSITIVE_DATA_INTERVAL_HOURS, TimeUnit.HOURS);
     }
 
     public void add(Tradable tradable) {
         synchronized (closedTradables) {
-            if (closedTradables.add(tradable)) {
-                maybeClearSensitiveData();
-                requestPersistence();
+            // A tradable equal to the given one has the same id, so we avoid the linear contains check of the list
+            if (tradable.equals(tradablesById.get(tradable.getId())) || tradable.equals(tradesById.get(tradable.getId()))) {
+                return;
             }
+            closedTradables.getObservableList().add(tradable);
+            addToIndexes(tradable);
+            maybeClearSensitiveData(tradable);
+            requestPersistence();
         }
     }
 
     public void remove(Tradable tradable) {
         synchronized (closedTradables) {
             if (closedTradables.remove(tradable)) {
+                removeFromIndexes(tradable);
                 requestPersistence();
+                return;
             }
         }
+        archive.remove(tradable);
     }
 
     public boolean wasMyOffer(Offer offer) {
@@ -132,56 +199,146 @@ public class ClosedTradableManager implements PersistedDataHost {
         return ImmutableList.copyOf(new ArrayList<>(getObservableList()));
     }
 
+    /**
+     * @param cursorDate - date of the last tradable of the previous page, ignored if cursorId is null
+     * @param cursorId - id of the last tradable of the previous page, or null for the first page
+     * @param limit - maximum number of tradables
+     * @return archived tradables sorted from newest to oldest, starting after the cursor, only the segments of the
+     * page are read
+     */
+    public List<Tradable> getArchivedTradables(long cursorDate, @Nullable String cursorId, int limit) {
+        HistoryKey cursor = cursorId == null ? null : new HistoryKey(cursorDate, cursorId);
+        // a tradable which is still in the recent tier after a failed archiving is not listed twice
+        return archive.getSummaries(cursor, limit, summary -> !tradablesById.containsKey(summary.getId())).stream()
+                .map(summary -> archive.getTradable(summary.getId()))
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+    }
+
+    public int getNumArchivedTradables() {
+        return archive.size();
+    }
+
+    /**
+     * @return summaries of the archived trades, no archive segment is read
+     */
+    public List<ClosedTradableSummary> getArchivedTradeSummaries() {
+        return archive.getTradeSummaries(null, 0);
+    }
+
+    /**
+     * @return the archived tradable with the given offer fee, deposit or payout tx, only its segment is read
+     */
+    public Optional<Tradable> getArchivedTradableByTxId(String txId) {
+        return archive.getSummaryByTxId(txId)
+                .filter(summary -> !tradablesById.containsKey(summary.getId()))
+                .flatMap(summary -> archive.getTradable(summary.getId()));
+    }
+
     public List<Trade> getClosedTrades() {
+        List<Trade> trades = closedTrades;
+        if (trades == null) {
+            synchronized (closedTradables) {
+                if (closedTrades == null) {
+                    closedTrades = ImmutableList.copyOf(getObservableList().stream()
+                            .filter(e -> e instanceof Trade)
+                            .map(e -> (Trade) e)
+                            .collect(Collectors.toList()));
+                }
+                trades = closedTrades;
+            }
+        }
+        return trades;
+    }
+
+    /**
+     * @param cursorDate - date of the last trade of the previous page, ignored if cursorTradeId is null
+     * @param cursorTradeId - id of the last trade of the previous page, or null for the first page
+     * @param limit - maximum number of trades, 0 for no limit
+     * @return closed trades sorted from newest to oldest, starting after the cursor
+     */
+    public List<Trade> getClosedTrades(long cursorDate, @Nullable String cursorTradeId, int limit) {
+        HistoryKey cursor = cursorTradeId == null ? null : new HistoryKey(cursorDate, cursorTradeId);
+        List<Map.Entry<HistoryKey, Trade>> recentTrades;
         synchronized (closedTradables) {
-            return ImmutableList.copyOf(getObservableList().stream()
-                    .filter(e -> e instanceof Trade)
-                    .map(e -> (Trade) e)
-                    .collect(Collectors.toList()));
+            Collection<Map.Entry<HistoryKey, Trade>> trades = cursor == null ?
+                    tradesByDate.entrySet() :
+                    tradesByDate.tailMap(cursor, false).entrySet();
+            recentTrades = trades.stream()
+                    .limit(limit > 0 ? limit : Long.MAX_VALUE)
+                    .collect(Collectors.toList());
+        }
+        List<ClosedTradableSummary> archivedTrades = archive.getTradeSummaries(cursor, limit);
+
+        // Merge both tiers, archived trades are only loaded if they are part of the page
+        List<Trade> page = new ArrayList<>();
+        int i = 0, j = 0;
+        while ((limit <= 0 || page.size() < limit) && (i < recentTrades.size() || j < archivedTrades.size())) {
+            int result = i == recentTrades.size() ? 1 :
+                    j == archivedTrades.size() ? -1 :
+                    recentTrades.get(i).getKey().compareTo(toHistoryKey(archivedTrades.get(j)));
+            if (result <= 0) {
+                // a trade which is still in the recent tier after a failed archiving is not listed twice
+                if (result == 0) j++;
+                page.add(recentTrades.get(i++).getValue());
+            } else {
+                archive.getTradable(archivedTrades.get(j++).getId())
+                        .filter(tradable -> tradable instanceof Trade)
+                        .ifPresent(tradable -> page.add((Trade) tradable));
+            }
         }
+        return page;
     }
 
     public List<OpenOffer> getCanceledOpenOffers() {
-        synchronized (closedTradables) {
-            return ImmutableList.copyOf(getObservableList().stream()
-                    .filter(e -> (e instanceof OpenOffer) && ((OpenOffer) e).getState().equals(CANCELED))
-                    .map(e -> (OpenOffer) e)
-                    .collect(Collectors.toList()));
+        List<OpenOffer> openOffers = canceledOpenOffers;
+        if (openOffers == null) {
+            synchronized (closedTradables) {
+                if (canceledOpenOffers == null) {
+                    canceledOpenOffers = ImmutableList.copyOf(getObservableList().stream()
+                            .filter(e -> (e instanceof OpenOffer) && ((OpenOffer) e).getState().equals(CANCELED))
+                            .map(e -> (OpenOffer) e)
+                            .collect(Collectors.toList()));
+                }
+                openOffers = canceledOpenOffers;
+            }
         }
+        return openOffers;
     }
 
     public Optional<Tradable> getTradableById(String id) {
-        synchronized (closedTradables) {
-            return closedTradables.stream().filter(e -> e.getId().equals(id)).findFirst();
-        }
+        Tradable tradable = tradablesById.get(id);
+        return tradable != null ? Optional.of(tradable) : archive.getTradable(id);
     }
 
     public Optional<Tradable> getTradeById(String id) {
-        synchronized (closedTradables) {
-            return closedTradables.stream().filter(e -> e instanceof Trade && e.getId().equals(id)).findFirst();
-        }
+        Trade trade = tradesById.get(id);
+        return trade != null ? Optional.of(trade) : archive.getTradable(id).filter(tradable -> tradable instanceof Trade);
     }
 
     public void maybeClearSensitiveData() {
         synchronized (closedTradables) {
             log.info("checking closed trades eligibility for having sensitive data cleared");
-            closedTradables.stream()
-                .filter(e -> e instanceof Trade)
-                .map(e -> (Trade) e)
-                .filter(e -> canTradeHaveSensitiveDataCleared(e.getId()))
-                .forEach(Trade::maybeClearSensitiveData);
+            closedTradables.forEach(this::maybeClearSensitiveData);
             requestPersistence();
         }
+        archive.maybeClearSensitiveData(getSafeDateForSensitiveDataClearing());
+    }
+
+    private void maybeClearSensitiveData(Tradable tradable) {
+        if (tradable instanceof Trade && tradable.getDate().toInstant().isBefore(getSafeDateForSensitiveDataClearing())) {
+            ((Trade) tradable).maybeClearSensitiveData();
+        }
     }
 
     public boolean canTradeHaveSensitiveDataCleared(String tradeId) {
-        Instant safeDate = getSafeDateForSensitiveDataClearing();
-        synchronized (closedTradables) {
-            return closedTradables.stream()
-            .filter(e -> e.getId().equals(tradeId))
-            .filter(e -> e.getDate().toInstant().isBefore(safeDate))
-            .count() > 0;
+        Tradable tradable = tradablesById.get(tradeId);
+        if (tradable != null) {
+            return tradable.getDate().toInstant().isBefore(getSafeDateForSensitiveDataClearing());
         }
+        return archive.getSummary(tradeId)
+                .filter(summary -> Instant.ofEpochMilli(summary.getDate()).isBefore(getSafeDateForSensitiveDataClearing()))
+                .isPresent();
     }
 
     public Instant getSafeDateForSensitiveDataClearing() {
@@ -202,12 +359,11 @@ public class ClosedTradableManager implements PersistedDataHost {
         if (isOpenOffer(tradable)) {
             return 0;
         }
-        NodeAddress addressInTrade = castToTradeModel(tradable).getTradePeerNodeAddress();
-        return (int) getTradeModelStream()
-                .map(Trade::getTradePeerNodeAddress)
-                .filter(Objects::nonNull)
-                .filter(address -> address.equals(addressInTrade))
-                .count();
+        return getNumTradesWithPeer(castToTradeModel(tradable).getTradePeerNodeAddress());
+    }
+
+    public int getNumTradesWithPeer(@Nullable NodeAddress nodeAddress) {
+        return nodeAddress == null ? 0 : numTradesByPeer.getOrDefault(nodeAddress, 0) + archive.getNumTradesWithPeer(nodeAddress);
     }
 
     public BigInteger getTotalTradeFee(List<Tradable> tradableList) {
@@ -240,4 +396,100 @@ public class ClosedTradableManager implements PersistedDataHost {
     private void requestPersistence() {
         persistenceManager.requestPersistence();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Archive
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void maybeArchive() {
+        Instant archiveDate = Instant.now().minus(ARCHIVE_AFTER_DAYS, ChronoUnit.DAYS);
+        List<Tradable> tradablesToArchive;
+        synchronized (closedTradables) {
+            tradablesToArchive = closedTradables.stream()
+                    .filter(tradable -> tradable.getDate().toInstant().isBefore(archiveDate))
+                    .filter(tradable -> !(tradable instanceof Trade) || !((Trade) tradable).isFundsLockedIn())
+                    .collect(Collectors.toList());
+        }
+        if (tradablesToArchive.size() < MIN_TRADABLES_TO_ARCHIVE) {
+            return;
+        }
+
+        log.info("Archiving {} closed tradables", tradablesToArchive.size());
+        // We clear before writing the segments, so the archived trades are only read again once they become eligible
+        Instant safeDate = getSafeDateForSensitiveDataClearing();
+        tradablesToArchive.stream()
+                .filter(tradable -> tradable instanceof Trade && tradable.getDate().toInstant().isBefore(safeDate))
+                .forEach(tradable -> ((Trade) tradable).maybeClearSensitiveData());
+        archive.add(tradablesToArchive, safeDate, () -> {
+            Set<Tradable> archived = Collections.newSetFromMap(new IdentityHashMap<>());
+            archived.addAll(tradablesToArchive);
+            synchronized (closedTradables) {
+                closedTradables.getObservableList().removeIf(archived::contains);
+                clearIndexes();
+                closedTradables.forEach(this::addToIndexes);
+            }
+            requestPersistence();
+            log.info("Archived {} closed tradables", tradablesToArchive.size());
+        });
+    }
+
+    private static HistoryKey toHistoryKey(ClosedTradableSummary summary) {
+        return new HistoryKey(summary.getDate(), summary.getId());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Indexes
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void addToIndexes(Tradable tradable) {
+        tradablesById.putIfAbsent(tradable.getId(), tradable);
+        if (tradable instanceof Trade) {
+            Trade trade = (Trade) tradable;
+            tradesById.putIfAbsent(trade.getId(), trade);
+            tradesByDate.put(new HistoryKey(trade.getDate().getTime(), trade.getId()), trade);
+            if (trade.getTradePeerNodeAddress() != null) {
+                numTradesByPeer.merge(trade.getTradePeerNodeAddress(), 1, Integer::sum);
+            }
+            closedTrades = null;
+        } else {
+            canceledOpenOffers = null;
+        }
+    }
+
+    private void removeFromIndexes(Tradable tradable) {
+        if (tradablesById.remove(tradable.getId(), tradable)) {
+            // fall back to another tradable with the same id, if any
+            closedTradables.stream()
+                    .filter(e -> e.getId().equals(tradable.getId()))
+                    .findFirst()
+                    .ifPresent(e -> tradablesById.put(e.getId(), e));
+        }
+        if (tradable instanceof Trade) {
+            Trade trade = (Trade) tradable;
+            if (tradesById.remove(trade.getId(), trade)) {
+                closedTradables.stream()
+                        .filter(e -> e instanceof Trade && e.getId().equals(trade.getId()))
+                        .findFirst()
+                        .ifPresent(e -> tradesById.put(e.getId(), (Trade) e));
+            }
+            tradesByDate.remove(new HistoryKey(trade.getDate().getTime(), trade.getId()), trade);
+            if (trade.getTradePeerNodeAddress() != null) {
+                numTradesByPeer.computeIfPresent(trade.getTradePeerNodeAddress(), (address, count) -> count > 1 ? count - 1 : null);
+            }
+            closedTrades = null;
+        } else {
+            canceledOpenOffers = null;
+        }
+    }
+
+    private void clearIndexes() {
+        tradablesById.clear();
+        tradesById.clear();
+        tradesByDate.clear();
+        numTradesByPeer.clear();
+        closedTrades = null;
+        canceledOpenOffers = null;
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import haveno.common.proto.ProtoUtil;
+import haveno.common.proto.persistable.PersistablePayload;
+import haveno.network.p2p.NodeAddress;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact in-memory representation of an archived closed tradable. The full tradable is persisted in the archive
+ * segment given by {@link #getSegment()} and loaded on demand. The summary holds what lists and lookups need without
+ * loading the segment.
+ */
+@EqualsAndHashCode
+@Getter
+public final class ClosedTradableSummary implements PersistablePayload {
+    private final String id;
+    private final long date;
+    private final boolean isTrade;
+    @Nullable
+    private final NodeAddress tradePeerNodeAddress;
+    private final int segment;
+    // Set once the sensitive data of the archived trade was cleared, so its segment is not read again for clearing
+    private final boolean sensitiveDataCleared;
+    // The XMR tx key of the trade, to detect its reuse at other trades
+    @Nullable
+    private final String counterCurrencyExtraData;
+    // Offer fee, deposit and payout txs, to find the tradable of a wallet tx
+    private final List<String> txIds;
+
+    public ClosedTradableSummary(String id,
+                                 long date,
+                                 boolean isTrade,
+                                 @Nullable NodeAddress tradePeerNodeAddress,
+                                 int segment,
+                                 boolean sensitiveDataCleared,
+                                 @Nullable String counterCurrencyExtraData,
+                                 List<String> txIds) {
+        this.id = id;
+        this.date = date;
+        this.isTrade = isTrade;
+        this.tradePeerNodeAddress = tradePeerNodeAddress;
+        this.segment = segment;
+        this.sensitiveDataCleared = sensitiveDataCleared;
+        this.counterCurrencyExtraData = counterCurrencyExtraData;
+        this.txIds = txIds;
+    }
+
+    public static ClosedTradableSummary from(Tradable tradable, int segment, boolean sensitiveDataCleared) {
+        Trade trade = tradable instanceof Trade ? (Trade) tradable : null;
+        List<String> txIds = new ArrayList<>();
+        if (tradable.getOffer() != null && tradable.getOffer().getOfferFeeTxId() != null) {
+            txIds.add(tradable.getOffer().getOfferFeeTxId());
+        }
+        if (trade != null) {
+            if (trade.getMaker() != null && trade.getMaker().getDepositTxHash() != null) txIds.add(trade.getMaker().getDepositTxHash());
+            if (trade.getTaker() != null && trade.getTaker().getDepositTxHash() != null) txIds.add(trade.getTaker().getDepositTxHash());
+            if (trade.getPayoutTxId() != null) txIds.add(trade.getPayoutTxId());
+        }
+        return new ClosedTradableSummary(tradable.getId(),
+                tradable.getDate().getTime(),
+                trade != null,
+                trade != null ? trade.getTradePeerNodeAddress() : null,
+                segment,
+                sensitiveDataCleared,
+                trade != null ? trade.getCounterCurrencyExtraData() : null,
+                txIds);
+    }
+
+    public ClosedTradableSummary withSensitiveDataCleared() {
+        return new ClosedTradableSummary(id, date, isTrade, tradePeerNodeAddress, segment, true, counterCurrencyExtraData, txIds);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public protobuf.ClosedTradableSummary toProtoMessage() {
+        protobuf.ClosedTradableSummary.Builder builder = protobuf.ClosedTradableSummary.newBuilder()
+                .setId(id)
+                .setDate(date)
+                .setIsTrade(isTrade)
+                .setSegment(segment)
+                .setSensitiveDataCleared(sensitiveDataCleared)
+                .addAllTxIds(txIds);
+        if (tradePeerNodeAddress != null) builder.setTradePeerNodeAddress(tradePeerNodeAddress.toProtoMessage());
+        if (counterCurrencyExtraData != null) builder.setCounterCurrencyExtraData(counterCurrencyExtraData);
+        return builder.build();
+    }
+
+    public static ClosedTradableSummary fromProto(protobuf.ClosedTradableSummary proto) {
+        return new ClosedTradableSummary(proto.getId(),
+                proto.getDate(),
+                proto.getIsTrade(),
+                proto.hasTradePeerNodeAddress() ? NodeAddress.fromProto(proto.getTradePeerNodeAddress()) : null,
+                proto.getSegment(),
+                proto.getSensitiveDataCleared(),
+                ProtoUtil.stringOrNullFromProto(proto.getCounterCurrencyExtraData()),
+                new ArrayList<>(proto.getTxIdsList()));
+    }
+
+    @Override
+    public String toString() {
+        return "ClosedTradableSummary{" +
+                "\n     id='" + id + '\'' +
+                ",\n     date=" + date +
+                ",\n     isTrade=" + isTrade +
+                ",\n     tradePeerNodeAddress=" + tradePeerNodeAddress +
+                ",\n     segment=" + segment +
+                ",\n     sensitiveDataCleared=" + sensitiveDataCleared +
+                ",\n     counterCurrencyExtraData='" + counterCurrencyExtraData + '\'' +
+                ",\n     txIds=" + txIds +
+                "\n}";
+    }
+}
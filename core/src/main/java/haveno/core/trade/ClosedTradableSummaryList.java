@@ -0,0 +1,69 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import com.google.protobuf.Message;
+import haveno.common.proto.ProtoUtil;
+import haveno.common.proto.persistable.PersistableList;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class ClosedTradableSummaryList extends PersistableList<ClosedTradableSummary> {
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public ClosedTradableSummaryList() {
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    protected ClosedTradableSummaryList(Collection<ClosedTradableSummary> collection) {
+        super(collection);
+    }
+
+    @Override
+    public Message toProtoMessage() {
+        synchronized (getList()) {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setClosedTradableSummaryList(protobuf.ClosedTradableSummaryList.newBuilder()
+                            .addAllClosedTradableSummary(ProtoUtil.collectionToProto(getList(), protobuf.ClosedTradableSummary.class)))
+                    .build();
+        }
+    }
+
+    public static ClosedTradableSummaryList fromProto(protobuf.ClosedTradableSummaryList proto) {
+        List<ClosedTradableSummary> list = proto.getClosedTradableSummaryList().stream()
+                .map(ClosedTradableSummary::fromProto)
+                .collect(Collectors.toList());
+        return new ClosedTradableSummaryList(list);
+    }
+
+    @Override
+    public String toString() {
+        return "ClosedTradableSummaryList{" +
+                "\n     list=" + getList() +
+                "\n}";
+    }
+}
@@ -742,7 +742,7 @@ public abstract class Trade implements Tradable, Model {
         }
     }
 
-    private String getWalletName() {
+    public String getWalletName() {
         return MONERO_TRADE_WALLET_PREFIX + getId();
     }
 
@@ -807,7 +807,13 @@ public abstract class Trade implements Tradable, Model {
 
     public void changeWalletPassword(String oldPassword, String newPassword) {
         synchronized (walletLock) {
-            getWallet().changePassword(oldPassword, newPassword);
+
+            // change password of closed wallet without opening it for the trade, which would connect and sync it
+            if (wallet == null) {
+                xmrWalletService.changeWalletPasswordOffline(getWalletName(), oldPassword, newPassword);
+                return;
+            }
+            wallet.changePassword(oldPassword, newPassword);
             saveWallet();
         }
     }
@@ -1148,7 +1148,7 @@ public class TradeManager implements PersistedDataHost, DecryptedDirectMessageLi
     }
 
     public Optional<Trade> getClosedTrade(String tradeId) {
-        return closedTradableManager.getClosedTrades().stream().filter(e -> e.getId().equals(tradeId)).findFirst();
+        return closedTradableManager.getTradeById(tradeId).map(tradable -> (Trade) tradable);
     }
 
     private void addTrade(Trade trade) {
@@ -40,6 +40,7 @@ public class TradeModule extends AppModule {
     protected void configure() {
         bind(TradeManager.class).in(Singleton.class);
         bind(ClosedTradableManager.class).in(Singleton.class);
+        bind(ClosedTradableArchive.class).in(Singleton.class);
         bind(FailedTradesManager.class).in(Singleton.class);
         bind(AccountAgeWitnessService.class).in(Singleton.class);
         bind(AccountAgeWitnessStorageService.class).in(Singleton.class);
@@ -37,6 +37,7 @@ import monero.daemon.model.MoneroSubmitTxResult;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -82,6 +83,10 @@ public class ArbitratorProcessDepositRequest extends TradeTask {
             BigInteger securityDeposit = isFromBuyer ? offer.getBuyerSecurityDeposit() : offer.getSellerSecurityDeposit();
             String depositAddress = processModel.getMultisigAddress();
 
+            // the deposit tx can spend the inputs of the reserve tx, so both are not verified at the same time
+            List<String> reserveTxKeyImages = trader.getReserveTxKeyImages();
+            if ((reserveTxKeyImages == null || reserveTxKeyImages.isEmpty()) && trader == trade.getMaker()) reserveTxKeyImages = offer.getOfferPayload().getReserveTxKeyImages();
+
             // verify deposit tx
             try {
                 trade.getXmrWalletService().verifyTradeTx(
@@ -94,6 +99,7 @@ public class ArbitratorProcessDepositRequest extends TradeTask {
                     request.getDepositTxHex(),
                     request.getDepositTxKey(),
                     null,
+                    reserveTxKeyImages,
                     false);
             } catch (Exception e) {
                 throw new RuntimeException("Error processing deposit tx from " + (isFromTaker ? "taker " : "maker ") + trader.getNodeAddress() + ", offerId=" + offer.getId() + ": " + e.getMessage());
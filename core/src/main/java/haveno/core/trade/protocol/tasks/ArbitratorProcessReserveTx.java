@@ -25,9 +25,12 @@ import haveno.core.trade.Trade;
 import haveno.core.trade.messages.InitTradeRequest;
 import haveno.core.trade.protocol.TradePeer;
 import lombok.extern.slf4j.Slf4j;
+import monero.daemon.model.MoneroOutput;
 import monero.daemon.model.MoneroTx;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Arbitrator verifies reserve tx from maker or taker.
@@ -79,6 +82,7 @@ public class ArbitratorProcessReserveTx extends TradeTask {
             trader.setReserveTxHash(request.getReserveTxHash());
             trader.setReserveTxHex(request.getReserveTxHex());
             trader.setReserveTxKey(request.getReserveTxKey());
+            trader.setReserveTxKeyImages(getKeyImages(txResult.first));
             trader.setSecurityDeposit(txResult.second);
 
             // persist trade
@@ -88,4 +92,10 @@ public class ArbitratorProcessReserveTx extends TradeTask {
             failed(t);
         }
     }
+
+    private static List<String> getKeyImages(MoneroTx tx) {
+        List<String> keyImages = new ArrayList<String>();
+        for (MoneroOutput input : tx.getInputs()) keyImages.add(input.getKeyImage().getHex());
+        return keyImages;
+    }
 }
@@ -0,0 +1,110 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import haveno.common.util.MathUtils;
+import haveno.core.monetary.Altcoin;
+import lombok.Getter;
+import org.bitcoinj.core.Coin;
+
+/**
+ * Open, high, low, close and volume of the trades of one currency within one tick interval.
+ * Prices and volumes are in the smallest unit of the currency, amounts in atomic units.
+ */
+@Getter
+public final class Candle {
+    private final long date;
+    private long openDate;
+    private long open;
+    private long closeDate;
+    private long close;
+    private long high;
+    private long low;
+    private long accumulatedAmount;
+    private long accumulatedVolume;
+    private int numTrades;
+
+    Candle(long date) {
+        this.date = date;
+    }
+
+    private Candle(Candle candle) {
+        this.date = candle.date;
+        this.openDate = candle.openDate;
+        this.open = candle.open;
+        this.closeDate = candle.closeDate;
+        this.close = candle.close;
+        this.high = candle.high;
+        this.low = candle.low;
+        this.accumulatedAmount = candle.accumulatedAmount;
+        this.accumulatedVolume = candle.accumulatedVolume;
+        this.numTrades = candle.numTrades;
+    }
+
+    void add(TradeStatistics3 tradeStatistics) {
+        long price = tradeStatistics.getTradePrice().getValue();
+        long tradeDate = tradeStatistics.getDateAsLong();
+        if (numTrades == 0 || tradeDate < openDate) {
+            openDate = tradeDate;
+            open = price;
+        }
+        if (numTrades == 0 || tradeDate >= closeDate) {
+            closeDate = tradeDate;
+            close = price;
+        }
+        high = numTrades == 0 ? price : Math.max(high, price);
+        low = numTrades == 0 ? price : Math.min(low, price);
+        accumulatedAmount += tradeStatistics.getAmount();
+        accumulatedVolume += tradeStatistics.getTradeVolume().getValue();
+        numTrades++;
+    }
+
+    Candle copy() {
+        return new Candle(this);
+    }
+
+    /**
+     * @return the volume weighted average price, using the same scaling as the trade charts
+     */
+    public long getAveragePrice(boolean isCryptoCurrency) {
+        if (isCryptoCurrency) {
+            if (accumulatedVolume == 0) return 0;
+            double accumulatedAmountAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedAmount, Altcoin.SMALLEST_UNIT_EXPONENT);
+            return MathUtils.roundDoubleToLong(accumulatedAmountAsDouble / accumulatedVolume);
+        } else {
+            if (accumulatedAmount == 0) return 0;
+            double accumulatedVolumeAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedVolume, Coin.SMALLEST_UNIT_EXPONENT);
+            return MathUtils.roundDoubleToLong(accumulatedVolumeAsDouble / accumulatedAmount);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Candle{" +
+                "date=" + date +
+                ", open=" + open +
+                ", high=" + high +
+                ", low=" + low +
+                ", close=" + close +
+                ", accumulatedAmount=" + accumulatedAmount +
+                ", accumulatedVolume=" + accumulatedVolume +
+                ", numTrades=" + numTrades +
+                "}";
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Interval of a trade statistics candle.
+ */
+public enum TickUnit {
+    YEAR,
+    MONTH,
+    WEEK,
+    DAY,
+    HOUR,
+    MINUTE_10;
+
+    /**
+     * @return the start of the interval which contains the given date, in ms since epoch
+     */
+    public long roundToTick(LocalDateTime localDate, ZoneId zoneId) {
+        switch (this) {
+            case YEAR:
+                return toEpochMilli(localDate.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0), zoneId);
+            case MONTH:
+                return toEpochMilli(localDate.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0), zoneId);
+            case WEEK:
+                int dayOfWeek = localDate.getDayOfWeek().getValue();
+                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(localDate, 1 - dayOfWeek);
+                return toEpochMilli(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0), zoneId);
+            case DAY:
+                return toEpochMilli(localDate.withHour(0).withMinute(0).withSecond(0).withNano(0), zoneId);
+            case HOUR:
+                return toEpochMilli(localDate.withMinute(0).withSecond(0).withNano(0), zoneId);
+            case MINUTE_10:
+                return toEpochMilli(localDate.withMinute(localDate.getMinute() - localDate.getMinute() % 10).withSecond(0).withNano(0), zoneId);
+            default:
+                return toEpochMilli(localDate, zoneId);
+        }
+    }
+
+    private static long toEpochMilli(LocalDateTime localDate, ZoneId zoneId) {
+        return localDate.atZone(zoneId).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Candles of all currencies and tick units, updated with each added trade statistics object so that reading the
+ * candles of a market does not need to iterate over the whole trade history.
+ *
+ * The candles are not persisted as they are rebuilt in one pass over the trade statistics store at startup.
+ */
+@Slf4j
+public class TradeStatisticsCandleStore {
+    private final ZoneId zoneId;
+
+    // currency code -> tick unit -> start date of tick -> candle
+    private final Map<String, Map<TickUnit, NavigableMap<Long, Candle>>> candlesByCurrency = new HashMap<>();
+
+    public TradeStatisticsCandleStore() {
+        this(ZoneId.systemDefault());
+    }
+
+    TradeStatisticsCandleStore(ZoneId zoneId) {
+        this.zoneId = zoneId;
+    }
+
+    /**
+     * Add trade statistics to the candles. The caller must not add the same trade statistics twice.
+     */
+    public synchronized void add(TradeStatistics3 tradeStatistics) {
+        Map<TickUnit, NavigableMap<Long, Candle>> candlesByTickUnit = candlesByCurrency.computeIfAbsent(tradeStatistics.getCurrency(), currencyCode -> {
+            Map<TickUnit, NavigableMap<Long, Candle>> map = new EnumMap<>(TickUnit.class);
+            for (TickUnit tickUnit : TickUnit.values()) map.put(tickUnit, new TreeMap<>());
+            return map;
+        });
+        for (Map.Entry<TickUnit, NavigableMap<Long, Candle>> entry : candlesByTickUnit.entrySet()) {
+            long tick = entry.getKey().roundToTick(tradeStatistics.getDate().toInstant().atZone(zoneId).toLocalDateTime(), zoneId);
+            entry.getValue().computeIfAbsent(tick, Candle::new).add(tradeStatistics);
+        }
+    }
+
+    public synchronized void addAll(Collection<TradeStatistics3> tradeStatisticsSet) {
+        long ts = System.currentTimeMillis();
+        tradeStatisticsSet.forEach(this::add);
+        log.info("Adding {} trade statistics to candles took {} ms", tradeStatisticsSet.size(), System.currentTimeMillis() - ts);
+    }
+
+    /**
+     * @param currencyCode - currency of the candles
+     * @param tickUnit - interval of the candles
+     * @param fromDate - start date in ms since epoch (inclusive), candles which start before are excluded
+     * @param toDate - end date in ms since epoch (exclusive), 0 for no limit
+     * @return copies of the candles sorted by date
+     */
+    public synchronized List<Candle> getCandles(String currencyCode, TickUnit tickUnit, long fromDate, long toDate) {
+        Map<TickUnit, NavigableMap<Long, Candle>> candlesByTickUnit = candlesByCurrency.get(currencyCode);
+        if (candlesByTickUnit == null) {
+            return new ArrayList<>();
+        }
+        NavigableMap<Long, Candle> candles = candlesByTickUnit.get(tickUnit);
+        Collection<Candle> range = toDate > 0 ?
+                candles.subMap(fromDate, true, toDate, false).values() :
+                candles.tailMap(fromDate, true).values();
+        List<Candle> result = new ArrayList<>(range.size());
+        range.forEach(candle -> result.add(candle.copy()));
+        return result;
+    }
+
+    /**
+     * @return start date of tick -> volume weighted average price for the given currency and tick unit
+     */
+    public synchronized Map<Long, Long> getAveragePrices(String currencyCode, TickUnit tickUnit, boolean isCryptoCurrency) {
+        Map<Long, Long> averagePrices = new HashMap<>();
+        Map<TickUnit, NavigableMap<Long, Candle>> candlesByTickUnit = candlesByCurrency.get(currencyCode);
+        if (candlesByTickUnit != null) {
+            candlesByTickUnit.get(tickUnit).forEach((date, candle) -> averagePrices.put(date, candle.getAveragePrice(isCryptoCurrency)));
+        }
+        return averagePrices;
+    }
+}
@@ -0,0 +1,470 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Column oriented copy of the trade statistics, sorted by trade date. Date and price are kept in primitive arrays and
+ * currency, payment method and arbitrator as ids into dictionaries, so filtering by currency, payment method and date
+ * range, counting trades and reading prices are loops over primitive arrays which neither touch the TradeStatistics3
+ * objects nor create their lazily cached Price, Volume and LocalDateTime objects.
+ * <p>
+ * Trade statistics added out of date order are buffered and merged in one batch before the next query, so adding
+ * the old trade statistics received from a peer does not shift the columns for each of them.
+ */
+@Slf4j
+public class TradeStatisticsColumns {
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_ID = -1;
+    private static final int MAX_PENDING = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int size;
+    private long[] dates = new long[INITIAL_CAPACITY];
+    private long[] prices = new long[INITIAL_CAPACITY];
+    private int[] currencyIds = new int[INITIAL_CAPACITY];
+    private int[] paymentMethodIds = new int[INITIAL_CAPACITY];
+    private int[] arbitratorIds = new int[INITIAL_CAPACITY];
+    private TradeStatistics3[] rows = new TradeStatistics3[INITIAL_CAPACITY];
+
+    private final Dictionary currencies = new Dictionary();
+    private final Dictionary paymentMethods = new Dictionary();
+    private final Dictionary arbitrators = new Dictionary();
+
+    // trade statistics older than the last row, merged before the next query
+    private final List<TradeStatistics3> pending = new ArrayList<>();
+    private volatile boolean hasPending;
+
+    private static class Dictionary {
+        private final Map<String, Integer> idsByValue = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int getOrCreateId(@Nullable String value) {
+            if (value == null) {
+                return NO_ID;
+            }
+            Integer id = idsByValue.get(value);
+            if (id == null) {
+                id = values.size();
+                values.add(value);
+                idsByValue.put(value, id);
+            }
+            return id;
+        }
+
+        int getId(@Nullable String value) {
+            Integer id = value == null ? null : idsByValue.get(value);
+            return id == null ? NO_ID : id;
+        }
+
+        @Nullable
+        String getValue(int id) {
+            return id == NO_ID ? null : values.get(id);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Update
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Add trade statistics. The caller must not add the same trade statistics twice.
+     */
+    public void add(TradeStatistics3 tradeStatistics) {
+        lock.writeLock().lock();
+        try {
+            // New trade statistics are mostly the most recent ones and are appended
+            if (size == 0 || tradeStatistics.getDateAsLong() >= dates[size - 1]) {
+                ensureCapacity(size + 1);
+                set(size++, tradeStatistics);
+                return;
+            }
+            pending.add(tradeStatistics);
+            hasPending = true;
+            if (pending.size() >= MAX_PENDING) {
+                mergePending();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addAll(Collection<TradeStatistics3> tradeStatisticsSet) {
+        long ts = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            pending.addAll(tradeStatisticsSet);
+            hasPending = true;
+            mergePending();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Adding {} trade statistics to columns took {} ms, columns use {} KB",
+                tradeStatisticsSet.size(), System.currentTimeMillis() - ts, getColumnsSizeInBytes() / 1024);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Queries
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public int size() {
+        maybeMergePending();
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the currencies traded since the given date
+     */
+    public Set<String> getCurrencies(long fromDate) {
+        maybeMergePending();
+        lock.readLock().lock();
+        try {
+            boolean[] seen = new boolean[currencies.values.size()];
+            Set<String> result = new HashSet<>();
+            for (int i = lowerBound(fromDate); i < size; i++) {
+                // trade statistics without currency have no id
+                if (currencyIds[i] != NO_ID && !seen[currencyIds[i]]) {
+                    seen[currencyIds[i]] = true;
+                    result.add(currencies.getValue(currencyIds[i]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param currencyCode - currency of the trades, or null for all currencies
+     * @param paymentMethodId - payment method of the trades, or null for all payment methods
+     * @param fromDate - start date in ms since epoch (inclusive)
+     * @param toDate - end date in ms since epoch (exclusive)
+     * @return the matching trade statistics sorted by date
+     */
+    public List<TradeStatistics3> getTradeStatistics(@Nullable String currencyCode,
+                                                     @Nullable String paymentMethodId,
+                                                     long fromDate,
+                                                     long toDate) {
+        maybeMergePending();
+        lock.readLock().lock();
+        try {
+            int currencyId = currencyCode == null ? NO_ID : currencies.getId(currencyCode);
+            int paymentMethodIdx = paymentMethodId == null ? NO_ID : paymentMethods.getId(paymentMethodId);
+            List<TradeStatistics3> result = new ArrayList<>();
+            if ((currencyCode != null && currencyId == NO_ID) || (paymentMethodId != null && paymentMethodIdx == NO_ID)) {
+                return result;
+            }
+            for (int i = lowerBound(fromDate), to = lowerBound(toDate); i < to; i++) {
+                if ((currencyCode == null || currencyIds[i] == currencyId) &&
+                        (paymentMethodId == null || paymentMethodIds[i] == paymentMethodIdx)) {
+                    result.add(rows[i]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a page of trade statistics sorted by date. The page continues after the row with the given cursor date and
+     * hash, so paging is stable while new trade statistics are added.
+     *
+     * @param currencyCode - currency of the trades, or null for all currencies
+     * @param fromDate - start date in ms since epoch (inclusive)
+     * @param toDate - end date in ms since epoch (exclusive)
+     * @param cursorDate - date of the last row of the previous page, ignored if cursorHash is null
+     * @param cursorHash - hash of the last row of the previous page, or null for the first page
+     * @param limit - maximum number of rows, 0 for no limit
+     * @return the matching trade statistics sorted by date
+     */
+    public List<TradeStatistics3> getTradeStatistics(@Nullable String currencyCode,
+                                                     long fromDate,
+                                                     long toDate,
+                                                     long cursorDate,
+                                                     @Nullable byte[] cursorHash,
+                                                     int limit) {
+        maybeMergePending();
+        lock.readLock().lock();
+        try {
+            int currencyId = currencyCode == null ? NO_ID : currencies.getId(currencyCode);
+            List<TradeStatistics3> result = new ArrayList<>();
+            if (currencyCode != null && currencyId == NO_ID) {
+                return result;
+            }
+            int start = lowerBound(fromDate);
+            if (cursorHash != null && cursorDate >= fromDate) {
+                // Rows with the same date as the cursor keep their order, as new rows are inserted after them
+                int end = upperBound(cursorDate);
+                start = end;
+                for (int i = lowerBound(cursorDate); i < end; i++) {
+                    if (Arrays.equals(rows[i].getHash(), cursorHash)) {
+                        start = i + 1;
+                        break;
+                    }
+                }
+            }
+            for (int i = start, to = lowerBound(toDate); i < to && (limit <= 0 || result.size() < limit); i++) {
+                if (currencyCode == null || currencyIds[i] == currencyId) {
+                    result.add(rows[i]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of trades per currency
+     */
+    public Map<String, Integer> getNumTradesByCurrency() {
+        maybeMergePending();
+        lock.readLock().lock();
+        try {
+            int[] counts = new int[currencies.values.size()];
+            for (int i = 0; i < size; i++) {
+                if (currencyIds[i] != NO_ID) {
+                    counts[currencyIds[i]]++;
+                }
+            }
+            Map<String, Integer> result = new HashMap<>();
+            for (int id = 0; id < counts.length; id++) {
+                if (counts[id] > 0) {
+                    result.put(currencies.getValue(id), counts[id]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param currencyCode - currency of the trades
+     * @param fromDate - start date in ms since epoch (inclusive)
+     * @param toDate - end date in ms since epoch (exclusive)
+     * @return the trade prices sorted by trade date
+     */
+    public long[] getPrices(String currencyCode, long fromDate, long toDate) {
+        maybeMergePending();
+        lock.readLock().lock();
+        try {
+            int currencyId = currencies.getId(currencyCode);
+            if (currencyId == NO_ID) {
+                return new long[0];
+            }
+            int from = lowerBound(fromDate);
+            int to = lowerBound(toDate);
+            long[] result = new long[Math.max(0, to - from)];
+            int count = 0;
+            for (int i = from; i < to; i++) {
+                if (currencyIds[i] == currencyId) {
+                    result[count++] = prices[i];
+                }
+            }
+            return Arrays.copyOf(result, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the price of the most recent trade of each currency
+     */
+    public Map<String, Long> getLatestPrices() {
+        maybeMergePending();
+        lock.readLock().lock();
+        try {
+            int numCurrencies = currencies.values.size();
+            boolean[] seen = new boolean[numCurrencies];
+            Map<String, Long> result = new HashMap<>();
+            // Most currencies are traded regularly, so the scan usually stops long before the first row
+            for (int i = size - 1; i >= 0 && result.size() < numCurrencies; i--) {
+                if (currencyIds[i] != NO_ID && !seen[currencyIds[i]]) {
+                    seen[currencyIds[i]] = true;
+                    result.put(currencies.getValue(currencyIds[i]), prices[i]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param numTrades - number of most recent trades to look at
+     * @return the arbitrators of the given number of most recent trades, newest first, skipping trades without arbitrator
+     */
+    public List<String> getLastArbitrators(int numTrades) {
+        maybeMergePending();
+        lock.readLock().lock();
+        try {
+            List<String> result = new ArrayList<>();
+            for (int i = size - 1; i >= Math.max(0, size - numTrades); i--) {
+                if (arbitratorIds[i] != NO_ID) {
+                    result.add(arbitrators.getValue(arbitratorIds[i]));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return approximate number of bytes used by the columns, including the row references but not the referenced trade statistics
+     */
+    public long getColumnsSizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) dates.length * (2 * Long.BYTES + 3 * Integer.BYTES + 4);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void maybeMergePending() {
+        if (!hasPending) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            mergePending();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // must be called with the write lock held
+    private void mergePending() {
+        if (pending.isEmpty()) {
+            hasPending = false;
+            return;
+        }
+        List<TradeStatistics3> sorted = new ArrayList<>(pending);
+        pending.clear();
+        hasPending = false;
+        sorted.sort(Comparator.comparingLong(TradeStatistics3::getDateAsLong));
+        ensureCapacity(size + sorted.size());
+        if (size == 0 || sorted.get(0).getDateAsLong() >= dates[size - 1]) {
+            for (TradeStatistics3 tradeStatistics : sorted) {
+                set(size++, tradeStatistics);
+            }
+            return;
+        }
+        // Merge from the end so each row is moved only once. Rows with equal dates keep the existing rows first.
+        int i = size - 1;
+        int j = sorted.size() - 1;
+        int k = size + sorted.size() - 1;
+        while (j >= 0) {
+            if (i >= 0 && dates[i] > sorted.get(j).getDateAsLong()) {
+                move(i, k);
+                i--;
+            } else {
+                set(k, sorted.get(j));
+                j--;
+            }
+            k--;
+        }
+        size += sorted.size();
+    }
+
+    private void set(int index, TradeStatistics3 tradeStatistics) {
+        dates[index] = tradeStatistics.getDateAsLong();
+        prices[index] = tradeStatistics.getPrice();
+        currencyIds[index] = currencies.getOrCreateId(tradeStatistics.getCurrency());
+        paymentMethodIds[index] = paymentMethods.getOrCreateId(tradeStatistics.getPaymentMethodId());
+        arbitratorIds[index] = arbitrators.getOrCreateId(tradeStatistics.getArbitrator());
+        rows[index] = tradeStatistics;
+    }
+
+    private void move(int from, int to) {
+        dates[to] = dates[from];
+        prices[to] = prices[from];
+        currencyIds[to] = currencyIds[from];
+        paymentMethodIds[to] = paymentMethodIds[from];
+        arbitratorIds[to] = arbitratorIds[from];
+        rows[to] = rows[from];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= dates.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, dates.length * 2);
+        dates = Arrays.copyOf(dates, newCapacity);
+        prices = Arrays.copyOf(prices, newCapacity);
+        currencyIds = Arrays.copyOf(currencyIds, newCapacity);
+        paymentMethodIds = Arrays.copyOf(paymentMethodIds, newCapacity);
+        arbitratorIds = Arrays.copyOf(arbitratorIds, newCapacity);
+        rows = Arrays.copyOf(rows, newCapacity);
+    }
+
+    // index of the first row with a date >= the given date
+    private int lowerBound(long date) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dates[mid] < date) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    // index of the first row with a date > the given date
+    private int upperBound(long date) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (dates[mid] <= date) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
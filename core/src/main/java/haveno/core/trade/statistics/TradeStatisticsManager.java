@@ -54,6 +54,8 @@ public class TradeStatisticsManager {
     private final File storageDir;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics3> observableTradeStatisticsSet = FXCollections.observableSet();
+    private final TradeStatisticsCandleStore candleStore = new TradeStatisticsCandleStore();
+    private final TradeStatisticsColumns tradeStatisticsColumns = new TradeStatisticsColumns();
     private JsonFileManager jsonFileManager;
 
     @Inject
@@ -87,8 +89,11 @@ public class TradeStatisticsManager {
                     return;
                 }
                 synchronized (observableTradeStatisticsSet) {
-                    observableTradeStatisticsSet.add(tradeStatistics);
-                    priceFeedService.applyLatestHavenoMarketPrice(observableTradeStatisticsSet);
+                    if (observableTradeStatisticsSet.add(tradeStatistics)) {
+                        candleStore.add(tradeStatistics);
+                        tradeStatisticsColumns.add(tradeStatistics);
+                    }
+                    priceFeedService.applyLatestHavenoMarketPrices(tradeStatisticsColumns.getLatestPrices());
                 }
                 maybeDumpStatistics();
             }
@@ -100,8 +105,12 @@ public class TradeStatisticsManager {
                 .filter(TradeStatistics3::isValid)
                 .collect(Collectors.toSet());
         synchronized (observableTradeStatisticsSet) {
+            // The listener might have added some of the items already
+            set.removeAll(observableTradeStatisticsSet);
             observableTradeStatisticsSet.addAll(set);
-            priceFeedService.applyLatestHavenoMarketPrice(observableTradeStatisticsSet);
+            candleStore.addAll(set);
+            tradeStatisticsColumns.addAll(set);
+            priceFeedService.applyLatestHavenoMarketPrices(tradeStatisticsColumns.getLatestPrices());
         }
         maybeDumpStatistics();
     }
@@ -110,6 +119,14 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
+    public TradeStatisticsCandleStore getCandleStore() {
+        return candleStore;
+    }
+
+    public TradeStatisticsColumns getTradeStatisticsColumns() {
+        return tradeStatisticsColumns;
+    }
+
     private void maybeDumpStatistics() {
         if (!dumpStatistics) {
             return;
@@ -131,10 +148,7 @@ public class TradeStatisticsManager {
             jsonFileManager.writeToDiscThreaded(JsonUtil.objectToJson(cryptoCurrencyList), "crypto_currency_list");
 
             Instant yearAgo = Instant.ofEpochSecond(Instant.now().getEpochSecond() - TimeUnit.DAYS.toSeconds(365));
-            Set<String> activeCurrencies = observableTradeStatisticsSet.stream()
-                    .filter(e -> e.getDate().toInstant().isAfter(yearAgo))
-                    .map(p -> p.getCurrency())
-                    .collect(Collectors.toSet());
+            Set<String> activeCurrencies = tradeStatisticsColumns.getCurrencies(yearAgo.toEpochMilli() + 1);
 
             ArrayList<CurrencyTuple> activeFiatCurrencyList = fiatCurrencyList.stream()
                     .filter(e -> activeCurrencies.contains(e.code))
@@ -45,6 +45,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.fxmisc.easybind.EasyBind;
 import org.fxmisc.easybind.monadic.MonadicBinding;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.HashMap;
@@ -366,25 +367,29 @@ public class XmrTxProofService implements AssetTxProofService {
         // the same user (same address) and same amount. We check only for the txKey as a same txHash but different
         // txKey is not possible to get a valid result at proof.
         Stream<Trade> failedAndOpenTrades = Stream.concat(activeTrades.stream(), failedTradesManager.getObservableList().stream());
-        Stream<Trade> closedTrades = closedTradableManager.getObservableList().stream()
-                .filter(tradable -> tradable instanceof Trade)
-                .map(tradable -> (Trade) tradable);
+        Stream<Trade> closedTrades = closedTradableManager.getClosedTrades().stream();
         Stream<Trade> allTrades = Stream.concat(failedAndOpenTrades, closedTrades);
         String txKey = trade.getCounterCurrencyExtraData();
-        return allTrades
+        boolean usedAtTrade = allTrades
                 .filter(t -> !t.getId().equals(trade.getId())) // ignore same trade
-                .anyMatch(t -> {
-                    String extra = t.getCounterCurrencyExtraData();
-                    if (extra == null) {
-                        return false;
-                    }
+                .anyMatch(t -> isTxKeyUsed(txKey, t.getCounterCurrencyExtraData(), t.getId()));
 
-                    boolean alreadyUsed = extra.equals(txKey);
-                    if (alreadyUsed) {
-                        log.warn("Peer used the XMR tx key already at another trade with trade ID {}. " +
-                                "This might be a scam attempt.", t.getId());
-                    }
-                    return alreadyUsed;
-                });
+        // Archived trades are checked by their summary, so no archive segment is read
+        return usedAtTrade || closedTradableManager.getArchivedTradeSummaries().stream()
+                .filter(summary -> !summary.getId().equals(trade.getId()))
+                .anyMatch(summary -> isTxKeyUsed(txKey, summary.getCounterCurrencyExtraData(), summary.getId()));
+    }
+
+    private boolean isTxKeyUsed(String txKey, @Nullable String extra, String tradeId) {
+        if (extra == null) {
+            return false;
+        }
+
+        boolean alreadyUsed = extra.equals(txKey);
+        if (alreadyUsed) {
+            log.warn("Peer used the XMR tx key already at another trade with trade ID {}. " +
+                    "This might be a scam attempt.", tradeId);
+        }
+        return alreadyUsed;
     }
 }
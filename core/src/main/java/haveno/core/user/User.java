@@ -48,6 +48,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -68,6 +69,9 @@ public class User implements PersistedDataHost {
 
     private UserPayload userPayload = new UserPayload();
     private boolean isPaymentAccountImport = false;
+    // Counts the changes of the user data. Payment accounts are edited in place and such changes are only announced
+    // by requestPersistence, so caches which depend on the payment accounts compare this version.
+    private final AtomicLong version = new AtomicLong();
 
     @Inject
     public User(PersistenceManager<UserPayload> persistenceManager, KeyRing keyRing) {
@@ -126,6 +130,7 @@ public class User implements PersistedDataHost {
     }
 
     public void requestPersistence() {
+        version.incrementAndGet();
         if (persistenceManager != null)
             persistenceManager.requestPersistence();
     }
@@ -394,6 +399,10 @@ public class User implements PersistedDataHost {
         return currentPaymentAccountProperty;
     }
 
+    public long getVersion() {
+        return version.get();
+    }
+
     @Nullable
     public Set<PaymentAccount> getPaymentAccounts() {
         return userPayload.getPaymentAccounts();
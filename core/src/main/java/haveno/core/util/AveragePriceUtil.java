@@ -22,13 +22,13 @@ import haveno.common.util.Tuple2;
 import haveno.core.monetary.Altcoin;
 import haveno.core.monetary.Price;
 import haveno.core.trade.statistics.TradeStatistics3;
+import haveno.core.trade.statistics.TradeStatisticsColumns;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.user.Preferences;
 import org.bitcoinj.utils.Fiat;
 
 import java.util.ArrayList;
 import java.util.Calendar;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
@@ -42,18 +42,13 @@ public class AveragePriceUtil {
                                                             int days) {
         double percentToTrim = Math.max(0, Math.min(49, preferences.getBsqAverageTrimThreshold() * 100));
         Date pastXDays = getPastDate(days);
-        List<TradeStatistics3> bsqAllTradePastXDays = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> e.getCurrency().equals("BSQ"))
-                .filter(e -> e.getDate().after(pastXDays))
-                .collect(Collectors.toList());
+        TradeStatisticsColumns tradeStatisticsColumns = tradeStatisticsManager.getTradeStatisticsColumns();
+        List<TradeStatistics3> bsqAllTradePastXDays = tradeStatisticsColumns.getTradeStatistics("BSQ", null, pastXDays.getTime() + 1, Long.MAX_VALUE);
         List<TradeStatistics3> bsqTradePastXDays = percentToTrim > 0 ?
                 removeOutliers(bsqAllTradePastXDays, percentToTrim) :
                 bsqAllTradePastXDays;
 
-        List<TradeStatistics3> usdAllTradePastXDays = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> e.getCurrency().equals("USD"))
-                .filter(e -> e.getDate().after(pastXDays))
-                .collect(Collectors.toList());
+        List<TradeStatistics3> usdAllTradePastXDays = tradeStatisticsColumns.getTradeStatistics("USD", null, pastXDays.getTime() + 1, Long.MAX_VALUE);
         List<TradeStatistics3> usdTradePastXDays = percentToTrim > 0 ?
                 removeOutliers(usdAllTradePastXDays, percentToTrim) :
                 usdAllTradePastXDays;
@@ -96,8 +91,8 @@ public class AveragePriceUtil {
     private static long getUSDAverage(List<TradeStatistics3> bsqList, List<TradeStatistics3> usdList) {
         // Use next USD/BTC print as price to calculate BSQ/USD rate
         // Store each trade as amount of USD and amount of BSQ traded
+        // Both lists are sorted by date
         List<Tuple2<Double, Double>> usdBsqList = new ArrayList<>(bsqList.size());
-        usdList.sort(Comparator.comparing(TradeStatistics3::getDateAsLong));
         var usdBTCPrice = 10000d; // Default to 10000 USD per BTC if there is no USD feed at all
 
         for (TradeStatistics3 item : bsqList) {
@@ -0,0 +1,233 @@
+package haveno.core.xmr.wallet;
+
+import lombok.extern.slf4j.Slf4j;
+import monero.daemon.model.MoneroTx;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache of daemon transactions with a time to live.
+ *
+ * Concurrent requests for the same tx hash share one fetch, and only the hashes which are not cached are fetched,
+ * in one batch. Expired entries are dropped on access or when the cache exceeds its size, so no timer is
+ * scheduled per entry.
+ */
+@Slf4j
+public class MoneroTxCache {
+
+    private final Function<List<String>, List<MoneroTx>> fetcher;
+    private final LongSupplier ttlMsSupplier;
+    private final LongSupplier clock;
+    private final int maxSize;
+    private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Optional<MoneroTx>>> loading = new ConcurrentHashMap<>();
+
+    // metrics
+    private final AtomicLong numHits = new AtomicLong();
+    private final AtomicLong numMisses = new AtomicLong();
+    private final AtomicLong numSharedLoads = new AtomicLong();
+    private final AtomicLong numRpcRequests = new AtomicLong();
+    private final AtomicLong numRpcTxs = new AtomicLong();
+
+    private static class CacheEntry {
+        private final MoneroTx tx;
+        private final long expirationTime;
+
+        CacheEntry(MoneroTx tx, long expirationTime) {
+            this.tx = tx;
+            this.expirationTime = expirationTime;
+        }
+    }
+
+    /**
+     * Construct the cache.
+     *
+     * @param fetcher - fetches the txs with the given hashes from the daemon, omitting unknown txs
+     * @param ttlMsSupplier - supplies the time to live of an entry in milliseconds
+     * @param maxSize - maximum number of cached txs
+     */
+    public MoneroTxCache(Function<List<String>, List<MoneroTx>> fetcher, LongSupplier ttlMsSupplier, int maxSize) {
+        this(fetcher, ttlMsSupplier, maxSize, System::currentTimeMillis);
+    }
+
+    MoneroTxCache(Function<List<String>, List<MoneroTx>> fetcher, LongSupplier ttlMsSupplier, int maxSize, LongSupplier clock) {
+        this.fetcher = fetcher;
+        this.ttlMsSupplier = ttlMsSupplier;
+        this.maxSize = maxSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Get txs from the cache, fetching the hashes which are not cached or expired.
+     *
+     * @param txHashes - hashes of the txs to get
+     * @return the txs in the order of the given hashes, omitting unknown txs
+     */
+    public List<MoneroTx> getTxs(List<String> txHashes) {
+        return getTxs(txHashes, true);
+    }
+
+    /**
+     * Fetch txs from the daemon and update the cache. A concurrent fetch of the same hash is shared.
+     *
+     * @param txHashes - hashes of the txs to fetch
+     * @return the txs in the order of the given hashes, omitting unknown txs
+     */
+    public List<MoneroTx> fetchTxs(List<String> txHashes) {
+        return getTxs(txHashes, false);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public long getNumHits() {
+        return numHits.get();
+    }
+
+    public long getNumMisses() {
+        return numMisses.get();
+    }
+
+    public long getNumSharedLoads() {
+        return numSharedLoads.get();
+    }
+
+    public long getNumRpcRequests() {
+        return numRpcRequests.get();
+    }
+
+    public long getNumRpcTxs() {
+        return numRpcTxs.get();
+    }
+
+    public double getHitRatio() {
+        long hits = numHits.get();
+        long total = hits + numMisses.get();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public String toString() {
+        return "MoneroTxCache{" +
+                "size=" + entries.size() +
+                ", hitRatio=" + getHitRatio() +
+                ", hits=" + numHits.get() +
+                ", misses=" + numMisses.get() +
+                ", sharedLoads=" + numSharedLoads.get() +
+                ", rpcRequests=" + numRpcRequests.get() +
+                ", rpcTxs=" + numRpcTxs.get() +
+                "}";
+    }
+
+    // ------------------------------- PRIVATE --------------------------------
+
+    private List<MoneroTx> getTxs(List<String> txHashes, boolean useCache) {
+        long now = clock.getAsLong();
+        Map<String, MoneroTx> txsByHash = new HashMap<>();
+        Map<String, CompletableFuture<Optional<MoneroTx>>> ownLoads = new HashMap<>();
+        Map<String, CompletableFuture<Optional<MoneroTx>>> sharedLoads = new HashMap<>();
+
+        // collect cached txs and claim loading of the others
+        for (String txHash : txHashes) {
+            if (txsByHash.containsKey(txHash) || ownLoads.containsKey(txHash) || sharedLoads.containsKey(txHash)) continue;
+            if (useCache) {
+                CacheEntry entry = entries.get(txHash);
+                if (entry != null) {
+                    if (entry.expirationTime > now) {
+                        numHits.incrementAndGet();
+                        txsByHash.put(txHash, entry.tx);
+                        continue;
+                    }
+                    entries.remove(txHash, entry);
+                }
+                numMisses.incrementAndGet();
+            }
+            CompletableFuture<Optional<MoneroTx>> future = new CompletableFuture<>();
+            CompletableFuture<Optional<MoneroTx>> existing = loading.putIfAbsent(txHash, future);
+            if (existing == null) {
+                ownLoads.put(txHash, future);
+            } else {
+                numSharedLoads.incrementAndGet();
+                sharedLoads.put(txHash, existing);
+            }
+        }
+
+        // fetch unclaimed txs in one batch
+        if (!ownLoads.isEmpty()) {
+            try {
+                numRpcRequests.incrementAndGet();
+                numRpcTxs.addAndGet(ownLoads.size());
+                List<MoneroTx> fetchedTxs = fetcher.apply(new ArrayList<>(ownLoads.keySet()));
+                long expirationTime = clock.getAsLong() + ttlMsSupplier.getAsLong();
+                for (MoneroTx tx : fetchedTxs) {
+                    txsByHash.put(tx.getHash(), tx);
+                    entries.put(tx.getHash(), new CacheEntry(tx, expirationTime));
+                }
+                for (Map.Entry<String, CompletableFuture<Optional<MoneroTx>>> entry : ownLoads.entrySet()) {
+                    entry.getValue().complete(Optional.ofNullable(txsByHash.get(entry.getKey())));
+                }
+            } catch (Throwable e) {
+                for (CompletableFuture<Optional<MoneroTx>> future : ownLoads.values()) future.completeExceptionally(e);
+                throw e;
+            } finally {
+                for (Map.Entry<String, CompletableFuture<Optional<MoneroTx>>> entry : ownLoads.entrySet()) {
+                    loading.remove(entry.getKey(), entry.getValue());
+                }
+                if (entries.size() > maxSize) evict();
+            }
+        }
+
+        // wait for txs loaded by other threads
+        for (Map.Entry<String, CompletableFuture<Optional<MoneroTx>>> entry : sharedLoads.entrySet()) {
+            try {
+                entry.getValue().get().ifPresent(tx -> txsByHash.put(entry.getKey(), tx));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error) throw (Error) e.getCause();
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new RuntimeException(e.getCause());
+            }
+        }
+
+        // collect txs in requested order
+        List<MoneroTx> txs = new ArrayList<>();
+        for (String txHash : txHashes) {
+            MoneroTx tx = txsByHash.get(txHash);
+            if (tx != null) txs.add(tx);
+        }
+        return txs;
+    }
+
+    // Drops expired entries, then the entries closest to expiration until the cache is at 90% of its size, so
+    // the sort is amortized over many insertions
+    private synchronized void evict() {
+        if (entries.size() <= maxSize) return;
+        long now = clock.getAsLong();
+        entries.values().removeIf(entry -> entry.expirationTime <= now);
+        int numExcess = entries.size() - maxSize * 9 / 10;
+        if (numExcess <= 0) return;
+        List<Map.Entry<String, CacheEntry>> sortedEntries = new ArrayList<>(entries.entrySet());
+        sortedEntries.sort(Comparator.comparingLong(entry -> entry.getValue().expirationTime));
+        for (int i = 0; i < numExcess && i < sortedEntries.size(); i++) {
+            entries.remove(sortedEntries.get(i).getKey(), sortedEntries.get(i).getValue());
+        }
+        log.debug("Evicted {} txs from tx cache, {}", numExcess, this);
+    }
+}
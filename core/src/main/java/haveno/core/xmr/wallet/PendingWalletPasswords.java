@@ -0,0 +1,107 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Encryption;
+import haveno.common.crypto.KeyRing;
+import haveno.common.file.FileUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persists the current passwords of the wallets whose password change has not completed, so the change
+ * can be resumed after a restart and the wallets can be opened until then.
+ *
+ * The file is encrypted with the symmetric key of the account, which stays the same when the account
+ * password is changed.
+ */
+@Slf4j
+public class PendingWalletPasswords {
+    private final File file;
+    private final KeyRing keyRing;
+
+    public PendingWalletPasswords(File file, KeyRing keyRing) {
+        this.file = file;
+        this.keyRing = keyRing;
+    }
+
+    /**
+     * @param passwords - current passwords by name of the wallets to change, the file is deleted if empty
+     */
+    public synchronized void write(Map<String, String> passwords) {
+        try {
+            if (passwords.isEmpty()) {
+                if (file.exists() && !file.delete()) log.warn("Could not delete {}", file);
+                return;
+            }
+            if (!keyRing.isUnlocked()) throw new IOException("Account is not open");
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeInt(passwords.size());
+                for (Map.Entry<String, String> entry : passwords.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue());
+                }
+            }
+            byte[] encryptedBytes = Encryption.encryptPayloadWithHmac(bytes.toByteArray(), keyRing.getSymmetricKey());
+            File tempFile = File.createTempFile("temp_" + file.getName(), null, file.getParentFile());
+            try {
+                try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+                    fileOutputStream.write(encryptedBytes);
+                    fileOutputStream.flush();
+                    fileOutputStream.getFD().sync();
+                }
+                FileUtil.renameFile(tempFile, file);
+            } finally {
+                if (tempFile.exists() && !tempFile.delete()) log.warn("Could not delete temp file {}", tempFile);
+            }
+        } catch (IOException | CryptoException e) {
+            log.error("Could not persist the passwords of {} wallets whose password change is pending: {}", passwords.size(), e.toString());
+        }
+    }
+
+    /**
+     * @return current passwords by name of the wallets to change, empty if there are none or the file cannot be read
+     */
+    public synchronized Map<String, String> read() {
+        Map<String, String> passwords = new HashMap<>();
+        if (!file.exists()) return passwords;
+        try {
+            if (!keyRing.isUnlocked()) throw new IOException("Account is not open");
+            byte[] bytes = Encryption.decryptPayloadWithHmac(Files.readAllBytes(file.toPath()), keyRing.getSymmetricKey());
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) passwords.put(in.readUTF(), in.readUTF());
+            }
+        } catch (IOException | CryptoException e) {
+            log.error("Could not read the passwords of wallets whose password change is pending: {}", e.toString());
+        }
+        return passwords;
+    }
+}
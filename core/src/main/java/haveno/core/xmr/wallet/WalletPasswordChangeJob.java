@@ -0,0 +1,150 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Changes the passwords of wallets in the background with a fixed number of threads.
+ *
+ * The current password of each wallet which has not been changed yet is kept, so when the job gets
+ * cancelled or a wallet fails, the remaining wallets can be passed to a new job to resume the change.
+ */
+@Slf4j
+public class WalletPasswordChangeJob {
+
+    private static final long CANCEL_TIMEOUT_MINUTES = 5;
+
+    public interface PasswordChanger {
+        void changePassword(String walletId, String oldPassword, String newPassword);
+    }
+
+    @Value
+    public static class Progress {
+        int numWallets;
+        int numChanged;
+        int numFailed;
+        boolean done;
+
+        public static Progress done() {
+            return new Progress(0, 0, 0, true);
+        }
+    }
+
+    private final Map<String, String> remainingWallets;
+    private final String newPassword;
+    private final PasswordChanger passwordChanger;
+    private final Consumer<Progress> progressHandler;
+    private final ExecutorService executor;
+    private final int numWallets;
+    private final AtomicInteger numChanged = new AtomicInteger();
+    private final AtomicInteger numFailed = new AtomicInteger();
+    private volatile boolean cancelled;
+
+    /**
+     * Construct the job.
+     *
+     * @param oldPasswords - current passwords by id of the wallets to change
+     * @param newPassword - the password to set
+     * @param passwordChanger - changes the password of one wallet
+     * @param numThreads - number of wallets changed at the same time
+     * @param progressHandler - called after each wallet and when the job is done, from the job's threads
+     */
+    public WalletPasswordChangeJob(Map<String, String> oldPasswords,
+                                   String newPassword,
+                                   PasswordChanger passwordChanger,
+                                   int numThreads,
+                                   Consumer<Progress> progressHandler) {
+        this.remainingWallets = new ConcurrentHashMap<>(oldPasswords);
+        this.newPassword = newPassword;
+        this.passwordChanger = passwordChanger;
+        this.progressHandler = progressHandler;
+        this.numWallets = oldPasswords.size();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, numThreads));
+    }
+
+    public void start() {
+        log.info("Changing passwords of {} wallets", numWallets);
+        for (String walletId : new ArrayList<>(remainingWallets.keySet())) {
+            executor.execute(() -> changePassword(walletId));
+        }
+        executor.shutdown();
+        if (numWallets == 0) progressHandler.accept(getProgress());
+    }
+
+    /**
+     * Stop changing passwords without waiting for wallets which are being changed.
+     */
+    public void requestCancel() {
+        cancelled = true;
+        executor.shutdown();
+    }
+
+    /**
+     * Stop changing passwords. Wallets which are being changed are completed before returning.
+     */
+    public void cancel() {
+        requestCancel();
+        try {
+            if (!executor.awaitTermination(CANCEL_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+                log.warn("Timeout waiting for wallet password changes to complete");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        progressHandler.accept(getProgress());
+    }
+
+    /**
+     * @return the current passwords by id of the wallets which have not been changed
+     */
+    public Map<String, String> getRemainingWallets() {
+        return new HashMap<>(remainingWallets);
+    }
+
+    public Progress getProgress() {
+        int numChanged = this.numChanged.get();
+        int numFailed = this.numFailed.get();
+        boolean done = numChanged + numFailed == numWallets || (cancelled && executor.isTerminated());
+        return new Progress(numWallets, numChanged, numFailed, done);
+    }
+
+    private void changePassword(String walletId) {
+        if (cancelled) return;
+        try {
+            passwordChanger.changePassword(walletId, remainingWallets.get(walletId), newPassword);
+            remainingWallets.remove(walletId);
+            numChanged.incrementAndGet();
+        } catch (Exception e) {
+            log.warn("Error changing password of wallet {}: {}", walletId, e.getMessage());
+            numFailed.incrementAndGet();
+        }
+        progressHandler.accept(getProgress());
+    }
+}
@@ -1,13 +1,16 @@
 package haveno.core.xmr.wallet;
 
 import com.google.common.util.concurrent.Service.State;
+import com.google.common.util.concurrent.Striped;
 import com.google.inject.name.Named;
 
 import common.utils.GenUtils;
 import common.utils.JsonUtils;
+import haveno.common.Timer;
 import haveno.common.UserThread;
 import haveno.common.config.BaseCurrencyNetwork;
 import haveno.common.config.Config;
+import haveno.common.crypto.KeyRing;
 import haveno.common.file.FileUtil;
 import haveno.common.util.Tuple2;
 import haveno.common.util.Utilities;
@@ -55,6 +58,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.File;
 import java.math.BigDecimal;
@@ -73,6 +77,9 @@ import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -97,6 +104,10 @@ public class XmrWalletService {
     private static final double DUST_TOLERANCE = 0.01; // max dust as percent of mining fee
     private static final int NUM_MAX_BACKUP_WALLETS = 10;
     private static final int MONERO_LOG_LEVEL = 0;
+    private static final int MAX_PASSWORD_CHANGE_THREADS = 8; // each thread runs a monero-wallet-rpc process
+    private static final int MAX_PASSWORD_CHANGE_ATTEMPTS = 3; // per run, failed wallets are retried again on next startup
+    private static final long PASSWORD_CHANGE_RETRY_DELAY_SEC = 60;
+    private static final String PENDING_WALLET_PASSWORDS_FILE_NAME = "pending_wallet_passwords";
     private static final boolean PRINT_STACK_TRACE = false;
 
     private final CoreAccountService accountService;
@@ -112,15 +123,26 @@ public class XmrWalletService {
 
     private TradeManager tradeManager;
     private MoneroWalletRpc wallet;
-    private final Map<String, Optional<MoneroTx>> txCache = new HashMap<String, Optional<MoneroTx>>();
+    private static final int TX_CACHE_MAX_SIZE = 5000;
+    private static final long TX_CACHE_LOG_PERIOD_MIN = 30;
+    private static final int NUM_TX_VERIFICATION_LOCKS = 1024;
+    private final MoneroTxCache txCache;
+    private Timer txCacheLogTimer;
+    private final Striped<Lock> txVerificationLocks = Striped.lock(NUM_TX_VERIFICATION_LOCKS); // guards key images and tx hashes being verified
     private boolean isShutDownStarted = false;
     private ExecutorService syncWalletThreadPool = Executors.newFixedThreadPool(10); // TODO: adjust based on connection type
+    private final Object passwordChangeLock = new Object();
+    private WalletPasswordChangeJob passwordChangeJob;
+    private int passwordChangeAttempts;
+    private final PendingWalletPasswords pendingWalletPasswords;
+    private final CopyOnWriteArraySet<Consumer<WalletPasswordChangeJob.Progress>> passwordChangeListeners = new CopyOnWriteArraySet<>();
 
     @Inject
     XmrWalletService(CoreAccountService accountService,
                      CoreMoneroConnectionsService connectionsService,
                      WalletsSetup walletsSetup,
                      XmrAddressEntryList xmrAddressEntryList,
+                     KeyRing keyRing,
                      @Named(Config.WALLET_DIR) File walletDir,
                      @Named(Config.WALLET_RPC_BIND_PORT) int rpcBindPort) {
         this.accountService = accountService;
@@ -130,6 +152,11 @@ public class XmrWalletService {
         this.walletDir = walletDir;
         this.rpcBindPort = rpcBindPort;
         this.xmrWalletFile = new File(walletDir, MONERO_WALLET_NAME);
+        this.pendingWalletPasswords = new PendingWalletPasswords(new File(walletDir, PENDING_WALLET_PASSWORDS_FILE_NAME), keyRing);
+        this.txCache = new MoneroTxCache(txHashes -> {
+            if (getDaemon() == null) connectionsService.verifyConnection(); // will throw
+            return getDaemon().getTxs(txHashes, true);
+        }, connectionsService::getRefreshPeriodMs, TX_CACHE_MAX_SIZE);
 
         // set monero logging
         MoneroUtils.setLogLevel(MONERO_LOG_LEVEL);
@@ -172,9 +199,32 @@ public class XmrWalletService {
         });
     }
 
+    public WalletPasswordChangeJob.Progress getPasswordChangeProgress() {
+        synchronized (passwordChangeLock) {
+            return passwordChangeJob == null ? WalletPasswordChangeJob.Progress.done() : passwordChangeJob.getProgress();
+        }
+    }
+
+    public void addPasswordChangeListener(Consumer<WalletPasswordChangeJob.Progress> listener) {
+        passwordChangeListeners.add(listener);
+    }
+
+    public void removePasswordChangeListener(Consumer<WalletPasswordChangeJob.Progress> listener) {
+        passwordChangeListeners.remove(listener);
+    }
+
     // TODO (woodser): need trade manager to get trade ids to change all wallet passwords?
     public void setTradeManager(TradeManager tradeManager) {
         this.tradeManager = tradeManager;
+
+        // resume wallet password changes which did not complete before shut down
+        Map<String, String> oldPasswords = pendingWalletPasswords.read();
+        if (!oldPasswords.isEmpty()) {
+            log.info("Resuming password change of {} trade wallets", oldPasswords.size());
+            synchronized (passwordChangeLock) {
+                if (passwordChangeJob == null) startTradeWalletPasswordChangeJob(oldPasswords, getWalletPassword());
+            }
+        }
     }
 
     public MoneroWallet getWallet() {
@@ -232,10 +282,35 @@ public class XmrWalletService {
     public MoneroWalletRpc openWallet(String walletName) {
         log.info("{}.openWallet({})", getClass().getSimpleName(), walletName);
         if (isShutDownStarted) throw new IllegalStateException("Cannot open wallet because shutting down");
-        return openWalletRpc(new MoneroWalletConfig()
-                .setPath(walletName)
-                .setPassword(getWalletPassword()),
-                null);
+
+        // a wallet whose password change is pending still has its previous password
+        String pendingPassword = getPendingWalletPassword(walletName);
+        if (pendingPassword == null || pendingPassword.equals(getWalletPassword())) {
+            return openWalletRpc(new MoneroWalletConfig()
+                    .setPath(walletName)
+                    .setPassword(getWalletPassword()),
+                    null);
+        }
+        try {
+            return openWalletRpc(new MoneroWalletConfig()
+                    .setPath(walletName)
+                    .setPassword(pendingPassword),
+                    null);
+        } catch (Exception e) {
+            log.info("Could not open wallet {} with its previous password, trying the account password: {}", walletName, e.getMessage());
+            return openWalletRpc(new MoneroWalletConfig()
+                    .setPath(walletName)
+                    .setPassword(getWalletPassword()),
+                    null);
+        }
+    }
+
+    @Nullable
+    private String getPendingWalletPassword(String walletName) {
+        synchronized (passwordChangeLock) {
+            if (passwordChangeJob != null) return passwordChangeJob.getRemainingWallets().get(walletName);
+        }
+        return pendingWalletPasswords.read().get(walletName);
     }
 
     /**
@@ -256,6 +331,25 @@ public class XmrWalletService {
         if (backup) backupWallet(wallet.getPath());
     }
 
+    /**
+     * Change the password of a closed wallet. The wallet is opened without connecting to a daemon, so it does not sync.
+     */
+    public void changeWalletPasswordOffline(String walletName, String oldPassword, String newPassword) {
+        log.info("{}.changeWalletPasswordOffline({})", getClass().getSimpleName(), walletName);
+        if (isShutDownStarted) throw new IllegalStateException("Cannot change wallet password because shutting down");
+        MoneroWalletRpc walletRpc = startWalletRpcInstance(null, false);
+        try {
+            walletRpc.openWallet(new MoneroWalletConfig()
+                    .setPath(walletName)
+                    .setPassword(oldPassword));
+            walletRpc.changePassword(oldPassword, newPassword);
+        } catch (Exception e) {
+            stopWallet(walletRpc, walletName);
+            throw e;
+        }
+        closeWallet(walletRpc, true);
+    }
+
     public void closeWallet(MoneroWallet wallet, boolean save) {
         log.info("{}.closeWallet({}, {})", getClass().getSimpleName(), wallet.getPath(), save);
         MoneroError err = null;
@@ -418,81 +512,103 @@ public class XmrWalletService {
      * @return tuple with the verified tx and its actual security deposit
      */
     public Tuple2<MoneroTx, BigInteger> verifyTradeTx(String offerId, BigInteger tradeFee, BigInteger sendAmount, BigInteger securityDeposit, String address, String txHash, String txHex, String txKey, List<String> keyImages, boolean isReserveTx) {
+        return verifyTradeTx(offerId, tradeFee, sendAmount, securityDeposit, address, txHash, txHex, txKey, keyImages, null, isReserveTx);
+    }
+
+    /**
+     * Verify a reserve or deposit transaction which may spend the same inputs as another transaction.
+     *
+     * @param relatedKeyImages key images of another tx which may spend the same inputs, e.g. the reserve tx of a
+     *                         deposit tx, only used to not verify both at the same time, ignored if null
+     * @see #verifyTradeTx(String, BigInteger, BigInteger, BigInteger, String, String, String, String, List, boolean)
+     */
+    public Tuple2<MoneroTx, BigInteger> verifyTradeTx(String offerId, BigInteger tradeFee, BigInteger sendAmount, BigInteger securityDeposit, String address, String txHash, String txHex, String txKey, List<String> keyImages, List<String> relatedKeyImages, boolean isReserveTx) {
         MoneroDaemonRpc daemon = getDaemon();
         MoneroWallet wallet = getWallet();
         MoneroTx tx = null;
         BigInteger actualSecurityDeposit = null;
-        synchronized (daemon) {
-            try {
 
-                // verify tx not submitted to pool
-                tx = daemon.getTx(txHash);
-                if (tx != null) throw new RuntimeException("Tx is already submitted");
+        // Only verifications which share a key image or tx hash are serialized. Their tx must not be in the pool while
+        // another verification submits a tx which spends the same inputs, otherwise it is reported as a double spend.
+        // Verifications of unrelated txs run their daemon and wallet requests concurrently.
+        List<String> lockKeys = new ArrayList<String>();
+        lockKeys.add(txHash);
+        if (keyImages != null) lockKeys.addAll(keyImages);
+        if (relatedKeyImages != null) lockKeys.addAll(relatedKeyImages);
+        List<Lock> locks = new ArrayList<Lock>();
+        for (Lock lock : txVerificationLocks.bulkGet(lockKeys)) if (!locks.contains(lock)) locks.add(lock); // bulkGet returns locks in a consistent order
+        for (Lock lock : locks) lock.lock();
+        try {
 
-                // submit tx to pool
-                MoneroSubmitTxResult result = daemon.submitTxHex(txHex, true); // TODO (woodser): invert doNotRelay flag to relay for library consistency?
-                if (!result.isGood()) throw new RuntimeException("Failed to submit tx to daemon: " + JsonUtils.serialize(result));
+            // verify tx not submitted to pool
+            tx = daemon.getTx(txHash);
+            if (tx != null) throw new RuntimeException("Tx is already submitted");
 
-                // get pool tx which has weight and size
-                for (MoneroTx poolTx : daemon.getTxPool()) if (poolTx.getHash().equals(txHash)) tx = poolTx;
-                if (tx == null) throw new RuntimeException("Tx is not in pool after being submitted");
+            // submit tx to pool
+            MoneroSubmitTxResult result = daemon.submitTxHex(txHex, true); // TODO (woodser): invert doNotRelay flag to relay for library consistency?
+            if (!result.isGood()) throw new RuntimeException("Failed to submit tx to daemon: " + JsonUtils.serialize(result));
 
-                // verify key images
-                if (keyImages != null) {
-                    Set<String> txKeyImages = new HashSet<String>();
-                    for (MoneroOutput input : tx.getInputs()) txKeyImages.add(input.getKeyImage().getHex());
-                    if (!txKeyImages.equals(new HashSet<String>(keyImages))) throw new Error("Tx inputs do not match claimed key images");
-                }
+            // get pool tx which has weight and size
+            for (MoneroTx poolTx : daemon.getTxPool()) if (poolTx.getHash().equals(txHash)) tx = poolTx;
+            if (tx == null) throw new RuntimeException("Tx is not in pool after being submitted");
 
-                // verify unlock height
-                if (tx.getUnlockHeight() != 0) throw new RuntimeException("Unlock height must be 0");
+            // verify key images
+            if (keyImages != null) {
+                Set<String> txKeyImages = new HashSet<String>();
+                for (MoneroOutput input : tx.getInputs()) txKeyImages.add(input.getKeyImage().getHex());
+                if (!txKeyImages.equals(new HashSet<String>(keyImages))) throw new Error("Tx inputs do not match claimed key images");
+            }
 
-                // verify miner fee
-                BigInteger feeEstimate = getFeeEstimate(tx.getWeight());
-                double feeDiff = tx.getFee().subtract(feeEstimate).abs().doubleValue() / feeEstimate.doubleValue(); // TODO: use BigDecimal?
-                if (feeDiff > MINER_FEE_TOLERANCE) throw new Error("Miner fee is not within " + (MINER_FEE_TOLERANCE * 100) + "% of estimated fee, expected " + feeEstimate + " but was " + tx.getFee());
-                log.info("Trade tx fee {} is within tolerance, diff%={}", tx.getFee(), feeDiff);
+            // verify unlock height
+            if (tx.getUnlockHeight() != 0) throw new RuntimeException("Unlock height must be 0");
 
-                // verify transfer proof to fee address
-                String feeAddress = HavenoUtils.getTradeFeeAddress();
-                MoneroCheckTx feeCheck = wallet.checkTxKey(txHash, txKey, feeAddress);
-                if (!feeCheck.isGood()) throw new RuntimeException("Invalid proof of trade fee");
+            // verify miner fee
+            BigInteger feeEstimate = getFeeEstimate(tx.getWeight());
+            double feeDiff = tx.getFee().subtract(feeEstimate).abs().doubleValue() / feeEstimate.doubleValue(); // TODO: use BigDecimal?
+            if (feeDiff > MINER_FEE_TOLERANCE) throw new Error("Miner fee is not within " + (MINER_FEE_TOLERANCE * 100) + "% of estimated fee, expected " + feeEstimate + " but was " + tx.getFee());
+            log.info("Trade tx fee {} is within tolerance, diff%={}", tx.getFee(), feeDiff);
 
-                // verify transfer proof to return address
-                MoneroCheckTx returnCheck = wallet.checkTxKey(txHash, txKey, address);
-                if (!returnCheck.isGood()) throw new RuntimeException("Invalid proof of return funds");
+            // verify transfer proof to fee address
+            String feeAddress = HavenoUtils.getTradeFeeAddress();
+            MoneroCheckTx feeCheck = wallet.checkTxKey(txHash, txKey, feeAddress);
+            if (!feeCheck.isGood()) throw new RuntimeException("Invalid proof of trade fee");
 
-                // collect actual trade fee, send amount, and security deposit
-                BigInteger actualTradeFee = isReserveTx ? returnCheck.getReceivedAmount().subtract(sendAmount) : feeCheck.getReceivedAmount();
-                actualSecurityDeposit = isReserveTx ? feeCheck.getReceivedAmount() : returnCheck.getReceivedAmount().subtract(sendAmount);
-                BigInteger actualSendAmount = returnCheck.getReceivedAmount().subtract(isReserveTx ? actualTradeFee : actualSecurityDeposit);
+            // verify transfer proof to return address
+            MoneroCheckTx returnCheck = wallet.checkTxKey(txHash, txKey, address);
+            if (!returnCheck.isGood()) throw new RuntimeException("Invalid proof of return funds");
 
-                // verify trade fee
-                if (!tradeFee.equals(actualTradeFee)) {
-                    throw new RuntimeException("Trade fee is incorrect amount, expected=" + tradeFee + ", actual=" + actualTradeFee + ", return address check=" + JsonUtils.serialize(returnCheck) + ", fee address check=" + JsonUtils.serialize(feeCheck));
-                }
+            // collect actual trade fee, send amount, and security deposit
+            BigInteger actualTradeFee = isReserveTx ? returnCheck.getReceivedAmount().subtract(sendAmount) : feeCheck.getReceivedAmount();
+            actualSecurityDeposit = isReserveTx ? feeCheck.getReceivedAmount() : returnCheck.getReceivedAmount().subtract(sendAmount);
+            BigInteger actualSendAmount = returnCheck.getReceivedAmount().subtract(isReserveTx ? actualTradeFee : actualSecurityDeposit);
 
-                // verify sufficient security deposit
-                BigInteger minSecurityDeposit = new BigDecimal(securityDeposit).multiply(new BigDecimal(1.0 - SECURITY_DEPOSIT_TOLERANCE)).toBigInteger();
-                if (actualSecurityDeposit.compareTo(minSecurityDeposit) < 0) throw new RuntimeException("Security deposit amount is not enough, needed " + minSecurityDeposit + " but was " + actualSecurityDeposit);
-
-                // verify deposit amount + miner fee within dust tolerance
-                BigInteger minDepositAndFee = sendAmount.add(securityDeposit).subtract(new BigDecimal(tx.getFee()).multiply(new BigDecimal(1.0 - DUST_TOLERANCE)).toBigInteger());
-                BigInteger actualDepositAndFee = actualSendAmount.add(actualSecurityDeposit).add(tx.getFee());
-                if (actualDepositAndFee.compareTo(minDepositAndFee) < 0) throw new RuntimeException("Deposit amount + fee is not enough, needed " + minDepositAndFee + " but was " + actualDepositAndFee);
-            } catch (Exception e) {
-                log.warn("Error verifying trade tx with offer id=" + offerId + (tx == null ? "" : ", tx=" + tx) + ": " + e.getMessage());
-                throw e;
+            // verify trade fee
+            if (!tradeFee.equals(actualTradeFee)) {
+                throw new RuntimeException("Trade fee is incorrect amount, expected=" + tradeFee + ", actual=" + actualTradeFee + ", return address check=" + JsonUtils.serialize(returnCheck) + ", fee address check=" + JsonUtils.serialize(feeCheck));
+            }
+
+            // verify sufficient security deposit
+            BigInteger minSecurityDeposit = new BigDecimal(securityDeposit).multiply(new BigDecimal(1.0 - SECURITY_DEPOSIT_TOLERANCE)).toBigInteger();
+            if (actualSecurityDeposit.compareTo(minSecurityDeposit) < 0) throw new RuntimeException("Security deposit amount is not enough, needed " + minSecurityDeposit + " but was " + actualSecurityDeposit);
+
+            // verify deposit amount + miner fee within dust tolerance
+            BigInteger minDepositAndFee = sendAmount.add(securityDeposit).subtract(new BigDecimal(tx.getFee()).multiply(new BigDecimal(1.0 - DUST_TOLERANCE)).toBigInteger());
+            BigInteger actualDepositAndFee = actualSendAmount.add(actualSecurityDeposit).add(tx.getFee());
+            if (actualDepositAndFee.compareTo(minDepositAndFee) < 0) throw new RuntimeException("Deposit amount + fee is not enough, needed " + minDepositAndFee + " but was " + actualDepositAndFee);
+        } catch (Exception e) {
+            log.warn("Error verifying trade tx with offer id=" + offerId + (tx == null ? "" : ", tx=" + tx) + ": " + e.getMessage());
+            throw e;
+        } finally {
+            try {
+                daemon.flushTxPool(txHash); // flush tx from pool
+            } catch (MoneroRpcError err) {
+                System.out.println(daemon.getRpcConnection());
+                throw err.getCode() == -32601 ? new RuntimeException("Failed to flush tx from pool. Arbitrator must use trusted, unrestricted daemon") : err;
             } finally {
-                try {
-                    daemon.flushTxPool(txHash); // flush tx from pool
-                } catch (MoneroRpcError err) {
-                    System.out.println(daemon.getRpcConnection());
-                    throw err.getCode() == -32601 ? new RuntimeException("Failed to flush tx from pool. Arbitrator must use trusted, unrestricted daemon") : err;
-                }
+                for (int i = locks.size() - 1; i >= 0; i--) locks.get(i).unlock(); // unlock after tx is flushed from pool
             }
-            return new Tuple2<>(tx, actualSecurityDeposit);
         }
+        return new Tuple2<>(tx, actualSecurityDeposit);
     }
 
     /**
@@ -525,23 +641,7 @@ public class XmrWalletService {
     }
 
     public List<MoneroTx> getTxs(List<String> txHashes) {
-        synchronized (txCache) {
-
-            // fetch txs
-            if (getDaemon() == null) connectionsService.verifyConnection(); // will throw
-            List<MoneroTx> txs = getDaemon().getTxs(txHashes, true);
-
-            // store to cache
-            for (MoneroTx tx : txs) txCache.put(tx.getHash(), Optional.of(tx));
-
-            // schedule txs to be removed from cache
-            UserThread.runAfter(() -> {
-                synchronized (txCache) {
-                    for (MoneroTx tx : txs) txCache.remove(tx.getHash());
-                }
-            }, connectionsService.getRefreshPeriodMs() / 1000);
-            return txs;
-        }
+        return txCache.fetchTxs(txHashes);
     }
 
     public MoneroTx getTxWithCache(String txHash) {
@@ -550,22 +650,11 @@ public class XmrWalletService {
     }
 
     public List<MoneroTx> getTxsWithCache(List<String> txHashes) {
-        synchronized (txCache) {
-            try {
-                // get cached txs
-                List<MoneroTx> cachedTxs = new ArrayList<MoneroTx>();
-                List<String> uncachedTxHashes = new ArrayList<String>();
-                for (int i = 0; i < txHashes.size(); i++) {
-                    if (txCache.containsKey(txHashes.get(i))) cachedTxs.add(txCache.get(txHashes.get(i)).orElse(null));
-                    else uncachedTxHashes.add(txHashes.get(i));
-                }
-
-                // return txs from cache if available, otherwise fetch
-                return uncachedTxHashes.isEmpty() ? cachedTxs : getTxs(txHashes);
-            } catch (Exception e) {
-                if (!isShutDownStarted) throw e;
-                return null;
-            }
+        try {
+            return txCache.getTxs(txHashes); // only fetches uncached txs
+        } catch (Exception e) {
+            if (!isShutDownStarted) throw e;
+            return null;
         }
     }
 
@@ -581,6 +670,14 @@ public class XmrWalletService {
             }
         }
 
+        // stop wallet password changes in progress, waiting outside the lock, the remaining wallets are resumed on next startup
+        WalletPasswordChangeJob runningPasswordChangeJob;
+        synchronized (passwordChangeLock) {
+            runningPasswordChangeJob = passwordChangeJob;
+            if (runningPasswordChangeJob != null) runningPasswordChangeJob.requestCancel();
+        }
+        if (runningPasswordChangeJob != null) runningPasswordChangeJob.cancel();
+
         // prepare trades for shut down
         if (tradeManager != null) tradeManager.onShutDownStarted();
     }
@@ -590,6 +687,8 @@ public class XmrWalletService {
 
         // shut down trade and main wallets at same time
         walletListeners.clear();
+        if (txCacheLogTimer != null) txCacheLogTimer.stop();
+        log.info("Daemon tx cache on shut down: {}", txCache);
         List<Runnable> tasks = new ArrayList<Runnable>();
         if (tradeManager != null) tasks.add(() -> tradeManager.shutDown());
         tasks.add(() -> closeMainWallet(true));
@@ -606,6 +705,9 @@ public class XmrWalletService {
 
         // set and listen to daemon connection
         connectionsService.addListener(newConnection -> onConnectionChanged(newConnection));
+
+        // log hit ratio and rpc counts of the daemon tx cache
+        txCacheLogTimer = UserThread.runPeriodically(() -> log.info("Daemon tx cache: {}", txCache), TX_CACHE_LOG_PERIOD_MIN, TimeUnit.MINUTES);
     }
 
     private synchronized void maybeInitMainWallet() {
@@ -713,6 +815,10 @@ public class XmrWalletService {
     }
 
     private MoneroWalletRpc startWalletRpcInstance(Integer port) {
+        return startWalletRpcInstance(port, true);
+    }
+
+    private MoneroWalletRpc startWalletRpcInstance(Integer port, boolean connectToDaemon) {
 
         // check if monero-wallet-rpc exists
         if (!new File(MONERO_WALLET_RPC_PATH).exists()) throw new Error("monero-wallet-rpc executable doesn't exist at path " + MONERO_WALLET_RPC_PATH
@@ -730,7 +836,7 @@ public class XmrWalletService {
             cmd.add("--" + MONERO_NETWORK_TYPE.toString().toLowerCase());
         }
 
-        MoneroRpcConnection connection = connectionsService.getConnection();
+        MoneroRpcConnection connection = connectToDaemon ? connectionsService.getConnection() : null;
         if (connection != null) {
             cmd.add("--daemon-address");
             cmd.add(connection.getUri());
@@ -798,30 +904,86 @@ public class XmrWalletService {
 
     private void changeWalletPasswords(String oldPassword, String newPassword) {
 
-        // create task to change main wallet password
-        List<Runnable> tasks = new ArrayList<Runnable>();
-        tasks.add(() -> {
-            try {
-                wallet.changePassword(oldPassword, newPassword);
-                saveMainWallet();
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw e;
+        // change trade wallet passwords in the background
+        changeTradeWalletPasswords(oldPassword, newPassword);
+
+        // change main wallet password
+        try {
+            wallet.changePassword(oldPassword, newPassword);
+            saveMainWallet();
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw e;
+        }
+    }
+
+    private void changeTradeWalletPasswords(String oldPassword, String newPassword) {
+        while (true) {
+
+            // stop the previous job and wait for it outside the lock, which can take minutes
+            WalletPasswordChangeJob previousJob;
+            synchronized (passwordChangeLock) {
+                previousJob = passwordChangeJob;
+                if (previousJob != null) previousJob.requestCancel();
             }
-        });
+            if (previousJob != null) previousJob.cancel();
+            synchronized (passwordChangeLock) {
+                if (passwordChangeJob != previousJob) continue; // replaced while waiting, stop that job too
+
+                // resume wallets which the previous job has not changed with their current password
+                Map<String, String> oldPasswords = new HashMap<>();
+                if (previousJob != null) oldPasswords.putAll(previousJob.getRemainingWallets());
+                else oldPasswords.putAll(pendingWalletPasswords.read());
+                for (Trade trade : tradeManager.getAllTrades()) oldPasswords.putIfAbsent(trade.getWalletName(), oldPassword);
+                passwordChangeAttempts = 0;
+                startTradeWalletPasswordChangeJob(oldPasswords, newPassword);
+                return;
+            }
+        }
+    }
 
-        // create tasks to change trade wallet passwords
-        List<Trade> trades = tradeManager.getAllTrades();
-        for (Trade trade : trades) {
-            tasks.add(() -> {
-                if (trade.walletExists()) {
-                    trade.changeWalletPassword(oldPassword, newPassword); // TODO (woodser): this unnecessarily connects and syncs unopen wallets and leaves open
-                }
-            });
+    private void startTradeWalletPasswordChangeJob(Map<String, String> oldPasswords, String newPassword) {
+        synchronized (passwordChangeLock) {
+            Map<String, Trade> tradesByWalletName = new HashMap<>();
+            for (Trade trade : tradeManager.getAllTrades()) {
+                if (trade.walletExists()) tradesByWalletName.put(trade.getWalletName(), trade);
+            }
+            oldPasswords = new HashMap<>(oldPasswords);
+            oldPasswords.keySet().retainAll(tradesByWalletName.keySet());
+
+            // persist the passwords before changing them, so wallets are resumed and can be opened after a restart
+            pendingWalletPasswords.write(oldPasswords);
+            passwordChangeAttempts++;
+
+            // wallet rpc processes are cpu bound while changing passwords and write the wallet files
+            int numThreads = Math.min(MAX_PASSWORD_CHANGE_THREADS, Runtime.getRuntime().availableProcessors());
+            WalletPasswordChangeJob[] job = new WalletPasswordChangeJob[1];
+            job[0] = new WalletPasswordChangeJob(oldPasswords,
+                    newPassword,
+                    (walletName, walletOldPassword, walletNewPassword) -> tradesByWalletName.get(walletName).changeWalletPassword(walletOldPassword, walletNewPassword),
+                    numThreads,
+                    progress -> onPasswordChangeProgress(job[0], newPassword, progress));
+            passwordChangeJob = job[0];
+            passwordChangeJob.start();
         }
+    }
+
+    private void onPasswordChangeProgress(WalletPasswordChangeJob job, String newPassword, WalletPasswordChangeJob.Progress progress) {
+        synchronized (passwordChangeLock) {
+            if (job != passwordChangeJob) return; // replaced by a new job which persists its own wallets
+            pendingWalletPasswords.write(job.getRemainingWallets());
 
-        // excute tasks in parallel
-        HavenoUtils.executeTasks(tasks, Math.min(10, 1 + trades.size()));
+            // retry failed wallets, the remaining ones are retried on next startup
+            if (progress.isDone() && progress.getNumFailed() > 0 && !isShutDownStarted && passwordChangeAttempts < MAX_PASSWORD_CHANGE_ATTEMPTS) {
+                log.warn("Changing password of {} trade wallets failed, retrying in {} seconds", progress.getNumFailed(), PASSWORD_CHANGE_RETRY_DELAY_SEC);
+                UserThread.runAfter(() -> {
+                    synchronized (passwordChangeLock) {
+                        if (job == passwordChangeJob && !isShutDownStarted) startTradeWalletPasswordChangeJob(job.getRemainingWallets(), newPassword);
+                    }
+                }, PASSWORD_CHANGE_RETRY_DELAY_SEC);
+            }
+        }
+        passwordChangeListeners.forEach(listener -> listener.accept(progress));
     }
 
     private void closeMainWallet(boolean save) {
@@ -28,6 +28,7 @@ import haveno.core.account.sign.SignedWitness;
 import haveno.core.account.sign.SignedWitnessService;
 import haveno.core.filter.FilterManager;
 import haveno.core.locale.CountryUtil;
+import haveno.core.offer.Offer;
 import haveno.core.offer.OfferPayload;
 import haveno.core.payment.ChargeBackRisk;
 import haveno.core.payment.payload.PaymentAccountPayload;
@@ -57,6 +58,10 @@ import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static haveno.core.payment.payload.PaymentMethod.getPaymentMethod;
@@ -340,6 +345,47 @@ public class AccountAgeWitnessServiceTest {
         assertTrue(signedWitnessService.isSignedAccountAgeWitness(aew2));
     }
 
+    // Filters a 5k offer book from several threads at once. Lookups must not block each other nor miss witnesses
+    // which are added concurrently.
+    @Test
+    public void testConcurrentFindWitness() throws Exception {
+        int numOffers = 5000;
+        int numThreads = 8;
+        List<Offer> offers = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            AccountAgeWitness witness = new AccountAgeWitness(Hash.getRipemd160hash(String.valueOf(i).getBytes()), i);
+            if (i % 2 == 0) service.addToMap(witness);
+            Offer offer = mock(Offer.class);
+            when(offer.getAccountAgeWitnessHashAsHex()).thenReturn(Optional.of(Utilities.bytesAsHexString(witness.getHash())));
+            offers.add(offer);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < numThreads; i++) {
+                int threadIdx = i;
+                futures.add(executor.submit(() -> {
+                    long numFound = 0;
+                    for (int j = 0; j < numOffers; j++) {
+                        // one writer adds the missing witnesses while the others are reading
+                        if (threadIdx == 0 && j % 2 == 1) {
+                            service.addToMap(new AccountAgeWitness(Hash.getRipemd160hash(String.valueOf(j).getBytes()), j));
+                        }
+                        if (service.findWitness(offers.get(j)).isPresent()) numFound++;
+                    }
+                    return numFound;
+                }));
+            }
+            for (Future<Long> future : futures) assertTrue(future.get(1, TimeUnit.MINUTES) >= numOffers / 2);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // all witnesses are found after the writer is done
+        for (Offer offer : offers) assertTrue(service.findWitness(offer).isPresent());
+    }
+
     private void signAccountAgeWitness(AccountAgeWitness accountAgeWitness,
                                        PublicKey witnessOwnerPubKey,
                                        long time,
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.api;
+
+import haveno.core.api.model.MarketDepthInfo;
+import haveno.core.monetary.Price;
+import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService;
+import haveno.core.offer.OfferDirection;
+import haveno.core.provider.price.MarketPrice;
+import haveno.core.provider.price.PriceFeedService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MarketDepthBookTest {
+    private static final BigInteger ONE_XMR = BigInteger.valueOf(1_000_000_000_000L);
+
+    private final Map<String, Consumer<MarketPrice>> priceListeners = new HashMap<>();
+    private MarketDepthBook marketDepthBook;
+    private int offerCounter;
+
+    @Before
+    public void setUp() {
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        PriceFeedService priceFeedService = mock(PriceFeedService.class);
+        doAnswer(invocation -> priceListeners.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(priceFeedService).addPriceListener(anyString(), any());
+        when(offerBookService.getOffers()).thenReturn(new ArrayList<>(Arrays.asList(
+                getOffer("EUR", OfferDirection.BUY, "100", 1, false),
+                getOffer("EUR", OfferDirection.BUY, "110", 2, false),
+                getOffer("EUR", OfferDirection.BUY, "110", 1, false),
+                getOffer("EUR", OfferDirection.SELL, "120", 3, false),
+                getOffer("USD", OfferDirection.SELL, "130", 1, true))));
+        marketDepthBook = new MarketDepthBook(offerBookService, priceFeedService);
+    }
+
+    @Test
+    public void testMarketDepth() {
+        MarketDepthInfo marketDepth = marketDepthBook.getMarketDepth("EUR");
+        // buy side from high to low price, offers with the same price are merged
+        assertArrayEquals(new double[]{110, 100}, marketDepth.buyPrices, 0);
+        assertArrayEquals(new double[]{3, 4}, marketDepth.buyDepth, 0);
+        assertArrayEquals(new double[]{120}, marketDepth.sellPrices, 0);
+        assertArrayEquals(new double[]{3}, marketDepth.sellDepth, 0);
+        assertEquals(0, marketDepthBook.getMarketDepth("GBP").buyPrices.length);
+    }
+
+    @Test
+    public void testIncrementalUpdates() {
+        List<String> changedCurrencyCodes = new ArrayList<>();
+        marketDepthBook.addListener(changedCurrencyCodes::add);
+        MarketDepthInfo marketDepth = marketDepthBook.getMarketDepth("EUR");
+        assertSame(marketDepth, marketDepthBook.getMarketDepth("EUR"));
+
+        Offer offer = getOffer("EUR", OfferDirection.SELL, "115", 1, false);
+        marketDepthBook.onAdded(offer);
+        MarketDepthInfo updated = marketDepthBook.getMarketDepth("EUR");
+        assertNotSame(marketDepth, updated);
+        assertArrayEquals(new double[]{115, 120}, updated.sellPrices, 0);
+        assertArrayEquals(new double[]{1, 4}, updated.sellDepth, 0);
+
+        marketDepthBook.onRemoved(offer);
+        assertArrayEquals(new double[]{120}, marketDepthBook.getMarketDepth("EUR").sellPrices, 0);
+        assertEquals(Arrays.asList("EUR", "EUR"), changedCurrencyCodes);
+
+        // price updates only invalidate markets with market based offers
+        marketDepth = marketDepthBook.getMarketDepth("EUR");
+        MarketDepthInfo usdMarketDepth = marketDepthBook.getMarketDepth("USD");
+        priceListeners.get("EUR").accept(new MarketPrice("EUR", 105, 0, true));
+        priceListeners.get("USD").accept(new MarketPrice("USD", 125, 0, true));
+        assertSame(marketDepth, marketDepthBook.getMarketDepth("EUR"));
+        assertNotSame(usdMarketDepth, marketDepthBook.getMarketDepth("USD"));
+        assertEquals(Arrays.asList("EUR", "EUR", "USD"), changedCurrencyCodes);
+    }
+
+    @Test
+    public void testMarketBasedOffersAreResortedOnPriceUpdate() {
+        assertArrayEquals(new double[]{120}, marketDepthBook.getMarketDepth("EUR").sellPrices, 0);
+        Offer offer = getOffer("EUR", OfferDirection.SELL, "125", 1, true);
+        marketDepthBook.onAdded(offer);
+        assertArrayEquals(new double[]{120, 125}, marketDepthBook.getMarketDepth("EUR").sellPrices, 0);
+
+        // the market based offer moves in front of the fixed price offer
+        when(offer.getPrice()).thenReturn(Price.parse("EUR", "115"));
+        priceListeners.get("EUR").accept(new MarketPrice("EUR", 110, 0, true));
+        MarketDepthInfo marketDepth = marketDepthBook.getMarketDepth("EUR");
+        assertArrayEquals(new double[]{115, 120}, marketDepth.sellPrices, 0);
+        assertArrayEquals(new double[]{1, 4}, marketDepth.sellDepth, 0);
+
+        marketDepthBook.onRemoved(offer);
+        assertArrayEquals(new double[]{120}, marketDepthBook.getMarketDepth("EUR").sellPrices, 0);
+    }
+
+    private Offer getOffer(String currencyCode, OfferDirection direction, String price, long amount, boolean useMarketBasedPrice) {
+        Offer offer = mock(Offer.class);
+        when(offer.getId()).thenReturn("offer" + offerCounter++);
+        when(offer.getCurrencyCode()).thenReturn(currencyCode);
+        when(offer.getDirection()).thenReturn(direction);
+        when(offer.getPrice()).thenReturn(Price.parse(currencyCode, price));
+        when(offer.getAmount()).thenReturn(ONE_XMR.multiply(BigInteger.valueOf(amount)));
+        when(offer.isUseMarketBasedPrice()).thenReturn(useMarketBasedPrice);
+        return offer;
+    }
+}
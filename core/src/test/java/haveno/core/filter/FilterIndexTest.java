@@ -0,0 +1,148 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.filter;
+
+import com.google.common.collect.Lists;
+import haveno.core.locale.CountryUtil;
+import haveno.core.payment.payload.PaymentMethod;
+import haveno.core.payment.payload.SepaAccountPayload;
+import haveno.network.p2p.NodeAddress;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FilterIndexTest {
+    private static final int NUM_BANNED_ENTRIES = 5000;
+
+    @Test
+    public void testEmptyIndex() {
+        assertFalse(FilterIndex.EMPTY.isOfferIdBanned("offer1"));
+        assertFalse(FilterIndex.EMPTY.isNodeAddressBanned(new NodeAddress("node1.onion", 9999)));
+        assertFalse(FilterIndex.EMPTY.arePaymentAccountDataBanned(getSepaPayload("holder1")));
+    }
+
+    @Test
+    public void testBanChecks() {
+        FilterIndex index = new FilterIndex(getFilter(NUM_BANNED_ENTRIES));
+
+        assertTrue(index.isOfferIdBanned("offer0"));
+        assertTrue(index.isOfferIdBanned("offer" + (NUM_BANNED_ENTRIES - 1)));
+        assertFalse(index.isOfferIdBanned("offer" + NUM_BANNED_ENTRIES));
+        assertTrue(index.isCurrencyBanned("CUR7"));
+        assertFalse(index.isCurrencyBanned("EUR"));
+        assertTrue(index.isPaymentMethodBanned("METHOD7"));
+        assertFalse(index.isPaymentMethodBanned(PaymentMethod.SEPA_ID));
+        assertTrue(index.isWitnessSignerPubKeyBanned("signer7"));
+        assertFalse(index.isWitnessSignerPubKeyBanned("signer"));
+        assertTrue(index.isPrivilegedDevPubKeyBanned("dev7"));
+        assertTrue(index.isAutoConfExplorerBanned("explorer7"));
+
+        assertTrue(index.isNodeAddressBanned(new NodeAddress("node7.onion", 9999)));
+        assertFalse(index.isNodeAddressBanned(new NodeAddress("node7.onion", 9998)));
+        assertFalse(index.isNodeAddressBanned(new NodeAddress("node" + NUM_BANNED_ENTRIES + ".onion", 9999)));
+        assertTrue(index.isNodeAddressBannedFromNetwork(new NodeAddress("node7.onion", 9999)));
+
+        // holder names are matched case insensitive
+        assertTrue(index.arePaymentAccountDataBanned(getSepaPayload("Holder7")));
+        assertTrue(index.arePaymentAccountDataBanned(getSepaPayload("HOLDER7")));
+        assertFalse(index.arePaymentAccountDataBanned(getSepaPayload("holder" + NUM_BANNED_ENTRIES)));
+    }
+
+    @Test
+    public void testLookupMatchesScan() {
+        Filter filter = getFilter(NUM_BANNED_ENTRIES);
+        FilterIndex index = new FilterIndex(filter);
+        int numLookups = 1000;
+        List<NodeAddress> nodeAddresses = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) nodeAddresses.add(new NodeAddress("node" + (i * 10) + ".onion", 9999));
+
+        int numBannedScanned = 0;
+        for (int i = 0; i < numLookups; i++) {
+            NodeAddress nodeAddress = nodeAddresses.get(i % nodeAddresses.size());
+            if (filter.getNodeAddressesBannedFromTrading().stream().anyMatch(e -> e.equals(nodeAddress.getFullAddress()))) numBannedScanned++;
+        }
+
+        int numBannedIndexed = 0;
+        for (int i = 0; i < numLookups; i++) {
+            if (index.isNodeAddressBanned(nodeAddresses.get(i % nodeAddresses.size()))) numBannedIndexed++;
+        }
+
+        assertEquals(numBannedScanned, numBannedIndexed);
+    }
+
+    private static SepaAccountPayload getSepaPayload(String holderName) {
+        SepaAccountPayload payload = new SepaAccountPayload(PaymentMethod.SEPA_ID, "id", CountryUtil.getAllSepaCountries());
+        payload.setHolderName(holderName);
+        return payload;
+    }
+
+    private static Filter getFilter(int numEntries) {
+        List<String> offerIds = new ArrayList<>();
+        List<String> nodeAddresses = new ArrayList<>();
+        List<PaymentAccountFilter> paymentAccounts = new ArrayList<>();
+        List<String> currencies = new ArrayList<>();
+        List<String> paymentMethods = new ArrayList<>();
+        List<String> signerPubKeys = new ArrayList<>();
+        List<String> devPubKeys = new ArrayList<>();
+        List<String> explorers = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            offerIds.add("offer" + i);
+            nodeAddresses.add("node" + i + ".onion:9999");
+            paymentAccounts.add(new PaymentAccountFilter(PaymentMethod.SEPA_ID, "getHolderName", "holder" + i));
+            currencies.add("CUR" + i);
+            paymentMethods.add("METHOD" + i);
+            signerPubKeys.add("signer" + i);
+            devPubKeys.add("dev" + i);
+            explorers.add("explorer" + i);
+        }
+        Set<String> nodeAddressesBannedFromNetwork = new HashSet<>(nodeAddresses);
+        return new Filter(offerIds,
+                nodeAddresses,
+                paymentAccounts,
+                currencies,
+                paymentMethods,
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                false,
+                Lists.newArrayList(),
+                null,
+                Lists.newArrayList(),
+                Lists.newArrayList(),
+                signerPubKeys,
+                Lists.newArrayList(),
+                null,
+                0,
+                null,
+                null,
+                null,
+                devPubKeys,
+                false,
+                explorers,
+                nodeAddressesBannedFromNetwork,
+                false,
+                false);
+    }
+}
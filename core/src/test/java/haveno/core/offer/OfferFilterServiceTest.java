@@ -0,0 +1,125 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.offer;
+
+import haveno.core.account.witness.AccountAgeWitnessService;
+import haveno.core.filter.Filter;
+import haveno.core.filter.FilterManager;
+import haveno.core.user.Preferences;
+import haveno.core.user.User;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OfferFilterServiceTest {
+    private User user;
+    private FilterManager filterManager;
+    private OfferBookService offerBookService;
+    private OfferFilterService offerFilterService;
+    private Offer offer;
+
+    @Before
+    public void setUp() {
+        user = spy(new User());
+        doReturn(null).when(user).getAcceptedArbitratorByAddress(any());
+        Preferences preferences = mock(Preferences.class);
+        when(preferences.getIgnoreTradersList()).thenReturn(new ArrayList<>());
+        filterManager = mock(FilterManager.class);
+        offerBookService = mock(OfferBookService.class);
+        offerFilterService = new OfferFilterService(user,
+                preferences,
+                filterManager,
+                mock(AccountAgeWitnessService.class),
+                offerBookService);
+
+        // an offer of another protocol version fails the first check which reads the offer
+        offer = mock(Offer.class);
+        when(offer.getId()).thenReturn("offerId");
+        when(offer.getOfferPayload()).thenReturn(mock(OfferPayload.class));
+        when(offer.getProtocolVersion()).thenReturn(-1L);
+    }
+
+    @Test
+    public void testResultIsCached() {
+        assertEquals(OfferFilterService.Result.HAS_NOT_SAME_PROTOCOL_VERSION, offerFilterService.canTakeOffer(offer, false));
+        assertEquals(OfferFilterService.Result.HAS_NOT_SAME_PROTOCOL_VERSION, offerFilterService.canTakeOffer(offer, false));
+        verify(offer, times(1)).getProtocolVersion();
+
+        // the result for API users is cached separately
+        offerFilterService.canTakeOffer(offer, true);
+        verify(offer, times(2)).getProtocolVersion();
+    }
+
+    @Test
+    public void testPaymentAccountEditInvalidatesCache() {
+        offerFilterService.canTakeOffer(offer, false);
+
+        // payment accounts are edited in place and the change is persisted
+        user.requestPersistence();
+        offerFilterService.canTakeOffer(offer, false);
+        verify(offer, times(2)).getProtocolVersion();
+
+        offerFilterService.canTakeOffer(offer, false);
+        verify(offer, times(2)).getProtocolVersion();
+    }
+
+    @Test
+    public void testFilterChangeInvalidatesCache() {
+        offerFilterService.canTakeOffer(offer, false);
+
+        when(filterManager.getFilter()).thenReturn(mock(Filter.class));
+        offerFilterService.canTakeOffer(offer, false);
+        verify(offer, times(2)).getProtocolVersion();
+    }
+
+    @Test
+    public void testChangedOfferInvalidatesCache() {
+        offerFilterService.canTakeOffer(offer, false);
+
+        when(offer.isReservedFundsSpent()).thenReturn(true);
+        offerFilterService.canTakeOffer(offer, false);
+        verify(offer, times(2)).getProtocolVersion();
+
+        when(offer.getOfferPayload()).thenReturn(mock(OfferPayload.class));
+        offerFilterService.canTakeOffer(offer, false);
+        verify(offer, times(3)).getProtocolVersion();
+    }
+
+    @Test
+    public void testRemovedOfferIsDroppedFromCache() {
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> listener =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(listener.capture());
+        offerFilterService.canTakeOffer(offer, false);
+
+        listener.getValue().onRemoved(offer);
+        offerFilterService.canTakeOffer(offer, false);
+        verify(offer, times(2)).getProtocolVersion();
+    }
+}
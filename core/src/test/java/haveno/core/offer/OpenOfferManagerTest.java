@@ -9,6 +9,7 @@ import haveno.common.persistence.PersistenceManager;
 import haveno.core.api.CoreContext;
 import haveno.core.api.CoreMoneroConnectionsService;
 import haveno.core.trade.TradableList;
+import haveno.core.xmr.wallet.XmrWalletService;
 import haveno.network.p2p.P2PService;
 import haveno.network.p2p.peers.PeerManager;
 import org.junit.After;
@@ -16,10 +17,17 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.natpryce.makeiteasy.MakeItEasy.make;
+import static com.natpryce.makeiteasy.MakeItEasy.with;
 import static haveno.core.offer.OfferMaker.btcUsdOffer;
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertNull;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
@@ -184,4 +192,53 @@ public class OpenOfferManagerTest {
         assertTrue(startEditOfferSuccessful.get());
     }
 
+    @Test
+    public void testPlaceOffersSchedulesOffersWithoutWallet() throws InterruptedException {
+        P2PService p2PService = mock(P2PService.class);
+        OfferBookService offerBookService = mock(OfferBookService.class);
+        CoreMoneroConnectionsService connectionsService = mock(CoreMoneroConnectionsService.class);
+        XmrWalletService xmrWalletService = mock(XmrWalletService.class);
+
+        when(p2PService.getPeerManager()).thenReturn(mock(PeerManager.class));
+        when(xmrWalletService.getWallet()).thenReturn(null);
+
+        final OpenOfferManager manager = new OpenOfferManager(coreContext,
+                null,
+                null,
+                p2PService,
+                connectionsService,
+                null,
+                xmrWalletService,
+                null,
+                offerBookService,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                null,
+                persistenceManager,
+                signedOfferPersistenceManager,
+                null);
+
+        List<Offer> offers = List.of(make(btcUsdOffer.but(with(OfferMaker.id, "offer1"))),
+                make(btcUsdOffer.but(with(OfferMaker.id, "offer2"))),
+                make(btcUsdOffer.but(with(OfferMaker.id, "offer3"))));
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicReference<List<String>> errorMessages = new AtomicReference<>();
+        manager.placeOffers(offers, List.of(0L, 0L, 0L), result -> {
+            errorMessages.set(result);
+            latch.countDown();
+        });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(3, errorMessages.get().size());
+        errorMessages.get().forEach(errorMessage -> assertNull(errorMessage));
+        assertEquals(3, manager.getOpenOffers().size());
+        for (Offer offer : offers) {
+            assertEquals(OpenOffer.State.SCHEDULED, manager.getOpenOfferById(offer.getId()).get().getState());
+        }
+    }
 }
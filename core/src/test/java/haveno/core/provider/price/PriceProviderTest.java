@@ -0,0 +1,163 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.provider.price;
+
+import haveno.network.http.HttpClient;
+import haveno.network.http.HttpResponse;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class PriceProviderTest {
+    private StubPriceNode priceNode;
+    private PriceProvider priceProvider;
+
+    @Before
+    public void setUp() {
+        priceNode = new StubPriceNode();
+        priceProvider = new PriceProvider(priceNode, "http://localhost:8078/");
+    }
+
+    @Test
+    public void testConditionalRequests() throws IOException {
+        priceNode.setPrice("USD", 150, 1000);
+        priceNode.setPrice("EUR", 140, 1000);
+
+        Map<String, MarketPrice> prices = priceProvider.getAll();
+        assertEquals(2, prices.size());
+        assertEquals(150, prices.get("USD").getPrice(), 0);
+        assertNull(priceNode.lastHeaders.get("If-None-Match"));
+
+        // unchanged prices are not downloaded again
+        assertTrue(priceProvider.getAll().isEmpty());
+        assertEquals("\"2\"", priceNode.lastHeaders.get("If-None-Match"));
+        assertEquals(1, priceNode.numNotModified);
+
+        priceNode.setPrice("USD", 151, 1060);
+        prices = priceProvider.getAll();
+        assertEquals(2, prices.size());
+        assertEquals(151, prices.get("USD").getPrice(), 0);
+        assertEquals("getAllMarketPrices", priceNode.lastParam);
+    }
+
+    @Test
+    public void testDeltaRequests() throws IOException {
+        priceNode.supportsDelta = true;
+        priceNode.setPrice("USD", 150, 1000);
+        priceNode.setPrice("EUR", 140, 1000);
+        assertEquals(2, priceProvider.getAll().size());
+
+        priceNode.setPrice("EUR", 141, 1060);
+        Map<String, MarketPrice> prices = priceProvider.getAll();
+        assertEquals("getAllMarketPrices?since=1000", priceNode.lastParam);
+        assertEquals(1, prices.size());
+        assertEquals(141, prices.get("EUR").getPrice(), 0);
+
+        assertTrue(priceProvider.getAll().isEmpty());
+        assertEquals("getAllMarketPrices?since=1060", priceNode.lastParam);
+    }
+
+    /**
+     * Serves prices like a price node which sets an ETag per price list version and, if enabled,
+     * only returns the prices updated after the requested timestamp.
+     */
+    private static class StubPriceNode implements HttpClient {
+        private final Map<String, Object[]> prices = new LinkedHashMap<>();
+        private int version;
+        private boolean supportsDelta;
+        private int numNotModified;
+        private String lastParam;
+        private Map<String, String> lastHeaders;
+        private String baseUrl;
+
+        void setPrice(String currencyCode, double price, long timestampSec) {
+            prices.put(currencyCode, new Object[]{price, timestampSec});
+            version++;
+        }
+
+        @Override
+        public HttpResponse getConditional(String param, Map<String, String> headers) {
+            lastParam = param;
+            lastHeaders = headers;
+            String eTag = "\"" + version + "\"";
+            if (eTag.equals(headers.get("If-None-Match"))) {
+                numNotModified++;
+                return new HttpResponse(HttpResponse.NOT_MODIFIED, "", eTag, null);
+            }
+            long since = param.contains("?since=") ? Long.parseLong(param.substring(param.indexOf('=') + 1)) : 0;
+            List<String> data = new ArrayList<>();
+            prices.forEach((currencyCode, value) -> {
+                if ((long) value[1] > since) {
+                    data.add("{\"baseCurrencyCode\":\"XMR\",\"counterCurrencyCode\":\"" + currencyCode +
+                            "\",\"price\":" + value[0] + ",\"timestampSec\":" + value[1] + "}");
+                }
+            });
+            String body = "{\"supportsDelta\":" + supportsDelta + ",\"delta\":" + (since > 0) +
+                    ",\"data\":[" + data.stream().collect(Collectors.joining(",")) + "]}";
+            return new HttpResponse(HttpResponse.OK, body, eTag, null);
+        }
+
+        @Override
+        public String get(String param, String headerKey, String headerValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String post(String param, String headerKey, String headerValue) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        @Override
+        public void setIgnoreSocks5Proxy(boolean ignoreSocks5Proxy) {
+        }
+
+        @Override
+        public String getUid() {
+            return "stub";
+        }
+
+        @Override
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        @Override
+        public boolean hasPendingRequest() {
+            return false;
+        }
+
+        @Override
+        public void shutDown() {
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.provider.price;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PriceTriggerIndexTest {
+
+    private static class Trigger {
+        private final String currencyCode;
+        private final boolean isAbove;
+        private final long threshold;
+
+        private Trigger(String currencyCode, boolean isAbove, long threshold) {
+            this.currencyCode = currencyCode;
+            this.isAbove = isAbove;
+            this.threshold = threshold;
+        }
+
+        private boolean wasTriggered(String currencyCode, long price) {
+            return this.currencyCode.equals(currencyCode) && (isAbove ? price > threshold : price < threshold);
+        }
+    }
+
+    @Test
+    public void testGetTriggered() {
+        PriceTriggerIndex<String> index = new PriceTriggerIndex<>();
+        index.addAbove("USD", 110, "above110");
+        index.addAbove("USD", 120, "above120");
+        index.addBelow("USD", 90, "below90");
+        index.addBelow("USD", 80, "below80");
+        index.addAbove("EUR", 100, "eur");
+
+        assertTrue(index.getTriggered("USD", 100).isEmpty());
+        assertTrue(index.getTriggered("USD", 110).isEmpty());
+        assertEquals(Collections.singletonList("above110"), index.getTriggered("USD", 111));
+        assertEquals(Arrays.asList("above120", "above110"), index.getTriggered("USD", 130));
+        assertEquals(Arrays.asList("below80", "below90"), index.getTriggered("USD", 70));
+        assertTrue(index.getTriggered("GBP", 70).isEmpty());
+
+        assertTrue(index.remove("above120"));
+        assertFalse(index.remove("above120"));
+        assertEquals(Collections.singletonList("above110"), index.getTriggered("USD", 130));
+        assertTrue(index.remove("eur"));
+        assertFalse(index.getKeys().contains("EUR"));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testItemWithSeveralThresholds() {
+        PriceTriggerIndex<String> index = new PriceTriggerIndex<>();
+        index.addAbove("USD", 120, "alert");
+        index.addBelow("USD", 80, "alert");
+        assertEquals(1, index.size());
+        assertEquals(Collections.singletonList("alert"), index.getTriggered("USD", 121));
+        assertEquals(Collections.singletonList("alert"), index.getTriggered("USD", 79));
+        assertTrue(index.remove("alert"));
+        assertTrue(index.getKeys().isEmpty());
+    }
+
+    @Test
+    public void testIndexMatchesScan() {
+        int numTriggers = 10_000;
+        String[] currencyCodes = {"USD", "EUR", "GBP", "CAD", "AUD"};
+        Random random = new Random(1);
+        List<Trigger> triggers = new ArrayList<>();
+        PriceTriggerIndex<Trigger> index = new PriceTriggerIndex<>();
+        for (int i = 0; i < numTriggers; i++) {
+            boolean isAbove = random.nextBoolean();
+            Trigger trigger = new Trigger(currencyCodes[random.nextInt(currencyCodes.length)],
+                    isAbove,
+                    isAbove ? 1_500_000 + random.nextInt(500_000) : 1_500_000 - random.nextInt(500_000));
+            triggers.add(trigger);
+            if (trigger.isAbove) index.addAbove(trigger.currencyCode, trigger.threshold, trigger);
+            else index.addBelow(trigger.currencyCode, trigger.threshold, trigger);
+        }
+
+        // price ticks around the current price, which only cross a few thresholds each
+        int numTicks = 1000;
+        long[] prices = new long[numTicks];
+        for (int i = 0; i < numTicks; i++) {
+            prices[i] = 1_500_000 + random.nextInt(2000) - 1000;
+        }
+
+        long scanResult = 0;
+        for (long price : prices) {
+            for (String currencyCode : currencyCodes) {
+                for (Trigger trigger : triggers) {
+                    if (trigger.wasTriggered(currencyCode, price)) scanResult++;
+                }
+            }
+        }
+
+        // the index only visits the triggered ones
+        long indexResult = 0;
+        for (long price : prices) {
+            for (String currencyCode : currencyCodes) {
+                indexResult += index.getTriggered(currencyCode, price).size();
+            }
+        }
+
+        assertEquals(scanResult, indexResult);
+    }
+}
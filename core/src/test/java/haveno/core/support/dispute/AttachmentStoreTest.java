@@ -0,0 +1,244 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.support.dispute;
+
+import haveno.common.crypto.CryptoException;
+import haveno.common.crypto.Hash;
+import haveno.common.crypto.KeyRing;
+import haveno.common.crypto.KeyStorage;
+import haveno.common.crypto.SealedAndSigned;
+import haveno.common.file.FileUtil;
+import haveno.core.support.SupportType;
+import haveno.core.support.dispute.messages.AttachmentChunkMessage;
+import haveno.core.support.messages.ChatMessage;
+import haveno.network.crypto.EncryptionService;
+import haveno.network.p2p.NodeAddress;
+import haveno.network.p2p.PrefixedSealedAndSignedMessage;
+import haveno.network.p2p.network.Connection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class AttachmentStoreTest {
+    private File storageDir;
+    private KeyRing keyRing;
+    private AttachmentStore store;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("storage").toFile();
+        keyRing = new KeyRing(new KeyStorage(storageDir), null, true);
+        store = new AttachmentStore(storageDir, keyRing);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testStoreAndLoad() {
+        byte[] bytes = randomBytes(1000);
+        Attachment reference = store.store(new Attachment("file.txt", bytes));
+
+        assertTrue(reference.isStoredOutOfBand());
+        assertNull(reference.getBytes());
+        assertEquals(bytes.length, reference.getSize());
+        assertArrayEquals(Hash.getSha256Hash(bytes), reference.getHash());
+        assertArrayEquals(bytes, store.getBytes(reference));
+        assertSame(reference, store.store(reference));
+
+        // reference survives serialization without content
+        Attachment fromProto = Attachment.fromProto(reference.toProtoMessage());
+        assertTrue(fromProto.isStoredOutOfBand());
+        assertArrayEquals(bytes, store.getBytes(fromProto));
+    }
+
+    @Test
+    public void testInlineAttachmentIsKeptIfStoreFails() {
+        keyRing.lockKeys();
+        Attachment attachment = new Attachment("file.txt", randomBytes(10));
+
+        assertSame(attachment, store.store(attachment));
+    }
+
+    @Test
+    public void testReplaceAttachments() {
+        byte[] bytes = randomBytes(100);
+        ArrayList<Attachment> attachments = new ArrayList<>();
+        attachments.add(new Attachment("file.txt", bytes));
+        ChatMessage chatMessage = new ChatMessage(SupportType.ARBITRATION, "tradeId", 0, true, "message",
+                new NodeAddress("sender.onion:9999"), attachments);
+
+        assertTrue(chatMessage.replaceAttachments(store::store));
+        assertFalse(chatMessage.replaceAttachments(store::store));
+        assertTrue(chatMessage.getAttachments().get(0).isStoredOutOfBand());
+        assertTrue(chatMessage.toProtoNetworkEnvelope().getChatMessage().getAttachments(0).getBytes().isEmpty());
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        byte[] bytes = randomBytes(AttachmentStore.CHUNK_SIZE * 2 + 1);
+        Attachment reference = store.store(new Attachment("file.bin", bytes));
+        List<byte[]> chunks = store.getChunks(reference);
+        assertEquals(3, chunks.size());
+        assertEquals(1, chunks.get(2).length);
+
+        File peerStorageDir = Files.createTempDirectory("peer").toFile();
+        try {
+            AttachmentStore peerStore = new AttachmentStore(peerStorageDir, new KeyRing(new KeyStorage(peerStorageDir), null, true));
+            byte[] hash = reference.getHash();
+            assertNull(peerStore.getBytes(reference));
+
+            // chunks may arrive in any order
+            long size = reference.getSize();
+            assertFalse(peerStore.addChunk(hash, size, 2, chunks.size(), chunks.get(2)));
+            assertFalse(peerStore.addChunk(hash, size, 0, chunks.size(), chunks.get(0)));
+            assertTrue(peerStore.addChunk(hash, size, 1, chunks.size(), chunks.get(1)));
+            assertArrayEquals(bytes, peerStore.getBytes(reference));
+            assertEquals(1, new File(peerStorageDir, "attachments").list().length);
+        } finally {
+            FileUtil.deleteDirectory(peerStorageDir);
+        }
+    }
+
+    @Test
+    public void testChunksNotMatchingHashAreDropped() {
+        byte[] hash = Hash.getSha256Hash(randomBytes(10));
+
+        assertFalse(store.addChunk(hash, 10, 0, 1, randomBytes(10)));
+        assertFalse(store.contains(hash));
+        assertEquals(0, new File(storageDir, "attachments").list().length);
+    }
+
+    @Test
+    public void testChunksNotMatchingSizeAreDropped() {
+        byte[] bytes = randomBytes(10);
+        byte[] hash = Hash.getSha256Hash(bytes);
+
+        assertFalse(store.addChunk(hash, 11, 0, 1, bytes));
+        assertFalse(store.contains(hash));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOversizedChunkIsRejected() {
+        store.addChunk(Hash.getSha256Hash(new byte[0]), AttachmentStore.CHUNK_SIZE, 0, 1, new byte[AttachmentStore.CHUNK_SIZE + 1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNumChunksNotMatchingSizeIsRejected() {
+        store.addChunk(Hash.getSha256Hash(new byte[0]), 10, 0, 2, randomBytes(10));
+    }
+
+    @Test
+    public void testDeletePartFiles() {
+        byte[] hash = Hash.getSha256Hash(randomBytes(10));
+        File dir = new File(storageDir, "attachments");
+
+        assertFalse(store.addChunk(hash, AttachmentStore.CHUNK_SIZE + 1, 0, 2, randomBytes(AttachmentStore.CHUNK_SIZE)));
+        assertEquals(1, dir.list().length);
+        assertEquals(0, store.deleteStalePartFiles(TimeUnit.DAYS.toMillis(1)));
+        assertEquals(1, dir.list().length);
+
+        store.deletePartFiles(hash);
+        assertEquals(0, dir.list().length);
+
+        assertFalse(store.addChunk(hash, AttachmentStore.CHUNK_SIZE + 1, 1, 2, randomBytes(1)));
+        assertTrue(dir.listFiles()[0].setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2)));
+        assertEquals(1, store.deleteStalePartFiles(TimeUnit.DAYS.toMillis(1)));
+        assertEquals(0, dir.list().length);
+    }
+
+    @Test
+    public void testEarlyChunks() {
+        byte[] bytes = randomBytes(AttachmentStore.CHUNK_SIZE * 2 + 1);
+        byte[] hash = Hash.getSha256Hash(bytes);
+        File earlyDir = new File(storageDir, "attachments/early");
+
+        // chunks arrive before the chat message, one of them claims a wrong number of chunks
+        assertTrue(store.addEarlyChunk("tradeId", hash, 0, 3, Arrays.copyOfRange(bytes, 0, AttachmentStore.CHUNK_SIZE)));
+        assertTrue(store.addEarlyChunk("tradeId", hash, 3, 4, randomBytes(10)));
+        assertEquals(2, earlyDir.listFiles()[0].list().length);
+
+        assertFalse(store.addEarlyChunks("tradeId", hash, bytes.length));
+        assertEquals(0, earlyDir.list().length);
+        assertFalse(store.addChunk(hash, bytes.length, 2, 3, Arrays.copyOfRange(bytes, AttachmentStore.CHUNK_SIZE * 2, bytes.length)));
+        assertTrue(store.addChunk(hash, bytes.length, 1, 3, Arrays.copyOfRange(bytes, AttachmentStore.CHUNK_SIZE, AttachmentStore.CHUNK_SIZE * 2)));
+        assertArrayEquals(bytes, store.getBytes(Attachment.reference("file.bin", hash, bytes.length)));
+    }
+
+    @Test
+    public void testEarlyChunksAreBounded() {
+        byte[] hash = Hash.getSha256Hash(randomBytes(10));
+        for (int i = 0; i < AttachmentStore.MAX_EARLY_CHUNKS_PER_TRADE; i++) {
+            assertTrue(store.addEarlyChunk("tradeId", Hash.getSha256Hash(new byte[]{(byte) i, (byte) (i >> 8)}), 0, 1, randomBytes(1)));
+        }
+        assertFalse(store.addEarlyChunk("tradeId", hash, 0, 1, randomBytes(1)));
+        assertTrue(store.addEarlyChunk("otherTradeId", hash, 0, 1, randomBytes(1)));
+
+        assertEquals(0, store.deleteStaleEarlyChunks(TimeUnit.DAYS.toMillis(1)));
+        for (File tradeDir : new File(storageDir, "attachments/early").listFiles()) {
+            for (File partFile : tradeDir.listFiles()) {
+                assertTrue(partFile.setLastModified(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2)));
+            }
+        }
+        assertEquals(AttachmentStore.MAX_EARLY_CHUNKS_PER_TRADE + 1, store.deleteStaleEarlyChunks(TimeUnit.DAYS.toMillis(1)));
+        assertEquals(0, new File(storageDir, "attachments/early").list().length);
+    }
+
+    @Test
+    public void testSealedChunkMessageFitsPermittedMessageSize() throws CryptoException {
+        AttachmentChunkMessage chunkMessage = new AttachmentChunkMessage("tradeId",
+                new NodeAddress("sender.onion:9999"),
+                SupportType.ARBITRATION,
+                Hash.getSha256Hash(new byte[0]),
+                AttachmentStore.MAX_NUM_CHUNKS - 1,
+                AttachmentStore.MAX_NUM_CHUNKS,
+                randomBytes(AttachmentStore.CHUNK_SIZE));
+        assertTrue(chunkMessage.toProtoNetworkEnvelope().getSerializedSize() < Connection.getPermittedMessageSize());
+
+        SealedAndSigned sealedAndSigned = EncryptionService.encryptHybridWithSignature(chunkMessage,
+                keyRing.getSignatureKeyPair(),
+                keyRing.getEncryptionKeyPair().getPublic());
+        PrefixedSealedAndSignedMessage sealedMessage = new PrefixedSealedAndSignedMessage(new NodeAddress("sender.onion:9999"),
+                sealedAndSigned);
+        assertTrue(sealedMessage.toProtoNetworkEnvelope().getSerializedSize() < Connection.getPermittedMessageSize());
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
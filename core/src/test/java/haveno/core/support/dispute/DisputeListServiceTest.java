@@ -0,0 +1,174 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.support.dispute;
+
+import haveno.common.persistence.PersistenceManager;
+import haveno.core.support.dispute.arbitration.ArbitrationDisputeListService;
+import haveno.core.support.messages.ChatMessage;
+import haveno.core.trade.Contract;
+import haveno.network.p2p.NodeAddress;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DisputeListServiceTest {
+
+    private final NodeAddress buyer = new NodeAddress("buyer.onion:9999");
+    private final NodeAddress seller = new NodeAddress("seller.onion:9999");
+    private ArbitrationDisputeListService disputeListService;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        disputeListService = new ArbitrationDisputeListService(mock(PersistenceManager.class));
+    }
+
+    @Test
+    public void testLookups() {
+        Dispute buyerDispute = dispute("trade1", 0, buyer, seller);
+        Dispute sellerDispute = dispute("trade1", 1, buyer, seller);
+        Dispute otherDispute = dispute("trade2", 0, buyer, new NodeAddress("other.onion:9999"));
+        disputeListService.getDisputeList().add(buyerDispute);
+        disputeListService.getDisputeList().add(sellerDispute);
+        disputeListService.getDisputeList().add(otherDispute);
+
+        assertEquals(asList(buyerDispute, sellerDispute), disputeListService.findDisputes("trade1"));
+        assertSame(sellerDispute, disputeListService.findDispute("trade1", 1).orElseThrow());
+        assertFalse(disputeListService.findDispute("trade1", 2).isPresent());
+        assertSame(otherDispute, disputeListService.findDisputeById("trade2_0").orElseThrow());
+        assertEquals("3", disputeListService.getNrOfDisputes(true, buyerDispute.getContract()));
+        assertEquals("2", disputeListService.getNrOfDisputes(false, buyerDispute.getContract()));
+
+        disputeListService.getDisputeList().remove(buyerDispute);
+        assertEquals(asList(sellerDispute), disputeListService.findDisputes("trade1"));
+        assertFalse(disputeListService.findDisputeById("trade1_0").isPresent());
+        assertEquals("2", disputeListService.getNrOfDisputes(true, buyerDispute.getContract()));
+    }
+
+    @Test
+    public void testChatMessages() {
+        Dispute dispute = dispute("trade1", 0, buyer, seller);
+        ChatMessage persistedMessage = chatMessage("uid1");
+        dispute.getChatMessages().add(persistedMessage);
+        disputeListService.getDisputeList().setAll(asList(dispute));
+        assertTrue(disputeListService.hasChatMessage(dispute, "uid1"));
+
+        // chat messages added to a listed dispute are indexed as well
+        ChatMessage message = chatMessage("uid2");
+        dispute.getChatMessages().add(message);
+        assertTrue(disputeListService.hasChatMessage(dispute, "uid2"));
+        assertEquals(asList(message), disputeListService.findChatMessages("uid2"));
+
+        dispute.getChatMessages().remove(message);
+        assertFalse(disputeListService.hasChatMessage(dispute, "uid2"));
+        assertTrue(disputeListService.findChatMessages("uid2").isEmpty());
+
+        disputeListService.getDisputeList().setAll(new ArrayList<>());
+        assertFalse(disputeListService.hasChatMessage(dispute, "uid1"));
+        assertTrue(disputeListService.findChatMessages("uid1").isEmpty());
+    }
+
+    @Test
+    public void testNumOpenDisputes() {
+        Dispute dispute1 = dispute("trade1", 0, buyer, seller);
+        Dispute dispute2 = dispute("trade2", 0, buyer, seller);
+        ((SimpleIntegerProperty) dispute1.getBadgeCountProperty()).set(1);
+        disputeListService.getDisputeList().add(dispute1);
+        disputeListService.onAllServicesInitialized();
+        assertEquals(1, disputeListService.getNumOpenDisputes().get());
+
+        disputeListService.getDisputeList().add(dispute2);
+        ((SimpleIntegerProperty) dispute2.getBadgeCountProperty()).set(1);
+        assertEquals(2, disputeListService.getNumOpenDisputes().get());
+        ((SimpleIntegerProperty) dispute1.getBadgeCountProperty()).set(0);
+        assertEquals(1, disputeListService.getNumOpenDisputes().get());
+    }
+
+    @Test
+    public void testIndexMatchesScan() {
+        int numDisputes = 1000;
+        int numChatMessages = 5;
+        List<Dispute> disputes = new ArrayList<>();
+        for (int i = 0; i < numDisputes; i++) {
+            Dispute dispute = dispute("trade" + i / 2, i % 2, new NodeAddress("buyer" + i + ".onion:9999"), seller);
+            for (int j = 0; j < numChatMessages; j++) {
+                dispute.getChatMessages().add(chatMessage("uid" + i + "_" + j));
+            }
+            disputes.add(dispute);
+        }
+        disputeListService.getDisputeList().setAll(disputes);
+
+        // look up the dispute and check for a duplicate for each incoming chat message
+        int scanResult = 0;
+        for (int i = 0; i < numDisputes; i++) {
+            String tradeId = "trade" + i / 2;
+            int traderId = i % 2;
+            String uid = "uid" + i + "_" + (numChatMessages - 1);
+            Dispute dispute = disputes.stream()
+                    .filter(e -> e.getTradeId().equals(tradeId) && e.getTraderId() == traderId)
+                    .findAny()
+                    .orElseThrow();
+            if (dispute.getChatMessages().stream().anyMatch(m -> m.getUid().equals(uid))) scanResult++;
+        }
+
+        int indexResult = 0;
+        for (int i = 0; i < numDisputes; i++) {
+            Dispute dispute = disputeListService.findDispute("trade" + i / 2, i % 2).orElseThrow();
+            if (disputeListService.hasChatMessage(dispute, "uid" + i + "_" + (numChatMessages - 1))) indexResult++;
+        }
+
+        assertEquals(numDisputes, scanResult);
+        assertEquals(scanResult, indexResult);
+    }
+
+    private static Dispute dispute(String tradeId, int traderId, NodeAddress buyer, NodeAddress seller) {
+        Contract contract = mock(Contract.class);
+        when(contract.getBuyerNodeAddress()).thenReturn(buyer);
+        when(contract.getSellerNodeAddress()).thenReturn(seller);
+        ObservableList<ChatMessage> chatMessages = FXCollections.observableArrayList();
+        SimpleIntegerProperty badgeCountProperty = new SimpleIntegerProperty();
+        Dispute dispute = mock(Dispute.class);
+        when(dispute.getTradeId()).thenReturn(tradeId);
+        when(dispute.getTraderId()).thenReturn(traderId);
+        when(dispute.getId()).thenReturn(tradeId + "_" + traderId);
+        when(dispute.getUid()).thenReturn(tradeId + "_" + traderId + "_uid");
+        when(dispute.getContract()).thenReturn(contract);
+        when(dispute.getChatMessages()).thenReturn(chatMessages);
+        when(dispute.getBadgeCountProperty()).thenReturn(badgeCountProperty);
+        return dispute;
+    }
+
+    private static ChatMessage chatMessage(String uid) {
+        ChatMessage chatMessage = mock(ChatMessage.class);
+        when(chatMessage.getUid()).thenReturn(uid);
+        return chatMessage;
+    }
+}
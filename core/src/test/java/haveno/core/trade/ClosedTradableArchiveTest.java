@@ -0,0 +1,240 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import haveno.common.persistence.PersistenceManager;
+import haveno.common.proto.persistable.PersistableList;
+import haveno.common.proto.persistable.PersistablePayload;
+import haveno.core.offer.OpenOffer;
+import haveno.network.p2p.NodeAddress;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class ClosedTradableArchiveTest {
+
+    private final NodeAddress peer = new NodeAddress("peer.onion:9999");
+    // content of the persisted files by file name
+    private final Map<String, List<PersistablePayload>> files = new HashMap<>();
+    private final Map<String, Tradable> tradables = new HashMap<>();
+    private final AtomicInteger numSegmentReads = new AtomicInteger();
+    private boolean failWrites;
+
+    @Before
+    public void setUp() {
+        files.clear();
+        tradables.clear();
+    }
+
+    @Test
+    public void testArchive() {
+        ClosedTradableArchive archive = createArchive();
+        List<Tradable> toArchive = new ArrayList<>();
+        for (int i = 0; i < ClosedTradableArchive.SEGMENT_SIZE + 100; i++) {
+            toArchive.add(trade("trade" + i, i * 1000L));
+        }
+        AtomicBoolean archived = new AtomicBoolean();
+        archive.add(toArchive, Instant.EPOCH, () -> archived.set(true));
+
+        assertTrue(archived.get());
+        assertEquals(toArchive.size(), archive.size());
+        assertEquals(toArchive.size(), archive.getNumTradesWithPeer(peer));
+        assertTrue(files.containsKey(ClosedTradableArchive.SEGMENT_FILE_NAME_PREFIX + "0"));
+        assertTrue(files.containsKey(ClosedTradableArchive.SEGMENT_FILE_NAME_PREFIX + "1"));
+
+        // summaries are available without loading segments
+        numSegmentReads.set(0);
+        List<ClosedTradableSummary> page = archive.getTradeSummaries(null, 2);
+        assertEquals(asList("trade599", "trade598"), ids(page));
+        page = archive.getTradeSummaries(new ClosedTradableManager.HistoryKey(page.get(1).getDate(), page.get(1).getId()), 1);
+        assertEquals(asList("trade597"), ids(page));
+        assertEquals(0, numSegmentReads.get());
+
+        // segments are loaded on demand
+        assertEquals(tradables.get("trade1"), archive.getTradable("trade1").orElseThrow());
+        assertEquals(tradables.get("trade2"), archive.getTradable("trade2").orElseThrow());
+        assertEquals(1, numSegmentReads.get());
+        assertFalse(archive.getTradable("unknown").isPresent());
+        assertEquals(1, numSegmentReads.get());
+    }
+
+    @Test
+    public void testReadPersisted() {
+        ClosedTradableArchive archive = createArchive();
+        archive.add(asList(trade("trade1", 1000), trade("trade2", 2000)), Instant.EPOCH, () -> {});
+
+        archive = createArchive();
+        AtomicBoolean completed = new AtomicBoolean();
+        archive.readPersisted(() -> completed.set(true));
+        assertTrue(completed.get());
+        assertTrue(archive.contains("trade1"));
+        assertEquals(2, archive.getNumTradesWithPeer(peer));
+        assertEquals(tradables.get("trade2"), archive.getTradable("trade2").orElseThrow());
+
+        // new segments do not overwrite persisted ones
+        archive.add(asList(trade("trade3", 3000)), Instant.EPOCH, () -> {});
+        assertTrue(files.containsKey(ClosedTradableArchive.SEGMENT_FILE_NAME_PREFIX + "1"));
+        assertEquals(asList("trade3", "trade2", "trade1"), ids(archive.getTradeSummaries(null, 0)));
+    }
+
+    @Test
+    public void testRemove() {
+        ClosedTradableArchive archive = createArchive();
+        archive.add(asList(trade("trade1", 1000), trade("trade2", 2000)), Instant.EPOCH, () -> {});
+
+        assertTrue(archive.remove(tradables.get("trade1")));
+        assertFalse(archive.contains("trade1"));
+        assertEquals(1, archive.getNumTradesWithPeer(peer));
+        assertEquals(1, files.get(ClosedTradableArchive.SEGMENT_FILE_NAME_PREFIX + "0").size());
+        assertFalse(archive.remove(tradables.get("trade1")));
+    }
+
+    @Test
+    public void testSummaries() {
+        ClosedTradableArchive archive = createArchive();
+        Trade trade1 = trade("trade1", 1000);
+        when(trade1.getPayoutTxId()).thenReturn("payoutTx1");
+        when(trade1.getCounterCurrencyExtraData()).thenReturn("txKey1");
+        OpenOffer openOffer = mock(OpenOffer.class);
+        when(openOffer.getId()).thenReturn("offer1");
+        when(openOffer.getDate()).thenReturn(new Date(1500));
+        archive.add(asList(trade1, openOffer, trade("trade2", 2000)), Instant.EPOCH, () -> {});
+
+        // lists and lookups by tx id do not load segments
+        numSegmentReads.set(0);
+        assertEquals(asList("trade2", "offer1", "trade1"), ids(archive.getSummaries(null, 0, summary -> true)));
+        assertEquals(asList("trade2", "trade1"), ids(archive.getTradeSummaries(null, 0)));
+        ClosedTradableSummary summary = archive.getSummaryByTxId("payoutTx1").orElseThrow();
+        assertEquals("trade1", summary.getId());
+        assertEquals("txKey1", summary.getCounterCurrencyExtraData());
+        assertEquals(0, numSegmentReads.get());
+
+        archive.remove(trade1);
+        assertFalse(archive.getSummaryByTxId("payoutTx1").isPresent());
+    }
+
+    @Test
+    public void testMaybeClearSensitiveData() {
+        ClosedTradableArchive archive = createArchive();
+        archive.add(asList(trade("trade1", 1000), trade("trade2", 2000)), Instant.EPOCH, () -> {});
+        archive.add(asList(trade("trade3", 3000)), Instant.EPOCH, () -> {});
+
+        numSegmentReads.set(0);
+        archive.maybeClearSensitiveData(Instant.ofEpochMilli(1500));
+        verify((Trade) tradables.get("trade1")).maybeClearSensitiveData();
+        verify((Trade) tradables.get("trade2"), never()).maybeClearSensitiveData();
+        assertTrue(archive.getSummary("trade1").orElseThrow().isSensitiveDataCleared());
+        assertEquals(1, numSegmentReads.get());
+
+        // cleared trades are not read again
+        archive.maybeClearSensitiveData(Instant.ofEpochMilli(1500));
+        verify((Trade) tradables.get("trade1")).maybeClearSensitiveData();
+        assertEquals(1, numSegmentReads.get());
+
+        // trades archived after their data was cleared are not read either
+        archive.add(asList(trade("trade0", 500)), Instant.ofEpochMilli(1500), () -> {});
+        archive.maybeClearSensitiveData(Instant.ofEpochMilli(1500));
+        verify((Trade) tradables.get("trade0"), never()).maybeClearSensitiveData();
+        assertEquals(1, numSegmentReads.get());
+    }
+
+    @Test
+    public void testFailedWrite() {
+        ClosedTradableArchive archive = createArchive();
+        failWrites = true;
+        AtomicBoolean archived = new AtomicBoolean();
+        archive.add(asList(trade("trade1", 1000)), Instant.EPOCH, () -> archived.set(true));
+
+        // tradables must stay in the hot tier if the segment could not be written
+        assertFalse(archived.get());
+        assertFalse(archive.contains("trade1"));
+    }
+
+    private ClosedTradableArchive createArchive() {
+        return new ClosedTradableArchive(null, persistenceManager(), this::persistenceManager);
+    }
+
+    private PersistenceManager persistenceManager() {
+        PersistenceManager persistenceManager = mock(PersistenceManager.class);
+        AtomicReference<PersistableList> persistable = new AtomicReference<>();
+        AtomicReference<String> fileName = new AtomicReference<>();
+        doAnswer(invocation -> {
+            persistable.set(invocation.getArgument(0));
+            fileName.set(invocation.getArgument(1));
+            return null;
+        }).when(persistenceManager).initialize(any(), anyString(), any());
+        doAnswer(invocation -> {
+            if (!failWrites) files.put(fileName.get(), new ArrayList<>(persistable.get().getList()));
+            Runnable completeHandler = invocation.getArgument(0);
+            if (completeHandler != null) completeHandler.run();
+            return null;
+        }).when(persistenceManager).persistNow(any());
+        when(persistenceManager.getPersisted()).thenAnswer(invocation -> {
+            if (!fileName.get().equals(ClosedTradableArchive.SUMMARIES_FILE_NAME)) numSegmentReads.incrementAndGet();
+            List<PersistablePayload> content = files.get(fileName.get());
+            return content == null ? null : new TradableList(content);
+        });
+        doAnswer(invocation -> {
+            List<PersistablePayload> content = files.get(fileName.get());
+            if (content == null) {
+                ((Runnable) invocation.getArgument(1)).run();
+            } else {
+                ((Consumer) invocation.getArgument(0)).accept(new ClosedTradableSummaryList((List) content));
+            }
+            return null;
+        }).when(persistenceManager).readPersisted(any(Consumer.class), any(Runnable.class));
+        return persistenceManager;
+    }
+
+    private Trade trade(String id, long date) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(id);
+        when(trade.getDate()).thenReturn(new Date(date));
+        when(trade.getTradePeerNodeAddress()).thenReturn(peer);
+        tradables.put(id, trade);
+        return trade;
+    }
+
+    private static List<String> ids(List<ClosedTradableSummary> summaries) {
+        return summaries.stream().map(ClosedTradableSummary::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.trade;
+
+import haveno.common.persistence.PersistenceManager;
+import haveno.core.user.Preferences;
+import haveno.network.p2p.NodeAddress;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+public class ClosedTradableManagerTest {
+
+    private final NodeAddress peer = new NodeAddress("peer.onion:9999");
+    private ClosedTradableArchive archive;
+    private ClosedTradableManager closedTradableManager;
+
+    @Before
+    public void setUp() {
+        Preferences preferences = mock(Preferences.class);
+        when(preferences.getClearDataAfterDays()).thenReturn(20);
+        archive = mock(ClosedTradableArchive.class);
+        closedTradableManager = new ClosedTradableManager(null,
+                null,
+                preferences,
+                null,
+                mock(PersistenceManager.class),
+                null,
+                archive);
+    }
+
+    @Test
+    public void testLookups() {
+        Trade trade1 = trade("1", 1000, peer);
+        Trade trade2 = trade("2", 2000, peer);
+        Trade trade3 = trade("3", 3000, new NodeAddress("other.onion:9999"));
+        closedTradableManager.add(trade1);
+        closedTradableManager.add(trade2);
+        closedTradableManager.add(trade3);
+        closedTradableManager.add(trade2);
+
+        assertEquals(asList(trade1, trade2, trade3), closedTradableManager.getClosedTrades());
+        assertSame(trade2, closedTradableManager.getTradableById("2").orElseThrow());
+        assertSame(trade3, closedTradableManager.getTradeById("3").orElseThrow());
+        assertFalse(closedTradableManager.getTradableById("4").isPresent());
+        assertEquals(2, closedTradableManager.getNumPastTrades(trade1));
+        assertTrue(closedTradableManager.canTradeHaveSensitiveDataCleared("1"));
+
+        closedTradableManager.remove(trade1);
+        assertEquals(asList(trade2, trade3), closedTradableManager.getClosedTrades());
+        assertFalse(closedTradableManager.getTradableById("1").isPresent());
+        assertEquals(1, closedTradableManager.getNumPastTrades(trade2));
+        assertFalse(closedTradableManager.canTradeHaveSensitiveDataCleared("1"));
+    }
+
+    @Test
+    public void testPaging() {
+        closedTradableManager.add(trade("a", 1000, peer));
+        closedTradableManager.add(trade("c", 3000, peer));
+        closedTradableManager.add(trade("b", 2000, peer));
+        closedTradableManager.add(trade("d", 2000, peer));
+
+        List<Trade> page = closedTradableManager.getClosedTrades(0, null, 2);
+        assertEquals(asList("c", "b"), ids(page));
+        Trade last = page.get(1);
+        page = closedTradableManager.getClosedTrades(last.getDate().getTime(), last.getId(), 2);
+        assertEquals(asList("d", "a"), ids(page));
+        last = page.get(1);
+        assertTrue(closedTradableManager.getClosedTrades(last.getDate().getTime(), last.getId(), 2).isEmpty());
+        assertEquals(asList("c", "b", "d", "a"), ids(closedTradableManager.getClosedTrades(0, null, 0)));
+    }
+
+    @Test
+    public void testArchivedTradables() {
+        Trade recentTrade = trade("recent", 2000, peer);
+        Trade archivedTrade = trade("archived", 1000, peer);
+        closedTradableManager.add(recentTrade);
+        ClosedTradableSummary recentSummary = ClosedTradableSummary.from(trade("recent", 2000, peer), 0, false);
+        ClosedTradableSummary archivedSummary = ClosedTradableSummary.from(archivedTrade, 0, false);
+        // a trade which is still in the recent tier after a failed archiving is listed once
+        when(archive.getSummaries(isNull(), eq(10), any())).thenAnswer(invocation -> {
+            Predicate<ClosedTradableSummary> filter = invocation.getArgument(2);
+            return Stream.of(recentSummary, archivedSummary).filter(filter).collect(Collectors.toList());
+        });
+        when(archive.getTradable("archived")).thenReturn(Optional.of(archivedTrade));
+        when(archive.getSummaryByTxId("payoutTx")).thenReturn(Optional.of(archivedSummary));
+        when(archive.getSummaryByTxId("recentPayoutTx")).thenReturn(Optional.of(recentSummary));
+        when(archive.getNumTradesWithPeer(peer)).thenReturn(1);
+
+        assertEquals(asList(recentTrade), closedTradableManager.getClosedTrades());
+        assertEquals(asList(archivedTrade), closedTradableManager.getArchivedTradables(0, null, 10));
+        assertSame(archivedTrade, closedTradableManager.getArchivedTradableByTxId("payoutTx").orElseThrow());
+        assertFalse(closedTradableManager.getArchivedTradableByTxId("recentPayoutTx").isPresent());
+        assertEquals(2, closedTradableManager.getNumTradesWithPeer(peer));
+        verify(archive, never()).getTradable("recent");
+    }
+
+    @Test
+    public void testSensitiveDataIsClearedInArchive() {
+        closedTradableManager.maybeClearSensitiveData();
+
+        verify(archive).maybeClearSensitiveData(any(Instant.class));
+    }
+
+    private static List<String> ids(List<Trade> trades) {
+        return trades.stream().map(Trade::getId).collect(Collectors.toList());
+    }
+
+    private static Trade trade(String id, long date, NodeAddress peer) {
+        Trade trade = mock(Trade.class);
+        when(trade.getId()).thenReturn(id);
+        when(trade.getDate()).thenReturn(new Date(date));
+        when(trade.getTradePeerNodeAddress()).thenReturn(peer);
+        return trade;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import haveno.core.monetary.Price;
+import haveno.core.payment.payload.PaymentMethod;
+import org.bitcoinj.core.Coin;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsCandleStoreTest {
+    private static final long DATE = Instant.parse("2023-03-15T10:01:00Z").toEpochMilli();
+    private static final long DAY = 24 * 60 * 60 * 1000L;
+
+    @Test
+    public void testCandle() {
+        TradeStatisticsCandleStore store = new TradeStatisticsCandleStore(ZoneOffset.UTC);
+        // added out of order, open and close are defined by the trade date
+        store.add(getTradeStatistics("EUR", "600", "1", DATE + 200));
+        store.add(getTradeStatistics("EUR", "520", "1", DATE));
+        store.add(getTradeStatistics("EUR", "580", "1", DATE + 300));
+        store.add(getTradeStatistics("EUR", "500", "1", DATE + 100));
+        store.add(getTradeStatistics("USD", "700", "1", DATE));
+
+        List<Candle> candles = store.getCandles("EUR", TickUnit.DAY, 0, 0);
+        assertEquals(1, candles.size());
+        Candle candle = candles.get(0);
+        assertEquals(Instant.parse("2023-03-15T00:00:00Z").toEpochMilli(), candle.getDate());
+        assertEquals(Price.parse("EUR", "520").getValue(), candle.getOpen());
+        assertEquals(Price.parse("EUR", "580").getValue(), candle.getClose());
+        assertEquals(Price.parse("EUR", "600").getValue(), candle.getHigh());
+        assertEquals(Price.parse("EUR", "500").getValue(), candle.getLow());
+        assertEquals(Price.parse("EUR", "550").getValue(), candle.getAveragePrice(false));
+        assertEquals(Coin.parseCoin("4").getValue(), candle.getAccumulatedAmount());
+        assertEquals(4, candle.getNumTrades());
+
+        assertEquals(Instant.parse("2023-03-15T10:00:00Z").toEpochMilli(), store.getCandles("EUR", TickUnit.MINUTE_10, 0, 0).get(0).getDate());
+        assertEquals(Instant.parse("2023-03-13T00:00:00Z").toEpochMilli(), store.getCandles("EUR", TickUnit.WEEK, 0, 0).get(0).getDate());
+        assertTrue(store.getCandles("GBP", TickUnit.DAY, 0, 0).isEmpty());
+    }
+
+    @Test
+    public void testDateRange() {
+        TradeStatisticsCandleStore store = new TradeStatisticsCandleStore(ZoneOffset.UTC);
+        for (int i = 0; i < 10; i++) store.add(getTradeStatistics("EUR", "500", "1", DATE + i * DAY));
+
+        assertEquals(10, store.getCandles("EUR", TickUnit.DAY, 0, 0).size());
+        List<Candle> candles = store.getCandles("EUR", TickUnit.DAY, DATE + 2 * DAY, DATE + 5 * DAY);
+        assertEquals(3, candles.size());
+        assertEquals(10, store.getAveragePrices("EUR", TickUnit.DAY, false).size());
+
+        // returned candles are copies
+        store.add(getTradeStatistics("EUR", "500", "1", DATE + 3 * DAY));
+        assertEquals(1, candles.get(0).getNumTrades());
+        assertEquals(2, store.getCandles("EUR", TickUnit.DAY, DATE + 2 * DAY, DATE + 5 * DAY).get(0).getNumTrades());
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchRebuild() {
+        Random random = new Random(1);
+        List<TradeStatistics3> tradeStatisticsList = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            tradeStatisticsList.add(getTradeStatistics(random.nextBoolean() ? "EUR" : "USD",
+                    String.valueOf(400 + random.nextInt(200)),
+                    String.valueOf(1 + random.nextInt(10)),
+                    DATE + i * (400 * DAY / 20_000)));
+        }
+
+        TradeStatisticsCandleStore rebuiltStore = new TradeStatisticsCandleStore(ZoneOffset.UTC);
+        rebuiltStore.addAll(tradeStatisticsList);
+
+        Collections.shuffle(tradeStatisticsList, random);
+        TradeStatisticsCandleStore incrementalStore = new TradeStatisticsCandleStore(ZoneOffset.UTC);
+        tradeStatisticsList.forEach(incrementalStore::add);
+
+        for (TickUnit tickUnit : TickUnit.values()) {
+            List<Candle> expected = rebuiltStore.getCandles("EUR", tickUnit, 0, 0);
+            List<Candle> actual = incrementalStore.getCandles("EUR", tickUnit, 0, 0);
+            assertEquals(expected.toString(), actual.toString());
+        }
+
+        for (TickUnit tickUnit : TickUnit.values()) {
+            Map<Long, Long> averagePrices = incrementalStore.getAveragePrices("USD", tickUnit, false);
+            assertTrue(averagePrices.size() > 0);
+            assertEquals(rebuiltStore.getAveragePrices("USD", tickUnit, false), averagePrices);
+        }
+    }
+
+    private static TradeStatistics3 getTradeStatistics(String currencyCode, String price, String amount, long date) {
+        return new TradeStatistics3(currencyCode,
+                Price.parse(currencyCode, price).getValue(),
+                Coin.parseCoin(amount).getValue(),
+                PaymentMethod.SEPA_ID,
+                date,
+                null,
+                null,
+                null);
+    }
+}
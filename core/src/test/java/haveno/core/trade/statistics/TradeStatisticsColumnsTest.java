@@ -0,0 +1,164 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package haveno.core.trade.statistics;
+
+import haveno.core.monetary.Price;
+import haveno.core.payment.payload.PaymentMethod;
+import org.bitcoinj.core.Coin;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TradeStatisticsColumnsTest {
+    private static final String[] CURRENCIES = {"EUR", "USD", "GBP", "CAD", "AUD"};
+    private static final String[] PAYMENT_METHODS = {PaymentMethod.SEPA_ID, PaymentMethod.BLOCK_CHAINS_ID};
+    private static final String[] ARBITRATORS = {"abcd", "efgh", null};
+    private static final long DATE = 1_600_000_000_000L;
+
+    @Test
+    public void testQueries() {
+        List<TradeStatistics3> tradeStatisticsList = getTradeStatisticsList(10_000, new Random(1));
+        TradeStatisticsColumns columns = new TradeStatisticsColumns();
+        // load half at once like at startup, then add the rest one by one in random order
+        columns.addAll(tradeStatisticsList.subList(0, 5000));
+        List<TradeStatistics3> remaining = new ArrayList<>(tradeStatisticsList.subList(5000, tradeStatisticsList.size()));
+        Collections.shuffle(remaining, new Random(2));
+        remaining.forEach(columns::add);
+        assertEquals(tradeStatisticsList.size(), columns.size());
+
+        long fromDate = DATE + 1_000_000;
+        long toDate = DATE + 5_000_000;
+        List<TradeStatistics3> expected = tradeStatisticsList.stream()
+                .filter(e -> e.getCurrency().equals("EUR") && e.getDateAsLong() >= fromDate && e.getDateAsLong() < toDate)
+                .collect(Collectors.toList());
+        List<TradeStatistics3> actual = columns.getTradeStatistics("EUR", null, fromDate, toDate);
+        assertEquals(expected.size(), actual.size());
+        assertTrue(actual.containsAll(expected));
+        for (int i = 1; i < actual.size(); i++) assertTrue(actual.get(i - 1).getDateAsLong() <= actual.get(i).getDateAsLong());
+
+        assertEquals(tradeStatisticsList.stream().filter(e -> e.getPaymentMethodId().equals(PaymentMethod.SEPA_ID)).count(),
+                columns.getTradeStatistics(null, PaymentMethod.SEPA_ID, 0, Long.MAX_VALUE).size());
+        assertTrue(columns.getTradeStatistics("XYZ", null, 0, Long.MAX_VALUE).isEmpty());
+        assertEquals(Set.of(CURRENCIES), columns.getCurrencies(0));
+    }
+
+    @Test
+    public void testGetCurrenciesSkipsMissingCurrency() {
+        TradeStatisticsColumns columns = new TradeStatisticsColumns();
+        columns.addAll(getTradeStatisticsList(100, new Random(1)));
+        columns.add(new TradeStatistics3(null, 1, 1, PaymentMethod.SEPA_ID, DATE + 1_000_000L, null, null, null));
+
+        assertEquals(101, columns.size());
+        assertEquals(Set.of(CURRENCIES), columns.getCurrencies(0));
+        assertEquals(1, columns.getTradeStatistics(null, null, DATE + 1_000_000L, Long.MAX_VALUE).size());
+    }
+
+    @Test
+    public void testPaging() {
+        List<TradeStatistics3> tradeStatisticsList = getTradeStatisticsList(1000, new Random(1));
+        TradeStatisticsColumns columns = new TradeStatisticsColumns();
+        columns.addAll(tradeStatisticsList);
+        List<TradeStatistics3> expected = columns.getTradeStatistics("EUR", null, DATE, Long.MAX_VALUE);
+
+        List<TradeStatistics3> paged = new ArrayList<>();
+        long cursorDate = 0;
+        byte[] cursorHash = null;
+        while (true) {
+            List<TradeStatistics3> page = columns.getTradeStatistics("EUR", DATE, Long.MAX_VALUE, cursorDate, cursorHash, 30);
+            paged.addAll(page);
+            if (page.size() < 30) break;
+            TradeStatistics3 last = page.get(page.size() - 1);
+            cursorDate = last.getDateAsLong();
+            cursorHash = last.getHash();
+
+            // rows added after the cursor show up in the next pages
+            if (paged.size() == 60) {
+                TradeStatistics3 tradeStatistics = new TradeStatistics3("EUR", Price.parse("EUR", "1").getValue(), 1,
+                        PaymentMethod.SEPA_ID, DATE + 10_000_000L, null, null, null);
+                columns.add(tradeStatistics);
+                expected.add(tradeStatistics);
+            }
+        }
+        assertEquals(expected, paged);
+        assertTrue(columns.getTradeStatistics("XYZ", 0, Long.MAX_VALUE, 0, null, 30).isEmpty());
+    }
+
+    @Test
+    public void testColumnsMatchScan() {
+        int numTradeStatistics = 10_000;
+        List<TradeStatistics3> tradeStatisticsList = getTradeStatisticsList(numTradeStatistics, new Random(1));
+        TradeStatisticsColumns columns = new TradeStatisticsColumns();
+        // add in random order, so most rows are buffered and merged before the first query
+        List<TradeStatistics3> shuffled = new ArrayList<>(tradeStatisticsList);
+        Collections.shuffle(shuffled, new Random(2));
+        shuffled.forEach(columns::add);
+        long fromDate = DATE + numTradeStatistics * 500L;
+
+        long[] expectedPrices = tradeStatisticsList.stream()
+                .filter(e -> e.getCurrency().equals("EUR") && e.getDateAsLong() >= fromDate)
+                .mapToLong(TradeStatistics3::getPrice)
+                .toArray();
+        assertArrayEquals(expectedPrices, columns.getPrices("EUR", fromDate, Long.MAX_VALUE));
+        assertEquals(0, columns.getPrices("XYZ", 0, Long.MAX_VALUE).length);
+
+        Map<String, Integer> expectedNumTrades = new HashMap<>();
+        tradeStatisticsList.forEach(e -> expectedNumTrades.merge(e.getCurrency(), 1, Integer::sum));
+        assertEquals(expectedNumTrades, columns.getNumTradesByCurrency());
+
+        Map<String, Long> expectedLatestPrices = new HashMap<>();
+        tradeStatisticsList.forEach(e -> expectedLatestPrices.put(e.getCurrency(), e.getPrice()));
+        assertEquals(expectedLatestPrices, columns.getLatestPrices());
+
+        List<String> expectedArbitrators = new ArrayList<>();
+        for (int i = numTradeStatistics - 1; i >= numTradeStatistics - 100; i--) {
+            if (tradeStatisticsList.get(i).getArbitrator() != null) {
+                expectedArbitrators.add(tradeStatisticsList.get(i).getArbitrator());
+            }
+        }
+        assertEquals(expectedArbitrators, columns.getLastArbitrators(100));
+        assertEquals(tradeStatisticsList.subList(0, 100), columns.getTradeStatistics(null, null, 0, DATE + 100_000L));
+    }
+
+    private static List<TradeStatistics3> getTradeStatisticsList(int numTradeStatistics, Random random) {
+        List<TradeStatistics3> tradeStatisticsList = new ArrayList<>();
+        for (int i = 0; i < numTradeStatistics; i++) {
+            String currencyCode = CURRENCIES[random.nextInt(CURRENCIES.length)];
+            tradeStatisticsList.add(new TradeStatistics3(currencyCode,
+                    Price.parse(currencyCode, String.valueOf(1 + random.nextInt(1000))).getValue(),
+                    Coin.valueOf(1 + random.nextInt(100_000_000)).getValue(),
+                    PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)],
+                    DATE + i * 1000L,
+                    ARBITRATORS[random.nextInt(ARBITRATORS.length)],
+                    null,
+                    null));
+        }
+        return tradeStatisticsList;
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import monero.daemon.model.MoneroTx;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class MoneroTxCacheTest {
+
+    private final List<List<String>> requests = new ArrayList<>();
+
+    // fake daemon which knows all hashes except those starting with "unknown"
+    private final Function<List<String>, List<MoneroTx>> fetcher = txHashes -> {
+        synchronized (requests) {
+            requests.add(new ArrayList<>(txHashes));
+        }
+        List<MoneroTx> txs = new ArrayList<>();
+        for (String txHash : txHashes) if (!txHash.startsWith("unknown")) txs.add(new MoneroTx().setHash(txHash));
+        return txs;
+    };
+
+    @Test
+    public void testFetchesOnlyMissingTxs() {
+        MoneroTxCache cache = new MoneroTxCache(fetcher, () -> 60000, 100);
+        assertEquals(2, cache.getTxs(Arrays.asList("tx1", "tx2")).size());
+        List<MoneroTx> txs = cache.getTxs(Arrays.asList("tx1", "tx2", "tx3", "unknown1"));
+        assertEquals(Arrays.asList("tx1", "tx2", "tx3"), Arrays.asList(txs.get(0).getHash(), txs.get(1).getHash(), txs.get(2).getHash()));
+        assertEquals(2, requests.size());
+        assertEquals(2, requests.get(1).size());
+        assertTrue(requests.get(1).containsAll(Arrays.asList("tx3", "unknown1")));
+        assertEquals(2, cache.getNumHits());
+        assertEquals(2, cache.getNumRpcRequests());
+    }
+
+    @Test
+    public void testExpiration() {
+        AtomicLong now = new AtomicLong(0);
+        MoneroTxCache cache = new MoneroTxCache(fetcher, () -> 1000, 100, now::get);
+        cache.getTxs(Arrays.asList("tx1"));
+        cache.getTxs(Arrays.asList("tx1"));
+        assertEquals(1, requests.size());
+        now.set(1000);
+        cache.getTxs(Arrays.asList("tx1"));
+        assertEquals(2, requests.size());
+
+        // fetching always asks the daemon
+        cache.fetchTxs(Arrays.asList("tx1"));
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    public void testBoundedSize() {
+        AtomicLong now = new AtomicLong(0);
+        MoneroTxCache cache = new MoneroTxCache(fetcher, () -> 1000, 100, now::get);
+        for (int i = 0; i < 1000; i++) {
+            now.incrementAndGet();
+            cache.getTxs(Arrays.asList("tx" + i));
+        }
+        assertTrue(cache.size() <= 100);
+
+        // most recent txs are kept
+        cache.getTxs(Arrays.asList("tx999"));
+        assertEquals(1000, cache.getNumRpcRequests());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneFetch() throws Exception {
+        CountDownLatch fetchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFetch = new CountDownLatch(1);
+        MoneroTxCache cache = new MoneroTxCache(txHashes -> {
+            fetchStarted.countDown();
+            try {
+                releaseFetch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return fetcher.apply(txHashes);
+        }, () -> 60000, 100);
+
+        int numThreads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<List<MoneroTx>>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> cache.getTxs(Arrays.asList("tx1"))));
+            assertTrue(fetchStarted.await(10, TimeUnit.SECONDS));
+            for (int i = 1; i < numThreads; i++) futures.add(executor.submit(() -> cache.getTxs(Arrays.asList("tx1"))));
+            while (cache.getNumSharedLoads() < numThreads - 1) Thread.sleep(10);
+            releaseFetch.countDown();
+            for (Future<List<MoneroTx>> future : futures) assertEquals("tx1", future.get(10, TimeUnit.SECONDS).get(0).getHash());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, requests.size());
+        assertEquals(1, cache.getNumRpcRequests());
+    }
+}
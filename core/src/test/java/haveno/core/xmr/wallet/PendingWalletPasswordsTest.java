@@ -0,0 +1,75 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import haveno.common.crypto.KeyRing;
+import haveno.common.crypto.KeyStorage;
+import haveno.common.file.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PendingWalletPasswordsTest {
+    private File storageDir;
+    private File file;
+    private KeyRing keyRing;
+
+    @Before
+    public void setUp() throws IOException {
+        storageDir = Files.createTempDirectory("storage").toFile();
+        file = new File(storageDir, "pending_wallet_passwords");
+        keyRing = new KeyRing(new KeyStorage(storageDir), null, true);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtil.deleteDirectory(storageDir);
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        Map<String, String> passwords = new HashMap<>();
+        passwords.put("xmr_trade_1", "oldPassword");
+        passwords.put("xmr_trade_2", "olderPassword");
+        new PendingWalletPasswords(file, keyRing).write(passwords);
+        assertTrue(file.exists());
+
+        // passwords are read after a restart and are not stored in plain text
+        assertEquals(passwords, new PendingWalletPasswords(file, keyRing).read());
+        assertFalse(new String(Files.readAllBytes(file.toPath())).contains("oldPassword"));
+    }
+
+    @Test
+    public void testWriteEmptyDeletesFile() {
+        PendingWalletPasswords pendingWalletPasswords = new PendingWalletPasswords(file, keyRing);
+        pendingWalletPasswords.write(Map.of("xmr_trade_1", "oldPassword"));
+        pendingWalletPasswords.write(new HashMap<>());
+        assertFalse(file.exists());
+        assertTrue(pendingWalletPasswords.read().isEmpty());
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WalletPasswordChangeJobTest {
+
+    // fake wallets by id with their current password
+    private final Map<String, String> passwords = new ConcurrentHashMap<>();
+    private final List<WalletPasswordChangeJob.Progress> progresses = new CopyOnWriteArrayList<>();
+
+    private final WalletPasswordChangeJob.PasswordChanger passwordChanger = (walletId, oldPassword, newPassword) -> {
+        if (walletId.startsWith("broken")) throw new RuntimeException("Cannot open wallet " + walletId);
+        if (!passwords.get(walletId).equals(oldPassword)) throw new RuntimeException("Incorrect password");
+        passwords.put(walletId, newPassword);
+    };
+
+    @Test
+    public void testChangesAllWallets() throws InterruptedException {
+        for (int i = 0; i < 20; i++) passwords.put("wallet" + i, "old");
+        CountDownLatch done = new CountDownLatch(1);
+        WalletPasswordChangeJob job = new WalletPasswordChangeJob(passwords, "new", passwordChanger, 4, progress -> {
+            progresses.add(progress);
+            if (progress.isDone()) done.countDown();
+        });
+        job.start();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(passwords.values().stream().allMatch("new"::equals));
+        assertTrue(job.getRemainingWallets().isEmpty());
+        assertEquals(new WalletPasswordChangeJob.Progress(20, 20, 0, true), job.getProgress());
+        assertEquals(20, progresses.size());
+    }
+
+    @Test
+    public void testEmptyJobIsDone() {
+        WalletPasswordChangeJob job = new WalletPasswordChangeJob(Map.of(), "new", passwordChanger, 4, progresses::add);
+        job.start();
+
+        assertEquals(List.of(WalletPasswordChangeJob.Progress.done()), progresses);
+    }
+
+    @Test
+    public void testFailedWalletKeepsItsPassword() throws InterruptedException {
+        passwords.put("wallet", "old");
+        passwords.put("broken", "old");
+        CountDownLatch done = new CountDownLatch(1);
+        WalletPasswordChangeJob job = new WalletPasswordChangeJob(passwords, "new", passwordChanger, 2, progress -> {
+            if (progress.isDone()) done.countDown();
+        });
+        job.start();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(new WalletPasswordChangeJob.Progress(2, 1, 1, true), job.getProgress());
+        assertEquals(Map.of("broken", "old"), job.getRemainingWallets());
+    }
+
+    @Test
+    public void testCancelledJobIsResumedWithRemainingWallets() throws InterruptedException {
+        for (int i = 0; i < 10; i++) passwords.put("wallet" + i, "old");
+        CountDownLatch firstChanged = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        WalletPasswordChangeJob job = new WalletPasswordChangeJob(passwords, "new", (walletId, oldPassword, newPassword) -> {
+            passwordChanger.changePassword(walletId, oldPassword, newPassword);
+            firstChanged.countDown();
+            try {
+                cancelled.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, 1, progresses::add);
+        job.start();
+        assertTrue(firstChanged.await(10, TimeUnit.SECONDS));
+
+        // let the first wallet complete once cancel is waiting for it
+        Thread canceller = new Thread(job::cancel);
+        canceller.start();
+        while (canceller.getState() != Thread.State.TIMED_WAITING) Thread.sleep(10);
+        cancelled.countDown();
+        canceller.join();
+
+        WalletPasswordChangeJob.Progress progress = job.getProgress();
+        assertTrue(progress.isDone());
+        assertEquals(1, progress.getNumChanged());
+        Map<String, String> remainingWallets = job.getRemainingWallets();
+        assertEquals(9, remainingWallets.size());
+        assertTrue(remainingWallets.values().stream().allMatch("old"::equals));
+        assertFalse(progresses.isEmpty());
+
+        // resume with the passwords of the remaining wallets
+        CountDownLatch done = new CountDownLatch(1);
+        WalletPasswordChangeJob resumedJob = new WalletPasswordChangeJob(remainingWallets, "new", passwordChanger, 4, resumedProgress -> {
+            if (resumedProgress.isDone()) done.countDown();
+        });
+        resumedJob.start();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(new WalletPasswordChangeJob.Progress(9, 9, 0, true), resumedJob.getProgress());
+        assertTrue(passwords.values().stream().allMatch("new"::equals));
+    }
+
+    @Test
+    public void testRequestCancelDoesNotWaitForWallets() throws InterruptedException {
+        for (int i = 0; i < 3; i++) passwords.put("wallet" + i, "old");
+        CountDownLatch firstChanged = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WalletPasswordChangeJob job = new WalletPasswordChangeJob(passwords, "new", (walletId, oldPassword, newPassword) -> {
+            firstChanged.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            passwordChanger.changePassword(walletId, oldPassword, newPassword);
+        }, 1, progresses::add);
+        job.start();
+        assertTrue(firstChanged.await(10, TimeUnit.SECONDS));
+
+        // returns while the first wallet is still being changed
+        job.requestCancel();
+        assertFalse(job.getProgress().isDone());
+
+        release.countDown();
+        job.cancel();
+        WalletPasswordChangeJob.Progress progress = job.getProgress();
+        assertTrue(progress.isDone());
+        assertEquals(1, progress.getNumChanged());
+        assertEquals(2, job.getRemainingWallets().size());
+    }
+}
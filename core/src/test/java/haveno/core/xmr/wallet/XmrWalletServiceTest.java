@@ -0,0 +1,175 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.core.xmr.wallet;
+
+import haveno.common.config.BaseCurrencyNetwork;
+import haveno.common.config.Config;
+import haveno.common.crypto.KeyRing;
+import haveno.core.api.CoreAccountService;
+import haveno.core.api.CoreMoneroConnectionsService;
+import haveno.core.xmr.model.XmrAddressEntryList;
+import haveno.core.xmr.setup.WalletsSetup;
+import monero.daemon.MoneroDaemonRpc;
+import monero.daemon.model.MoneroFeeEstimate;
+import monero.daemon.model.MoneroSubmitTxResult;
+import monero.daemon.model.MoneroTx;
+import monero.wallet.MoneroWallet;
+import monero.wallet.model.MoneroCheckTx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+// Verifies trade txs against a mocked daemon which keeps submitted txs in a pool until they are flushed
+public class XmrWalletServiceTest {
+    private static final int NUM_THREADS = 8;
+    private static final BigInteger TRADE_FEE = BigInteger.valueOf(1);
+    private static final BigInteger SECURITY_DEPOSIT = BigInteger.valueOf(100);
+
+    private final Map<String, MoneroTx> txPool = new ConcurrentHashMap<>();
+    private final AtomicInteger numVerifying = new AtomicInteger();
+    private final AtomicInteger maxNumVerifying = new AtomicInteger();
+    private volatile CountDownLatch submitLatch = new CountDownLatch(0);
+    private BaseCurrencyNetwork baseCurrencyNetwork;
+    private XmrWalletService xmrWalletService;
+
+    @Before
+    public void setUp() throws Exception {
+        // the trade fee address is only defined for test networks
+        baseCurrencyNetwork = Config.baseCurrencyNetwork();
+        setBaseCurrencyNetwork(BaseCurrencyNetwork.XMR_STAGENET);
+
+        MoneroDaemonRpc daemon = mock(MoneroDaemonRpc.class);
+        when(daemon.submitTxHex(anyString(), anyBoolean())).thenAnswer(invocation -> {
+            String txHash = invocation.getArgument(0); // the tx hex of the tests is the tx hash
+            maxNumVerifying.accumulateAndGet(numVerifying.incrementAndGet(), Math::max);
+            submitLatch.countDown();
+            submitLatch.await(10, TimeUnit.SECONDS);
+            Thread.sleep(5);
+            MoneroTx tx = new MoneroTx().setHash(txHash).setFee(BigInteger.valueOf(1000)).setWeight(1000L).setUnlockHeight(0L);
+            txPool.put(txHash, tx);
+            MoneroSubmitTxResult result = mock(MoneroSubmitTxResult.class);
+            when(result.isGood()).thenReturn(true);
+            return result;
+        });
+        when(daemon.getTxPool()).thenAnswer(invocation -> new ArrayList<>(txPool.values()));
+        doAnswer(invocation -> {
+            String txHash = invocation.getArgument(0);
+            if (txPool.remove(txHash) != null) numVerifying.decrementAndGet();
+            return null;
+        }).when(daemon).flushTxPool(anyString());
+        MoneroFeeEstimate feeEstimate = mock(MoneroFeeEstimate.class);
+        when(feeEstimate.getFee()).thenReturn(BigInteger.valueOf(1));
+        when(feeEstimate.getQuantizationMask()).thenReturn(BigInteger.valueOf(1));
+        when(daemon.getFeeEstimate()).thenReturn(feeEstimate);
+
+        // the fee address receives the trade fee and the deposit address the security deposit
+        MoneroWallet wallet = mock(MoneroWallet.class);
+        MoneroCheckTx feeCheck = getCheckTx(TRADE_FEE);
+        MoneroCheckTx depositCheck = getCheckTx(SECURITY_DEPOSIT);
+        when(wallet.checkTxKey(anyString(), anyString(), anyString())).thenAnswer(invocation ->
+                "depositAddress".equals(invocation.getArgument(2)) ? depositCheck : feeCheck);
+
+        CoreMoneroConnectionsService connectionsService = mock(CoreMoneroConnectionsService.class);
+        when(connectionsService.getDaemon()).thenReturn(daemon);
+        xmrWalletService = spy(new XmrWalletService(mock(CoreAccountService.class),
+                connectionsService,
+                mock(WalletsSetup.class),
+                mock(XmrAddressEntryList.class),
+                mock(KeyRing.class),
+                new File("walletDir"),
+                0));
+        doReturn(wallet).when(xmrWalletService).getWallet();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        setBaseCurrencyNetwork(baseCurrencyNetwork);
+    }
+
+    @Test
+    public void testUnrelatedVerificationsRunConcurrently() throws Exception {
+        // every verification waits in the daemon until all are submitted, which only completes if they run concurrently
+        submitLatch = new CountDownLatch(NUM_THREADS);
+        verifyConcurrently(i -> List.of("keyImage" + i));
+
+        assertEquals(NUM_THREADS, maxNumVerifying.get());
+        assertTrue(txPool.isEmpty());
+    }
+
+    @Test
+    public void testVerificationsSharingKeyImageAreSerialized() throws Exception {
+        verifyConcurrently(i -> List.of("keyImage" + i, "sharedKeyImage"));
+
+        assertEquals(1, maxNumVerifying.get());
+        assertTrue(txPool.isEmpty());
+    }
+
+    private void verifyConcurrently(IntFunction<List<String>> relatedKeyImages) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < NUM_THREADS; i++) {
+                String txHash = "tx" + i;
+                List<String> keyImages = relatedKeyImages.apply(i);
+                futures.add(executor.submit(() -> xmrWalletService.verifyTradeTx("offer", TRADE_FEE, BigInteger.valueOf(0),
+                        SECURITY_DEPOSIT, "depositAddress", txHash, txHash, "txKey", null, keyImages, false)));
+            }
+            for (Future<?> future : futures) future.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static MoneroCheckTx getCheckTx(BigInteger receivedAmount) {
+        MoneroCheckTx checkTx = mock(MoneroCheckTx.class);
+        when(checkTx.isGood()).thenReturn(true);
+        when(checkTx.getReceivedAmount()).thenReturn(receivedAmount);
+        return checkTx;
+    }
+
+    private static void setBaseCurrencyNetwork(BaseCurrencyNetwork baseCurrencyNetwork) throws Exception {
+        Field field = Config.class.getDeclaredField("BASE_CURRENCY_NETWORK_VALUE");
+        field.setAccessible(true);
+        field.set(null, baseCurrencyNetwork);
+    }
+}
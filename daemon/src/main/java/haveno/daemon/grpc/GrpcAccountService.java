@@ -19,7 +19,9 @@ package haveno.daemon.grpc;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.protobuf.ByteString;
 import haveno.common.crypto.IncorrectPasswordException;
+import haveno.common.util.BackupManifest;
 import haveno.core.api.CoreApi;
+import haveno.core.xmr.wallet.WalletPasswordChangeJob;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
 import haveno.proto.grpc.AccountExistsReply;
@@ -35,6 +37,8 @@ import haveno.proto.grpc.CreateAccountReply;
 import haveno.proto.grpc.CreateAccountRequest;
 import haveno.proto.grpc.DeleteAccountReply;
 import haveno.proto.grpc.DeleteAccountRequest;
+import haveno.proto.grpc.GetPasswordChangeProgressReply;
+import haveno.proto.grpc.GetPasswordChangeProgressRequest;
 import haveno.proto.grpc.IsAccountOpenReply;
 import haveno.proto.grpc.IsAccountOpenRequest;
 import haveno.proto.grpc.IsAppInitializedReply;
@@ -43,15 +47,20 @@ import haveno.proto.grpc.OpenAccountReply;
 import haveno.proto.grpc.OpenAccountRequest;
 import haveno.proto.grpc.RestoreAccountReply;
 import haveno.proto.grpc.RestoreAccountRequest;
+import io.grpc.Context;
 import io.grpc.ServerInterceptor;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import javax.inject.Inject;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static haveno.proto.grpc.AccountGrpc.getAccountExistsMethod;
@@ -60,6 +69,7 @@ import static haveno.proto.grpc.AccountGrpc.getChangePasswordMethod;
 import static haveno.proto.grpc.AccountGrpc.getCloseAccountMethod;
 import static haveno.proto.grpc.AccountGrpc.getCreateAccountMethod;
 import static haveno.proto.grpc.AccountGrpc.getDeleteAccountMethod;
+import static haveno.proto.grpc.AccountGrpc.getGetPasswordChangeProgressMethod;
 import static haveno.proto.grpc.AccountGrpc.getIsAccountOpenMethod;
 import static haveno.proto.grpc.AccountGrpc.getOpenAccountMethod;
 import static haveno.proto.grpc.AccountGrpc.getRestoreAccountMethod;
@@ -155,6 +165,52 @@ public class GrpcAccountService extends AccountImplBase {
         }
     }
 
+    @Override
+    public void getPasswordChangeProgress(GetPasswordChangeProgressRequest req,
+                                          StreamObserver<GetPasswordChangeProgressReply> responseObserver) {
+        Context ctx = Context.current().fork(); // context is independent for long-lived request
+        ctx.run(() -> {
+            try {
+                PasswordChangeProgressListener listener = new PasswordChangeProgressListener(responseObserver);
+                coreApi.addPasswordChangeListener(listener);
+                listener.accept(coreApi.getPasswordChangeProgress());
+            } catch (Throwable cause) {
+                exceptionHandler.handleException(log, cause, responseObserver);
+            }
+        });
+    }
+
+    // Sends the progress until the password change is done. Called from the threads of the password change job.
+    private class PasswordChangeProgressListener implements Consumer<WalletPasswordChangeJob.Progress> {
+        private final ServerCallStreamObserver<GetPasswordChangeProgressReply> responseObserver;
+        private boolean completed;
+
+        PasswordChangeProgressListener(StreamObserver<GetPasswordChangeProgressReply> responseObserver) {
+            this.responseObserver = (ServerCallStreamObserver<GetPasswordChangeProgressReply>) responseObserver;
+        }
+
+        @Override
+        public synchronized void accept(WalletPasswordChangeJob.Progress progress) {
+            if (completed) return;
+            if (responseObserver.isCancelled()) {
+                completed = true;
+                coreApi.removePasswordChangeListener(this);
+                return;
+            }
+            responseObserver.onNext(GetPasswordChangeProgressReply.newBuilder()
+                    .setNumWallets(progress.getNumWallets())
+                    .setNumChanged(progress.getNumChanged())
+                    .setNumFailed(progress.getNumFailed())
+                    .setDone(progress.isDone())
+                    .build());
+            if (progress.isDone()) {
+                completed = true;
+                coreApi.removePasswordChangeListener(this);
+                responseObserver.onCompleted();
+            }
+        }
+    }
+
     @Override
     public void closeAccount(CloseAccountRequest req, StreamObserver<CloseAccountReply> responseObserver) {
         try {
@@ -188,46 +244,64 @@ public class GrpcAccountService extends AccountImplBase {
         // From current testing it appears that client gRPC-web is slow in processing the bytes on download.
         try {
             int bufferSize = 1024 * 1024 * 8;
-            coreApi.backupAccount(bufferSize, (stream) -> {
-                try {
-                    log.info("Sending bytes in chunks of: " + bufferSize);
-                    byte[] buffer = new byte[bufferSize];
-                    int length;
-                    int total = 0;
-                    while ((length = stream.read(buffer, 0, bufferSize)) != -1) {
-                        total += length;
-                        var reply = BackupAccountReply.newBuilder()
-                                .setZipBytes(ByteString.copyFrom(buffer, 0, length))
-                                .build();
-                        responseObserver.onNext(reply);
-                    }
-                    log.info("Completed backup account total sent: " + total);
-                    stream.close();
-                    responseObserver.onCompleted();
-                } catch (Exception ex) {
-                    exceptionHandler.handleException(log, ex, responseObserver);
-                }
-            }, (ex) -> exceptionHandler.handleException(log, ex, responseObserver));
+            if (req.getIncremental() || !req.getBaseBackupId().isEmpty()) {
+                String baseBackupId = req.getBaseBackupId().isEmpty() ? null : req.getBaseBackupId();
+                coreApi.backupAccount(baseBackupId,
+                        bufferSize,
+                        (manifest, stream) -> sendBackup(stream, manifest, bufferSize, responseObserver),
+                        (ex) -> exceptionHandler.handleException(log, ex, responseObserver));
+            } else {
+                coreApi.backupAccount(bufferSize,
+                        (stream) -> sendBackup(stream, null, bufferSize, responseObserver),
+                        (ex) -> exceptionHandler.handleException(log, ex, responseObserver));
+            }
         } catch (Throwable cause) {
             exceptionHandler.handleException(log, cause, responseObserver);
         }
     }
 
+    private void sendBackup(InputStream stream,
+                            @Nullable BackupManifest manifest,
+                            int bufferSize,
+                            StreamObserver<BackupAccountReply> responseObserver) {
+        try {
+            log.info("Sending bytes in chunks of: " + bufferSize);
+            byte[] buffer = new byte[bufferSize];
+            int length;
+            long total = 0;
+            long startTime = System.currentTimeMillis();
+            while ((length = stream.read(buffer, 0, bufferSize)) != -1) {
+                total += length;
+                long elapsedMs = Math.max(1, System.currentTimeMillis() - startTime);
+                var reply = BackupAccountReply.newBuilder()
+                        .setZipBytes(ByteString.copyFrom(buffer, 0, length))
+                        .setTotalBytes(total)
+                        .setBytesPerSecond(total * 1000 / elapsedMs);
+                if (manifest != null) {
+                    reply.setBackupId(manifest.getId());
+                    if (manifest.getBaseId() != null) reply.setBaseBackupId(manifest.getBaseId());
+                }
+                responseObserver.onNext(reply.build());
+            }
+            log.info("Completed backup account total sent: {} bytes in {} ms", total, System.currentTimeMillis() - startTime);
+            stream.close();
+            responseObserver.onCompleted();
+        } catch (Exception ex) {
+            exceptionHandler.handleException(log, ex, responseObserver);
+        }
+    }
+
     @Override
     public void restoreAccount(RestoreAccountRequest req, StreamObserver<RestoreAccountReply> responseObserver) {
         try {
             // Fail fast since uploading and processing bytes takes resources.
-            if (coreApi.accountExists()) throw new IllegalStateException("Cannot restore account if there is an existing account");
+            if (coreApi.accountExists() && !coreApi.isRestoringAccount()) throw new IllegalStateException("Cannot restore account if there is an existing account");
 
             // If the entire zip is in memory, no need to write to disk.
             // Restore the account directly from the zip stream.
             if (!req.getHasMore() && req.getOffset() == 0) {
                 var inputStream = req.getZipBytes().newInput();
-                coreApi.restoreAccount(inputStream, 1024 * 64, () -> {
-                    var reply = RestoreAccountReply.newBuilder().build();
-                    responseObserver.onNext(reply);
-                    responseObserver.onCompleted();  // reply after shutdown
-                });
+                restoreBackup(inputStream, req.getHasMoreBackups(), responseObserver);
             } else {
                 if (req.getOffset() == 0) {
                     log.info("RestoreAccount starting new chunked zip");
@@ -246,11 +320,7 @@ public class GrpcAccountService extends AccountImplBase {
                     var inputStream = new ByteArrayInputStream(restoreStream.toByteArray());
                     restoreStream.close();
                     restoreStream = null;
-                    coreApi.restoreAccount(inputStream, 1024 * 64, () -> {
-                        var reply = RestoreAccountReply.newBuilder().build();
-                        responseObserver.onNext(reply);
-                        responseObserver.onCompleted(); // reply after shutdown
-                    });
+                    restoreBackup(inputStream, req.getHasMoreBackups(), responseObserver);
                 } else {
                     var reply = RestoreAccountReply.newBuilder().build();
                     responseObserver.onNext(reply);
@@ -262,6 +332,22 @@ public class GrpcAccountService extends AccountImplBase {
         }
     }
 
+    private void restoreBackup(InputStream inputStream,
+                               boolean hasMoreBackups,
+                               StreamObserver<RestoreAccountReply> responseObserver) throws Exception {
+        coreApi.restoreAccount(inputStream, 1024 * 64, hasMoreBackups, () -> {
+            var reply = RestoreAccountReply.newBuilder().build();
+            responseObserver.onNext(reply);
+            responseObserver.onCompleted(); // reply after shutdown
+        });
+
+        // reply now to receive the next backup of the chain
+        if (hasMoreBackups) {
+            responseObserver.onNext(RestoreAccountReply.newBuilder().build());
+            responseObserver.onCompleted();
+        }
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -278,6 +364,7 @@ public class GrpcAccountService extends AccountImplBase {
                             put(getCloseAccountMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getCreateAccountMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getDeleteAccountMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
+                            put(getGetPasswordChangeProgressMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getIsAccountOpenMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getOpenAccountMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getRestoreAccountMethod().getFullMethodName(), new GrpcCallRateMeter(5, SECONDS));
@@ -7,6 +7,8 @@ import haveno.core.support.dispute.DisputeResult;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
 import haveno.proto.grpc.DisputesGrpc.DisputesImplBase;
+import haveno.proto.grpc.GetDisputeAttachmentReply;
+import haveno.proto.grpc.GetDisputeAttachmentRequest;
 import haveno.proto.grpc.GetDisputeReply;
 import haveno.proto.grpc.GetDisputeRequest;
 import haveno.proto.grpc.GetDisputesReply;
@@ -28,6 +30,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
+import static haveno.proto.grpc.DisputesGrpc.getGetDisputeAttachmentMethod;
 import static haveno.proto.grpc.DisputesGrpc.getGetDisputeMethod;
 import static haveno.proto.grpc.DisputesGrpc.getGetDisputesMethod;
 import static haveno.proto.grpc.DisputesGrpc.getOpenDisputeMethod;
@@ -127,6 +130,21 @@ public class GrpcDisputesService extends DisputesImplBase {
         }
     }
 
+    @Override
+    public void getDisputeAttachment(GetDisputeAttachmentRequest req,
+                                     StreamObserver<GetDisputeAttachmentReply> responseObserver) {
+        try {
+            var attachment = coreApi.getDisputeAttachment(req.getDisputeId(), req.getHash());
+            var reply = GetDisputeAttachmentReply.newBuilder()
+                    .setAttachment(attachment.toProtoMessage())
+                    .build();
+            responseObserver.onNext(reply);
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -142,6 +160,7 @@ public class GrpcDisputesService extends DisputesImplBase {
                             put(getResolveDisputeMethod().getFullMethodName(), new GrpcCallRateMeter(20, SECONDS));
                             put(getOpenDisputeMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getSendDisputeChatMessageMethod().getFullMethodName(), new GrpcCallRateMeter(20, SECONDS));
+                            put(getGetDisputeAttachmentMethod().getFullMethodName(), new GrpcCallRateMeter(20, SECONDS));
                         }}
                 )));
     }
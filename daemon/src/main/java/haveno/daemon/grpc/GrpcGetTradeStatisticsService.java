@@ -1,28 +1,44 @@
 package haveno.daemon.grpc;
 
+import haveno.common.util.Utilities;
 import haveno.core.api.CoreApi;
+import haveno.core.locale.CurrencyUtil;
+import haveno.core.trade.statistics.Candle;
+import haveno.core.trade.statistics.TickUnit;
 import haveno.core.trade.statistics.TradeStatistics3;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
+import haveno.proto.grpc.CandleInfo;
+import haveno.proto.grpc.GetCandlesReply;
+import haveno.proto.grpc.GetCandlesRequest;
 import haveno.proto.grpc.GetTradeStatisticsReply;
 import haveno.proto.grpc.GetTradeStatisticsRequest;
 import io.grpc.ServerInterceptor;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static haveno.proto.grpc.GetTradeStatisticsGrpc.GetTradeStatisticsImplBase;
+import static haveno.proto.grpc.GetTradeStatisticsGrpc.getGetCandlesMethod;
 import static haveno.proto.grpc.GetTradeStatisticsGrpc.getGetTradeStatisticsMethod;
+import static haveno.proto.grpc.GetTradeStatisticsGrpc.getStreamTradeStatisticsMethod;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Slf4j
 class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
 
+    private static final int STREAM_PAGE_SIZE = 1000;
+    private static final String CURSOR_SEPARATOR = ":";
+
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
 
@@ -36,11 +52,116 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
     public void getTradeStatistics(GetTradeStatisticsRequest req,
                                    StreamObserver<GetTradeStatisticsReply> responseObserver) {
         try {
-            var tradeStatistics = coreApi.getTradeStatistics().stream()
-                    .map(TradeStatistics3::toProtoTradeStatistics3)
+            Query query = new Query(req);
+            int limit = getLimit(req);
+            var tradeStatistics = query.nextPage(limit);
+            responseObserver.onNext(toReply(tradeStatistics, limit > 0 && tradeStatistics.size() == limit));
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    @Override
+    public void streamTradeStatistics(GetTradeStatisticsRequest req,
+                                      StreamObserver<GetTradeStatisticsReply> responseObserver) {
+        try {
+            Query query = new Query(req);
+            var serverCallStreamObserver = (ServerCallStreamObserver<GetTradeStatisticsReply>) responseObserver;
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicInteger numRemaining = new AtomicInteger(getLimit(req) > 0 ? getLimit(req) : Integer.MAX_VALUE);
+            serverCallStreamObserver.setOnCancelHandler(() -> done.set(true));
+
+            // Pages are only read while the client keeps up, so a full export does not buffer the whole history
+            serverCallStreamObserver.setOnReadyHandler(() -> {
+                try {
+                    while (!done.get() && serverCallStreamObserver.isReady()) {
+                        int pageSize = Math.min(STREAM_PAGE_SIZE, numRemaining.get());
+                        var tradeStatistics = query.nextPage(pageSize);
+                        boolean hasMore = tradeStatistics.size() == pageSize && numRemaining.addAndGet(-pageSize) > 0;
+                        if (!tradeStatistics.isEmpty()) {
+                            serverCallStreamObserver.onNext(toReply(tradeStatistics, hasMore));
+                        }
+                        if (!hasMore) {
+                            done.set(true);
+                            serverCallStreamObserver.onCompleted();
+                        }
+                    }
+                } catch (Throwable cause) {
+                    if (!done.getAndSet(true)) {
+                        exceptionHandler.handleException(log, cause, responseObserver);
+                    }
+                }
+            });
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    // The limit is an uint32, so values from 2^31 on are negative as an int and are clamped instead of meaning no limit
+    private static int getLimit(GetTradeStatisticsRequest req) {
+        return (int) Math.min(Integer.toUnsignedLong(req.getLimit()), Integer.MAX_VALUE);
+    }
+
+    private static GetTradeStatisticsReply toReply(List<TradeStatistics3> tradeStatistics, boolean hasMore) {
+        var builder = GetTradeStatisticsReply.newBuilder()
+                .addAllTradeStatistics(tradeStatistics.stream()
+                        .map(TradeStatistics3::toProtoTradeStatistics3)
+                        .collect(Collectors.toList()));
+        if (hasMore) {
+            TradeStatistics3 last = tradeStatistics.get(tradeStatistics.size() - 1);
+            builder.setNextCursor(last.getDateAsLong() + CURSOR_SEPARATOR + Utilities.bytesAsHexString(last.getHash()));
+        }
+        return builder.build();
+    }
+
+    // Position in the date sorted trade statistics, encoded in the cursor as the date and hash of the last returned row
+    private class Query {
+        private final String currencyCode;
+        private final long fromDate;
+        private final long toDate;
+        private long cursorDate;
+        private byte[] cursorHash;
+
+        Query(GetTradeStatisticsRequest req) {
+            currencyCode = req.getCurrencyCode().isEmpty() ? null : req.getCurrencyCode().toUpperCase();
+            fromDate = req.getFromDate();
+            toDate = req.getToDate() == 0 ? Long.MAX_VALUE : req.getToDate();
+            if (!req.getCursor().isEmpty()) {
+                try {
+                    String[] tokens = req.getCursor().split(CURSOR_SEPARATOR);
+                    if (tokens.length != 2) throw new IllegalArgumentException();
+                    cursorDate = Long.parseLong(tokens[0]);
+                    cursorHash = Utilities.decodeFromHex(tokens[1]);
+                } catch (Exception e) {
+                    throw new IllegalArgumentException("Invalid cursor: " + req.getCursor());
+                }
+            }
+        }
+
+        List<TradeStatistics3> nextPage(int limit) {
+            var tradeStatistics = coreApi.getTradeStatistics(currencyCode, fromDate, toDate, cursorDate, cursorHash, limit);
+            if (!tradeStatistics.isEmpty()) {
+                TradeStatistics3 last = tradeStatistics.get(tradeStatistics.size() - 1);
+                cursorDate = last.getDateAsLong();
+                cursorHash = last.getHash();
+            }
+            return tradeStatistics;
+        }
+    }
+
+    @Override
+    public void getCandles(GetCandlesRequest req,
+                           StreamObserver<GetCandlesReply> responseObserver) {
+        try {
+            String currencyCode = req.getCurrencyCode().toUpperCase();
+            TickUnit tickUnit = TickUnit.valueOf(req.getTickUnit().toUpperCase());
+            boolean isCryptoCurrency = CurrencyUtil.isCryptoCurrency(currencyCode);
+            var candles = coreApi.getCandles(currencyCode, tickUnit, req.getFromDate(), req.getToDate()).stream()
+                    .map(candle -> toCandleInfo(candle, isCryptoCurrency))
                     .collect(Collectors.toList());
 
-            var reply = GetTradeStatisticsReply.newBuilder().addAllTradeStatistics(tradeStatistics).build();
+            var reply = GetCandlesReply.newBuilder().addAllCandles(candles).build();
             responseObserver.onNext(reply);
             responseObserver.onCompleted();
         } catch (Throwable cause) {
@@ -48,6 +169,20 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
         }
     }
 
+    private static CandleInfo toCandleInfo(Candle candle, boolean isCryptoCurrency) {
+        return CandleInfo.newBuilder()
+                .setDate(candle.getDate())
+                .setOpen(candle.getOpen())
+                .setHigh(candle.getHigh())
+                .setLow(candle.getLow())
+                .setClose(candle.getClose())
+                .setAveragePrice(candle.getAveragePrice(isCryptoCurrency))
+                .setAmount(candle.getAccumulatedAmount())
+                .setVolume(candle.getAccumulatedVolume())
+                .setNumTrades(candle.getNumTrades())
+                .build();
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -58,7 +193,10 @@ class GrpcGetTradeStatisticsService extends GetTradeStatisticsImplBase {
         return getCustomRateMeteringInterceptor(coreApi.getConfig().appDataDir, this.getClass())
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
+                            // unpaged requests still return the whole history, bulk readers should use the stream
                             put(getGetTradeStatisticsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getStreamTradeStatisticsMethod().getFullMethodName(), new GrpcCallRateMeter(1, SECONDS));
+                            put(getGetCandlesMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                         }}
                 )));
     }
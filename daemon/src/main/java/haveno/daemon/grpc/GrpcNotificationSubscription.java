@@ -0,0 +1,172 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.core.api.NotificationListener;
+import haveno.proto.grpc.NotificationMessage;
+import haveno.proto.grpc.NotificationMessage.NotificationType;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Streams notifications to one client.
+ *
+ * Notifications are queued per subscriber and only sent while the call is ready, so a slow client never blocks the
+ * thread which sent the notification. A queued trade update is superseded by a later update of the same trade and
+ * queued keep alives are collapsed into one. Other notifications cannot be recovered once dropped, so a client which
+ * falls behind by more than MAX_PENDING_NOTIFICATIONS is disconnected with RESOURCE_EXHAUSTED and has to register
+ * again.
+ */
+@Slf4j
+class GrpcNotificationSubscription implements NotificationListener {
+    static final int MAX_PENDING_NOTIFICATIONS = 1000;
+
+    private final ServerCallStreamObserver<NotificationMessage> responseObserver;
+    private final Consumer<GrpcNotificationSubscription> onClose;
+
+    // coalescing key -> latest unsent notification, in order of queueing
+    private final Map<String, PendingNotification> pendingNotifications = new LinkedHashMap<>();
+    private long numQueued;
+    private long numSent;
+    private long numCoalesced;
+    private int maxPending;
+    private boolean closed;
+
+    private static class PendingNotification {
+        private final NotificationMessage message;
+        private final long queuedAt;
+
+        PendingNotification(NotificationMessage message, long queuedAt) {
+            this.message = message;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    GrpcNotificationSubscription(ServerCallStreamObserver<NotificationMessage> responseObserver,
+                                 Consumer<GrpcNotificationSubscription> onClose) {
+        this.responseObserver = responseObserver;
+        this.onClose = onClose;
+    }
+
+    void start() {
+        responseObserver.setOnCancelHandler(this::close);
+        responseObserver.setOnReadyHandler(this::sendPendingNotifications);
+    }
+
+    @Override
+    public void onMessage(@NonNull NotificationMessage message) {
+        synchronized (this) {
+            if (closed) return;
+            String key = getCoalescingKey(message);
+            if (pendingNotifications.remove(key) != null) numCoalesced++;
+            pendingNotifications.put(key, new PendingNotification(message, System.currentTimeMillis()));
+            numQueued++;
+            maxPending = Math.max(maxPending, pendingNotifications.size());
+            if (pendingNotifications.size() > MAX_PENDING_NOTIFICATIONS) {
+                log.warn("Notification subscriber fell behind by {} notifications, lag={} ms, disconnecting", pendingNotifications.size(), getLagMillis());
+                closeWithError(Status.RESOURCE_EXHAUSTED.withDescription("notification subscriber fell behind by more than " + MAX_PENDING_NOTIFICATIONS + " notifications"));
+                return;
+            }
+        }
+        sendPendingNotifications();
+    }
+
+    private String getCoalescingKey(NotificationMessage message) {
+        if (message.getType() == NotificationType.TRADE_UPDATE && message.hasTrade()) {
+            return "trade:" + message.getTrade().getTradeId();
+        } else if (message.getType() == NotificationType.KEEP_ALIVE) {
+            return "keepAlive";
+        } else {
+            return "message:" + numQueued; // not coalesced
+        }
+    }
+
+    private synchronized void sendPendingNotifications() {
+        if (closed) return;
+        try {
+            while (responseObserver.isReady()) {
+                Iterator<PendingNotification> iterator = pendingNotifications.values().iterator();
+                if (!iterator.hasNext()) return;
+                NotificationMessage message = iterator.next().message;
+                iterator.remove();
+                responseObserver.onNext(message);
+                numSent++;
+            }
+        } catch (Throwable t) {
+            log.warn("Closing notification subscription: {}", t.getMessage());
+            closeWithError(Status.INTERNAL.withDescription(t.getMessage()));
+        }
+    }
+
+    /**
+     * @return the number of notifications queued for the client
+     */
+    synchronized int getNumPending() {
+        return pendingNotifications.size();
+    }
+
+    /**
+     * @return how long the oldest queued notification has been waiting for the client, in milliseconds
+     */
+    synchronized long getLagMillis() {
+        Iterator<PendingNotification> iterator = pendingNotifications.values().iterator();
+        return iterator.hasNext() ? System.currentTimeMillis() - iterator.next().queuedAt : 0;
+    }
+
+    synchronized long getNumSent() {
+        return numSent;
+    }
+
+    synchronized long getNumCoalesced() {
+        return numCoalesced;
+    }
+
+    synchronized int getMaxPending() {
+        return maxPending;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void closeWithError(Status status) {
+        close();
+        try {
+            responseObserver.onError(status.asRuntimeException());
+        } catch (Throwable ignored) {
+            // the call is already closed
+        }
+    }
+
+    private void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            log.info("Closed notification subscription, sent={}, coalesced={}, max pending={}, dropped={}", numSent, numCoalesced, maxPending, pendingNotifications.size());
+            pendingNotifications.clear();
+        }
+        onClose.accept(this);
+    }
+}
@@ -1,7 +1,6 @@
 package haveno.daemon.grpc;
 
 import haveno.core.api.CoreApi;
-import haveno.core.api.NotificationListener;
 import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
 import haveno.proto.grpc.NotificationMessage;
@@ -13,8 +12,6 @@ import io.grpc.Context;
 import io.grpc.ServerInterceptor;
 import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
-import lombok.NonNull;
-import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
@@ -44,8 +41,13 @@ class GrpcNotificationsService extends NotificationsImplBase {
         Context ctx = Context.current().fork(); // context is independent for long-lived request
         ctx.run(() -> {
             try {
-                coreApi.addNotificationListener(new GrpcNotificationListener(responseObserver));
-                // No onNext / onCompleted, as the response observer should be kept open
+                GrpcNotificationSubscription subscription = new GrpcNotificationSubscription(
+                        (ServerCallStreamObserver<NotificationMessage>) responseObserver,
+                        coreApi::removeNotificationListener);
+                subscription.start();
+                coreApi.addNotificationListener(subscription);
+                if (subscription.isClosed()) coreApi.removeNotificationListener(subscription); // cancelled while registering
+                // No onCompleted, as the response observer should be kept open
             } catch (Throwable t) {
                 exceptionHandler.handleException(log, t, responseObserver);
             }
@@ -67,20 +69,6 @@ class GrpcNotificationsService extends NotificationsImplBase {
         });
     }
 
-    @Value
-    private static class GrpcNotificationListener implements NotificationListener {
-
-        @NonNull
-        StreamObserver<NotificationMessage> responseObserver;
-
-        @Override
-        public void onMessage(@NonNull NotificationMessage message) {
-            if (!((ServerCallStreamObserver<NotificationMessage>) responseObserver).isCancelled()) {
-                responseObserver.onNext(message);
-            }
-        }
-    }
-
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
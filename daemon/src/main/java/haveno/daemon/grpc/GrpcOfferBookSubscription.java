@@ -0,0 +1,246 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.common.UserThread;
+import haveno.core.api.CoreApi;
+import haveno.core.api.model.OfferInfo;
+import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService;
+import haveno.proto.grpc.OfferBookUpdate;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the offers of one market to a client, starting with a snapshot followed by deltas.
+ *
+ * Changes are queued per offer id, so repeated changes of an offer are coalesced into its latest state and an offer
+ * which is added and removed before it was sent is dropped. Updates are only sent while the call is ready. If the
+ * client falls behind by more than MAX_PENDING_UPDATES offers, the queue is dropped and a new snapshot is sent
+ * instead, so a slow client costs bounded memory. The snapshot is built without holding the lock of the
+ * subscription, so offer book changes are not blocked while the offers are checked and converted.
+ */
+@Slf4j
+class GrpcOfferBookSubscription implements OfferBookService.OfferBookChangedListener {
+    static final int MAX_PENDING_UPDATES = 1000;
+
+    private final CoreApi coreApi;
+    private final String direction;
+    private final String currencyCode;
+    private final ServerCallStreamObserver<OfferBookUpdate> responseObserver;
+    private final Function<Offer, haveno.proto.grpc.OfferInfo> toOfferInfo;
+
+    // ids of the offers the client knows
+    private final Set<String> sentOfferIds = new HashSet<>();
+    // offer id -> latest unsent change of the offer, in order of the first unsent change
+    private final Map<String, PendingUpdate> pendingUpdates = new LinkedHashMap<>();
+    private boolean snapshotPending = true;
+    private boolean buildingSnapshot;
+    private boolean closed;
+    private long numCoalescedUpdates;
+    private long numSnapshots;
+
+    private static class PendingUpdate {
+        private final boolean removed;
+        private final Offer offer;
+
+        PendingUpdate(boolean removed, Offer offer) {
+            this.removed = removed;
+            this.offer = offer;
+        }
+    }
+
+    GrpcOfferBookSubscription(CoreApi coreApi,
+                              String direction,
+                              String currencyCode,
+                              ServerCallStreamObserver<OfferBookUpdate> responseObserver) {
+        this(coreApi, direction, currencyCode, responseObserver, offer -> OfferInfo.toOfferInfo(offer).toProtoMessage());
+    }
+
+    GrpcOfferBookSubscription(CoreApi coreApi,
+                              String direction,
+                              String currencyCode,
+                              ServerCallStreamObserver<OfferBookUpdate> responseObserver,
+                              Function<Offer, haveno.proto.grpc.OfferInfo> toOfferInfo) {
+        this.coreApi = coreApi;
+        this.direction = direction;
+        this.currencyCode = currencyCode;
+        this.responseObserver = responseObserver;
+        this.toOfferInfo = toOfferInfo;
+    }
+
+    void start() {
+        responseObserver.setOnCancelHandler(this::close);
+        responseObserver.setOnReadyHandler(this::sendPendingUpdates);
+        coreApi.addOfferBookChangedListener(this);
+    }
+
+    @Override
+    public void onAdded(Offer offer) {
+        boolean isAvailable = coreApi.isAvailableOffer(offer, direction, currencyCode);
+        synchronized (this) {
+            if (closed) return;
+            if (isAvailable) {
+                queue(offer, false);
+            } else if (!queueRemoved(offer)) {
+                return;
+            }
+        }
+        sendPendingUpdates();
+    }
+
+    @Override
+    public void onRemoved(Offer offer) {
+        if (!coreApi.offerMatchesDirectionAndCurrency(offer, direction, currencyCode)) {
+            return;
+        }
+        synchronized (this) {
+            if (closed || !queueRemoved(offer)) return;
+        }
+        sendPendingUpdates();
+    }
+
+    synchronized int getNumPending() {
+        return pendingUpdates.size();
+    }
+
+    synchronized long getNumCoalesced() {
+        return numCoalescedUpdates;
+    }
+
+    synchronized long getNumSnapshots() {
+        return numSnapshots;
+    }
+
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    // An offer which is no longer available is removed at the client if it was sent, otherwise it is not sent
+    private boolean queueRemoved(Offer offer) {
+        if (sentOfferIds.contains(offer.getId()) || buildingSnapshot) {
+            queue(offer, true);
+            return true;
+        }
+        if (pendingUpdates.remove(offer.getId()) != null) {
+            numCoalescedUpdates++;
+        }
+        return false;
+    }
+
+    private void queue(Offer offer, boolean removed) {
+        if (pendingUpdates.put(offer.getId(), new PendingUpdate(removed, offer)) != null) {
+            numCoalescedUpdates++;
+        }
+        if (pendingUpdates.size() > MAX_PENDING_UPDATES) {
+            log.info("Offer book subscriber for {} {} fell behind by {} offers, sending new snapshot", direction, currencyCode, pendingUpdates.size());
+            pendingUpdates.clear();
+            snapshotPending = true;
+        }
+    }
+
+    private void sendPendingUpdates() {
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (closed || buildingSnapshot) return;
+                    if (!snapshotPending) {
+                        sendQueuedUpdates();
+                        return;
+                    }
+                    if (!responseObserver.isReady()) return;
+                    // changes while the snapshot is built are queued and sent after it
+                    snapshotPending = false;
+                    buildingSnapshot = true;
+                    pendingUpdates.clear();
+                }
+
+                List<Offer> offers = coreApi.getOffers(direction, currencyCode);
+                OfferBookUpdate snapshot = OfferBookUpdate.newBuilder()
+                        .setType(OfferBookUpdate.Type.SNAPSHOT)
+                        .addAllOffers(offers.stream()
+                                .map(toOfferInfo)
+                                .collect(Collectors.toList()))
+                        .build();
+
+                synchronized (this) {
+                    buildingSnapshot = false;
+                    if (closed) return;
+                    if (snapshotPending) continue; // fell behind again while the snapshot was built
+                    sentOfferIds.clear();
+                    offers.forEach(offer -> sentOfferIds.add(offer.getId()));
+                    numSnapshots++;
+                    responseObserver.onNext(snapshot);
+                }
+            }
+        } catch (Throwable t) {
+            log.warn("Closing offer book subscription for {} {}: {}", direction, currencyCode, t.getMessage());
+            close();
+            try {
+                responseObserver.onError(Status.INTERNAL.withDescription(t.getMessage()).asRuntimeException());
+            } catch (Throwable ignored) {
+                // the call is already closed
+            }
+        }
+    }
+
+    // The type of an update is decided when it is sent, as a snapshot may have been sent since it was queued
+    private void sendQueuedUpdates() {
+        while (responseObserver.isReady()) {
+            Iterator<Map.Entry<String, PendingUpdate>> iterator = pendingUpdates.entrySet().iterator();
+            if (!iterator.hasNext()) return;
+            PendingUpdate pendingUpdate = iterator.next().getValue();
+            iterator.remove();
+            String offerId = pendingUpdate.offer.getId();
+            OfferBookUpdate update;
+            if (pendingUpdate.removed) {
+                if (!sentOfferIds.remove(offerId)) continue;
+                update = OfferBookUpdate.newBuilder()
+                        .setType(OfferBookUpdate.Type.REMOVED)
+                        .setOfferId(offerId)
+                        .build();
+            } else {
+                update = OfferBookUpdate.newBuilder()
+                        .setType(sentOfferIds.add(offerId) ? OfferBookUpdate.Type.ADDED : OfferBookUpdate.Type.UPDATED)
+                        .addOffers(toOfferInfo.apply(pendingUpdate.offer))
+                        .build();
+            }
+            responseObserver.onNext(update);
+        }
+    }
+
+    private synchronized void close() {
+        if (closed) return;
+        closed = true;
+        pendingUpdates.clear();
+        log.info("Closed offer book subscription for {} {}, snapshots={}, coalesced updates={}", direction, currencyCode, numSnapshots, numCoalescedUpdates);
+
+        // offer book listeners are notified on the user thread, so we do not remove the listener while iterating
+        UserThread.execute(() -> coreApi.removeOfferBookChangedListener(this));
+    }
+}
@@ -25,6 +25,9 @@ import haveno.daemon.grpc.interceptor.CallRateMeteringInterceptor;
 import haveno.daemon.grpc.interceptor.GrpcCallRateMeter;
 import haveno.proto.grpc.CancelOfferReply;
 import haveno.proto.grpc.CancelOfferRequest;
+import haveno.proto.grpc.CancelOfferResult;
+import haveno.proto.grpc.CancelOffersReply;
+import haveno.proto.grpc.CancelOffersRequest;
 import haveno.proto.grpc.GetMyOfferReply;
 import haveno.proto.grpc.GetMyOfferRequest;
 import haveno.proto.grpc.GetMyOffersReply;
@@ -33,9 +36,15 @@ import haveno.proto.grpc.GetOfferReply;
 import haveno.proto.grpc.GetOfferRequest;
 import haveno.proto.grpc.GetOffersReply;
 import haveno.proto.grpc.GetOffersRequest;
+import haveno.proto.grpc.OfferBookUpdate;
 import haveno.proto.grpc.PostOfferReply;
 import haveno.proto.grpc.PostOfferRequest;
+import haveno.proto.grpc.PostOfferResult;
+import haveno.proto.grpc.PostOffersReply;
+import haveno.proto.grpc.PostOffersRequest;
+import haveno.proto.grpc.SubscribeOffersRequest;
 import io.grpc.ServerInterceptor;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 
@@ -49,16 +58,22 @@ import java.util.stream.Collectors;
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static haveno.proto.grpc.OffersGrpc.OffersImplBase;
 import static haveno.proto.grpc.OffersGrpc.getCancelOfferMethod;
+import static haveno.proto.grpc.OffersGrpc.getCancelOffersMethod;
 import static haveno.proto.grpc.OffersGrpc.getGetMyOfferMethod;
 import static haveno.proto.grpc.OffersGrpc.getGetMyOffersMethod;
 import static haveno.proto.grpc.OffersGrpc.getGetOfferMethod;
 import static haveno.proto.grpc.OffersGrpc.getGetOffersMethod;
 import static haveno.proto.grpc.OffersGrpc.getPostOfferMethod;
+import static haveno.proto.grpc.OffersGrpc.getPostOffersMethod;
+import static haveno.proto.grpc.OffersGrpc.getSubscribeOffersMethod;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Slf4j
 class GrpcOffersService extends OffersImplBase {
 
+    // Limits the work a single batch request can queue, the rate metering only counts calls
+    static final int MAX_BATCH_SIZE = 50;
+
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
 
@@ -118,6 +133,20 @@ class GrpcOffersService extends OffersImplBase {
         }
     }
 
+    @Override
+    public void subscribeOffers(SubscribeOffersRequest req,
+                                StreamObserver<OfferBookUpdate> responseObserver) {
+        try {
+            new GrpcOfferBookSubscription(coreApi,
+                    req.getDirection(),
+                    req.getCurrencyCode(),
+                    (ServerCallStreamObserver<OfferBookUpdate>) responseObserver).start();
+            // No onCompleted, as the response observer is kept open until the client cancels
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
     @Override
     public void getMyOffers(GetMyOffersRequest req,
                             StreamObserver<GetMyOffersReply> responseObserver) {
@@ -192,6 +221,85 @@ class GrpcOffersService extends OffersImplBase {
         }
     }
 
+    @Override
+    public void postOffers(PostOffersRequest req,
+                           StreamObserver<PostOffersReply> responseObserver) {
+        try {
+            checkBatchSize(req.getOffersCount(), "offers");
+            // create all offers first, so an invalid offer is reported without reserving funds for it
+            PostOfferResult.Builder[] results = new PostOfferResult.Builder[req.getOffersCount()];
+            List<Integer> indices = new ArrayList<>();
+            List<Offer> offers = new ArrayList<>();
+            List<String> triggerPrices = new ArrayList<>();
+            for (int i = 0; i < req.getOffersCount(); i++) {
+                PostOfferRequest offerReq = req.getOffers(i);
+                results[i] = PostOfferResult.newBuilder();
+                try {
+                    offers.add(coreApi.createOffer(
+                            offerReq.getCurrencyCode(),
+                            offerReq.getDirection(),
+                            offerReq.getPrice(),
+                            offerReq.getUseMarketBasedPrice(),
+                            offerReq.getMarketPriceMarginPct(),
+                            offerReq.getAmount(),
+                            offerReq.getMinAmount(),
+                            offerReq.getBuyerSecurityDepositPct(),
+                            offerReq.getPaymentAccountId()));
+                    triggerPrices.add(offerReq.getTriggerPrice());
+                    indices.add(i);
+                } catch (Exception e) {
+                    results[i].setErrorMessage(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+                }
+            }
+            coreApi.postOffers(offers, triggerPrices, errorMessages -> {
+                try {
+                    for (int i = 0; i < offers.size(); i++) {
+                        PostOfferResult.Builder result = results[indices.get(i)];
+                        if (errorMessages.get(i) != null) {
+                            result.setErrorMessage(errorMessages.get(i));
+                        } else {
+                            OpenOffer openOffer = coreApi.getMyOpenOffer(offers.get(i).getId());
+                            result.setOffer(OfferInfo.toMyOfferInfo(openOffer).toProtoMessage());
+                        }
+                    }
+                    PostOffersReply.Builder reply = PostOffersReply.newBuilder();
+                    for (PostOfferResult.Builder result : results) reply.addResults(result);
+                    responseObserver.onNext(reply.build());
+                    responseObserver.onCompleted();
+                } catch (Throwable cause) {
+                    exceptionHandler.handleException(log, cause, responseObserver);
+                }
+            });
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    @Override
+    public void cancelOffers(CancelOffersRequest req,
+                             StreamObserver<CancelOffersReply> responseObserver) {
+        try {
+            checkBatchSize(req.getIdsCount(), "offer ids");
+            List<String> errorMessages = coreApi.cancelOffers(req.getIdsList());
+            CancelOffersReply.Builder reply = CancelOffersReply.newBuilder();
+            for (int i = 0; i < req.getIdsCount(); i++) {
+                CancelOfferResult.Builder result = CancelOfferResult.newBuilder().setId(req.getIds(i));
+                if (errorMessages.get(i) != null) result.setErrorMessage(errorMessages.get(i));
+                reply.addResults(result);
+            }
+            responseObserver.onNext(reply.build());
+            responseObserver.onCompleted();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    private static void checkBatchSize(int size, String name) {
+        if (size > MAX_BATCH_SIZE)
+            throw new IllegalArgumentException(String.format("cannot process more than %d %s in one request, got %d",
+                    MAX_BATCH_SIZE, name, size));
+    }
+
     final ServerInterceptor[] interceptors() {
         Optional<ServerInterceptor> rateMeteringInterceptor = rateMeteringInterceptor();
         return rateMeteringInterceptor.map(serverInterceptor ->
@@ -206,8 +314,11 @@ class GrpcOffersService extends OffersImplBase {
                             put(getGetMyOfferMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getGetOffersMethod().getFullMethodName(), new GrpcCallRateMeter(20, SECONDS));
                             put(getGetMyOffersMethod().getFullMethodName(), new GrpcCallRateMeter(20, SECONDS));
+                            put(getSubscribeOffersMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                             put(getPostOfferMethod().getFullMethodName(), new GrpcCallRateMeter(20, SECONDS));
                             put(getCancelOfferMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
+                            put(getPostOffersMethod().getFullMethodName(), new GrpcCallRateMeter(5, SECONDS));
+                            put(getCancelOffersMethod().getFullMethodName(), new GrpcCallRateMeter(5, SECONDS));
                         }}
                 )));
     }
@@ -17,6 +17,7 @@
 
 package haveno.daemon.grpc;
 
+import haveno.common.UserThread;
 import haveno.core.api.CoreApi;
 import haveno.core.api.model.MarketDepthInfo;
 import haveno.core.api.model.MarketPriceInfo;
@@ -29,6 +30,7 @@ import haveno.proto.grpc.MarketPriceRequest;
 import haveno.proto.grpc.MarketPricesReply;
 import haveno.proto.grpc.MarketPricesRequest;
 import io.grpc.ServerInterceptor;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.extern.slf4j.Slf4j;
 
@@ -36,15 +38,20 @@ import javax.inject.Inject;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static haveno.daemon.grpc.interceptor.GrpcServiceRateMeteringConfig.getCustomRateMeteringInterceptor;
 import static haveno.proto.grpc.PriceGrpc.PriceImplBase;
 import static haveno.proto.grpc.PriceGrpc.getGetMarketPriceMethod;
+import static haveno.proto.grpc.PriceGrpc.getStreamMarketDepthMethod;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
 @Slf4j
 class GrpcPriceService extends PriceImplBase {
 
+    private static final long MIN_STREAM_INTERVAL_MS = 1000;
+
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
 
@@ -88,6 +95,79 @@ class GrpcPriceService extends PriceImplBase {
         }
     }
 
+    @Override
+    public void streamMarketDepth(MarketDepthRequest req,
+                                  StreamObserver<MarketDepthReply> responseObserver) {
+        try {
+            String currencyCode = req.getCurrencyCode().toUpperCase();
+            coreApi.getMarketDepth(currencyCode); // validate currency before keeping the stream open
+            new MarketDepthSubscription(currencyCode, (ServerCallStreamObserver<MarketDepthReply>) responseObserver).start();
+        } catch (Throwable cause) {
+            exceptionHandler.handleException(log, cause, responseObserver);
+        }
+    }
+
+    // Sends the latest market depth when the market changed, at most once per MIN_STREAM_INTERVAL_MS and only while
+    // the call is ready, so intermediate changes are coalesced into the next update
+    private class MarketDepthSubscription implements Consumer<String> {
+        private final String currencyCode;
+        private final ServerCallStreamObserver<MarketDepthReply> responseObserver;
+        private boolean changed = true;
+        private boolean sendScheduled;
+        private long lastSendTime;
+        private boolean closed;
+
+        MarketDepthSubscription(String currencyCode, ServerCallStreamObserver<MarketDepthReply> responseObserver) {
+            this.currencyCode = currencyCode;
+            this.responseObserver = responseObserver;
+        }
+
+        void start() {
+            responseObserver.setOnCancelHandler(this::close);
+            responseObserver.setOnReadyHandler(this::maybeSend);
+            coreApi.addMarketDepthListener(this);
+        }
+
+        @Override
+        public void accept(String changedCurrencyCode) {
+            if (!currencyCode.equals(changedCurrencyCode)) return;
+            synchronized (this) {
+                changed = true;
+            }
+            maybeSend();
+        }
+
+        private synchronized void maybeSend() {
+            if (closed || !changed || !responseObserver.isReady()) return;
+            long delay = lastSendTime + MIN_STREAM_INTERVAL_MS - System.currentTimeMillis();
+            if (delay > 0) {
+                if (!sendScheduled) {
+                    sendScheduled = true;
+                    UserThread.runAfter(() -> {
+                        synchronized (this) {
+                            sendScheduled = false;
+                        }
+                        maybeSend();
+                    }, delay, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+            changed = false;
+            lastSendTime = System.currentTimeMillis();
+            try {
+                responseObserver.onNext(mapMarketDepthReply(coreApi.getMarketDepth(currencyCode)));
+            } catch (Throwable cause) {
+                close();
+                exceptionHandler.handleException(log, cause, responseObserver);
+            }
+        }
+
+        private synchronized void close() {
+            closed = true;
+            coreApi.removeMarketDepthListener(this);
+        }
+    }
+
     private MarketPricesReply mapMarketPricesReply(List<MarketPriceInfo> marketPrices) {
         MarketPricesReply.Builder builder = MarketPricesReply.newBuilder();
         marketPrices.stream()
@@ -111,6 +191,7 @@ class GrpcPriceService extends PriceImplBase {
                 .or(() -> Optional.of(CallRateMeteringInterceptor.valueOf(
                         new HashMap<>() {{
                             put(getGetMarketPriceMethod().getFullMethodName(), new GrpcCallRateMeter(20, SECONDS));
+                            put(getStreamMarketDepthMethod().getFullMethodName(), new GrpcCallRateMeter(10, SECONDS));
                         }}
                 )));
     }
@@ -17,17 +17,22 @@
 
 package haveno.daemon.grpc;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import haveno.common.config.Config;
 import haveno.core.api.CoreContext;
+import haveno.daemon.grpc.interceptor.CallMetricsInterceptor;
 import haveno.daemon.grpc.interceptor.PasswordAuthInterceptor;
 import io.grpc.Server;
-import io.grpc.ServerBuilder;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static io.grpc.ServerInterceptors.interceptForward;
 
@@ -36,11 +41,13 @@ import static io.grpc.ServerInterceptors.interceptForward;
 public class GrpcServer {
 
     private final Server server;
+    private final CallMetricsInterceptor callMetricsInterceptor;
 
     @Inject
     public GrpcServer(CoreContext coreContext,
                       Config config,
                       PasswordAuthInterceptor passwordAuthInterceptor,
+                      CallMetricsInterceptor callMetricsInterceptor,
                       GrpcAccountService accountService,
                       GrpcDisputeAgentsService disputeAgentsService,
                       GrpcDisputesService disputesService,
@@ -56,7 +63,22 @@ public class GrpcServer {
                       GrpcNotificationsService notificationsService,
                       GrpcMoneroConnectionsService moneroConnectionsService,
                       GrpcMoneroNodeService moneroNodeService) {
-        this.server = ServerBuilder.forPort(config.apiPort)
+        this.callMetricsInterceptor = callMetricsInterceptor;
+
+        // Service methods block on core services, so they run on a bounded pool instead of
+        // gRPC's default cached pool.  Calls beyond its size wait in the executor's queue.
+        // The threads are daemon threads and may still finish calls after shutdown.
+        ExecutorService executor = Executors.newFixedThreadPool(config.apiThreads, new ThreadFactoryBuilder()
+                .setNameFormat("GrpcServer-%d")
+                .setDaemon(true)
+                .build());
+        this.server = NettyServerBuilder.forPort(config.apiPort)
+                .executor(executor)
+                .maxConcurrentCallsPerConnection(config.apiMaxConcurrentCallsPerConnection)
+                .maxInboundMessageSize(config.apiMaxInboundMessageSize)
+                .keepAliveTime(config.apiKeepAliveTime, TimeUnit.SECONDS)
+                .keepAliveTimeout(config.apiKeepAliveTimeout, TimeUnit.SECONDS)
+                .permitKeepAliveTime(config.apiPermitKeepAliveTime, TimeUnit.SECONDS)
                 .addService(interceptForward(accountService, accountService.interceptors()))
                 .addService(interceptForward(disputeAgentsService, disputeAgentsService.interceptors()))
                 .addService(interceptForward(disputesService, disputesService.interceptors()))
@@ -73,6 +95,7 @@ public class GrpcServer {
                 .addService(interceptForward(moneroConnectionsService, moneroConnectionsService.interceptors()))
                 .addService(interceptForward(moneroNodeService, moneroNodeService.interceptors()))
                 .intercept(passwordAuthInterceptor)
+                .intercept(callMetricsInterceptor) // called first, so rejected calls are measured too
                 .build();
         coreContext.setApiUser(true);
     }
@@ -89,6 +112,7 @@ public class GrpcServer {
     public void shutdown() {
         log.info("Server shutdown started");
         server.shutdown();
+        callMetricsInterceptor.logMetrics();
         log.info("Server shutdown complete");
     }
 }
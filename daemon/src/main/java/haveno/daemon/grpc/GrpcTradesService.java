@@ -66,6 +66,8 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 @Slf4j
 class GrpcTradesService extends TradesImplBase {
 
+    private static final String CURSOR_SEPARATOR = ":";
+
     private final CoreApi coreApi;
     private final GrpcExceptionHandler exceptionHandler;
 
@@ -100,6 +102,12 @@ class GrpcTradesService extends TradesImplBase {
     public void getTrades(GetTradesRequest req,
                          StreamObserver<GetTradesReply> responseObserver) {
         try {
+            // Only paged requests get the closed trade history, without limit and cursor all trades are returned as before
+            if (req.getCategory() == GetTradesRequest.Category.CLOSED && (req.getLimit() != 0 || !req.getCursor().isEmpty())) {
+                responseObserver.onNext(getClosedTrades(req));
+                responseObserver.onCompleted();
+                return;
+            }
             List<TradeInfo> trades = coreApi.getTrades()
                     .stream().map(TradeInfo::toTradeInfo)
                     .collect(Collectors.toList());
@@ -115,6 +123,34 @@ class GrpcTradesService extends TradesImplBase {
         }
     }
 
+    // Closed trades are paged from newest to oldest, the cursor is the date and id of the last returned trade
+    private GetTradesReply getClosedTrades(GetTradesRequest req) {
+        long cursorDate = 0;
+        String cursorTradeId = null;
+        if (!req.getCursor().isEmpty()) {
+            try {
+                String[] tokens = req.getCursor().split(CURSOR_SEPARATOR, 2);
+                if (tokens.length != 2 || tokens[1].isEmpty()) throw new IllegalArgumentException();
+                cursorDate = Long.parseLong(tokens[0]);
+                cursorTradeId = tokens[1];
+            } catch (Exception e) {
+                throw new IllegalArgumentException("Invalid cursor: " + req.getCursor());
+            }
+        }
+        // The limit is an uint32, values from 2^31 on are clamped instead of being read as negative
+        int limit = (int) Math.min(Integer.toUnsignedLong(req.getLimit()), Integer.MAX_VALUE);
+        List<Trade> trades = coreApi.getClosedTrades(cursorDate, cursorTradeId, limit);
+        var builder = GetTradesReply.newBuilder()
+                .addAllTrades(trades.stream()
+                        .map(trade -> toTradeInfo(trade).toProtoMessage())
+                        .collect(Collectors.toList()));
+        if (limit > 0 && trades.size() == limit) {
+            Trade last = trades.get(trades.size() - 1);
+            builder.setNextCursor(last.getDate().getTime() + CURSOR_SEPARATOR + last.getId());
+        }
+        return builder.build();
+    }
+
     @Override
     public void takeOffer(TakeOfferRequest req,
                           StreamObserver<TakeOfferReply> responseObserver) {
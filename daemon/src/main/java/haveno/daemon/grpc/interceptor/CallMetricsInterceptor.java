@@ -0,0 +1,97 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc.interceptor;
+
+import io.grpc.ForwardingServerCall.SimpleForwardingServerCall;
+import io.grpc.ForwardingServerCallListener.SimpleForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records the latency and the number of calls in flight of every gRPC method, from the
+ * start of a call until it is closed or cancelled.
+ */
+@Singleton
+@Slf4j
+public final class CallMetricsInterceptor implements ServerInterceptor {
+
+    private final Map<String, GrpcCallMetrics> metricsByMethod = new ConcurrentHashMap<>();
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall,
+                                                                 Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        GrpcCallMetrics metrics = getMetrics(serverCall.getMethodDescriptor().getFullMethodName());
+        CallRecorder recorder = new CallRecorder(metrics);
+        try {
+            ServerCall.Listener<ReqT> listener = serverCallHandler.startCall(new SimpleForwardingServerCall<>(serverCall) {
+                @Override
+                public void close(Status status, Metadata trailers) {
+                    recorder.onEnded(!status.isOk());
+                    super.close(status, trailers);
+                }
+            }, headers);
+            return new SimpleForwardingServerCallListener<>(listener) {
+                @Override
+                public void onCancel() {
+                    recorder.onEnded(true);
+                    super.onCancel();
+                }
+            };
+        } catch (RuntimeException e) {
+            recorder.onEnded(true);
+            throw e;
+        }
+    }
+
+    GrpcCallMetrics getMetrics(String fullMethodName) {
+        return metricsByMethod.computeIfAbsent(fullMethodName, m -> new GrpcCallMetrics());
+    }
+
+    public void logMetrics() {
+        metricsByMethod.forEach((methodName, metrics) -> log.info("{}: {}", methodName, metrics));
+    }
+
+    private static class CallRecorder {
+        private final GrpcCallMetrics metrics;
+        private final long startTime = System.nanoTime();
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        CallRecorder(GrpcCallMetrics metrics) {
+            this.metrics = metrics;
+            metrics.onCallStarted();
+        }
+
+        // a call can be closed and then cancelled, it is only counted once
+        void onEnded(boolean isError) {
+            if (ended.compareAndSet(false, true)) {
+                metrics.onCallEnded(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime), isError);
+            }
+        }
+    }
+}
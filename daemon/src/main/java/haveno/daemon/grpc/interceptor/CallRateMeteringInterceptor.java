@@ -82,7 +82,7 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
                                                            ServerCall<?, ?> serverCall)
             throws StatusRuntimeException {
         String msg = getDefaultRateExceededError(methodName, rateMeter);
-        log.warn(msg + ".");
+        log.warn("{}, {} calls rejected so far.", msg, rateMeter.getRejectedCallsCount());
         serverCall.close(PERMISSION_DENIED.withDescription(msg.toLowerCase()), new Metadata());
     }
 
@@ -101,8 +101,8 @@ public final class CallRateMeteringInterceptor implements ServerInterceptor {
 
     private Optional<Map.Entry<String, GrpcCallRateMeter>> getRateMeterKV(ServerCall<?, ?> serverCall) {
         String rateMeterKey = getRateMeterKey(serverCall);
-        return serviceCallRateMeters.entrySet().stream()
-                .filter((e) -> e.getKey().equals(rateMeterKey)).findFirst();
+        GrpcCallRateMeter rateMeter = serviceCallRateMeters.get(rateMeterKey);
+        return rateMeter == null ? Optional.empty() : Optional.of(Map.entry(rateMeterKey, rateMeter));
     }
 
     private String getRateMeterKey(ServerCall<?, ?> serverCall) {
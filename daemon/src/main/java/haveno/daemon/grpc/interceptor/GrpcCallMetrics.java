@@ -0,0 +1,121 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.String.format;
+
+/**
+ * Latency and in-flight histograms of one gRPC method.  Calls are counted into fixed
+ * buckets, so recording a call does not lock or allocate.
+ */
+class GrpcCallMetrics {
+
+    // Upper bounds of the histogram buckets, the last bucket counts everything above.
+    static final long[] LATENCY_BUCKETS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+    static final long[] IN_FLIGHT_BUCKETS = {1, 2, 4, 8, 16, 32, 64, 128, 256};
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLongArray latencyCounts = new AtomicLongArray(LATENCY_BUCKETS_MS.length + 1);
+    private final AtomicLongArray inFlightCounts = new AtomicLongArray(IN_FLIGHT_BUCKETS.length + 1);
+    private final AtomicLong numCalls = new AtomicLong();
+    private final AtomicLong numErrors = new AtomicLong();
+    private final AtomicLong maxLatencyMs = new AtomicLong();
+    private final AtomicLong maxInFlight = new AtomicLong();
+
+    void onCallStarted() {
+        int numInFlight = inFlight.incrementAndGet();
+        inFlightCounts.incrementAndGet(getBucket(IN_FLIGHT_BUCKETS, numInFlight));
+        maxInFlight.accumulateAndGet(numInFlight, Math::max);
+    }
+
+    void onCallEnded(long latencyMs, boolean isError) {
+        inFlight.decrementAndGet();
+        latencyCounts.incrementAndGet(getBucket(LATENCY_BUCKETS_MS, latencyMs));
+        maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+        numCalls.incrementAndGet();
+        if (isError) numErrors.incrementAndGet();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    long getNumCalls() {
+        return numCalls.get();
+    }
+
+    long getNumErrors() {
+        return numErrors.get();
+    }
+
+    long getMaxLatencyMs() {
+        return maxLatencyMs.get();
+    }
+
+    /**
+     * @return the upper bound of the latency bucket holding the given percentile (0-100),
+     * or the max latency if it falls into the last bucket
+     */
+    long getLatencyPercentileMs(double percentile) {
+        return getPercentile(latencyCounts, LATENCY_BUCKETS_MS, percentile, maxLatencyMs.get());
+    }
+
+    /**
+     * @return the upper bound of the bucket holding the given percentile (0-100) of the
+     * number of calls in flight when a call started
+     */
+    long getInFlightPercentile(double percentile) {
+        return getPercentile(inFlightCounts, IN_FLIGHT_BUCKETS, percentile, maxInFlight.get());
+    }
+
+    private static long getPercentile(AtomicLongArray counts, long[] bounds, double percentile, long max) {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long count = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            count += counts.get(i);
+            if (count >= rank) return Math.min(bounds[i], max);
+        }
+        return max;
+    }
+
+    private static int getBucket(long[] bounds, long value) {
+        for (int i = 0; i < bounds.length; i++) {
+            if (value <= bounds[i]) return i;
+        }
+        return bounds.length;
+    }
+
+    @Override
+    public String toString() {
+        return format("calls=%d, errors=%d, inFlight=%d, p90 inFlight=%d, p50=%dms, p99=%dms, max=%dms",
+                getNumCalls(),
+                getNumErrors(),
+                getInFlight(),
+                getInFlightPercentile(90),
+                getLatencyPercentileMs(50),
+                getLatencyPercentileMs(99),
+                getMaxLatencyMs());
+    }
+}
@@ -4,9 +4,9 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayDeque;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Predicate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import static java.lang.String.format;
 import static java.lang.System.currentTimeMillis;
@@ -14,6 +14,11 @@ import static java.lang.System.currentTimeMillis;
 @Slf4j
 public class GrpcCallRateMeter {
 
+    // Each ring slot packs the call's timestamp with the low bits of the round
+    // (sequence / allowedCallsPerTimeWindow + 1) in which the slot was claimed.
+    private static final int ROUND_BITS = 20;
+    private static final long ROUND_MASK = (1L << ROUND_BITS) - 1;
+
     @Getter
     private final int allowedCallsPerTimeWindow;
     @Getter
@@ -24,7 +29,13 @@ public class GrpcCallRateMeter {
     @Getter
     private transient final long timeUnitIntervalInMilliseconds;
 
-    private transient final ArrayDeque<Long> callTimestamps;
+    // Holds the timestamps of the last allowedCallsPerTimeWindow allowed calls.  The
+    // slot at nextCallSequence is the oldest one, and a call is allowed if and only if
+    // that timestamp is stale, which is the same sliding window the previous deque of
+    // timestamps implemented, without locking or allocating per call.
+    private transient final AtomicLongArray callTimestamps;
+    private transient final AtomicLong nextCallSequence;
+    private transient final AtomicLong rejectedCallsCount;
 
     public GrpcCallRateMeter(int allowedCallsPerTimeWindow, TimeUnit timeUnit) {
         this(allowedCallsPerTimeWindow, timeUnit, 1);
@@ -35,68 +46,88 @@ public class GrpcCallRateMeter {
         this.timeUnit = timeUnit;
         this.numTimeUnits = numTimeUnits;
         this.timeUnitIntervalInMilliseconds = timeUnit.toMillis(1) * numTimeUnits;
-        this.callTimestamps = new ArrayDeque<>();
+        this.callTimestamps = new AtomicLongArray(Math.max(1, allowedCallsPerTimeWindow));
+        this.nextCallSequence = new AtomicLong();
+        this.rejectedCallsCount = new AtomicLong();
     }
 
     public boolean checkAndIncrement() {
-        synchronized (callTimestamps) {
-            if (getCallsCount() < allowedCallsPerTimeWindow) {
-                incrementCallsCount();
-                return true;
-            } else {
+        if (allowedCallsPerTimeWindow <= 0) {
+            rejectedCallsCount.incrementAndGet();
+            return false;
+        }
+        while (true) {
+            long sequence = nextCallSequence.get();
+            int slot = (int) (sequence % allowedCallsPerTimeWindow);
+            long round = (sequence / allowedCallsPerTimeWindow + 1) & ROUND_MASK;
+            long value = callTimestamps.get(slot);
+            if ((value & ROUND_MASK) == round) {
+                // Another call claimed this slot but has not advanced the sequence yet.
+                nextCallSequence.compareAndSet(sequence, sequence + 1);
+                continue;
+            }
+            long now = currentTimeMillis();
+            if (!isStale(value >>> ROUND_BITS, now)) {
+                rejectedCallsCount.incrementAndGet();
                 return false;
             }
+            if (callTimestamps.compareAndSet(slot, value, now << ROUND_BITS | round)) {
+                nextCallSequence.compareAndSet(sequence, sequence + 1);
+                return true;
+            }
         }
     }
 
     public int getCallsCount() {
-        synchronized (callTimestamps) {
-            removeStaleCallTimestamps();
-            return callTimestamps.size();
+        long now = currentTimeMillis();
+        int count = 0;
+        for (int i = 0; i < callTimestamps.length(); i++) {
+            if (!isStale(callTimestamps.get(i) >>> ROUND_BITS, now))
+                count++;
         }
+        return count;
     }
 
-    public String getCallsCountProgress(String calledMethodName) {
-        synchronized (callTimestamps) {
-            String shortTimeUnitName = StringUtils.chop(timeUnit.name().toLowerCase());
-            // Just print 'GetVersion has been called N times...',
-            // not 'io.haveno.protobuffer.GetVersion/GetVersion has been called N times...'
-            String loggedMethodName = calledMethodName.split("/")[1];
-            return format("%s has been called %d time%s in the last %s, rate limit is %d/%s",
-                    loggedMethodName,
-                    callTimestamps.size(),
-                    callTimestamps.size() == 1 ? "" : "s",
-                    shortTimeUnitName,
-                    allowedCallsPerTimeWindow,
-                    shortTimeUnitName);
-        }
+    public long getRejectedCallsCount() {
+        return rejectedCallsCount.get();
     }
 
-    private void incrementCallsCount() {
-        callTimestamps.add(currentTimeMillis());
+    /**
+     * @return the share of the allowed calls used in the current time window, from 0 to 1
+     */
+    public double getUtilization() {
+        return allowedCallsPerTimeWindow <= 0 ? 1 : (double) getCallsCount() / allowedCallsPerTimeWindow;
     }
 
-    private void removeStaleCallTimestamps() {
-        while (!callTimestamps.isEmpty() && isStale.test(callTimestamps.peek())) {
-            callTimestamps.remove();
-        }
+    public String getCallsCountProgress(String calledMethodName) {
+        String shortTimeUnitName = StringUtils.chop(timeUnit.name().toLowerCase());
+        // Just print 'GetVersion has been called N times...',
+        // not 'io.haveno.protobuffer.GetVersion/GetVersion has been called N times...'
+        String loggedMethodName = calledMethodName.split("/")[1];
+        int callsCount = getCallsCount();
+        return format("%s has been called %d time%s in the last %s, rate limit is %d/%s",
+                loggedMethodName,
+                callsCount,
+                callsCount == 1 ? "" : "s",
+                shortTimeUnitName,
+                allowedCallsPerTimeWindow,
+                shortTimeUnitName);
     }
 
-    private final Predicate<Long> isStale = (t) -> {
-        long stale = currentTimeMillis() - this.getTimeUnitIntervalInMilliseconds();
+    private boolean isStale(long timestamp, long now) {
         // Is the given timestamp before the current time minus 1 timeUnit in millis?
-        return t < stale;
-    };
+        return timestamp < now - timeUnitIntervalInMilliseconds;
+    }
 
     @Override
     public String toString() {
-        synchronized (callTimestamps) {
-            return "GrpcCallRateMeter{" +
-                    "allowedCallsPerTimeWindow=" + allowedCallsPerTimeWindow +
-                    ", timeUnit=" + timeUnit.name() +
-                    ", timeUnitIntervalInMilliseconds=" + timeUnitIntervalInMilliseconds +
-                    ", callsCount=" + callTimestamps.size() +
-                    '}';
-        }
+        return "GrpcCallRateMeter{" +
+                "allowedCallsPerTimeWindow=" + allowedCallsPerTimeWindow +
+                ", timeUnit=" + timeUnit.name() +
+                ", timeUnitIntervalInMilliseconds=" + timeUnitIntervalInMilliseconds +
+                ", callsCount=" + getCallsCount() +
+                ", utilization=" + format("%.2f", getUtilization()) +
+                ", rejectedCallsCount=" + rejectedCallsCount.get() +
+                '}';
     }
 }
@@ -0,0 +1,216 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.proto.grpc.NotificationMessage;
+import haveno.proto.grpc.NotificationMessage.NotificationType;
+import haveno.proto.grpc.TradeInfo;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GrpcNotificationSubscriptionTest {
+    private StalledObserver observer;
+    private AtomicBoolean removed;
+    private GrpcNotificationSubscription subscription;
+
+    @Before
+    public void setUp() {
+        observer = new StalledObserver();
+        removed = new AtomicBoolean();
+        subscription = new GrpcNotificationSubscription(observer, s -> removed.set(true));
+        subscription.start();
+    }
+
+    @Test
+    public void testStalledClientDoesNotBlockSender() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> future = executor.submit(() -> {
+                for (int i = 0; i < 100; i++) subscription.onMessage(chatMessage("message " + i));
+            });
+            future.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(observer.sent.isEmpty());
+        assertEquals(100, subscription.getNumPending());
+        assertTrue(subscription.getLagMillis() >= 0);
+
+        // the client catches up
+        observer.setReady(true);
+        assertEquals(100, observer.sent.size());
+        assertEquals("message 0", observer.sent.get(0).getMessage());
+        assertEquals("message 99", observer.sent.get(99).getMessage());
+        assertEquals(0, subscription.getNumPending());
+        assertEquals(0, subscription.getLagMillis());
+        assertEquals(100, subscription.getNumSent());
+        assertEquals(100, subscription.getMaxPending());
+    }
+
+    @Test
+    public void testSupersededTradeUpdatesAreCoalesced() {
+        subscription.onMessage(tradeUpdate("trade1", "deposits published"));
+        subscription.onMessage(tradeUpdate("trade2", "deposits published"));
+        subscription.onMessage(chatMessage("hello"));
+        subscription.onMessage(tradeUpdate("trade1", "payment sent"));
+        subscription.onMessage(keepAlive());
+        subscription.onMessage(keepAlive());
+        assertEquals(4, subscription.getNumPending());
+        assertEquals(2, subscription.getNumCoalesced());
+
+        observer.setReady(true);
+        assertEquals(4, observer.sent.size());
+        assertEquals("trade2", observer.sent.get(0).getTrade().getTradeId());
+        assertEquals("hello", observer.sent.get(1).getMessage());
+        assertEquals("payment sent", observer.sent.get(2).getMessage());
+        assertEquals(NotificationType.KEEP_ALIVE, observer.sent.get(3).getType());
+    }
+
+    @Test
+    public void testStalledClientIsDisconnectedWhenQueueIsFull() {
+        for (int i = 0; i <= GrpcNotificationSubscription.MAX_PENDING_NOTIFICATIONS; i++) {
+            subscription.onMessage(chatMessage("message " + i));
+        }
+        assertTrue(subscription.isClosed());
+        assertTrue(removed.get());
+        assertEquals(0, subscription.getNumPending());
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, ((StatusRuntimeException) observer.error).getStatus().getCode());
+
+        // later notifications are ignored
+        subscription.onMessage(chatMessage("late"));
+        observer.setReady(true);
+        assertTrue(observer.sent.isEmpty());
+    }
+
+    @Test
+    public void testCancelRemovesListener() {
+        subscription.onMessage(chatMessage("hello"));
+        observer.cancel();
+        assertTrue(subscription.isClosed());
+        assertTrue(removed.get());
+        assertEquals(0, subscription.getNumPending());
+        assertNull(observer.error);
+    }
+
+    private static NotificationMessage chatMessage(String message) {
+        return NotificationMessage.newBuilder()
+                .setType(NotificationType.CHAT_MESSAGE)
+                .setMessage(message)
+                .build();
+    }
+
+    private static NotificationMessage tradeUpdate(String tradeId, String message) {
+        return NotificationMessage.newBuilder()
+                .setType(NotificationType.TRADE_UPDATE)
+                .setTrade(TradeInfo.newBuilder().setTradeId(tradeId))
+                .setMessage(message)
+                .build();
+    }
+
+    private static NotificationMessage keepAlive() {
+        return NotificationMessage.newBuilder()
+                .setType(NotificationType.KEEP_ALIVE)
+                .build();
+    }
+
+    // Client which does not read until setReady(true) is called.
+    private static class StalledObserver extends ServerCallStreamObserver<NotificationMessage> {
+        private final List<NotificationMessage> sent = new ArrayList<>();
+        private volatile boolean ready;
+        private boolean cancelled;
+        private Runnable onReadyHandler;
+        private Runnable onCancelHandler;
+        private Throwable error;
+
+        void setReady(boolean ready) {
+            this.ready = ready;
+            if (ready) onReadyHandler.run();
+        }
+
+        void cancel() {
+            cancelled = true;
+            onCancelHandler.run();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            this.onCancelHandler = onCancelHandler;
+        }
+
+        @Override
+        public void setCompression(String compression) {
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+
+        @Override
+        public void onNext(NotificationMessage value) {
+            if (!ready) throw new IllegalStateException("Client is not ready");
+            sent.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.core.api.CoreApi;
+import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService;
+import haveno.proto.grpc.OfferBookUpdate;
+import haveno.proto.grpc.OfferInfo;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GrpcOfferBookSubscriptionTest {
+    private FakeOfferBook offerBook;
+    private StalledObserver observer;
+    private GrpcOfferBookSubscription subscription;
+
+    @Before
+    public void setUp() {
+        offerBook = new FakeOfferBook();
+        observer = new StalledObserver();
+        subscription = new GrpcOfferBookSubscription(offerBook, "BUY", "USD", observer,
+                offer -> OfferInfo.newBuilder().setId(offer.getId()).build());
+        subscription.start();
+    }
+
+    @Test
+    public void testSnapshotFollowedByDeltas() {
+        offerBook.add("a");
+        observer.setReady(true);
+        assertUpdates(asList("SNAPSHOT [a]"));
+
+        offerBook.add("b");
+        offerBook.add("a");
+        offerBook.remove("b");
+        assertUpdates(asList("SNAPSHOT [a]", "ADDED [b]", "UPDATED [a]", "REMOVED b"));
+    }
+
+    @Test
+    public void testSentOfferWhichIsNoLongerAvailableIsRemoved() {
+        offerBook.add("a");
+        observer.setReady(true);
+
+        // an offer which is taken is updated, but no longer available
+        offerBook.setAvailable("a", false);
+        subscription.onAdded(offerBook.offers.get("a"));
+        // an offer which was never sent is not removed
+        offerBook.setAvailable("b", false);
+        offerBook.add("b");
+        assertUpdates(asList("SNAPSHOT [a]", "REMOVED a"));
+    }
+
+    @Test
+    public void testChangesOfStalledClientAreCoalesced() {
+        offerBook.add("a");
+        observer.setReady(true);
+        observer.setReady(false);
+
+        offerBook.add("b");
+        offerBook.add("b");
+        offerBook.add("c");
+        offerBook.remove("c");
+        offerBook.add("a");
+        offerBook.setAvailable("a", false);
+        subscription.onAdded(offerBook.offers.get("a"));
+        assertEquals(2, subscription.getNumPending());
+        assertEquals(3, subscription.getNumCoalesced());
+
+        observer.setReady(true);
+        assertUpdates(asList("SNAPSHOT [a]", "ADDED [b]", "REMOVED a"));
+    }
+
+    @Test
+    public void testSnapshotIsSentIfClientFallsBehind() {
+        observer.setReady(true);
+        observer.setReady(false);
+        for (int i = 0; i <= GrpcOfferBookSubscription.MAX_PENDING_UPDATES; i++) {
+            offerBook.add("offer" + i);
+        }
+        assertEquals(0, subscription.getNumPending());
+
+        observer.setReady(true);
+        assertEquals(2, subscription.getNumSnapshots());
+        assertEquals(2, observer.sent.size());
+        assertEquals(GrpcOfferBookSubscription.MAX_PENDING_UPDATES + 1, observer.sent.get(1).getOffersCount());
+    }
+
+    @Test
+    public void testChangesAreNotBlockedWhileSnapshotIsBuilt() throws Exception {
+        offerBook.add("a");
+        offerBook.add("b");
+        offerBook.blockGetOffers();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> snapshot = executor.submit(() -> observer.setReady(true));
+            assertTrue(offerBook.getOffersCalled.await(10, TimeUnit.SECONDS));
+
+            // the offer book changes while the snapshot is built
+            offerBook.add("c");
+            offerBook.remove("a");
+            assertEquals(2, subscription.getNumPending());
+            assertTrue(observer.sent.isEmpty());
+
+            offerBook.releaseGetOffers.countDown();
+            snapshot.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertUpdates(asList("SNAPSHOT [a, b]", "ADDED [c]", "REMOVED a"));
+    }
+
+    @Test
+    public void testCancelRemovesListener() {
+        observer.setReady(true);
+        observer.cancel();
+
+        assertTrue(subscription.isClosed());
+        assertTrue(offerBook.listeners.isEmpty());
+        offerBook.add("a");
+        assertEquals(1, observer.sent.size());
+        assertNull(observer.error);
+    }
+
+    private void assertUpdates(List<String> expected) {
+        assertEquals(expected, observer.sent.stream()
+                .map(update -> update.getType() == OfferBookUpdate.Type.REMOVED ?
+                        update.getType() + " " + update.getOfferId() :
+                        update.getType() + " " + update.getOffersList().stream().map(OfferInfo::getId).collect(Collectors.toList()))
+                .collect(Collectors.toList()));
+    }
+
+    private static class TestOffer extends Offer {
+        private final String id;
+
+        TestOffer(String id) {
+            super(null);
+            this.id = id;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+    }
+
+    // Offer book of one market which notifies the listeners on the calling thread.
+    private static class FakeOfferBook extends CoreApi {
+        private final Map<String, Offer> offers = new LinkedHashMap<>();
+        private final Set<String> unavailableIds = new HashSet<>();
+        private final List<OfferBookService.OfferBookChangedListener> listeners = new ArrayList<>();
+        private final CountDownLatch getOffersCalled = new CountDownLatch(1);
+        private CountDownLatch releaseGetOffers = new CountDownLatch(0);
+
+        FakeOfferBook() {
+            super(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        }
+
+        void add(String id) {
+            Offer offer = offers.computeIfAbsent(id, TestOffer::new);
+            listeners.forEach(listener -> listener.onAdded(offer));
+        }
+
+        void remove(String id) {
+            Offer offer = offers.remove(id);
+            listeners.forEach(listener -> listener.onRemoved(offer));
+        }
+
+        void setAvailable(String id, boolean available) {
+            if (available) unavailableIds.remove(id);
+            else unavailableIds.add(id);
+        }
+
+        void blockGetOffers() {
+            releaseGetOffers = new CountDownLatch(1);
+        }
+
+        @Override
+        public List<Offer> getOffers(String direction, String currencyCode) {
+            List<Offer> availableOffers = offers.values().stream()
+                    .filter(offer -> !unavailableIds.contains(offer.getId()))
+                    .collect(Collectors.toList());
+            getOffersCalled.countDown();
+            try {
+                assertTrue(releaseGetOffers.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return availableOffers;
+        }
+
+        @Override
+        public boolean isAvailableOffer(Offer offer, String direction, String currencyCode) {
+            return !unavailableIds.contains(offer.getId());
+        }
+
+        @Override
+        public boolean offerMatchesDirectionAndCurrency(Offer offer, String direction, String currencyCode) {
+            return true;
+        }
+
+        @Override
+        public void addOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+            listeners.add(listener);
+        }
+
+        @Override
+        public void removeOfferBookChangedListener(OfferBookService.OfferBookChangedListener listener) {
+            listeners.remove(listener);
+        }
+    }
+
+    // Client which does not read until setReady(true) is called.
+    private static class StalledObserver extends ServerCallStreamObserver<OfferBookUpdate> {
+        private final List<OfferBookUpdate> sent = new ArrayList<>();
+        private volatile boolean ready;
+        private boolean cancelled;
+        private Runnable onReadyHandler;
+        private Runnable onCancelHandler;
+        private Throwable error;
+
+        void setReady(boolean ready) {
+            this.ready = ready;
+            if (ready) onReadyHandler.run();
+        }
+
+        void cancel() {
+            cancelled = true;
+            onCancelHandler.run();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void setOnCancelHandler(Runnable onCancelHandler) {
+            this.onCancelHandler = onCancelHandler;
+        }
+
+        @Override
+        public void setCompression(String compression) {
+        }
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+            this.onReadyHandler = onReadyHandler;
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void request(int count) {
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+
+        @Override
+        public void onNext(OfferBookUpdate value) {
+            if (!ready) throw new IllegalStateException("Client is not ready");
+            sent.add(value);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc;
+
+import haveno.proto.grpc.CancelOffersRequest;
+import haveno.proto.grpc.PostOfferRequest;
+import haveno.proto.grpc.PostOffersRequest;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GrpcOffersServiceTest {
+    private GrpcOffersService service;
+
+    @Before
+    public void setUp() {
+        // the batch size is checked before the core api is used
+        service = new GrpcOffersService(null, new GrpcExceptionHandler());
+    }
+
+    @Test
+    public void testPostOffersRejectsTooManyOffers() {
+        PostOffersRequest.Builder req = PostOffersRequest.newBuilder();
+        for (int i = 0; i <= GrpcOffersService.MAX_BATCH_SIZE; i++) {
+            req.addOffers(PostOfferRequest.newBuilder().setCurrencyCode("EUR"));
+        }
+        RecordingObserver<Object> observer = new RecordingObserver<>();
+        try {
+            service.postOffers(req.build(), cast(observer));
+            fail("expected exception");
+        } catch (StatusRuntimeException e) {
+            assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        }
+        assertTrue(observer.error instanceof StatusRuntimeException);
+        assertFalse(observer.completed);
+    }
+
+    @Test
+    public void testCancelOffersRejectsTooManyIds() {
+        CancelOffersRequest.Builder req = CancelOffersRequest.newBuilder();
+        for (int i = 0; i <= GrpcOffersService.MAX_BATCH_SIZE; i++) {
+            req.addIds("offer" + i);
+        }
+        RecordingObserver<Object> observer = new RecordingObserver<>();
+        try {
+            service.cancelOffers(req.build(), cast(observer));
+            fail("expected exception");
+        } catch (StatusRuntimeException e) {
+            assertEquals(Status.Code.INVALID_ARGUMENT, e.getStatus().getCode());
+        }
+        assertTrue(observer.error instanceof StatusRuntimeException);
+        assertFalse(observer.completed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> StreamObserver<T> cast(StreamObserver<?> observer) {
+        return (StreamObserver<T>) observer;
+    }
+
+    private static class RecordingObserver<T> implements StreamObserver<T> {
+        private Throwable error;
+        private boolean completed;
+
+        @Override
+        public void onNext(T value) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            error = t;
+        }
+
+        @Override
+        public void onCompleted() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc.interceptor;
+
+import org.junit.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GrpcCallMetricsTest {
+
+    @Test
+    public void testLatencyPercentiles() {
+        GrpcCallMetrics metrics = new GrpcCallMetrics();
+        assertEquals(0, metrics.getLatencyPercentileMs(99));
+
+        for (int i = 0; i < 98; i++) {
+            metrics.onCallStarted();
+            metrics.onCallEnded(3, false);
+        }
+        metrics.onCallStarted();
+        metrics.onCallEnded(700, false);
+        metrics.onCallStarted();
+        metrics.onCallEnded(20000, true);
+
+        assertEquals(100, metrics.getNumCalls());
+        assertEquals(1, metrics.getNumErrors());
+        assertEquals(0, metrics.getInFlight());
+        assertEquals(5, metrics.getLatencyPercentileMs(50));
+        assertEquals(5, metrics.getLatencyPercentileMs(98));
+        assertEquals(1000, metrics.getLatencyPercentileMs(99));
+        // the last bucket is open ended, so it reports the max latency
+        assertEquals(20000, metrics.getLatencyPercentileMs(100));
+        assertEquals(20000, metrics.getMaxLatencyMs());
+    }
+
+    @Test
+    public void testInFlightPercentiles() {
+        GrpcCallMetrics metrics = new GrpcCallMetrics();
+        for (int i = 0; i < 10; i++) metrics.onCallStarted();
+        assertEquals(10, metrics.getInFlight());
+        // calls started with 1 to 10 calls in flight
+        assertEquals(4, metrics.getInFlightPercentile(40));
+        assertEquals(10, metrics.getInFlightPercentile(100));
+
+        for (int i = 0; i < 10; i++) metrics.onCallEnded(1, false);
+        assertEquals(0, metrics.getInFlight());
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.daemon.grpc.interceptor;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GrpcCallRateMeterTest {
+
+    @Test
+    public void testRejectionsAndUtilization() {
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(4, MINUTES);
+        assertEquals(0, rateMeter.getUtilization());
+
+        assertTrue(rateMeter.checkAndIncrement());
+        assertTrue(rateMeter.checkAndIncrement());
+        assertEquals(0.5, rateMeter.getUtilization());
+
+        assertTrue(rateMeter.checkAndIncrement());
+        assertTrue(rateMeter.checkAndIncrement());
+        assertFalse(rateMeter.checkAndIncrement());
+        assertFalse(rateMeter.checkAndIncrement());
+        assertEquals(4, rateMeter.getCallsCount());
+        assertEquals(1, rateMeter.getUtilization());
+        assertEquals(2, rateMeter.getRejectedCallsCount());
+    }
+
+    @Test
+    public void testConcurrentCallsDoNotExceedLimit() throws InterruptedException {
+        int allowedCalls = 100;
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(allowedCalls, MINUTES);
+        AtomicInteger numAllowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 50; j++) {
+                    if (rateMeter.checkAndIncrement())
+                        numAllowed.incrementAndGet();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(allowedCalls, numAllowed.get());
+        assertEquals(allowedCalls, rateMeter.getCallsCount());
+        assertEquals(8 * 50 - allowedCalls, rateMeter.getRejectedCallsCount());
+    }
+
+    @Test
+    public void testSingleCallWindow() throws InterruptedException {
+        GrpcCallRateMeter rateMeter = new GrpcCallRateMeter(1, SECONDS);
+        assertTrue(rateMeter.checkAndIncrement());
+        assertFalse(rateMeter.checkAndIncrement());
+
+        Thread.sleep(1 + rateMeter.getTimeUnitIntervalInMilliseconds());
+        assertEquals(0, rateMeter.getCallsCount());
+        assertTrue(rateMeter.checkAndIncrement());
+        assertFalse(rateMeter.checkAndIncrement());
+    }
+}
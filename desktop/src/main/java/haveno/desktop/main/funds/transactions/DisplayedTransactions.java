@@ -61,7 +61,9 @@ class DisplayedTransactions extends ObservableListDecorator<TransactionsListItem
                 .map(transactionAwareTradableFactory::create)
                 .filter(tradable -> tradable.isRelatedToTransaction(transaction))
                 .findAny()
-                .orElse(null);
+                .orElseGet(() -> tradableRepository.getArchivedByTxId(transaction.getHash())
+                        .map(transactionAwareTradableFactory::create)
+                        .orElse(null));
 
         return transactionListItemFactory.create(transaction, maybeTradable);
     }
@@ -26,6 +26,7 @@ import haveno.core.trade.failed.FailedTradesManager;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.Optional;
 import java.util.Set;
 
 @Singleton
@@ -54,4 +55,9 @@ public class TradableRepository {
                 .addAll(failedTradesManager.getObservableList())
                 .build();
     }
+
+    // Archived tradables are not part of getAll, they are looked up by the tx to not read the whole archive
+    Optional<Tradable> getArchivedByTxId(String txId) {
+        return closedTradableManager.getArchivedTradableByTxId(txId);
+    }
 }
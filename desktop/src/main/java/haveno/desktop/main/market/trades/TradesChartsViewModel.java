@@ -48,6 +48,7 @@ import javafx.util.Pair;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -55,7 +56,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
 
 class TradesChartsViewModel extends ActivatableViewModel {
     static final int MAX_TICKS = 90;
@@ -200,7 +200,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     private void applyAsyncUsdAveragePriceMapsPerTickUnit(CompletableFuture<Boolean> completeFuture) {
         long ts = System.currentTimeMillis();
-        ChartCalculations.getUsdAveragePriceMapsPerTickUnit(tradeStatisticsManager.getObservableTradeStatisticsSet())
+        ChartCalculations.getUsdAveragePriceMapsPerTickUnit(tradeStatisticsManager.getCandleStore())
                 .whenComplete((usdAveragePriceMapsPerTickUnit, throwable) -> {
                     if (deactivateCalled) {
                         return;
@@ -227,7 +227,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
                                                                             @Nullable CompletableFuture<Boolean> completeFuture) {
         CompletableFuture<Boolean> future = new CompletableFuture<>();
         long ts = System.currentTimeMillis();
-        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsManager.getObservableTradeStatisticsSet(),
+        ChartCalculations.getTradeStatisticsForCurrency(tradeStatisticsManager.getTradeStatisticsColumns(),
                 currencyCode,
                 showAllTradeCurrenciesProperty.get())
                 .whenComplete((list, throwable) -> {
@@ -359,9 +359,10 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     private void fillTradeCurrencies() {
         // Don't use a set as we need all entries
-        List<TradeCurrency> tradeCurrencyList = tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .flatMap(e -> CurrencyUtil.getTradeCurrency(e.getCurrency()).stream())
-                .collect(Collectors.toList());
+        List<TradeCurrency> tradeCurrencyList = new ArrayList<>();
+        tradeStatisticsManager.getTradeStatisticsColumns().getNumTradesByCurrency().forEach((currencyCode, numTrades) ->
+                CurrencyUtil.getTradeCurrency(currencyCode).ifPresent(tradeCurrency ->
+                        tradeCurrencyList.addAll(Collections.nCopies(numTrades, tradeCurrency))));
         currencyListItems.updateWithCurrencies(tradeCurrencyList, showAllCurrencyListItem);
     }
 
@@ -17,6 +17,7 @@
 
 package haveno.desktop.main.offer.offerbook;
 
+import haveno.common.UserThread;
 import haveno.core.filter.FilterManager;
 import haveno.core.offer.Offer;
 import haveno.core.offer.OfferBookService;
@@ -29,11 +30,15 @@ import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import static haveno.core.offer.OfferDirection.BUY;
 
@@ -53,6 +58,15 @@ public class OfferBook {
     private final Map<String, Integer> sellOfferCountMap = new HashMap<>();
     private final FilterManager filterManager;
 
+    // The current item per offer id, updated directly at the P2P callbacks
+    private final Map<String, OfferBookListItem> itemsByOfferId = new HashMap<>();
+    // The item per offer id which is in offerBookListItems
+    private final Map<String, OfferBookListItem> listedItemsByOfferId = new HashMap<>();
+    // Offer ids whose item has changed since offerBookListItems was updated. All changes until the next
+    // user thread execution are applied to offerBookListItems at once.
+    private final Set<String> changedOfferIds = new LinkedHashSet<>();
+    private boolean isUpdateScheduled;
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -66,7 +80,6 @@ public class OfferBook {
         offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
             @Override
             public void onAdded(Offer offer) {
-                printOfferBookListItems("Before onAdded");
                 // We get onAdded called every time a new ProtectedStorageEntry is received.
                 // Mostly it is the same OfferPayload but the ProtectedStorageEntry is different.
                 // We filter here to only add new offers if the same offer (using equals) was not already added and it
@@ -86,11 +99,12 @@ public class OfferBook {
                 // match -- offer.equals(offer) includes comparisons of payload, state
                 // and errorMessage.
                 synchronized (offerBookListItems) {
-                    boolean hasSameOffer = offerBookListItems.stream().anyMatch(item -> item.getOffer().equals(offer));
-                    if (!hasSameOffer) {
+                    OfferBookListItem item = itemsByOfferId.get(offer.getId());
+                    if (item == null || !item.getOffer().equals(offer)) {
+                        // Any item with the same offer id gets replaced.
                         OfferBookListItem newOfferBookListItem = new OfferBookListItem(offer);
-                        removeDuplicateItem(newOfferBookListItem);
-                        offerBookListItems.add(newOfferBookListItem);  // Add replacement.
+                        itemsByOfferId.put(offer.getId(), newOfferBookListItem);
+                        onItemChanged(offer.getId());
                         if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
                             log.debug("onAdded: Added new offer {}\n"
                                             + "\twith newItem.payloadHash: {}",
@@ -100,17 +114,12 @@ public class OfferBook {
                     } else {
                         log.debug("We have the exact same offer already in our list and ignore the onAdded call. ID={}", offer.getId());
                     }
-                    printOfferBookListItems("After onAdded");
                 }
             }
 
             @Override
             public void onRemoved(Offer offer) {
-                synchronized (offerBookListItems) {
-                    printOfferBookListItems("Before onRemoved");
-                    removeOffer(offer);
-                    printOfferBookListItems("After onRemoved");
-                }
+                removeOffer(offer);
             }
         });
 
@@ -121,29 +130,6 @@ public class OfferBook {
         });
     }
 
-    private void removeDuplicateItem(OfferBookListItem newOfferBookListItem) {
-        synchronized (offerBookListItems) {
-            String offerId = newOfferBookListItem.getOffer().getId();
-
-            // We need to remove any view items with a matching offerId before
-            // a newOfferBookListItem is added to the view.
-            List<OfferBookListItem> duplicateItems = offerBookListItems.stream()
-                    .filter(item -> item.getOffer().getId().equals(offerId))
-                    .collect(Collectors.toList());
-            duplicateItems.forEach(oldOfferItem -> {
-                offerBookListItems.remove(oldOfferItem);
-                if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
-                    log.debug("onAdded: Removed old offer {}\n"
-                                    + "\twith payload hash {} from list.\n"
-                                    + "\tThis may make a subsequent onRemoved( {} ) call redundant.",
-                            offerId,
-                            oldOfferItem.getHashOfPayload().getHex(),
-                            oldOfferItem.getOffer().getId());
-                }
-            });
-        }
-    }
-
     public void removeOffer(Offer offer) {
         synchronized (offerBookListItems) {
 
@@ -160,13 +146,9 @@ public class OfferBook {
                         hashOfPayload.getHex());
             }
 
-            // Find the removal candidate in the OfferBook list with matching offerId and payload-hash.
-            Optional<OfferBookListItem> candidateWithMatchingPayloadHash = offerBookListItems.stream()
-                    .filter(item -> item.getOffer().getId().equals(offer.getId())
-                            && item.hashOfPayload.equals(hashOfPayload))
-                    .findAny();
-
-            if (!candidateWithMatchingPayloadHash.isPresent()) {
+            // Find the removal candidate with matching offerId.
+            OfferBookListItem candidate = itemsByOfferId.get(offer.getId());
+            if (candidate == null) {
                 if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
                     log.debug("UI view list does not contain offer with id {} and payload-hash {}",
                             offer.getId(),
@@ -175,14 +157,14 @@ public class OfferBook {
                 return;
             }
 
-            OfferBookListItem candidate = candidateWithMatchingPayloadHash.get();
             // Remove the candidate only if the candidate's offer payload the hash matches the
             // onRemoved hashOfPayload parameter.  We may receive add/remove messages out of
             // order from the API's 'editoffer' method, and use the offer payload hash to
             // ensure we do not remove an edited offer immediately after it was added.
             if (candidate.getHashOfPayload().equals(hashOfPayload)) {
                 // The payload-hash test passed, remove the candidate and print reason.
-                offerBookListItems.remove(candidate);
+                itemsByOfferId.remove(offer.getId());
+                onItemChanged(offer.getId());
 
                 if (log.isDebugEnabled()) {  // TODO delete debug stmt in future PR.
                     log.debug("Candidate.payload-hash: {} == onRemoved.payload-hash: {} ?"
@@ -207,19 +189,33 @@ public class OfferBook {
         return offerBookListItems;
     }
 
+    /**
+     * Synchronizes the list with the offers of the OfferBookService. Items of offers with an unchanged
+     * payload are kept, so only the differences are applied to the list.
+     */
     public void fillOfferBookListItems() {
         synchronized (offerBookListItems) {
             try {
-                // setAll causes sometimes an UnsupportedOperationException
-                // Investigate why....
-                offerBookListItems.clear();
-                offerBookListItems.addAll(offerBookService.getOffers().stream()
+                Set<String> offerIds = new HashSet<>();
+                offerBookService.getOffers().stream()
                         .filter(this::isOfferAllowed)
-                        .map(OfferBookListItem::new)
-                        .collect(Collectors.toList()));
-
+                        .forEach(offer -> {
+                            offerIds.add(offer.getId());
+                            OfferBookListItem item = itemsByOfferId.get(offer.getId());
+                            if (item == null || !item.getHashOfPayload().equals(new P2PDataStorage.ByteArray(offer.getOfferPayload().getHash()))) {
+                                itemsByOfferId.put(offer.getId(), new OfferBookListItem(offer));
+                                changedOfferIds.add(offer.getId());
+                            }
+                        });
+                itemsByOfferId.keySet().removeIf(offerId -> {
+                    if (offerIds.contains(offerId)) return false;
+                    changedOfferIds.add(offerId);
+                    return true;
+                });
+
+                // Callers use the list right away, so we do not wait for a scheduled update
+                updateOfferBookListItems();
                 log.debug("offerBookListItems.size {}", offerBookListItems.size());
-                fillOfferCountMaps();
             } catch (Throwable t) {
                 log.error("Error at fillOfferBookListItems: " + t);
             }
@@ -257,22 +253,56 @@ public class OfferBook {
         return !isBanned && isV3NodeAddressCompliant;
     }
 
-    private void fillOfferCountMaps() {
-        buyOfferCountMap.clear();
-        sellOfferCountMap.clear();
-        final String[] ccyCode = new String[1];
-        final int[] offerCount = new int[1];
-        offerBookListItems.forEach(o -> {
-            ccyCode[0] = o.getOffer().getCurrencyCode();
-            if (o.getOffer().getDirection() == BUY) {
-                offerCount[0] = buyOfferCountMap.getOrDefault(ccyCode[0], 0) + 1;
-                buyOfferCountMap.put(ccyCode[0], offerCount[0]);
-            } else {
-                offerCount[0] = sellOfferCountMap.getOrDefault(ccyCode[0], 0) + 1;
-                sellOfferCountMap.put(ccyCode[0], offerCount[0]);
+    private void onItemChanged(String offerId) {
+        changedOfferIds.add(offerId);
+        if (!isUpdateScheduled) {
+            isUpdateScheduled = true;
+            UserThread.execute(this::updateOfferBookListItems);
+        }
+    }
+
+    // Applies the changed items with one removal and one addition to the list, so listeners and the
+    // table get a single change per batch instead of one per P2P callback.
+    private void updateOfferBookListItems() {
+        synchronized (offerBookListItems) {
+            isUpdateScheduled = false;
+            if (changedOfferIds.isEmpty()) {
+                return;
             }
-        });
-        log.debug("buyOfferCountMap.size {}   sellOfferCountMap.size {}",
-                buyOfferCountMap.size(), sellOfferCountMap.size());
+
+            Set<OfferBookListItem> removedItems = Collections.newSetFromMap(new IdentityHashMap<>());
+            List<OfferBookListItem> addedItems = new ArrayList<>();
+            changedOfferIds.forEach(offerId -> {
+                OfferBookListItem item = itemsByOfferId.get(offerId);
+                OfferBookListItem listedItem = item != null ?
+                        listedItemsByOfferId.put(offerId, item) :
+                        listedItemsByOfferId.remove(offerId);
+                if (listedItem == item) {
+                    return;
+                }
+                if (listedItem != null) {
+                    removedItems.add(listedItem);
+                    updateOfferCount(listedItem.getOffer(), -1);
+                }
+                if (item != null) {
+                    addedItems.add(item);
+                    updateOfferCount(item.getOffer(), 1);
+                }
+            });
+            changedOfferIds.clear();
+
+            if (!removedItems.isEmpty()) {
+                offerBookListItems.removeIf(removedItems::contains);
+            }
+            if (!addedItems.isEmpty()) {
+                offerBookListItems.addAll(addedItems);
+            }
+            printOfferBookListItems("After update");
+        }
+    }
+
+    private void updateOfferCount(Offer offer, int delta) {
+        Map<String, Integer> offerCountMap = offer.getDirection() == BUY ? buyOfferCountMap : sellOfferCountMap;
+        offerCountMap.merge(offer.getCurrencyCode(), delta, (count, d) -> count + d > 0 ? count + d : null);
     }
 }
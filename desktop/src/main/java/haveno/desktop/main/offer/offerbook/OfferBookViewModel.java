@@ -41,7 +41,6 @@ import haveno.core.payment.payload.PaymentMethod;
 import haveno.core.provider.price.PriceFeedService;
 import haveno.core.trade.ClosedTradableManager;
 import haveno.core.trade.HavenoUtils;
-import haveno.core.trade.Trade;
 import haveno.core.user.Preferences;
 import haveno.core.user.User;
 import haveno.core.util.FormattingUtils;
@@ -57,7 +56,6 @@ import haveno.desktop.main.settings.SettingsView;
 import haveno.desktop.main.settings.preferences.PreferencesView;
 import haveno.desktop.util.DisplayUtils;
 import haveno.desktop.util.GUIUtil;
-import haveno.network.p2p.NodeAddress;
 import haveno.network.p2p.P2PService;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
@@ -73,6 +71,7 @@ import javafx.collections.transformation.SortedList;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.util.Comparator;
@@ -127,6 +126,14 @@ abstract class OfferBookViewModel extends ActivatableViewModel {
     final IntegerProperty maxPlacesForVolume = new SimpleIntegerProperty();
     final IntegerProperty maxPlacesForPrice = new SimpleIntegerProperty();
     final IntegerProperty maxPlacesForMarketPriceMargin = new SimpleIntegerProperty();
+    // Filtered items with the highest values for the max places, maintained from the filtered list changes
+    @Nullable
+    private OfferBookListItem highestAmountItem;
+    @Nullable
+    private OfferBookListItem highestPriceItem;
+    @Nullable
+    private OfferBookListItem highestMarketPriceMarginItem;
+    private int numRangeAmountItems;
     boolean showAllPaymentMethods = true;
     boolean useOffersMatchingMyAccountsFilter;
 
@@ -172,41 +179,35 @@ abstract class OfferBookViewModel extends ActivatableViewModel {
         tradeCurrencyListChangeListener = c -> fillCurrencies();
 
         filterItemsListener = c -> {
-            final Optional<OfferBookListItem> highestAmountOffer = filteredItems.stream()
-                    .max(Comparator.comparingLong(o -> o.getOffer().getAmount().longValueExact()));
-
-            final boolean containsRangeAmount = filteredItems.stream().anyMatch(o -> o.getOffer().isRange());
-
-            if (highestAmountOffer.isPresent()) {
-                final OfferBookListItem item = highestAmountOffer.get();
-                if (!item.getOffer().isRange() && containsRangeAmount) {
-                    maxPlacesForAmount.set(formatAmount(item.getOffer(), false)
-                            .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
-                    maxPlacesForVolume.set(formatVolume(item.getOffer(), false)
-                            .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
-                } else {
-                    maxPlacesForAmount.set(formatAmount(item.getOffer(), false).length());
-                    maxPlacesForVolume.set(formatVolume(item.getOffer(), false).length());
+            // We track the items with the highest values and only scan all filtered items again if one of them got removed
+            boolean isHighestItemRemoved = false;
+            while (c.next()) {
+                if (c.wasRemoved()) {
+                    for (OfferBookListItem item : c.getRemoved()) {
+                        if (item.getOffer().isRange()) numRangeAmountItems--;
+                        if (item == highestAmountItem || item == highestPriceItem || item == highestMarketPriceMarginItem) {
+                            isHighestItemRemoved = true;
+                        }
+                    }
+                }
+                if (c.wasAdded()) {
+                    for (OfferBookListItem item : c.getAddedSubList()) {
+                        if (item.getOffer().isRange()) numRangeAmountItems++;
+                        updateHighestItems(item);
+                    }
                 }
             }
-
-            final Optional<OfferBookListItem> highestPriceOffer = filteredItems.stream()
-                    .filter(o -> o.getOffer().getPrice() != null)
-                    .max(Comparator.comparingLong(o -> o.getOffer().getPrice() != null ? o.getOffer().getPrice().getValue() : 0));
-
-            highestPriceOffer.ifPresent(offerBookListItem -> maxPlacesForPrice.set(formatPrice(offerBookListItem.getOffer(), false).length()));
-
-            final Optional<OfferBookListItem> highestMarketPriceMarginOffer = filteredItems.stream()
-                    .filter(o -> o.getOffer().isUseMarketBasedPrice())
-                    .max(Comparator.comparing(o -> new DecimalFormat("#0.00").format(o.getOffer().getMarketPriceMarginPct() * 100).length()));
-
-            highestMarketPriceMarginOffer.ifPresent(offerBookListItem -> maxPlacesForMarketPriceMargin.set(formatMarketPriceMarginPct(offerBookListItem.getOffer()).length()));
+            if (isHighestItemRemoved) {
+                fillHighestItems();
+            }
+            updateMaxPlaces();
         };
     }
 
     @Override
     protected void activate() {
         filteredItems.addListener(filterItemsListener);
+        fillHighestItems();
 
         if (user != null) {
             disableMatchToggle.set(user.getPaymentAccounts() == null || user.getPaymentAccounts().isEmpty());
@@ -539,6 +540,61 @@ abstract class OfferBookViewModel extends ActivatableViewModel {
     abstract void fillCurrencies(ObservableList<TradeCurrency> tradeCurrencies,
                                  ObservableList<TradeCurrency> allCurrencies);
 
+    private void fillHighestItems() {
+        highestAmountItem = null;
+        highestPriceItem = null;
+        highestMarketPriceMarginItem = null;
+        numRangeAmountItems = 0;
+        for (OfferBookListItem item : filteredItems) {
+            if (item.getOffer().isRange()) numRangeAmountItems++;
+            updateHighestItems(item);
+        }
+    }
+
+    private void updateHighestItems(OfferBookListItem item) {
+        Offer offer = item.getOffer();
+        if (highestAmountItem == null ||
+                offer.getAmount().compareTo(highestAmountItem.getOffer().getAmount()) > 0) {
+            highestAmountItem = item;
+        }
+        if (offer.getPrice() != null && (highestPriceItem == null ||
+                highestPriceItem.getOffer().getPrice() == null ||
+                offer.getPrice().getValue() > highestPriceItem.getOffer().getPrice().getValue())) {
+            highestPriceItem = item;
+        }
+        if (offer.isUseMarketBasedPrice() && (highestMarketPriceMarginItem == null ||
+                getMarketPriceMarginLength(offer) > getMarketPriceMarginLength(highestMarketPriceMarginItem.getOffer()))) {
+            highestMarketPriceMarginItem = item;
+        }
+    }
+
+    private static int getMarketPriceMarginLength(Offer offer) {
+        return new DecimalFormat("#0.00").format(offer.getMarketPriceMarginPct() * 100).length();
+    }
+
+    private void updateMaxPlaces() {
+        if (highestAmountItem != null) {
+            Offer offer = highestAmountItem.getOffer();
+            if (!offer.isRange() && numRangeAmountItems > 0) {
+                maxPlacesForAmount.set(formatAmount(offer, false)
+                        .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
+                maxPlacesForVolume.set(formatVolume(offer, false)
+                        .length() * 2 + FormattingUtils.RANGE_SEPARATOR.length());
+            } else {
+                maxPlacesForAmount.set(formatAmount(offer, false).length());
+                maxPlacesForVolume.set(formatVolume(offer, false).length());
+            }
+        }
+
+        if (highestPriceItem != null && highestPriceItem.getOffer().getPrice() != null) {
+            maxPlacesForPrice.set(formatPrice(highestPriceItem.getOffer(), false).length());
+        }
+
+        if (highestMarketPriceMarginItem != null) {
+            maxPlacesForMarketPriceMargin.set(formatMarketPriceMarginPct(highestMarketPriceMarginItem.getOffer()).length());
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Checks
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -591,15 +647,7 @@ abstract class OfferBookViewModel extends ActivatableViewModel {
     }
 
     public int getNumTrades(Offer offer) {
-        return closedTradableManager.getTradableList().stream()
-                .filter(e -> e instanceof Trade)    // weed out canceled offers
-                .filter(e -> {
-                    final Optional<NodeAddress> tradePeerNodeAddress = e.getOptionalTradePeerNodeAddress();
-                    return tradePeerNodeAddress.isPresent() &&
-                            tradePeerNodeAddress.get().getFullAddress().equals(offer.getMakerNodeAddress().getFullAddress());
-                })
-                .collect(Collectors.toSet())
-                .size();
+        return closedTradableManager.getNumTradesWithPeer(offer.getMakerNodeAddress());
     }
 
     public boolean hasSelectionAccountSigning() {
@@ -36,11 +36,14 @@ import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 class ClosedTradesDataModel extends ActivatableDataModel {
+    private static final int ARCHIVED_TRADABLES_PAGE_SIZE = 100;
 
     final ClosedTradableManager closedTradableManager;
     final ClosedTradableFormatter closedTradableFormatter;
@@ -49,6 +52,9 @@ class ClosedTradesDataModel extends ActivatableDataModel {
     final AccountAgeWitnessService accountAgeWitnessService;
     private final ObservableList<ClosedTradesListItem> list = FXCollections.observableArrayList();
     private final ListChangeListener<Tradable> tradesListChangeListener;
+    // Archived tradables are loaded page by page on request, newest first
+    private final List<Tradable> archivedTradables = new ArrayList<>();
+    private boolean allArchivedTradablesLoaded;
 
     @Inject
     public ClosedTradesDataModel(ClosedTradableManager closedTradableManager,
@@ -67,6 +73,8 @@ class ClosedTradesDataModel extends ActivatableDataModel {
 
     @Override
     protected void activate() {
+        archivedTradables.clear();
+        allArchivedTradablesLoaded = false;
         applyList();
         closedTradableManager.getObservableList().addListener(tradesListChangeListener);
     }
@@ -80,6 +88,20 @@ class ClosedTradesDataModel extends ActivatableDataModel {
         return list;
     }
 
+    boolean hasMoreArchivedTradables() {
+        return !allArchivedTradablesLoaded && archivedTradables.size() < closedTradableManager.getNumArchivedTradables();
+    }
+
+    void loadMoreArchivedTradables() {
+        Tradable last = archivedTradables.isEmpty() ? null : archivedTradables.get(archivedTradables.size() - 1);
+        List<Tradable> page = closedTradableManager.getArchivedTradables(last == null ? 0 : last.getDate().getTime(),
+                last == null ? null : last.getId(),
+                ARCHIVED_TRADABLES_PAGE_SIZE);
+        allArchivedTradablesLoaded = page.size() < ARCHIVED_TRADABLES_PAGE_SIZE;
+        archivedTradables.addAll(page);
+        applyList();
+    }
+
     List<Tradable> getListAsTradables() {
         return list.stream().map(ClosedTradesListItem::getTradable).collect(Collectors.toList());
     }
@@ -117,7 +139,7 @@ class ClosedTradesDataModel extends ActivatableDataModel {
     private void applyList() {
         list.clear();
         list.addAll(
-                closedTradableManager.getObservableList().stream()
+                Stream.concat(closedTradableManager.getObservableList().stream(), archivedTradables.stream())
                         .map(tradable -> new ClosedTradesListItem(tradable, closedTradableFormatter, closedTradableManager))
                         .collect(Collectors.toList())
         );
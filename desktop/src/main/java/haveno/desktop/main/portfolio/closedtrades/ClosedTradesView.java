@@ -120,7 +120,7 @@ public class ClosedTradesView extends ActivatableViewAndModel<VBox, ClosedTrades
     @FXML
     FilterBox filterBox;
     @FXML
-    AutoTooltipButton exportButton, summaryButton;
+    AutoTooltipButton exportButton, summaryButton, loadArchivedButton;
     @FXML
     Label numItems;
     @FXML
@@ -240,6 +240,8 @@ public class ClosedTradesView extends ActivatableViewAndModel<VBox, ClosedTrades
         HBox.setMargin(exportButton, new Insets(0, 10, 0, 0));
         exportButton.updateText(Res.get("shared.exportCSV"));
         summaryButton.updateText(Res.get("shared.summary"));
+        loadArchivedButton.updateText(Res.get("portfolio.closed.showOlder"));
+        loadArchivedButton.managedProperty().bind(loadArchivedButton.visibleProperty());
     }
 
     @Override
@@ -294,6 +296,13 @@ public class ClosedTradesView extends ActivatableViewAndModel<VBox, ClosedTrades
 
         summaryButton.setOnAction(event -> new ClosedTradesSummaryWindow(model).show());
 
+        loadArchivedButton.setVisible(model.dataModel.hasMoreArchivedTradables());
+        loadArchivedButton.setOnAction(event -> {
+            model.dataModel.loadMoreArchivedTradables();
+            loadArchivedButton.setVisible(model.dataModel.hasMoreArchivedTradables());
+            numItems.setText(Res.get("shared.numItemsLabel", sortedList.size()));
+        });
+
         root.widthProperty().addListener(widthListener);
         onWidthChange(root.getWidth());
     }
@@ -303,6 +312,7 @@ public class ClosedTradesView extends ActivatableViewAndModel<VBox, ClosedTrades
         sortedList.comparatorProperty().unbind();
         exportButton.setOnAction(null);
         summaryButton.setOnAction(null);
+        loadArchivedButton.setOnAction(null);
 
         filterBox.deactivate();
         root.widthProperty().removeListener(widthListener);
@@ -58,7 +58,6 @@ import javax.annotation.Nullable;
 import javax.inject.Named;
 import java.math.BigInteger;
 import java.util.Date;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static haveno.desktop.main.portfolio.pendingtrades.PendingTradesViewModel.SellerState.UNDEFINED;
@@ -326,19 +325,7 @@ public class PendingTradesViewModel extends ActivatableWithDataModel<PendingTrad
     }
 
     public int getNumPastTrades(Trade trade) {
-        return closedTradableManager.getObservableList().stream()
-                .filter(e -> {
-                    if (e instanceof Trade) {
-                        Trade t = (Trade) e;
-                        return t.getTradePeerNodeAddress() != null &&
-                                trade.getTradePeerNodeAddress() != null &&
-                                t.getTradePeerNodeAddress().getFullAddress().equals(trade.getTradePeerNodeAddress().getFullAddress());
-                    } else
-                        return false;
-
-                })
-                .collect(Collectors.toSet())
-                .size();
+        return closedTradableManager.getNumPastTrades(trade);
     }
 
     @Nullable
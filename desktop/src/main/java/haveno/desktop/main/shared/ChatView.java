@@ -27,6 +27,7 @@ import haveno.core.locale.Res;
 import haveno.core.support.SupportManager;
 import haveno.core.support.SupportSession;
 import haveno.core.support.dispute.Attachment;
+import haveno.core.support.dispute.AttachmentStore;
 import haveno.core.support.messages.ChatMessage;
 import haveno.core.util.coin.CoinFormatter;
 import haveno.desktop.components.AutoTooltipButton;
@@ -38,7 +39,6 @@ import haveno.desktop.components.TextFieldWithIcon;
 import haveno.desktop.main.overlays.popups.Popup;
 import haveno.desktop.util.DisplayUtils;
 import haveno.desktop.util.GUIUtil;
-import haveno.network.p2p.network.Connection;
 import javafx.beans.property.ReadOnlyDoubleProperty;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.ListChangeListener;
@@ -523,10 +523,12 @@ public class ChatView extends AnchorPane {
     private void onRequestUpload() {
         if (!allowAttachments)
             return;
-        int totalSize = tempAttachments.stream().mapToInt(a -> a.getBytes().length).sum();
+        long totalSize = tempAttachments.stream().mapToLong(Attachment::getSize).sum();
         if (tempAttachments.size() < 3) {
             FileChooser fileChooser = new FileChooser();
-            int maxMsgSize = Connection.getPermittedMessageSize();
+            int maxMsgSize = optionalSupportSession
+                    .map(supportSession -> supportManager.getMaxAttachmentSize(supportSession.getTradeId(), supportSession.getClientId()))
+                    .orElse(AttachmentStore.MAX_MAILBOX_ATTACHMENT_SIZE);
             int maxSizeInKB = maxMsgSize / 1024;
             fileChooser.setTitle(Res.get("support.openFile", maxSizeInKB));
            /* if (Utilities.isUnix())
@@ -538,7 +540,7 @@ public class ChatView extends AnchorPane {
                     try (InputStream inputStream = url.openStream()) {
                         byte[] filesAsBytes = ByteStreams.toByteArray(inputStream);
                         int size = filesAsBytes.length;
-                        int newSize = totalSize + size;
+                        long newSize = totalSize + size;
                         if (newSize > maxMsgSize) {
                             new Popup().warning(Res.get("support.attachmentTooLarge", (newSize / 1024), maxSizeInKB)).show();
                         } else if (size > maxMsgSize) {
@@ -564,6 +566,11 @@ public class ChatView extends AnchorPane {
     private void onOpenAttachment(Attachment attachment) {
         if (!allowAttachments)
             return;
+        byte[] bytes = supportManager.getAttachmentBytes(attachment);
+        if (bytes == null) {
+            new Popup().warning(Res.get("support.attachmentNotAvailable", attachment.getFileName())).show();
+            return;
+        }
         FileChooser fileChooser = new FileChooser();
         fileChooser.setTitle(Res.get("support.save"));
         fileChooser.setInitialFileName(attachment.getFileName());
@@ -572,7 +579,7 @@ public class ChatView extends AnchorPane {
         File file = fileChooser.showSaveDialog(getScene().getWindow());
         if (file != null) {
             try (FileOutputStream fileOutputStream = new FileOutputStream(file.getAbsolutePath())) {
-                fileOutputStream.write(attachment.getBytes());
+                fileOutputStream.write(bytes);
             } catch (IOException e) {
                 e.printStackTrace();
                 System.out.println(e.getMessage());
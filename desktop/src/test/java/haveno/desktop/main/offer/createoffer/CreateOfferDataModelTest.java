@@ -11,6 +11,7 @@ import haveno.core.payment.ZelleAccount;
 import haveno.core.payment.PaymentAccount;
 import haveno.core.payment.RevolutAccount;
 import haveno.core.provider.price.PriceFeedService;
+import haveno.core.trade.statistics.TradeStatisticsColumns;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.user.Preferences;
 import haveno.core.user.User;
@@ -56,6 +57,7 @@ public class CreateOfferDataModelTest {
         when(preferences.getBuyerSecurityDepositAsPercent(null)).thenReturn(0.01);
         when(createOfferService.getRandomOfferId()).thenReturn(UUID.randomUUID().toString());
         when(tradeStats.getObservableTradeStatisticsSet()).thenReturn(FXCollections.observableSet());
+        when(tradeStats.getTradeStatisticsColumns()).thenReturn(new TradeStatisticsColumns());
 
         model = new CreateOfferDataModel(createOfferService,
                 null,
@@ -32,6 +32,7 @@ import haveno.core.payment.validation.SecurityDepositValidator;
 import haveno.core.payment.validation.XmrValidator;
 import haveno.core.provider.price.MarketPrice;
 import haveno.core.provider.price.PriceFeedService;
+import haveno.core.trade.statistics.TradeStatisticsColumns;
 import haveno.core.trade.statistics.TradeStatisticsManager;
 import haveno.core.user.Preferences;
 import haveno.core.user.User;
@@ -103,6 +104,7 @@ public class CreateOfferViewModelTest {
         when(preferences.getUserCountry()).thenReturn(new Country("ES", "Spain", null));
         when(createOfferService.getRandomOfferId()).thenReturn(UUID.randomUUID().toString());
         when(tradeStats.getObservableTradeStatisticsSet()).thenReturn(FXCollections.observableSet());
+        when(tradeStats.getTradeStatisticsColumns()).thenReturn(new TradeStatisticsColumns());
 
         CreateOfferDataModel dataModel = new CreateOfferDataModel(createOfferService,
             null,
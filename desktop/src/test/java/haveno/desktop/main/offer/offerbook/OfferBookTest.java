@@ -0,0 +1,149 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.desktop.main.offer.offerbook;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import haveno.common.UserThread;
+import haveno.core.filter.Filter;
+import haveno.core.filter.FilterManager;
+import haveno.core.offer.Offer;
+import haveno.core.offer.OfferBookService;
+import haveno.core.offer.OfferDirection;
+import haveno.core.offer.OfferPayload;
+import haveno.network.p2p.NodeAddress;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ListChangeListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OfferBookTest {
+    private static final String ONION_ADDRESS = "aaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaaa.onion";
+
+    private OfferBookService offerBookService;
+    private OfferBook offerBook;
+    private OfferBookService.OfferBookChangedListener listener;
+    private final List<Runnable> userThreadTasks = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        offerBookService = mock(OfferBookService.class);
+        FilterManager filterManager = mock(FilterManager.class);
+        when(filterManager.filterProperty()).thenReturn(new SimpleObjectProperty<Filter>());
+        offerBook = new OfferBook(offerBookService, filterManager);
+
+        ArgumentCaptor<OfferBookService.OfferBookChangedListener> captor =
+                ArgumentCaptor.forClass(OfferBookService.OfferBookChangedListener.class);
+        verify(offerBookService).addOfferBookChangedListener(captor.capture());
+        listener = captor.getValue();
+
+        UserThread.setExecutor(userThreadTasks::add);
+    }
+
+    @After
+    public void tearDown() {
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+    }
+
+    @Test
+    public void testChangesAreAppliedInOneBatch() {
+        List<ListChangeListener.Change<? extends OfferBookListItem>> changes = new ArrayList<>();
+        offerBook.getOfferBookListItems().addListener((ListChangeListener<OfferBookListItem>) changes::add);
+
+        Offer offer1 = getOffer("1", 1, OfferDirection.BUY, "USD");
+        listener.onAdded(offer1);
+        listener.onAdded(getOffer("2", 2, OfferDirection.SELL, "USD"));
+        listener.onAdded(getOffer("3", 3, OfferDirection.BUY, "EUR"));
+        listener.onRemoved(offer1);
+        assertTrue(offerBook.getOfferBookListItems().isEmpty());
+        assertEquals(1, userThreadTasks.size());
+
+        runUserThreadTasks();
+        assertEquals(2, offerBook.getOfferBookListItems().size());
+        assertEquals(1, changes.size());
+        assertEquals(Collections.singletonMap("EUR", 1), offerBook.getBuyOfferCountMap());
+        assertEquals(Collections.singletonMap("USD", 1), offerBook.getSellOfferCountMap());
+    }
+
+    @Test
+    public void testEditedOfferIsNotRemovedByOutdatedPayload() {
+        Offer offer = getOffer("1", 1, OfferDirection.BUY, "USD");
+        Offer editedOffer = getOffer("1", 2, OfferDirection.BUY, "USD");
+        listener.onAdded(offer);
+        listener.onAdded(editedOffer);
+        listener.onRemoved(offer);
+        runUserThreadTasks();
+        assertEquals(1, offerBook.getOfferBookListItems().size());
+        assertSame(editedOffer, offerBook.getOfferBookListItems().get(0).getOffer());
+
+        listener.onRemoved(editedOffer);
+        runUserThreadTasks();
+        assertTrue(offerBook.getOfferBookListItems().isEmpty());
+        assertTrue(offerBook.getBuyOfferCountMap().isEmpty());
+    }
+
+    @Test
+    public void testFillKeepsUnchangedItems() {
+        listener.onAdded(getOffer("1", 1, OfferDirection.BUY, "USD"));
+        listener.onAdded(getOffer("2", 2, OfferDirection.BUY, "USD"));
+        runUserThreadTasks();
+        OfferBookListItem item = offerBook.getOfferBookListItems().get(0);
+
+        when(offerBookService.getOffers()).thenReturn(Arrays.asList(
+                getOffer("1", 1, OfferDirection.BUY, "USD"),
+                getOffer("3", 3, OfferDirection.SELL, "USD")));
+        offerBook.fillOfferBookListItems();
+
+        assertEquals(2, offerBook.getOfferBookListItems().size());
+        assertSame(item, offerBook.getOfferBookListItems().get(0));
+        assertEquals("3", offerBook.getOfferBookListItems().get(1).getOffer().getId());
+        assertEquals(Collections.singletonMap("USD", 1), offerBook.getBuyOfferCountMap());
+        assertEquals(Collections.singletonMap("USD", 1), offerBook.getSellOfferCountMap());
+    }
+
+    private void runUserThreadTasks() {
+        List<Runnable> tasks = new ArrayList<>(userThreadTasks);
+        userThreadTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private static Offer getOffer(String id, int payloadHash, OfferDirection direction, String currencyCode) {
+        OfferPayload offerPayload = mock(OfferPayload.class);
+        when(offerPayload.getHash()).thenReturn(new byte[]{(byte) payloadHash});
+        Offer offer = mock(Offer.class);
+        when(offer.getId()).thenReturn(id);
+        when(offer.getOfferPayload()).thenReturn(offerPayload);
+        when(offer.getDirection()).thenReturn(direction);
+        when(offer.getCurrencyCode()).thenReturn(currencyCode);
+        when(offer.getMakerNodeAddress()).thenReturn(new NodeAddress(ONION_ADDRESS, 9999));
+        return offer;
+    }
+}
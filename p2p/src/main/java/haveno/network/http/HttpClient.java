@@ -19,6 +19,7 @@ package haveno.network.http;
 
 import javax.annotation.Nullable;
 import java.io.IOException;
+import java.util.Map;
 
 public interface HttpClient {
     void setBaseUrl(String baseUrl);
@@ -29,6 +30,12 @@ public interface HttpClient {
                @Nullable String headerKey,
                @Nullable String headerValue) throws IOException;
 
+    /**
+     * GET request which sends all given headers and also accepts a 304 response,
+     * so callers can use conditional requests (If-None-Match, If-Modified-Since).
+     */
+    HttpResponse getConditional(String param, Map<String, String> headers) throws IOException;
+
     String post(String param,
                 @Nullable String headerKey,
                 @Nullable String headerValue) throws IOException;
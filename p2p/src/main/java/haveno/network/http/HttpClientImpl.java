@@ -50,6 +50,8 @@ import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -109,37 +111,46 @@ public class HttpClientImpl implements HttpClient {
     public String get(String param,
                       @Nullable String headerKey,
                       @Nullable String headerValue) throws IOException {
-        return doRequest(param, HttpMethod.GET, headerKey, headerValue);
+        return doRequest(param, HttpMethod.GET, toHeaders(headerKey, headerValue)).getBody();
+    }
+
+    @Override
+    public HttpResponse getConditional(String param, Map<String, String> headers) throws IOException {
+        return doRequest(param, HttpMethod.GET, headers);
     }
 
     @Override
     public String post(String param,
                        @Nullable String headerKey,
                        @Nullable String headerValue) throws IOException {
-        return doRequest(param, HttpMethod.POST, headerKey, headerValue);
+        return doRequest(param, HttpMethod.POST, toHeaders(headerKey, headerValue)).getBody();
     }
 
-    private String doRequest(String param,
-                             HttpMethod httpMethod,
-                             @Nullable String headerKey,
-                             @Nullable String headerValue) throws IOException {
+    private static Map<String, String> toHeaders(@Nullable String headerKey, @Nullable String headerValue) {
+        return headerKey != null && headerValue != null ?
+                Collections.singletonMap(headerKey, headerValue) :
+                Collections.emptyMap();
+    }
+
+    private HttpResponse doRequest(String param,
+                                   HttpMethod httpMethod,
+                                   Map<String, String> headers) throws IOException {
         checkNotNull(baseUrl, "baseUrl must be set before calling doRequest");
         checkArgument(!hasPendingRequest, "We got called on the same HttpClient again while a request is still open.");
 
         hasPendingRequest = true;
         Socks5Proxy socks5Proxy = getSocks5Proxy(socks5ProxyProvider);
         if (ignoreSocks5Proxy || socks5Proxy == null || baseUrl.contains("localhost")) {
-            return requestWithoutProxy(baseUrl, param, httpMethod, headerKey, headerValue);
+            return requestWithoutProxy(baseUrl, param, httpMethod, headers);
         } else {
-            return doRequestWithProxy(baseUrl, param, httpMethod, socks5Proxy, headerKey, headerValue);
+            return doRequestWithProxy(baseUrl, param, httpMethod, socks5Proxy, headers);
         }
     }
 
-    private String requestWithoutProxy(String baseUrl,
-                                       String param,
-                                       HttpMethod httpMethod,
-                                       @Nullable String headerKey,
-                                       @Nullable String headerValue) throws IOException {
+    private HttpResponse requestWithoutProxy(String baseUrl,
+                                             String param,
+                                             HttpMethod httpMethod,
+                                             Map<String, String> headers) throws IOException {
         long ts = System.currentTimeMillis();
         log.debug("requestWithoutProxy: URL={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
         try {
@@ -150,9 +161,7 @@ public class HttpClientImpl implements HttpClient {
             connection.setConnectTimeout((int) TimeUnit.SECONDS.toMillis(120));
             connection.setReadTimeout((int) TimeUnit.SECONDS.toMillis(120));
             connection.setRequestProperty("User-Agent", "haveno/" + Version.VERSION);
-            if (headerKey != null && headerValue != null) {
-                connection.setRequestProperty(headerKey, headerValue);
-            }
+            headers.forEach(connection::setRequestProperty);
 
             if (httpMethod == HttpMethod.POST) {
                 connection.setDoOutput(true);
@@ -168,7 +177,19 @@ public class HttpClientImpl implements HttpClient {
                         System.currentTimeMillis() - ts,
                         Utilities.readableFileSize(response.getBytes().length),
                         Utilities.toTruncatedString(response));
-                return response;
+                return new HttpResponse(responseCode,
+                        response,
+                        connection.getHeaderField("ETag"),
+                        connection.getHeaderField("Last-Modified"));
+            } else if (responseCode == HttpResponse.NOT_MODIFIED) {
+                log.debug("Response from {} with param {} was not modified. Response took {} ms.",
+                        baseUrl,
+                        param,
+                        System.currentTimeMillis() - ts);
+                return new HttpResponse(responseCode,
+                        "",
+                        connection.getHeaderField("ETag"),
+                        connection.getHeaderField("Last-Modified"));
             } else {
                 InputStream errorStream = connection.getErrorStream();
                 if (errorStream != null) {
@@ -207,12 +228,11 @@ public class HttpClientImpl implements HttpClient {
         }
     }
 
-    private String doRequestWithProxy(String baseUrl,
-                                      String param,
-                                      HttpMethod httpMethod,
-                                      Socks5Proxy socks5Proxy,
-                                      @Nullable String headerKey,
-                                      @Nullable String headerValue) throws IOException {
+    private HttpResponse doRequestWithProxy(String baseUrl,
+                                            String param,
+                                            HttpMethod httpMethod,
+                                            Socks5Proxy socks5Proxy,
+                                            Map<String, String> headers) throws IOException {
         long ts = System.currentTimeMillis();
         log.debug("doRequestWithProxy: baseUrl={}, param={}, httpMethod={}", baseUrl, param, httpMethod);
         // This code is adapted from:
@@ -240,13 +260,17 @@ public class HttpClientImpl implements HttpClient {
             context.setAttribute("socks.address", socksAddress);
 
             HttpUriRequest request = getHttpUriRequest(httpMethod, baseUrl, param);
-            if (headerKey != null && headerValue != null) {
-                request.setHeader(headerKey, headerValue);
-            }
+            headers.forEach(request::setHeader);
 
             try (CloseableHttpResponse httpResponse = closeableHttpClient.execute(request, context)) {
-                String response = convertInputStreamToString(httpResponse.getEntity().getContent());
+                String response = httpResponse.getEntity() != null ?
+                        convertInputStreamToString(httpResponse.getEntity().getContent()) :
+                        "";
                 int statusCode = httpResponse.getStatusLine().getStatusCode();
+                String eTag = httpResponse.containsHeader("ETag") ?
+                        httpResponse.getFirstHeader("ETag").getValue() : null;
+                String lastModified = httpResponse.containsHeader("Last-Modified") ?
+                        httpResponse.getFirstHeader("Last-Modified").getValue() : null;
                 if (statusCode == 200) {
                     log.debug("Response from {} took {} ms. Data size:{}, response: {}, param: {}",
                             baseUrl,
@@ -254,7 +278,13 @@ public class HttpClientImpl implements HttpClient {
                             Utilities.readableFileSize(response.getBytes().length),
                             Utilities.toTruncatedString(response),
                             param);
-                    return response;
+                    return new HttpResponse(statusCode, response, eTag, lastModified);
+                } else if (statusCode == HttpResponse.NOT_MODIFIED) {
+                    log.debug("Response from {} was not modified. Response took {} ms. param: {}",
+                            baseUrl,
+                            System.currentTimeMillis() - ts,
+                            param);
+                    return new HttpResponse(statusCode, "", eTag, lastModified);
                 } else {
                     log.info("Received errorMsg '{}' with statusCode {} from {}. Response took: {} ms. param: {}",
                             response,
@@ -0,0 +1,50 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.http;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * Body and validators of a response. A response to a conditional request can be
+ * {@link #isNotModified() not modified}, in which case the body is empty.
+ */
+@Getter
+public class HttpResponse {
+    public static final int OK = 200;
+    public static final int NOT_MODIFIED = 304;
+
+    private final int statusCode;
+    private final String body;
+    @Nullable
+    private final String eTag;
+    @Nullable
+    private final String lastModified;
+
+    public HttpResponse(int statusCode, String body, @Nullable String eTag, @Nullable String lastModified) {
+        this.statusCode = statusCode;
+        this.body = body;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public boolean isNotModified() {
+        return statusCode == NOT_MODIFIED;
+    }
+}
@@ -60,10 +60,10 @@ import org.jetbrains.annotations.NotNull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
 import java.security.PublicKey;
 import java.time.Clock;
-import java.util.ArrayDeque;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
@@ -71,7 +71,6 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -93,6 +92,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * we do not want to pass around that to all trade methods just for that use case. So we use the uid as lookup to get
  * the mailboxItem containing the data we need for removal.
  *
+ * The items are held in a {@link MailboxStore} which keeps our own and foreign items in separate partitions, so
+ * lookups and removals do not need to iterate over all items and a change only causes its partition to be written.
+ *
  * If a node was not online and the remove mailbox message was sent during that time, the persisted mailbox message
  * does not get removed. So we need to take care that the persisted data is not growing too much and we apply some
  * filtering and limiting at reading the persisted data.
@@ -109,14 +111,13 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     private final P2PDataStorage p2PDataStorage;
     private final EncryptionService encryptionService;
     private final IgnoredMailboxService ignoredMailboxService;
-    private final PersistenceManager<MailboxMessageList> persistenceManager;
     private final KeyRing keyRing;
     private final Clock clock;
     private final boolean republishMailboxEntries;
+    private final MailboxRepublisher mailboxRepublisher;
+    private final MailboxStore mailboxStore;
 
     private final Set<DecryptedMailboxListener> decryptedMailboxListeners = new CopyOnWriteArraySet<>();
-    private final MailboxMessageList mailboxMessageList = new MailboxMessageList();
-    private final Map<String, MailboxItem> mailboxItemsByUid = new HashMap<>();
 
     private boolean isBootstrapped;
 
@@ -127,6 +128,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                                  EncryptionService encryptionService,
                                  IgnoredMailboxService ignoredMailboxService,
                                  PersistenceManager<MailboxMessageList> persistenceManager,
+                                 Provider<PersistenceManager<MailboxMessageList>> persistenceManagerProvider,
                                  KeyRing keyRing,
                                  Clock clock,
                                  @Named(Config.REPUBLISH_MAILBOX_ENTRIES) boolean republishMailboxEntries) {
@@ -135,12 +137,11 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         this.p2PDataStorage = p2PDataStorage;
         this.encryptionService = encryptionService;
         this.ignoredMailboxService = ignoredMailboxService;
-        this.persistenceManager = persistenceManager;
         this.keyRing = keyRing;
         this.clock = clock;
         this.republishMailboxEntries = republishMailboxEntries;
-
-        this.persistenceManager.initialize(mailboxMessageList, PersistenceManager.Source.PRIVATE_LOW_PRIO);
+        this.mailboxRepublisher = new MailboxRepublisher(networkNode, p2PDataStorage, clock);
+        this.mailboxStore = new MailboxStore(persistenceManager, persistenceManagerProvider);
     }
 
 
@@ -150,16 +151,17 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
 
     @Override
     public void readPersisted(Runnable completeHandler) {
-        persistenceManager.readPersisted(persisted -> {
+        mailboxStore.readPersisted(persisted -> {
                     log.trace("## readPersisted persisted {}", persisted.size());
                     Map<String, Long> numItemsPerDay = new HashMap<>();
+                    Map<String, MailboxItem> itemsToAdd = new HashMap<>();
                     // We sort by creation date and limit to max 3000 entries, so oldest items get skipped even if TTL
                     // is not reached to cap the memory footprint. 3000 items is about 10 MB.
                     persisted.stream()
-                            .sorted(Comparator.comparingLong(o -> ((MailboxItem) o).getProtectedMailboxStorageEntry().getCreationTimeStamp()).reversed())
+                            .sorted(Comparator.comparingLong((MailboxItem o) -> o.getProtectedMailboxStorageEntry().getCreationTimeStamp()).reversed())
                             .limit(3000)
                             .filter(e -> !e.isExpired(clock))
-                            .filter(e -> !mailboxItemsByUid.containsKey(e.getUid()))
+                            .filter(e -> !mailboxStore.contains(e.getUid()) && !itemsToAdd.containsKey(e.getUid()))
                             .forEach(mailboxItem -> {
                                 ProtectedMailboxStorageEntry protectedMailboxStorageEntry = mailboxItem.getProtectedMailboxStorageEntry();
                                 int serializedSize = protectedMailboxStorageEntry.toProtoMessage().getSerializedSize();
@@ -173,8 +175,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                                     numItemsPerDay.put(day, numItemsPerDay.get(day) + 1);
 
                                     String uid = mailboxItem.getUid();
-                                    mailboxItemsByUid.put(uid, mailboxItem);
-                                    mailboxMessageList.add(mailboxItem);
+                                    itemsToAdd.put(uid, mailboxItem);
 
                                     // We add it to our map so that it get added to the excluded key set we send for
                                     // the initial data requests. So that helps to lower the load for mailbox messages at
@@ -182,9 +183,8 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                                     //todo check if listeners are called too early
                                     p2PDataStorage.addProtectedMailboxStorageEntryToMap(protectedMailboxStorageEntry);
 
-                                    log.trace("## readPersisted uid={}\nhash={}\nisMine={}\ndate={}\nsize={}",
+                                    log.trace("## readPersisted uid={}\nisMine={}\ndate={}\nsize={}",
                                             uid,
-                                            P2PDataStorage.get32ByteHashAsByteArray(protectedMailboxStorageEntry.getProtectedStoragePayload()),
                                             mailboxItem.isMine(),
                                             date,
                                             serializedSize);
@@ -194,11 +194,11 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                     List<Map.Entry<String, Long>> perDay = numItemsPerDay.entrySet().stream()
                             .sorted(Map.Entry.comparingByKey())
                             .collect(Collectors.toList());
-                    log.info("We loaded {} persisted mailbox messages.\nPer day distribution:\n{}", mailboxMessageList.size(), Joiner.on("\n").join(perDay));
-                    requestPersistence();
+                    // Partitions from which we have dropped items get written again
+                    mailboxStore.addPersisted(itemsToAdd.values());
+                    log.info("We loaded {} persisted mailbox messages.\nPer day distribution:\n{}", mailboxStore.size(), Joiner.on("\n").join(perDay));
                     completeHandler.run();
-                },
-                completeHandler);
+                });
     }
 
 
@@ -295,10 +295,11 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     public void removeMailboxMsg(MailboxMessage mailboxMessage) {
         if (isBootstrapped) {
             // We need to delay a bit to not get a ConcurrentModificationException as we might iterate over
-            // mailboxMessageList while getting called.
+            // the mailbox items while getting called.
             UserThread.execute(() -> {
                 String uid = mailboxMessage.getUid();
-                if (!mailboxItemsByUid.containsKey(uid)) {
+                MailboxItem mailboxItem = mailboxStore.get(uid);
+                if (mailboxItem == null) {
                     return;
                 }
 
@@ -306,7 +307,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                 // but in case we have not been bootstrapped at that moment it did not get removed from the network.
                 // So to be sure it gets removed we try to remove it now again.
                 // In case it was removed earlier it will return early anyway inside the p2pDataStorage.
-                removeMailboxEntryFromNetwork(mailboxItemsByUid.get(uid).getProtectedMailboxStorageEntry());
+                removeMailboxEntryFromNetwork(mailboxItem.getProtectedMailboxStorageEntry());
 
                 // We will get called the onRemoved handler which triggers removeMailboxItemFromMap as well.
                 // But as we use the uid from the decrypted data which is not available at onRemoved we need to
@@ -321,8 +322,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
     }
 
     public Set<DecryptedMessageWithPubKey> getMyDecryptedMailboxMessages() {
-        return mailboxItemsByUid.values().stream()
-                .filter(MailboxItem::isMine)
+        return mailboxStore.getMyItems().stream()
                 .map(MailboxItem::getDecryptedMessageWithPubKey)
                 .collect(Collectors.toSet());
     }
@@ -357,7 +357,7 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
                 .filter(protectedStorageEntry -> protectedStorageEntry instanceof ProtectedMailboxStorageEntry)
                 .map(protectedStorageEntry -> (ProtectedMailboxStorageEntry) protectedStorageEntry)
                 .map(e -> e.getMailboxStoragePayload().getPrefixedSealedAndSignedMessage().getUid())
-                .filter(mailboxItemsByUid::containsKey)
+                .filter(mailboxStore::contains)
                 .forEach(this::removeMailboxItemFromLocalStore);
     }
 
@@ -429,14 +429,8 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
 
     private void handleMailboxItem(MailboxItem mailboxItem) {
         String uid = mailboxItem.getUid();
-        if (!mailboxItemsByUid.containsKey(uid)) {
-            mailboxItemsByUid.put(uid, mailboxItem);
-            mailboxMessageList.add(mailboxItem);
-            log.trace("## handleMailboxItem uid={}\nhash={}",
-                    uid,
-                    P2PDataStorage.get32ByteHashAsByteArray(mailboxItem.getProtectedMailboxStorageEntry().getProtectedStoragePayload()));
-
-            requestPersistence();
+        if (mailboxStore.add(mailboxItem)) {
+            log.trace("## handleMailboxItem uid={}\nhash={}", uid, mailboxStore.getHash(uid));
         }
 
         // In case we had the item already stored we still prefer to apply it again to the domain.
@@ -556,51 +550,24 @@ public class MailboxMessageService implements HashMapChangedListener, PersistedD
         }
         log.info("We will republish our persisted mailbox messages after a delay of {} sec.", REPUBLISH_DELAY_SEC);
 
-        log.trace("## republishMailBoxMessages mailboxItemsByUid={}", mailboxItemsByUid.keySet());
         UserThread.runAfter(() -> {
             // In addProtectedStorageEntry we break early if we have already received a remove message for that entry.
-            republishInChunks(mailboxItemsByUid.values().stream()
+            mailboxRepublisher.start(mailboxStore.stream()
                     .filter(e -> !e.isExpired(clock))
                     .map(MailboxItem::getProtectedMailboxStorageEntry)
-                    .collect(Collectors.toCollection(ArrayDeque::new)));
+                    .collect(Collectors.toList()));
         }, REPUBLISH_DELAY_SEC);
     }
 
-    // We republish buckets of 50 items which is about 200 kb. With 20 connections at a seed node that results in
-    // 4 MB in total. For 1000 messages it takes 40 min with a 2 min delay. We do that republishing just for
-    // additional resilience and as a backup in case all seed nodes would fail to prevent that mailbox messages would
-    // get lost. A long delay for republishing is preferred over too much network load.
-    private void republishInChunks(Queue<ProtectedMailboxStorageEntry> queue) {
-        int chunkSize = 50;
-        log.info("Republish a bucket of {} persisted mailbox messages out of {}.", chunkSize, queue.size());
-        int i = 0;
-        while (!queue.isEmpty() && i < chunkSize) {
-            ProtectedMailboxStorageEntry protectedMailboxStorageEntry = queue.poll();
-            i++;
-            // Broadcaster will accumulate messages in a BundleOfEnvelopes
-            p2PDataStorage.republishExistingProtectedMailboxStorageEntry(protectedMailboxStorageEntry,
-                    networkNode.getNodeAddress(),
-                    null);
-        }
-        if (!queue.isEmpty()) {
-            // We delay 2 minutes to not overload the network
-            UserThread.runAfter(() -> republishInChunks(queue), REPUBLISH_DELAY_SEC);
-        }
-    }
-
     private void removeMailboxItemFromLocalStore(String uid) {
-        MailboxItem mailboxItem = mailboxItemsByUid.get(uid);
-        mailboxItemsByUid.remove(uid);
-        mailboxMessageList.remove(mailboxItem);
-        log.trace("## removeMailboxItemFromMap uid={}\nhash={}\nmailboxItemsByUid={}",
-                uid,
-                P2PDataStorage.get32ByteHashAsByteArray(mailboxItem.getProtectedMailboxStorageEntry().getProtectedStoragePayload()),
-                mailboxItemsByUid.keySet()
-        );
-        requestPersistence();
-    }
+        P2PDataStorage.ByteArray hash = mailboxStore.getHash(uid);
+        if (mailboxStore.remove(uid) == null) {
+            return;
+        }
 
-    private void requestPersistence() {
-        persistenceManager.requestPersistence();
+        if (hash != null) {
+            mailboxRepublisher.remove(hash);
+        }
+        log.trace("## removeMailboxItemFromMap uid={}\nhash={}\nnumMailboxItems={}", uid, hash, mailboxStore.size());
     }
 }
@@ -0,0 +1,347 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.mailbox;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import haveno.common.Timer;
+import haveno.common.UserThread;
+import haveno.common.app.Capabilities;
+import haveno.common.app.Capability;
+import haveno.common.proto.network.NetworkEnvelope;
+import haveno.common.util.Utilities;
+import haveno.network.p2p.mailbox.messages.MailboxDigestRequest;
+import haveno.network.p2p.mailbox.messages.MailboxDigestResponse;
+import haveno.network.p2p.network.Connection;
+import haveno.network.p2p.network.MessageListener;
+import haveno.network.p2p.network.NetworkNode;
+import haveno.network.p2p.peers.BroadcastHandler;
+import haveno.network.p2p.peers.Broadcaster;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Republishes persisted mailbox entries at a pace set by a token bucket measured in bytes.
+ *
+ * Small entries, which are the trade protocol messages, are served before larger ones like
+ * dispute chat messages, and within each class fresher entries go first. The refill rate
+ * grows additively while broadcasts succeed and is halved after a failed broadcast.
+ *
+ * Before an entry is republished we ask a few peers supporting {@link Capability#MAILBOX_DIGEST}
+ * which entries they already hold. Entries held by all asked peers are dropped from the queue.
+ */
+@Slf4j
+class MailboxRepublisher implements MessageListener {
+    static final long TICK_INTERVAL_SEC = 10;
+
+    // Bytes per second. The initial rate is about the rate of the former fixed schedule
+    // (50 entries of ~4 kB every 2 minutes).
+    static final double INITIAL_RATE = 2 * 1024;
+    static final double MIN_RATE = 512;
+    static final double MAX_RATE = 32 * 1024;
+    static final double RATE_INCREASE = 512;
+    static final double MAX_TOKENS = 64 * 1024;
+
+    // Trade protocol messages are usually 3-4 kB, chat messages are larger
+    static final int MAX_PRIORITY_ENTRY_SIZE = 10_000;
+
+    static final int MAX_HASHES_PER_DIGEST = 500;
+    static final int NUM_DIGEST_PEERS = 2;
+
+    private final NetworkNode networkNode;
+    private final P2PDataStorage p2PDataStorage;
+    private final Clock clock;
+    private final Random random = new Random();
+
+    private final PriorityQueue<Item> queue = new PriorityQueue<>(Comparator
+            .comparing((Item item) -> item.size > MAX_PRIORITY_ENTRY_SIZE)
+            .thenComparing(item -> item.entry.getCreationTimeStamp(), Comparator.reverseOrder()));
+    private final Map<P2PDataStorage.ByteArray, Item> itemsByHash = new HashMap<>();
+    // Hashes we asked for by nonce of the request and the uid of the connection we sent it to
+    private final Map<Integer, DigestRequest> pendingDigestRequests = new HashMap<>();
+
+    private double rate = INITIAL_RATE;
+    private double tokens;
+    private long lastRefillTs;
+    private int numSucceeded;
+    private int numFailed;
+    private Timer timer;
+
+    MailboxRepublisher(NetworkNode networkNode, P2PDataStorage p2PDataStorage, Clock clock) {
+        this.networkNode = networkNode;
+        this.p2PDataStorage = p2PDataStorage;
+        this.clock = clock;
+
+        networkNode.addMessageListener(this);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void start(Collection<ProtectedMailboxStorageEntry> entries) {
+        addAll(entries);
+        log.info("We will republish {} persisted mailbox messages at an initial rate of {} kB/sec.",
+                queue.size(), rate / 1024);
+        if (timer == null && !queue.isEmpty()) {
+            timer = UserThread.runPeriodically(this::onTick, TICK_INTERVAL_SEC);
+        }
+    }
+
+    void remove(P2PDataStorage.ByteArray hash) {
+        Item item = itemsByHash.remove(hash);
+        if (item != null) {
+            queue.remove(item);
+        }
+    }
+
+    int size() {
+        return queue.size();
+    }
+
+    double getRate() {
+        return rate;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MessageListener implementation
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public void onMessage(NetworkEnvelope networkEnvelope, Connection connection) {
+        if (networkEnvelope instanceof MailboxDigestRequest) {
+            onDigestRequest((MailboxDigestRequest) networkEnvelope, connection);
+        } else if (networkEnvelope instanceof MailboxDigestResponse) {
+            onDigestResponse((MailboxDigestResponse) networkEnvelope, connection);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Package private for tests
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    void addAll(Collection<ProtectedMailboxStorageEntry> entries) {
+        entries.forEach(entry -> {
+            P2PDataStorage.ByteArray hash = P2PDataStorage.get32ByteHashAsByteArray(entry.getProtectedStoragePayload());
+            if (!itemsByHash.containsKey(hash)) {
+                Item item = new Item(entry, hash, entry.toProtoMessage().getSerializedSize());
+                itemsByHash.put(hash, item);
+                queue.add(item);
+            }
+        });
+        lastRefillTs = clock.millis();
+    }
+
+    void onTick() {
+        adaptRate();
+        refillTokens();
+        requestDigests();
+
+        int numRepublished = 0;
+        while (!queue.isEmpty()) {
+            Item item = queue.peek();
+            if (item.isHeldByPeers() ||
+                    item.entry.isExpired(clock) ||
+                    p2PDataStorage.hasAlreadyRemovedAddOncePayload(item.entry.getProtectedStoragePayload(), item.hash)) {
+                queue.poll();
+                itemsByHash.remove(item.hash);
+                continue;
+            }
+
+            // Entries larger than the bucket are sent once the bucket is full
+            if (tokens < Math.min(item.size, MAX_TOKENS)) {
+                break;
+            }
+
+            queue.poll();
+            itemsByHash.remove(item.hash);
+            tokens -= item.size;
+            numRepublished++;
+            // Broadcaster will accumulate messages in a BundleOfEnvelopes
+            p2PDataStorage.republishExistingProtectedMailboxStorageEntry(item.entry,
+                    networkNode.getNodeAddress(),
+                    new RepublishListener());
+        }
+
+        if (numRepublished > 0) {
+            log.info("Republished {} persisted mailbox messages, {} remaining. Rate is {} kB/sec.",
+                    numRepublished, queue.size(), rate / 1024);
+        }
+        if (queue.isEmpty()) {
+            stopTimer();
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // We decrease at most once per tick as all entries of a tick are broadcast in the same bundle
+    private void adaptRate() {
+        if (numFailed > 0) {
+            rate = Math.max(MIN_RATE, rate / 2);
+        } else if (numSucceeded > 0) {
+            rate = Math.min(MAX_RATE, rate + RATE_INCREASE);
+        }
+        numFailed = 0;
+        numSucceeded = 0;
+    }
+
+    private void refillTokens() {
+        long now = clock.millis();
+        tokens = Math.min(MAX_TOKENS, tokens + rate * (now - lastRefillTs) / 1000d);
+        lastRefillTs = now;
+    }
+
+    private void requestDigests() {
+        List<Item> items = queue.stream()
+                .filter(item -> !item.digestRequested)
+                .sorted(queue.comparator())
+                .limit(MAX_HASHES_PER_DIGEST)
+                .collect(Collectors.toList());
+        if (items.isEmpty()) {
+            return;
+        }
+
+        List<Connection> connections = networkNode.getConfirmedConnections().stream()
+                .filter(connection -> connection.getCapabilities().containsAll(new Capabilities(Capability.MAILBOX_DIGEST)))
+                .limit(NUM_DIGEST_PEERS)
+                .collect(Collectors.toList());
+        if (connections.size() < NUM_DIGEST_PEERS) {
+            return;
+        }
+
+        Set<P2PDataStorage.ByteArray> hashes = items.stream().map(item -> item.hash).collect(Collectors.toSet());
+        List<byte[]> hashesAsBytes = hashes.stream().map(hash -> hash.bytes).collect(Collectors.toList());
+        connections.forEach(connection -> {
+            int nonce = random.nextInt();
+            pendingDigestRequests.put(nonce, new DigestRequest(connection.getUid(), hashes));
+            Futures.addCallback(networkNode.sendMessage(connection, new MailboxDigestRequest(nonce, hashesAsBytes)),
+                    Utilities.failureCallback(throwable -> {
+                        log.info("Sending MailboxDigestRequest to {} failed. {}", connection, throwable.getMessage());
+                        UserThread.execute(() -> pendingDigestRequests.remove(nonce));
+                    }),
+                    MoreExecutors.directExecutor());
+        });
+        items.forEach(item -> item.digestRequested = true);
+    }
+
+    private void onDigestRequest(MailboxDigestRequest request, Connection connection) {
+        if (request.getHashes().size() > MAX_HASHES_PER_DIGEST) {
+            log.warn("We got a MailboxDigestRequest with {} hashes from {}. We ignore it.",
+                    request.getHashes().size(), connection);
+            return;
+        }
+
+        List<byte[]> heldHashes = request.getHashes().stream()
+                .filter(hash -> p2PDataStorage.getMap().containsKey(new P2PDataStorage.ByteArray(hash)))
+                .collect(Collectors.toList());
+        Futures.addCallback(networkNode.sendMessage(connection, new MailboxDigestResponse(request.getNonce(), heldHashes)),
+                Utilities.failureCallback(throwable ->
+                        log.info("Sending MailboxDigestResponse to {} failed. {}", connection, throwable.getMessage())),
+                MoreExecutors.directExecutor());
+    }
+
+    private void onDigestResponse(MailboxDigestResponse response, Connection connection) {
+        DigestRequest request = pendingDigestRequests.get(response.getRequestNonce());
+        if (request == null || !request.connectionUid.equals(connection.getUid())) {
+            return;
+        }
+
+        pendingDigestRequests.remove(response.getRequestNonce());
+        response.getHashes().stream()
+                .map(P2PDataStorage.ByteArray::new)
+                .filter(request.hashes::contains)
+                .map(itemsByHash::get)
+                .filter(Objects::nonNull)
+                .forEach(item -> item.holders.add(request.connectionUid));
+    }
+
+    private void stopTimer() {
+        if (timer != null) {
+            timer.stop();
+            timer = null;
+        }
+    }
+
+    private static class Item {
+        private final ProtectedMailboxStorageEntry entry;
+        private final P2PDataStorage.ByteArray hash;
+        private final int size;
+        private final Set<String> holders = new HashSet<>();
+        private boolean digestRequested;
+
+        private Item(ProtectedMailboxStorageEntry entry, P2PDataStorage.ByteArray hash, int size) {
+            this.entry = entry;
+            this.hash = hash;
+            this.size = size;
+        }
+
+        private boolean isHeldByPeers() {
+            return holders.size() >= NUM_DIGEST_PEERS;
+        }
+    }
+
+    private static class DigestRequest {
+        private final String connectionUid;
+        private final Set<P2PDataStorage.ByteArray> hashes;
+
+        private DigestRequest(String connectionUid, Set<P2PDataStorage.ByteArray> hashes) {
+            this.connectionUid = connectionUid;
+            this.hashes = hashes;
+        }
+    }
+
+    private class RepublishListener implements BroadcastHandler.Listener {
+        private boolean completed;
+
+        @Override
+        public void onSufficientlyBroadcast(List<Broadcaster.BroadcastRequest> broadcastRequests) {
+            if (!completed) {
+                completed = true;
+                UserThread.execute(() -> numSucceeded++);
+            }
+        }
+
+        @Override
+        public void onNotSufficientlyBroadcast(int numOfCompletedBroadcasts, int numOfFailedBroadcast) {
+            if (!completed) {
+                completed = true;
+                UserThread.execute(() -> numFailed++);
+            }
+        }
+    }
+}
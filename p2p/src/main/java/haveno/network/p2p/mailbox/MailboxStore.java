@@ -0,0 +1,206 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.mailbox;
+
+import com.google.protobuf.Message;
+import haveno.common.persistence.PersistenceManager;
+import haveno.network.p2p.storage.P2PDataStorage;
+
+import javax.annotation.Nullable;
+import javax.inject.Provider;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the mailbox items indexed by uid together with the hash of their storage payload, so the hash
+ * does not need to be computed again when an item gets removed.
+ *
+ * Our own items and the foreign items are kept in separate partitions. Our own items stay in the
+ * MailboxMessageList file, foreign items are spread over NUM_FOREIGN_PARTITIONS files by their uid.
+ * A change only causes the partition of the changed item to be written, so on nodes holding many
+ * foreign items a new or removed item does not cause the whole mailbox to be written.
+ *
+ * Files written by earlier versions contain own and foreign items in the MailboxMessageList file.
+ * The foreign items get moved to their partitions at the first read.
+ */
+class MailboxStore {
+    static final int NUM_FOREIGN_PARTITIONS = 16;
+    static final String OWN_PARTITION_FILE_NAME = "MailboxMessageList";
+    static final String FOREIGN_PARTITION_FILE_NAME_PREFIX = OWN_PARTITION_FILE_NAME + "_";
+
+    private final Partition ownPartition;
+    private final List<Partition> foreignPartitions = new ArrayList<>();
+    private final Map<String, P2PDataStorage.ByteArray> hashesByUid = new ConcurrentHashMap<>();
+
+    MailboxStore(PersistenceManager<MailboxMessageList> persistenceManager,
+                 Provider<PersistenceManager<MailboxMessageList>> persistenceManagerProvider) {
+        ownPartition = new Partition(persistenceManager);
+        persistenceManager.initialize(ownPartition, OWN_PARTITION_FILE_NAME, PersistenceManager.Source.PRIVATE_LOW_PRIO);
+        for (int i = 0; i < NUM_FOREIGN_PARTITIONS; i++) {
+            Partition partition = new Partition(persistenceManagerProvider.get());
+            partition.persistenceManager.initialize(partition,
+                    FOREIGN_PARTITION_FILE_NAME_PREFIX + i,
+                    PersistenceManager.Source.PRIVATE_LOW_PRIO);
+            foreignPartitions.add(partition);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Persistence
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Reads all partitions. The items are not added to the store, the result handler decides which of them
+     * to keep and passes them to addPersisted.
+     */
+    void readPersisted(Consumer<List<MailboxItem>> resultHandler) {
+        List<Partition> partitions = getPartitions().collect(Collectors.toList());
+        List<MailboxItem> persistedItems = new ArrayList<>();
+        AtomicInteger numPending = new AtomicInteger(partitions.size());
+        partitions.forEach(partition -> {
+            Runnable completeHandler = () -> {
+                if (numPending.decrementAndGet() == 0) {
+                    resultHandler.accept(persistedItems);
+                }
+            };
+            // Result handlers are called on the UserThread
+            partition.persistenceManager.readPersisted(persisted -> {
+                        partition.numPersistedItems = persisted.size();
+                        persistedItems.addAll(persisted.getList());
+                        completeHandler.run();
+                    },
+                    completeHandler);
+        });
+    }
+
+    /**
+     * Adds the items we have read from disk. Only partitions from which we dropped items or which contained
+     * items of another partition get written.
+     */
+    void addPersisted(Collection<MailboxItem> mailboxItems) {
+        mailboxItems.forEach(this::put);
+        getPartitions()
+                .filter(partition -> partition.itemsByUid.size() != partition.numPersistedItems)
+                .forEach(partition -> partition.persistenceManager.requestPersistence());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    boolean add(MailboxItem mailboxItem) {
+        if (contains(mailboxItem.getUid())) {
+            return false;
+        }
+
+        put(mailboxItem).persistenceManager.requestPersistence();
+        return true;
+    }
+
+    @Nullable
+    MailboxItem remove(String uid) {
+        Partition partition = ownPartition.itemsByUid.containsKey(uid) ? ownPartition : getForeignPartition(uid);
+        MailboxItem mailboxItem = partition.itemsByUid.remove(uid);
+        if (mailboxItem == null) {
+            return null;
+        }
+
+        hashesByUid.remove(uid);
+        partition.persistenceManager.requestPersistence();
+        return mailboxItem;
+    }
+
+    @Nullable
+    MailboxItem get(String uid) {
+        MailboxItem mailboxItem = ownPartition.itemsByUid.get(uid);
+        return mailboxItem != null ? mailboxItem : getForeignPartition(uid).itemsByUid.get(uid);
+    }
+
+    @Nullable
+    P2PDataStorage.ByteArray getHash(String uid) {
+        return hashesByUid.get(uid);
+    }
+
+    boolean contains(String uid) {
+        return get(uid) != null;
+    }
+
+    Collection<MailboxItem> getMyItems() {
+        return ownPartition.itemsByUid.values();
+    }
+
+    Stream<MailboxItem> stream() {
+        return getPartitions().flatMap(partition -> partition.itemsByUid.values().stream());
+    }
+
+    int size() {
+        return hashesByUid.size();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Partition put(MailboxItem mailboxItem) {
+        String uid = mailboxItem.getUid();
+        Partition partition = mailboxItem.isMine() ? ownPartition : getForeignPartition(uid);
+        partition.itemsByUid.put(uid, mailboxItem);
+        hashesByUid.put(uid, P2PDataStorage.get32ByteHashAsByteArray(
+                mailboxItem.getProtectedMailboxStorageEntry().getProtectedStoragePayload()));
+        return partition;
+    }
+
+    private Partition getForeignPartition(String uid) {
+        return foreignPartitions.get(Math.floorMod(uid.hashCode(), NUM_FOREIGN_PARTITIONS));
+    }
+
+    private Stream<Partition> getPartitions() {
+        return Stream.concat(Stream.of(ownPartition), foreignPartitions.stream());
+    }
+
+    // The list of the base class is not used, we serialize the items of the partition at write time.
+    private static class Partition extends MailboxMessageList {
+        private final PersistenceManager<MailboxMessageList> persistenceManager;
+        private final Map<String, MailboxItem> itemsByUid = new ConcurrentHashMap<>();
+        private int numPersistedItems;
+
+        Partition(PersistenceManager<MailboxMessageList> persistenceManager) {
+            this.persistenceManager = persistenceManager;
+        }
+
+        @Override
+        public Message toProtoMessage() {
+            return protobuf.PersistableEnvelope.newBuilder()
+                    .setMailboxMessageList(protobuf.MailboxMessageList.newBuilder()
+                            .addAllMailboxItem(itemsByUid.values().stream()
+                                    .map(MailboxItem::toProtoMessage)
+                                    .collect(Collectors.toList())))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.mailbox.messages;
+
+import com.google.protobuf.ByteString;
+import haveno.common.app.Version;
+import haveno.common.proto.network.NetworkEnvelope;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Asks a peer which of the given mailbox entries, identified by the hash of their payload,
+ * it holds already.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class MailboxDigestRequest extends NetworkEnvelope {
+    private final int nonce;
+    private final List<byte[]> hashes;
+
+    public MailboxDigestRequest(int nonce, List<byte[]> hashes) {
+        this(nonce, hashes, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private MailboxDigestRequest(int nonce, List<byte[]> hashes, String messageVersion) {
+        super(messageVersion);
+        this.nonce = nonce;
+        this.hashes = hashes;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setMailboxDigestRequest(protobuf.MailboxDigestRequest.newBuilder()
+                        .setNonce(nonce)
+                        .addAllHashes(hashes.stream().map(ByteString::copyFrom).collect(Collectors.toList())))
+                .build();
+    }
+
+    public static MailboxDigestRequest fromProto(protobuf.MailboxDigestRequest proto, String messageVersion) {
+        return new MailboxDigestRequest(proto.getNonce(),
+                proto.getHashesList().stream().map(ByteString::toByteArray).collect(Collectors.toList()),
+                messageVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "MailboxDigestRequest{" +
+                "\n     nonce=" + nonce +
+                ",\n     hashes.size=" + hashes.size() +
+                "\n} " + super.toString();
+    }
+}
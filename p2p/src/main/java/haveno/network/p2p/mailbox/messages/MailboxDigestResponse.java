@@ -0,0 +1,75 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.mailbox.messages;
+
+import com.google.protobuf.ByteString;
+import haveno.common.app.Version;
+import haveno.common.proto.network.NetworkEnvelope;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Lists the hashes of a {@link MailboxDigestRequest} for which the peer holds the mailbox entry.
+ */
+@EqualsAndHashCode(callSuper = true)
+@Value
+public final class MailboxDigestResponse extends NetworkEnvelope {
+    private final int requestNonce;
+    private final List<byte[]> hashes;
+
+    public MailboxDigestResponse(int requestNonce, List<byte[]> hashes) {
+        this(requestNonce, hashes, Version.getP2PMessageVersion());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private MailboxDigestResponse(int requestNonce, List<byte[]> hashes, String messageVersion) {
+        super(messageVersion);
+        this.requestNonce = requestNonce;
+        this.hashes = hashes;
+    }
+
+    @Override
+    public protobuf.NetworkEnvelope toProtoNetworkEnvelope() {
+        return getNetworkEnvelopeBuilder()
+                .setMailboxDigestResponse(protobuf.MailboxDigestResponse.newBuilder()
+                        .setRequestNonce(requestNonce)
+                        .addAllHashes(hashes.stream().map(ByteString::copyFrom).collect(Collectors.toList())))
+                .build();
+    }
+
+    public static MailboxDigestResponse fromProto(protobuf.MailboxDigestResponse proto, String messageVersion) {
+        return new MailboxDigestResponse(proto.getRequestNonce(),
+                proto.getHashesList().stream().map(ByteString::toByteArray).collect(Collectors.toList()),
+                messageVersion);
+    }
+
+    @Override
+    public String toString() {
+        return "MailboxDigestResponse{" +
+                "\n     requestNonce=" + requestNonce +
+                ",\n     hashes.size=" + hashes.size() +
+                "\n} " + super.toString();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.mailbox;
+
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.protobuf.ByteString;
+import haveno.common.app.Capabilities;
+import haveno.common.app.Capability;
+import haveno.network.p2p.mailbox.messages.MailboxDigestRequest;
+import haveno.network.p2p.mailbox.messages.MailboxDigestResponse;
+import haveno.network.p2p.network.Connection;
+import haveno.network.p2p.network.NetworkNode;
+import haveno.network.p2p.peers.BroadcastHandler;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.MailboxStoragePayload;
+import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import haveno.network.p2p.storage.payload.ProtectedStorageEntry;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MailboxRepublisherTest {
+    private NetworkNode networkNode;
+    private P2PDataStorage p2PDataStorage;
+    private long now;
+    private MailboxRepublisher republisher;
+
+    @Before
+    public void setUp() {
+        networkNode = mock(NetworkNode.class);
+        p2PDataStorage = mock(P2PDataStorage.class);
+        Clock clock = mock(Clock.class);
+        when(clock.millis()).thenAnswer(invocation -> now);
+        when(networkNode.sendMessage(any(Connection.class), any())).thenReturn(SettableFuture.create());
+        now = TimeUnit.DAYS.toMillis(1);
+        republisher = new MailboxRepublisher(networkNode, p2PDataStorage, clock);
+    }
+
+    @Test
+    public void testFresherAndSmallerEntriesFirst() {
+        ProtectedMailboxStorageEntry oldSmall = entry("oldSmall", now - 1000, 4000);
+        ProtectedMailboxStorageEntry freshSmall = entry("freshSmall", now, 4000);
+        ProtectedMailboxStorageEntry freshLarge = entry("freshLarge", now, 15000);
+        republisher.addAll(asList(freshLarge, oldSmall, freshSmall));
+
+        // no tokens yet
+        republisher.onTick();
+        verify(p2PDataStorage, never()).republishExistingProtectedMailboxStorageEntry(any(), any(), any());
+
+        // 10 sec at the initial rate are 20 kB, enough for the two small entries only
+        now += TimeUnit.SECONDS.toMillis(MailboxRepublisher.TICK_INTERVAL_SEC);
+        republisher.onTick();
+        InOrder inOrder = inOrder(p2PDataStorage);
+        inOrder.verify(p2PDataStorage).republishExistingProtectedMailboxStorageEntry(eq(freshSmall), any(), any());
+        inOrder.verify(p2PDataStorage).republishExistingProtectedMailboxStorageEntry(eq(oldSmall), any(), any());
+        verify(p2PDataStorage, never()).republishExistingProtectedMailboxStorageEntry(eq(freshLarge), any(), any());
+        assertEquals(1, republisher.size());
+
+        now += TimeUnit.SECONDS.toMillis(MailboxRepublisher.TICK_INTERVAL_SEC);
+        republisher.onTick();
+        verify(p2PDataStorage).republishExistingProtectedMailboxStorageEntry(eq(freshLarge), any(), any());
+        assertEquals(0, republisher.size());
+    }
+
+    @Test
+    public void testRateAdaptsToBroadcastResult() {
+        List<ProtectedMailboxStorageEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            entries.add(entry("entry" + i, now - i, 4000));
+        }
+        republisher.addAll(entries);
+        now += TimeUnit.SECONDS.toMillis(MailboxRepublisher.TICK_INTERVAL_SEC);
+        republisher.onTick();
+
+        ArgumentCaptor<BroadcastHandler.Listener> listeners = ArgumentCaptor.forClass(BroadcastHandler.Listener.class);
+        verify(p2PDataStorage, times(5)).republishExistingProtectedMailboxStorageEntry(any(), any(), listeners.capture());
+
+        listeners.getAllValues().forEach(listener -> listener.onSufficientlyBroadcast(new ArrayList<>()));
+        now += TimeUnit.SECONDS.toMillis(MailboxRepublisher.TICK_INTERVAL_SEC);
+        republisher.onTick();
+        double increasedRate = MailboxRepublisher.INITIAL_RATE + MailboxRepublisher.RATE_INCREASE;
+        assertEquals(increasedRate, republisher.getRate(), 0);
+
+        // the increased rate allows 6 more entries
+        listeners = ArgumentCaptor.forClass(BroadcastHandler.Listener.class);
+        verify(p2PDataStorage, times(11)).republishExistingProtectedMailboxStorageEntry(any(), any(), listeners.capture());
+
+        // failures halve the rate once per tick
+        BroadcastHandler.Listener failed = listeners.getAllValues().get(5);
+        failed.onNotSufficientlyBroadcast(0, 3);
+        failed.onNotSufficientlyBroadcast(1, 3);
+        listeners.getAllValues().get(6).onNotSufficientlyBroadcast(0, 3);
+        republisher.onTick();
+        assertEquals(increasedRate / 2, republisher.getRate(), 0);
+    }
+
+    @Test
+    public void testSkipsEntriesHeldByPeers() {
+        ProtectedMailboxStorageEntry held = entry("held", now, 4000);
+        ProtectedMailboxStorageEntry notHeld = entry("notHeld", now - 1000, 4000);
+        republisher.addAll(asList(held, notHeld));
+
+        Connection connection1 = connection("1");
+        Connection connection2 = connection("2");
+        when(networkNode.getConfirmedConnections()).thenReturn(Set.of(connection1, connection2));
+        republisher.onTick();
+
+        ArgumentCaptor<MailboxDigestRequest> request1 = ArgumentCaptor.forClass(MailboxDigestRequest.class);
+        ArgumentCaptor<MailboxDigestRequest> request2 = ArgumentCaptor.forClass(MailboxDigestRequest.class);
+        verify(networkNode).sendMessage(eq(connection1), request1.capture());
+        verify(networkNode).sendMessage(eq(connection2), request2.capture());
+        assertEquals(2, request1.getValue().getHashes().size());
+
+        byte[] heldHash = P2PDataStorage.get32ByteHash(held.getProtectedStoragePayload());
+        // a response from a peer we did not ask is ignored
+        republisher.onMessage(new MailboxDigestResponse(request1.getValue().getNonce(), List.of(heldHash)), connection2);
+        republisher.onMessage(new MailboxDigestResponse(request1.getValue().getNonce(), List.of(heldHash)), connection1);
+        republisher.onMessage(new MailboxDigestResponse(request2.getValue().getNonce(), List.of(heldHash)), connection2);
+
+        now += TimeUnit.SECONDS.toMillis(MailboxRepublisher.TICK_INTERVAL_SEC);
+        republisher.onTick();
+        verify(p2PDataStorage, never()).republishExistingProtectedMailboxStorageEntry(eq(held), any(), any());
+        verify(p2PDataStorage).republishExistingProtectedMailboxStorageEntry(eq(notHeld), any(), any());
+        assertEquals(0, republisher.size());
+    }
+
+    @Test
+    public void testAnswersDigestRequest() {
+        ProtectedMailboxStorageEntry held = entry("held", now, 4000);
+        ProtectedMailboxStorageEntry notHeld = entry("notHeld", now, 4000);
+        Map<P2PDataStorage.ByteArray, ProtectedStorageEntry> map = new HashMap<>();
+        map.put(P2PDataStorage.get32ByteHashAsByteArray(held.getProtectedStoragePayload()), held);
+        when(p2PDataStorage.getMap()).thenReturn(map);
+
+        Connection connection = connection("1");
+        List<byte[]> hashes = List.of(P2PDataStorage.get32ByteHash(held.getProtectedStoragePayload()),
+                P2PDataStorage.get32ByteHash(notHeld.getProtectedStoragePayload()));
+        republisher.onMessage(new MailboxDigestRequest(7, hashes), connection);
+
+        ArgumentCaptor<MailboxDigestResponse> response = ArgumentCaptor.forClass(MailboxDigestResponse.class);
+        verify(networkNode).sendMessage(eq(connection), response.capture());
+        assertEquals(7, response.getValue().getRequestNonce());
+        assertEquals(1, response.getValue().getHashes().size());
+        assertTrue(response.getValue().getHashes().stream()
+                .map(P2PDataStorage.ByteArray::new)
+                .collect(Collectors.toSet())
+                .contains(P2PDataStorage.get32ByteHashAsByteArray(held.getProtectedStoragePayload())));
+    }
+
+    private static ProtectedMailboxStorageEntry entry(String id, long creationTimeStamp, int size) {
+        MailboxStoragePayload payload = mock(MailboxStoragePayload.class);
+        when(payload.toProtoMessage()).thenReturn(protobuf.StoragePayload.newBuilder()
+                .setMailboxStoragePayload(protobuf.MailboxStoragePayload.newBuilder()
+                        .setOwnerPubKeyBytes(ByteString.copyFromUtf8(id)))
+                .build());
+        ProtectedMailboxStorageEntry entry = mock(ProtectedMailboxStorageEntry.class);
+        when(entry.getProtectedStoragePayload()).thenReturn(payload);
+        when(entry.getCreationTimeStamp()).thenReturn(creationTimeStamp);
+        when(entry.toProtoMessage()).thenReturn(protobuf.ProtectedStorageEntry.newBuilder()
+                .setSignature(ByteString.copyFrom(new byte[size - 3]))
+                .build());
+        return entry;
+    }
+
+    private static Connection connection(String uid) {
+        Connection connection = mock(Connection.class);
+        when(connection.getUid()).thenReturn(uid);
+        when(connection.getCapabilities()).thenReturn(new Capabilities(Capability.MAILBOX_DIGEST));
+        return connection;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * This file is part of Haveno.
+ *
+ * Haveno is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Haveno is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Haveno. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package haveno.network.p2p.mailbox;
+
+import com.google.protobuf.ByteString;
+import haveno.common.persistence.PersistenceManager;
+import haveno.network.p2p.storage.P2PDataStorage;
+import haveno.network.p2p.storage.payload.MailboxStoragePayload;
+import haveno.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.when;
+
+public class MailboxStoreTest {
+    private final Map<String, PersistenceManager<MailboxMessageList>> persistenceManagers = new HashMap<>();
+    private final Map<String, MailboxMessageList> persistedLists = new HashMap<>();
+    private MailboxStore store;
+
+    @Before
+    public void setUp() {
+        store = new MailboxStore(persistenceManager(), this::persistenceManager);
+        assertEquals(MailboxStore.NUM_FOREIGN_PARTITIONS + 1, persistenceManagers.size());
+    }
+
+    @Test
+    public void testOwnAndForeignItemsArePartitioned() {
+        MailboxItem own = item("own", true);
+        MailboxItem foreign = item("foreign", false);
+
+        assertTrue(store.add(own));
+        assertTrue(store.add(foreign));
+        assertFalse(store.add(item("foreign", false)));
+
+        assertEquals(2, store.size());
+        assertEquals(List.of(own), new ArrayList<>(store.getMyItems()));
+        assertSame(foreign, store.get("foreign"));
+        assertEquals(P2PDataStorage.get32ByteHashAsByteArray(foreign.getProtectedMailboxStorageEntry().getProtectedStoragePayload()),
+                store.getHash("foreign"));
+    }
+
+    @Test
+    public void testOnlyChangedPartitionIsPersisted() {
+        store.add(item("own", true));
+        assertEquals(List.of(MailboxStore.OWN_PARTITION_FILE_NAME), getPersistedFileNames());
+
+        store.add(item("foreign", false));
+        store.remove("foreign");
+        List<String> persistedFileNames = getPersistedFileNames();
+        assertEquals(2, persistedFileNames.size());
+        assertTrue(persistedFileNames.get(1).startsWith(MailboxStore.FOREIGN_PARTITION_FILE_NAME_PREFIX));
+        assertNull(store.get("foreign"));
+        assertNull(store.getHash("foreign"));
+        assertNull(store.remove("foreign"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void testLegacyForeignItemsAreMovedToPartitions() {
+        MailboxItem own = item("own", true);
+        MailboxItem foreign = item("foreign", false);
+        persistedLists.put(MailboxStore.OWN_PARTITION_FILE_NAME, new MailboxMessageList(asList(own, foreign)));
+
+        List<MailboxItem> persisted = new ArrayList<>();
+        store.readPersisted(persisted::addAll);
+        assertEquals(2, persisted.size());
+
+        store.addPersisted(persisted);
+        // The own partition gets written without the foreign item and the foreign item gets written to its partition
+        List<String> persistedFileNames = getPersistedFileNames();
+        assertEquals(2, persistedFileNames.size());
+        assertEquals(MailboxStore.OWN_PARTITION_FILE_NAME, persistedFileNames.get(0));
+        assertEquals(List.of(own), new ArrayList<>(store.getMyItems()));
+        assertSame(foreign, store.get("foreign"));
+    }
+
+    @Test
+    public void testUnchangedPartitionsAreNotPersistedAfterRead() {
+        persistedLists.put(MailboxStore.OWN_PARTITION_FILE_NAME, new MailboxMessageList(List.of(item("own", true))));
+
+        store.readPersisted(store::addPersisted);
+
+        assertEquals(1, store.size());
+        assertTrue(getPersistedFileNames().isEmpty());
+    }
+
+    private List<String> getPersistedFileNames() {
+        return persistenceManagers.entrySet().stream()
+                .filter(e -> mockingDetails(e.getValue()).getInvocations().stream()
+                        .anyMatch(invocation -> invocation.getMethod().getName().equals("requestPersistence")))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private PersistenceManager<MailboxMessageList> persistenceManager() {
+        PersistenceManager<MailboxMessageList> persistenceManager = mock(PersistenceManager.class);
+        doAnswer(invocation -> {
+            String fileName = invocation.getArgument(1);
+            persistenceManagers.put(fileName, persistenceManager);
+            doAnswer(readInvocation -> {
+                MailboxMessageList persisted = persistedLists.get(fileName);
+                if (persisted != null) {
+                    ((Consumer<MailboxMessageList>) readInvocation.getArgument(0)).accept(persisted);
+                } else {
+                    ((Runnable) readInvocation.getArgument(1)).run();
+                }
+                return null;
+            }).when(persistenceManager).readPersisted(any(Consumer.class), any(Runnable.class));
+            return null;
+        }).when(persistenceManager).initialize(any(), anyString(), eq(PersistenceManager.Source.PRIVATE_LOW_PRIO));
+        return persistenceManager;
+    }
+
+    private static MailboxItem item(String uid, boolean isMine) {
+        MailboxStoragePayload payload = mock(MailboxStoragePayload.class);
+        when(payload.toProtoMessage()).thenReturn(protobuf.StoragePayload.newBuilder()
+                .setMailboxStoragePayload(protobuf.MailboxStoragePayload.newBuilder()
+                        .setOwnerPubKeyBytes(ByteString.copyFromUtf8(uid)))
+                .build());
+        ProtectedMailboxStorageEntry entry = mock(ProtectedMailboxStorageEntry.class);
+        when(entry.getProtectedStoragePayload()).thenReturn(payload);
+        MailboxItem mailboxItem = mock(MailboxItem.class);
+        when(mailboxItem.getUid()).thenReturn(uid);
+        when(mailboxItem.isMine()).thenReturn(isMine);
+        when(mailboxItem.getProtectedMailboxStorageEntry()).thenReturn(entry);
+        return mailboxItem;
+    }
+}